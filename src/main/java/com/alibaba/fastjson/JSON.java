@@ -20,11 +20,17 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.zip.GZIPInputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
 
 import com.alibaba.fastjson.annotation.JSONType;
 import com.alibaba.fastjson.parser.*;
@@ -33,7 +39,11 @@ import com.alibaba.fastjson.parser.deserializer.ExtraTypeProvider;
 import com.alibaba.fastjson.parser.deserializer.FieldTypeResolver;
 import com.alibaba.fastjson.parser.deserializer.ParseProcess;
 import com.alibaba.fastjson.serializer.*;
+import com.alibaba.fastjson.spi.Metrics;
+import com.alibaba.fastjson.util.BufferPool;
+import com.alibaba.fastjson.util.Compression;
 import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.MappedFileReader;
 import com.alibaba.fastjson.util.TypeUtils;
 
 /**
@@ -181,6 +191,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             return null;
         }
 
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
         DefaultJSONParser parser = new DefaultJSONParser(text, config, features);
         Object value = parser.parse();
 
@@ -188,6 +201,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
         parser.close();
 
+        if (metrics != null) {
+            metrics.parse(Object.class, text.length(), features, System.nanoTime() - start);
+        }
         return value;
     }
 
@@ -196,12 +212,19 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     }
 
     public static Object parse(byte[] input, Feature... features) {
-        char[] chars = allocateChars(input.length);
-        int len = IOUtils.decodeUTF8(input, 0, input.length, chars);
-        if (len < 0) {
-            return null;
+        BufferPool pool = BufferPool.getGlobal();
+        char[] chars = pool.leaseChars(input.length);
+        String text;
+        try {
+            int len = IOUtils.decodeUTF8(input, 0, input.length, chars);
+            if (len < 0) {
+                return null;
+            }
+            text = new String(chars, 0, len);
+        } finally {
+            pool.releaseChars(chars);
         }
-        return parse(new String(chars, 0, len), features);
+        return parse(text, features);
     }
 
     public static Object parse(byte[] input, int off, int len, CharsetDecoder charsetDecoder, Feature... features) {
@@ -221,22 +244,27 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         charsetDecoder.reset();
 
         int scaleLength = (int) (len * (double) charsetDecoder.maxCharsPerByte());
-        char[] chars = allocateChars(scaleLength);
+        BufferPool pool = BufferPool.getGlobal();
+        char[] chars = pool.leaseChars(scaleLength);
 
-        ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
-        CharBuffer charBuf = CharBuffer.wrap(chars);
-        IOUtils.decode(charsetDecoder, byteBuf, charBuf);
+        try {
+            ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
+            CharBuffer charBuf = CharBuffer.wrap(chars);
+            IOUtils.decode(charsetDecoder, byteBuf, charBuf);
 
-        int position = charBuf.position();
+            int position = charBuf.position();
 
-        DefaultJSONParser parser = new DefaultJSONParser(chars, position, ParserConfig.getGlobalInstance(), features);
-        Object value = parser.parse();
+            DefaultJSONParser parser = new DefaultJSONParser(chars, position, ParserConfig.getGlobalInstance(), features);
+            Object value = parser.parse();
 
-        parser.handleResovleTask(value);
+            parser.handleResovleTask(value);
 
-        parser.close();
+            parser.close();
 
-        return value;
+            return value;
+        } finally {
+            pool.releaseChars(chars);
+        }
     }
 
     public static Object parse(String text, Feature... features) {
@@ -344,13 +372,20 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             featureValues = Feature.config(featureValues, feature, true);
         }
 
-        DefaultJSONParser parser = new DefaultJSONParser(input, ParserConfig.getGlobalInstance(), featureValues);
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
+        DefaultJSONParser parser = new DefaultJSONParser(input, config, featureValues);
         T value = (T) parser.parseObject(clazz);
 
         parser.handleResovleTask(value);
 
         parser.close();
 
+        if (metrics != null) {
+            metrics.parse(clazz, input.length(), featureValues, System.nanoTime() - start);
+        }
         return (T) value;
     }
     
@@ -377,6 +412,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             featureValues = applyFeatureMasks(featureValues, features);
         }
 
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
         DefaultJSONParser parser = new DefaultJSONParser(input, config, featureValues);
 
         if (processor != null) {
@@ -389,9 +427,36 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
         parser.close();
 
+        if (metrics != null) {
+            metrics.parse(clazz, input.length(), featureValues, System.nanoTime() - start);
+        }
         return (T) value;
     }
 
+    /**
+     * bind only the fields selected by projection, the values of the other fields are skipped without being built
+     *
+     * @since 1.2.84
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T parseObject(String input, Type clazz, Projection projection, Feature... features) {
+        if (input == null || input.length() == 0) {
+            return null;
+        }
+
+        int featureValues = applyFeatureMasks(DEFAULT_PARSER_FEATURE, features);
+        DefaultJSONParser parser = new DefaultJSONParser(input, ParserConfig.global, featureValues);
+        parser.setProjection(projection);
+
+        T value = (T) parser.parseObject(clazz, null);
+
+        parser.handleResovleTask(value);
+
+        parser.close();
+
+        return value;
+    }
+
     private static <T> void configureProcessor(ParseProcess processor, DefaultJSONParser parser) {
         if (processor instanceof ExtraTypeProvider) {
             parser.getExtraTypeProviders().add((ExtraTypeProvider) processor);
@@ -413,6 +478,46 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return featureValues;
     }
 
+    /**
+     * @return JSONObject, JSONArray or a value of JSONB written by toJSONB
+     * @since 1.2.84
+     */
+    public static Object parseJSONB(byte[] bytes, Feature... features) {
+        return parseJSONB(bytes, 0, bytes.length, null, ParserConfig.global, features);
+    }
+
+    /**
+     * the value is read by the deserializer of type, the same as parseObject reads text
+     *
+     * @since 1.2.84
+     */
+    public static <T> T parseJSONB(byte[] bytes, Type type, Feature... features) {
+        return parseJSONB(bytes, 0, bytes.length, type, ParserConfig.global, features);
+    }
+
+    /**
+     * @param type null to read JSONObject and JSONArray
+     * @since 1.2.84
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T parseJSONB(byte[] bytes, int offset, int len, Type type, ParserConfig config,
+                                   Feature... features) {
+        if (bytes == null || len == 0) {
+            return null;
+        }
+
+        JSONBReader lexer = new JSONBReader(bytes, offset, len, config,
+                                            applyFeatureMasks(DEFAULT_PARSER_FEATURE, features));
+        DefaultJSONParser parser = new DefaultJSONParser(lexer, config);
+        Object value = type == null ? parser.parse() : parser.parseObject(type, null);
+        parser.handleResovleTask(value);
+        if (lexer.token() != JSONToken.EOF || !lexer.isEOF()) {
+            throw new JSONException("illegal jsonb, bytes after the value");
+        }
+        parser.close();
+        return (T) value;
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T parseObject(byte[] bytes, Type clazz, Feature... features) {
         return (T) parseObject(bytes, 0, bytes.length, IOUtils.UTF8, clazz, features);
@@ -457,28 +562,28 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
         String strVal = null;
         if (charset == IOUtils.UTF8) {
-            char[] chars = allocateChars(bytes.length);
+            BufferPool pool = BufferPool.getGlobal();
+            char[] chars = pool.leaseChars(bytes.length);
             int chars_len = IOUtils.decodeUTF8(bytes, offset, len, chars);
+            if (chars_len >= 0) {
+                strVal = new String(chars, 0, chars_len);
+            }
+            pool.releaseChars(chars);
 
             if (chars_len < 0) {
-                InputStreamReader gzipReader = null;
-                try {
-                    gzipReader = new InputStreamReader(
-                            new GZIPInputStream(
-                                    new ByteArrayInputStream(bytes, offset, len)), "UTF-8");
-                    strVal = IOUtils.readAll(gzipReader);
-                } catch (Exception ex) {
+                // not UTF-8, maybe gzip compressed text
+                if (len < 2 || bytes[offset] != 0x1f || bytes[offset + 1] != (byte) 0x8b) {
                     return null;
-                } finally {
-                    IOUtils.close(gzipReader);
                 }
-            }
-            if (strVal == null && chars_len < 0) {
-                return null;
-            }
-
-            if (strVal == null) {
-                strVal = new String(chars, 0, chars_len);
+                try {
+                    return (T) parseObject(bytes, offset, len, Compression.GZIP, clazz, config, processor,
+                                           featureValues, features);
+                } catch (JSONException ex) {
+                    if (ex.getCause() instanceof IOException) {
+                        return null;
+                    }
+                    throw ex;
+                }
             }
         } else {
             if (len < 0) {
@@ -489,6 +594,71 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return (T) parseObject(strVal, clazz, config, processor, featureValues, features);
     }
 
+    /**
+     * parse text compressed by toJSONBytes or writeJSONString with the same compression
+     *
+     * @since 1.2.84
+     */
+    public static <T> T parseObject(byte[] bytes, Compression compression, Type clazz, Feature... features) {
+        return parseObject(bytes, 0, bytes.length, compression, clazz, ParserConfig.global, null,
+                           DEFAULT_PARSER_FEATURE, features);
+    }
+
+    /**
+     * the compressed bytes are decompressed in chunks into the refill buffer of the lexer, the whole text is never
+     * held in memory
+     *
+     * @since 1.2.84
+     */
+    public static <T> T parseObject(byte[] bytes, int offset, int len,
+                                    Compression compression,
+                                    Type clazz,
+                                    ParserConfig config,
+                                    ParseProcess processor,
+                                    int featureValues,
+                                    Feature... features) {
+        if (bytes == null || len == 0) {
+            return null;
+        }
+        return parseObject(compression.reader(bytes, offset, len), clazz, config, processor, featureValues, features);
+    }
+
+    /**
+     * parse compressed text from is, which is closed afterwards
+     *
+     * @since 1.2.84
+     */
+    public static <T> T parseObject(InputStream is, Compression compression, Type clazz, Feature... features) {
+        return parseObject(compression.reader(is), clazz, ParserConfig.global, null, DEFAULT_PARSER_FEATURE,
+                           features);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T parseObject(Reader reader, Type clazz, ParserConfig config, ParseProcess processor,
+                                     int featureValues, Feature... features) {
+        if (features != null) {
+            featureValues = applyFeatureMasks(featureValues, features);
+        }
+
+        try {
+            DefaultJSONParser parser = new DefaultJSONParser(new JSONReaderScanner(reader, featureValues), config);
+
+            if (processor != null) {
+                configureProcessor(processor, parser);
+            }
+
+            T value = (T) parser.parseObject(clazz, null);
+
+            parser.handleResovleTask(value);
+
+            parser.close();
+
+            return value;
+        } finally {
+            IOUtils.close(reader);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T parseObject(byte[] input, //
                                     int off, //
@@ -499,15 +669,19 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         charsetDecoder.reset();
 
         int scaleLength = (int) (len * (double) charsetDecoder.maxCharsPerByte());
-        char[] chars = allocateChars(scaleLength);
-
-        ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
-        CharBuffer charByte = CharBuffer.wrap(chars);
-        IOUtils.decode(charsetDecoder, byteBuf, charByte);
+        BufferPool pool = BufferPool.getGlobal();
+        char[] chars = pool.leaseChars(scaleLength);
+        try {
+            ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
+            CharBuffer charByte = CharBuffer.wrap(chars);
+            IOUtils.decode(charsetDecoder, byteBuf, charByte);
 
-        int position = charByte.position();
+            int position = charByte.position();
 
-        return (T) parseObject(chars, position, clazz, features);
+            return (T) parseObject(chars, position, clazz, features);
+        } finally {
+            pool.releaseChars(chars);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -579,28 +753,81 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             charset = IOUtils.UTF8;
         }
 
-        byte[] bytes = allocateBytes(1024 * 64);
-        int offset = 0;
-        for (;;) {
-            int readCount = is.read(bytes, offset, bytes.length - offset);
-            if (readCount == -1) {
-                break;
-            }
-            offset += readCount;
-            if (offset == bytes.length) {
-                byte[] newBytes = new byte[bytes.length * 3 / 2];
-                System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
-                bytes = newBytes;
+        BufferPool pool = BufferPool.getGlobal();
+        byte[] bytes = pool.leaseBytes(1024 * 64);
+        try {
+            int offset = 0;
+            for (;;) {
+                int readCount = is.read(bytes, offset, bytes.length - offset);
+                if (readCount == -1) {
+                    break;
+                }
+                offset += readCount;
+                if (offset == bytes.length) {
+                    byte[] newBytes = pool.leaseBytes(bytes.length * 3 / 2);
+                    System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
+                    pool.releaseBytes(bytes);
+                    bytes = newBytes;
+                }
             }
-        }
 
-        return (T) parseObject(bytes, 0, offset, charset, type, config, processor, featureValues, features);
+            return (T) parseObject(bytes, 0, offset, charset, type, config, processor, featureValues, features);
+        } finally {
+            pool.releaseBytes(bytes);
+        }
     }
 
     public static <T> T parseObject(String text, Class<T> clazz) {
         return parseObject(text, clazz, new Feature[0]);
     }
 
+    /**
+     * parse a utf-8 json file through a memory mapped window, the file content is never copied on heap
+     *
+     * @since 1.2.84
+     */
+    public static <T> T parseObject(Path path, Type type, Feature... features) throws IOException {
+        return parseObject(new MappedFileReader(path), type, features);
+    }
+
+    /**
+     * parse utf-8 json from the current position of channel through a memory mapped window,
+     * channel is not closed
+     *
+     * @since 1.2.84
+     */
+    public static <T> T parseObject(FileChannel channel, Type type, Feature... features) throws IOException {
+        return parseObject(new MappedFileReader(channel), type, features);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T parseObject(MappedFileReader reader, Type type, Feature... features) {
+        int featureValues = DEFAULT_PARSER_FEATURE;
+        for (Feature feature : features) {
+            featureValues |= feature.mask;
+        }
+
+        DefaultJSONParser parser = new DefaultJSONParser(new JSONReaderScanner(reader, featureValues), ParserConfig.global);
+        try {
+            T value = (T) parser.parseObject(type);
+            parser.handleResovleTask(value);
+            parser.close();
+            return value;
+        } catch (RuntimeException ex) {
+            IOUtils.close(reader);
+            throw ex;
+        }
+    }
+
+    /**
+     * read newline delimited json, one value of type T per line, the returned reader must be closed
+     *
+     * @since 1.2.84
+     */
+    public static <T> JSONLinesReader<T> parseLines(InputStream is, Type type, Feature... features) {
+        return new JSONLinesReader<T>(new InputStreamReader(is, IOUtils.UTF8), type, features);
+    }
+
     public static JSONArray parseArray(String text) {
         return parseArray(text, ParserConfig.global);
     }
@@ -663,6 +890,171 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return list;
     }
 
+    /**
+     * deserialize the items of a large array in parallel on {@link ForkJoinPool#commonPool()}
+     * @since 1.2.84
+     */
+    public static <T> List<T> parseArray(String text, Class<T> clazz, int parallelism) {
+        return parseArray(text, clazz, ParserConfig.global, ForkJoinPool.commonPool(), parallelism);
+    }
+
+    /**
+     * @since 1.2.84
+     */
+    public static <T> List<T> parseArray(String text, Class<T> clazz, ParserConfig config, Executor executor) {
+        return parseArray(text, clazz, config, executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * deserialize the items of a large array in parallel. The array is split into chunks of whole items
+     * by skipping over them, every chunk is deserialized on the executor and the results are returned in order.
+     * Small inputs and inputs using $ref are parsed on the calling thread.
+     *
+     * @since 1.2.84
+     */
+    public static <T> List<T> parseArray(String text, Class<T> clazz, ParserConfig config, Executor executor, int parallelism) {
+        if (text == null) {
+            return null;
+        }
+
+        if (parallelism <= 1
+                || text.length() < PARALLEL_CHUNK_MIN_SIZE * 2
+                || text.indexOf("$ref") != -1) {
+            return parseArray(text, clazz, config);
+        }
+
+        int[] ranges;
+        JSONScanner lexer = new JSONScanner(text, DEFAULT_PARSER_FEATURE);
+        try {
+            lexer.nextToken();
+            if (lexer.token() != JSONToken.LBRACKET) {
+                return parseArray(text, clazz, config);
+            }
+
+            int chunkSize = Math.max(text.length() / (parallelism * 4), PARALLEL_CHUNK_MIN_SIZE);
+            ranges = lexer.splitArray(chunkSize);
+            if (lexer.token() != JSONToken.EOF) {
+                throw new JSONException("not close json text, token : " + JSONToken.name(lexer.token()));
+            }
+        } finally {
+            lexer.close();
+        }
+
+        if (ranges.length <= 2) {
+            return parseArray(text, clazz, config);
+        }
+
+        return parseArrayChunks(text, ranges, clazz, config, executor);
+    }
+
+    /**
+     * deserialize the items of the top level array of a prebuilt structural index in parallel,
+     * the chunks are split on the index without rescanning the text.
+     *
+     * @since 1.2.84
+     */
+    public static <T> List<T> parseArray(JSONStructuralIndex index, Class<T> clazz, ParserConfig config, Executor executor, int parallelism) {
+        String text = index.getText();
+        if (index.size() == 0) {
+            // blank text, null as from parseArray(String, Class)
+            return null;
+        }
+
+        if (parallelism <= 1
+                || index.charAt(0) != '['
+                || text.length() < PARALLEL_CHUNK_MIN_SIZE * 2
+                || text.indexOf("$ref") != -1) {
+            return parseArray(text, clazz, config);
+        }
+
+        int chunkSize = Math.max(text.length() / (parallelism * 4), PARALLEL_CHUNK_MIN_SIZE);
+        int[] ranges = index.splitArray(0, chunkSize);
+        if (ranges.length <= 2 || index.skip(0) != index.size()) {
+            return parseArray(text, clazz, config);
+        }
+
+        return parseArrayChunks(text, ranges, clazz, config, executor);
+    }
+
+    private static <T> List<T> parseArrayChunks(String text, int[] ranges, Class<T> clazz, ParserConfig config, Executor executor) {
+        config.getDeserializer(clazz);
+
+        List<FutureTask<List<T>>> tasks = new ArrayList<FutureTask<List<T>>>(ranges.length / 2);
+        for (int i = 0; i < ranges.length; i += 2) {
+            FutureTask<List<T>> task = new FutureTask<List<T>>(
+                    new ParseArrayChunkTask<T>(text, ranges[i], ranges[i + 1], clazz, config));
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        List<T> list = null;
+        for (FutureTask<List<T>> task : tasks) {
+            List<T> items;
+            try {
+                items = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JSONException("parseArray interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new JSONException("parseArray error", cause);
+            }
+
+            if (list == null) {
+                list = new ArrayList<T>(items.size() * tasks.size());
+            }
+            list.addAll(items);
+        }
+
+        return list;
+    }
+
+    static final int PARALLEL_CHUNK_MIN_SIZE = 1024 * 16;
+
+    static class ParseArrayChunkTask<T> implements Callable<List<T>> {
+        private final String         text;
+        private final int            begin;
+        private final int            end;
+        private final Class<T>       clazz;
+        private final ParserConfig   config;
+
+        ParseArrayChunkTask(String text, int begin, int end, Class<T> clazz, ParserConfig config) {
+            this.text = text;
+            this.begin = begin;
+            this.end = end;
+            this.clazz = clazz;
+            this.config = config;
+        }
+
+        /**
+         * the items in text[begin, end) are parsed in place, a chunk of a huge text is never copied
+         */
+        public List<T> call() {
+            JSONScanner lexer = new JSONScanner(text, begin, end - begin, DEFAULT_PARSER_FEATURE);
+            DefaultJSONParser parser = new DefaultJSONParser(text, lexer, config);
+            List<T> list = new ArrayList<T>();
+            for (;;) {
+                list.add(parser.<T>parseObject(clazz, list.size()));
+
+                int token = lexer.token();
+                if (token == JSONToken.EOF) {
+                    break;
+                }
+                if (token != JSONToken.COMMA) {
+                    throw new JSONException("syntax error, expect ',', actual " + JSONToken.name(token) + ", " + lexer.info());
+                }
+                do {
+                    lexer.nextToken();
+                } while (lexer.token() == JSONToken.COMMA);
+            }
+            parser.close();
+            return list;
+        }
+    }
+
     public static List<Object> parseArray(String text, Type[] types) {
         return parseArray(text, types, ParserConfig.global);
     }
@@ -719,9 +1111,18 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     }
 
     private static String serializeObjectToString(Object object, SerializeWriter out) {
-        JSONSerializer serializer = new JSONSerializer(out);
+        SerializeConfig config = SerializeConfig.globalInstance;
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
+        JSONSerializer serializer = new JSONSerializer(out, config);
         serializer.write(object);
+        serializer.releaseReferences();
         String outString = out.toString();
+        if (metrics != null) {
+            metrics.serialize(object == null ? null : object.getClass(), outString.length(), out.getFeatures(),
+                              System.nanoTime() - start);
+        }
         int len = outString.length();
         if (len > 0
                 && outString.charAt(len - 1) == '.'
@@ -752,6 +1153,45 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return toJSONBytes(object, DEFAULT_GENERATE_FEATURE, features);
     }
 
+    /**
+     * @return the json text as UTF-8 compressed with compression, read by parseObject with the same compression
+     * @since 1.2.84
+     */
+    public static byte[] toJSONBytes(Object object, Compression compression, SerializerFeature... features) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeJSONString(out, compression, object, features);
+        } catch (IOException e) {
+            throw new JSONException("compress error", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the object in JSONB, a binary encoding of the json data model, read by parseJSONB. The object is
+     * written by the serializers of the SerializeConfig as toJSONString writes it, references included, numbers
+     * keep the type they are written with
+     * @since 1.2.84
+     */
+    public static byte[] toJSONB(Object object, SerializerFeature... features) {
+        return toJSONB(object, SerializeConfig.globalInstance, features);
+    }
+
+    /**
+     * @since 1.2.84
+     */
+    public static byte[] toJSONB(Object object, SerializeConfig config, SerializerFeature... features) {
+        JSONBWriter out = new JSONBWriter(DEFAULT_GENERATE_FEATURE, features);
+        try {
+            JSONSerializer serializer = new JSONSerializer(out, config);
+            serializer.write(object);
+            serializer.releaseReferences();
+            return out.toByteArray();
+        } finally {
+            out.close();
+        }
+    }
+
     public static byte[] toJSONBytes(Object object, SerializeFilter filter, SerializerFeature... features) {
         return toJSONBytes(object, SerializeConfig.globalInstance, new SerializeFilter[]{filter}, DEFAULT_GENERATE_FEATURE, features);
     }
@@ -802,6 +1242,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
     private static String serializeObject(Object object, SerializeConfig config, SerializeFilter[] filters, String dateFormat,
             SerializeWriter out) {
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
         JSONSerializer serializer = new JSONSerializer(out, config);
         
         if (dateFormat != null && dateFormat.length() != 0) {
@@ -814,8 +1257,14 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         }
 
         serializer.write(object);
+        serializer.releaseReferences();
 
-        return out.toString();
+        String text = out.toString();
+        if (metrics != null) {
+            metrics.serialize(object == null ? null : object.getClass(), text.length(), out.getFeatures(),
+                              System.nanoTime() - start);
+        }
+        return text;
     }
 
     private static void addSerializeFilters(SerializeFilter[] filters, JSONSerializer serializer) {
@@ -891,6 +1340,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
     private static byte[] serializeObjectToBytes(Charset charset, Object object, SerializeConfig config, SerializeFilter[] filters,
             String dateFormat, SerializeWriter out) {
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
         JSONSerializer serializer = new JSONSerializer(out, config);
 
         if (dateFormat != null && dateFormat.length() != 0) {
@@ -902,7 +1354,13 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             addSerializeFilters(filters, serializer);}
 
         serializer.write(object);
-        return out.toBytes(charset);
+        serializer.releaseReferences();
+        byte[] bytes = out.toBytes(charset);
+        if (metrics != null) {
+            metrics.serialize(object == null ? null : object.getClass(), bytes.length, out.getFeatures(),
+                              System.nanoTime() - start);
+        }
+        return bytes;
     }
 
     /**
@@ -929,17 +1387,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
     private static byte[] serializeObjectToBytes_(Charset charset, Object object, SerializeConfig config, SerializeFilter[] filters,
             String dateFormat, SerializeWriter out) {
-        JSONSerializer serializer = new JSONSerializer(out, config);
-
-        if (dateFormat != null && dateFormat.length() != 0) {
-            serializer.setFastJsonConfigDateFormatPattern(dateFormat);
-            serializer.config(SerializerFeature.WriteDateUseDateFormat, true);
-        }
-
-        if (filters != null) {
-            addSerializeFilters(filters, serializer);}
-
-        serializer.write(object);
+        writeJSONStringWithFastJsonConfig(out, object, config, filters, dateFormat);
         return out.toBytes(charset);
     }
 
@@ -979,6 +1427,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         try {
             JSONSerializer serializer = new JSONSerializer(out);
             serializer.write(object);
+            serializer.releaseReferences();
         } finally {
             out.close();
         }
@@ -1015,6 +1464,44 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
                               features);
     }
     
+    /**
+     * write object as json compressed with compression, the UTF-8 bytes are compressed chunk by chunk as they are
+     * encoded from the serializer buffer
+     *
+     * @return number of compressed bytes written
+     * @since 1.2.84
+     */
+    public static int writeJSONString(OutputStream os, //
+                                      Compression compression, //
+                                      Object object, //
+                                      SerializerFeature... features) throws IOException {
+        SerializeWriter writer = new SerializeWriter(null, DEFAULT_GENERATE_FEATURE, features);
+
+        try {
+            JSONSerializer serializer = new JSONSerializer(writer, SerializeConfig.globalInstance);
+            serializer.write(object);
+            serializer.releaseReferences();
+            return writer.writeToEx(os, compression);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * write each object as one line of json
+     *
+     * @return number of lines written
+     * @since 1.2.84
+     */
+    public static int writeLines(OutputStream os, Iterator<?> it, SerializerFeature... features) throws IOException {
+        JSONLinesWriter writer = new JSONLinesWriter(os, features);
+        try {
+            return writer.writeAll(it);
+        } finally {
+            writer.close();
+        }
+    }
+
     public static final int writeJSONString(OutputStream os, // 
                                              Charset charset, // 
                                              Object object, // 
@@ -1048,6 +1535,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
     private static int serializeObjectToJSON(OutputStream os, Charset charset, Object object, SerializeConfig config,
             SerializeFilter[] filters, String dateFormat, SerializeWriter writer) throws IOException {
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
         JSONSerializer serializer = new JSONSerializer(writer, config);
         
         if (dateFormat != null && dateFormat.length() != 0) {
@@ -1059,8 +1549,14 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             addSerializeFilters(filters, serializer);}
         
         serializer.write(object);
+        serializer.releaseReferences();
         
-        return writer.writeToEx(os, charset);
+        int length = writer.writeToEx(os, charset);
+        if (metrics != null) {
+            metrics.serialize(object == null ? null : object.getClass(), length, writer.getFeatures(),
+                              System.nanoTime() - start);
+        }
+        return length;
     }
 
     public static final int writeJSONStringWithFastJsonConfig(OutputStream os, //
@@ -1082,6 +1578,25 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
     private static int serializeObjectToJson(OutputStream os, Charset charset, Object object, SerializeConfig config,
             SerializeFilter[] filters, String dateFormat, SerializeWriter writer) throws IOException {
+        writeJSONStringWithFastJsonConfig(writer, object, config, filters, dateFormat);
+
+        return writer.writeToEx(os, charset);
+    }
+
+    /**
+     * serialize with the settings of a FastJsonConfig into writer, which is neither flushed nor closed. With a
+     * SerializeWriter over a Writer the text goes out each time the buffer is full.
+     *
+     * @since 1.2.84
+     */
+    public static void writeJSONStringWithFastJsonConfig(SerializeWriter writer, //
+                                                         Object object, //
+                                                         SerializeConfig config, //
+                                                         SerializeFilter[] filters, //
+                                                         String dateFormat) {
+        Metrics metrics = config.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+
         JSONSerializer serializer = new JSONSerializer(writer, config);
 
         if (dateFormat != null && dateFormat.length() != 0) {
@@ -1093,8 +1608,13 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             addSerializeFilters(filters, serializer);}
 
         serializer.write(object);
+        serializer.releaseReferences();
 
-        return writer.writeToEx(os, charset);
+        if (metrics != null) {
+            // the writer may have streamed part of the text already
+            metrics.serialize(object == null ? null : object.getClass(), -1, writer.getFeatures(),
+                              System.nanoTime() - start);
+        }
     }
 
     // ======================================
@@ -1106,7 +1626,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     public String toJSONString() {
         SerializeWriter out = new SerializeWriter();
         try {
-            new JSONSerializer(out).write(this);
+            JSONSerializer serializer = new JSONSerializer(out);
+            serializer.write(this);
+            serializer.releaseReferences();
             return out.toString();
         } finally {
             out.close();
@@ -1120,7 +1642,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         SerializeWriter out = new SerializeWriter(null, JSON.DEFAULT_GENERATE_FEATURE, features);
 
         try {
-            new JSONSerializer(out).write(this);
+            JSONSerializer serializer = new JSONSerializer(out);
+            serializer.write(this);
+            serializer.releaseReferences();
             return out.toString();
         } finally {
             out.close();
@@ -1130,7 +1654,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     public void writeJSONString(Appendable appendable) {
         SerializeWriter out = new SerializeWriter();
         try {
-            new JSONSerializer(out).write(this);
+            JSONSerializer serializer = new JSONSerializer(out);
+            serializer.write(this);
+            serializer.releaseReferences();
             appendable.append(out.toString());
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
@@ -1324,54 +1850,6 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return TypeUtils.cast(this, type, ParserConfig.getGlobalInstance());
     }
     
-    private final static ThreadLocal<byte[]> bytesLocal = new ThreadLocal<byte[]>();
-    private static byte[] allocateBytes(int length) {
-        byte[] chars = bytesLocal.get();
-
-        if (chars == null) {
-            chars = allocateByteArray(length);
-        } else if (chars.length < length) {
-            chars = new byte[length];
-        }
-
-        return chars;
-    }
-
-    private static byte[] allocateByteArray(int length) {
-        byte[] chars;
-        if (length <= 1024 * 64) {
-            chars = new byte[1024 * 64];
-            bytesLocal.set(chars);
-        } else {
-            chars = new byte[length];
-        }
-        return chars;
-    }
-
-    private final static ThreadLocal<char[]> charsLocal = new ThreadLocal<char[]>();
-    private static char[] allocateChars(int length) {
-        char[] chars = charsLocal.get();
-
-        if (chars == null) {
-            chars = allocateCharArray(length);
-        } else if (chars.length < length) {
-            chars = new char[length];
-        }
-
-        return chars;
-    }
-
-    private static char[] allocateCharArray(int length) {
-        char[] chars;
-        if (length <= 1024 * 64) {
-            chars = new char[1024 * 64];
-            charsLocal.set(chars);
-        } else {
-            chars = new char[length];
-        }
-        return chars;
-    }
-
     /**
      * @deprecated Please use {@link com.alibaba.fastjson.JSONValidator} instead.
      */
@@ -38,6 +38,7 @@ import java.math.BigInteger;
 import java.util.*;
 
 import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.PrimitiveList;
 import com.alibaba.fastjson.util.TypeUtils;
 
 /**
@@ -65,6 +66,13 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, RandomAc
         this.list = new ArrayList<Object>(initialCapacity);
     }
 
+    /**
+     * @since 1.2.84
+     */
+    public List<Object> getInnerList() {
+        return list;
+    }
+
     /**
      * @since 1.1.16
      * @return
@@ -346,6 +354,10 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, RandomAc
     }
 
     public int getIntValue(int index) {
+        if (list instanceof PrimitiveList) {
+            return ((PrimitiveList) list).getInt(index);
+        }
+
         Object value = get(index);
 
         Integer intVal = castToInt(value);
@@ -363,6 +375,10 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, RandomAc
     }
 
     public long getLongValue(int index) {
+        if (list instanceof PrimitiveList) {
+            return ((PrimitiveList) list).getLong(index);
+        }
+
         Object value = get(index);
 
         Long longVal = castToLong(value);
@@ -397,6 +413,10 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, RandomAc
     }
 
     public double getDoubleValue(int index) {
+        if (list instanceof PrimitiveList) {
+            return ((PrimitiveList) list).getDouble(index);
+        }
+
         Object value = get(index);
 
         Double doubleValue = castToDouble(value);
@@ -461,6 +481,9 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, RandomAc
 
     @Override
     public Object clone() {
+        if (list instanceof PrimitiveList) {
+            return new JSONArray(((PrimitiveList) list).clone());
+        }
         return new JSONArray(new ArrayList<Object>(list));
     }
 
@@ -0,0 +1,315 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * Non-blocking push parser for utf-8 input that arrives in chunks, for example the ByteBuffers of a netty request body.
+ * Each fed chunk is scanned once for value boundaries and never blocks; completed top level values are deserialized
+ * with the {@link ParserConfig} deserializers and queued for {@link #next()}.
+ *
+ * <pre>
+ * JSONAsyncParser&lt;Model&gt; parser = new JSONAsyncParser&lt;Model&gt;(Model.class);
+ * for (ByteBuffer chunk : chunks) {
+ *     parser.feed(chunk);
+ *     while (parser.hasNext()) {
+ *         Model model = parser.next();
+ *     }
+ * }
+ * parser.end();
+ * </pre>
+ *
+ * A value that lies inside one heap buffer is decoded straight from that buffer, only the bytes of a value split
+ * across chunks are copied and kept until the value completes. The decoded chars are copied once more into the String
+ * the lexer scans. Any number of top level values separated by whitespace or ',' may be fed.
+ * Not thread safe, feed one parser from one thread at a time.
+ *
+ * @since 1.2.84
+ */
+public class JSONAsyncParser<T> {
+
+    private final Type           type;
+    private final ParserConfig   config;
+    private final int            features;
+    private final CharsetDecoder decoder = IOUtils.UTF8.newDecoder();
+
+    // bytes of the current value received in earlier chunks
+    private byte[]               bytes;
+    private int                  count;
+    private char[]               chars;
+
+    private boolean              inValue;
+    private boolean              scalar;
+    private boolean              inString;
+    private boolean              escape;
+    private byte                 quote;
+    private int                  depth;
+
+    private final List<T>        values = new ArrayList<T>();
+    private int                  valueIndex;
+
+    public JSONAsyncParser(Type type) {
+        this(type, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public JSONAsyncParser(Type type, ParserConfig config, int featureValues, Feature... features) {
+        for (Feature feature : features) {
+            featureValues |= feature.mask;
+        }
+
+        this.type = type;
+        this.config = config;
+        this.features = featureValues;
+    }
+
+    /**
+     * scan all remaining bytes of chunk, the position of chunk is moved to its limit
+     *
+     * @return number of values completed by this chunk
+     * @throws JSONException for a malformed value, which is dropped. The position of chunk is left just past it, so
+     *             feeding chunk again goes on with the next value, the values completed before it stay queued
+     */
+    public int feed(ByteBuffer chunk) {
+        final int limit = chunk.limit();
+        int completed = 0;
+
+        // start in chunk of the bytes of the current value
+        int begin = chunk.position();
+
+        for (int i = begin; i < limit; ++i) {
+            byte b = chunk.get(i);
+
+            if (!inValue) {
+                if (isWhitespace(b) || b == ',') {
+                    // separators between top level values
+                    continue;
+                }
+                if (b == '}' || b == ']' || b == ':') {
+                    chunk.position(i + 1);
+                    throw new JSONException("syntax error, unexpected '" + (char) b + "'");
+                }
+                startValue(b);
+                begin = i;
+                continue;
+            }
+
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                } else if (b == '\\') {
+                    escape = true;
+                } else if (b == quote) {
+                    inString = false;
+                    if (depth == 0) {
+                        complete(chunk, begin, i + 1);
+                        completed++;
+                    }
+                }
+                continue;
+            }
+
+            if (scalar) {
+                if (isWhitespace(b) || isStructural(b)) {
+                    complete(chunk, begin, i);
+                    completed++;
+                    --i; // b starts the next value
+                }
+                continue;
+            }
+
+            switch (b) {
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (--depth == 0) {
+                        complete(chunk, begin, i + 1);
+                        completed++;
+                    }
+                    break;
+                case '"':
+                case '\'':
+                    inString = true;
+                    quote = b;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (inValue) {
+            append(chunk, begin, limit);
+        }
+        chunk.position(limit);
+
+        return completed;
+    }
+
+    /**
+     * signal the end of input, completes a pending top level number or literal
+     *
+     * @throws JSONException if the input ends inside a value
+     */
+    public void end() {
+        if (!inValue) {
+            return;
+        }
+
+        if (!scalar || inString) {
+            throw new JSONException("unclosed json, " + count + " bytes pending");
+        }
+
+        try {
+            values.add(this.<T>parse(bytes, 0, count));
+        } finally {
+            reset();
+        }
+    }
+
+    public boolean hasNext() {
+        return valueIndex < values.size();
+    }
+
+    public T next() {
+        if (valueIndex >= values.size()) {
+            throw new NoSuchElementException();
+        }
+
+        T value = values.get(valueIndex);
+        values.set(valueIndex++, null);
+        if (valueIndex == values.size()) {
+            values.clear();
+            valueIndex = 0;
+        }
+        return value;
+    }
+
+    /**
+     * @return true if no value is partially received
+     */
+    public boolean isIdle() {
+        return !inValue;
+    }
+
+    private void startValue(byte b) {
+        inValue = true;
+        switch (b) {
+            case '{':
+            case '[':
+                depth = 1;
+                break;
+            case '"':
+            case '\'':
+                inString = true;
+                quote = b;
+                break;
+            default:
+                scalar = true;
+                break;
+        }
+    }
+
+    private void complete(ByteBuffer chunk, int begin, int end) {
+        try {
+            T value;
+            if (count == 0 && chunk.hasArray()) {
+                value = parse(chunk.array(), chunk.arrayOffset() + begin, end - begin);
+            } else {
+                append(chunk, begin, end);
+                value = parse(bytes, 0, count);
+            }
+            values.add(value);
+        } catch (RuntimeException ex) {
+            // skip the failed value, so feeding the chunk again does not queue the values before it twice
+            chunk.position(end);
+            throw ex;
+        } finally {
+            reset();
+        }
+    }
+
+    private void reset() {
+        inValue = false;
+        scalar = false;
+        inString = false;
+        escape = false;
+        depth = 0;
+        count = 0;
+    }
+
+    private void append(ByteBuffer chunk, int begin, int end) {
+        int len = end - begin;
+        if (bytes == null) {
+            bytes = new byte[Math.max(len, 1024)];
+        } else if (count + len > bytes.length) {
+            byte[] newBytes = new byte[Math.max(count + len, bytes.length * 3 / 2)];
+            System.arraycopy(bytes, 0, newBytes, 0, count);
+            bytes = newBytes;
+        }
+
+        if (chunk.hasArray()) {
+            System.arraycopy(chunk.array(), chunk.arrayOffset() + begin, bytes, count, len);
+        } else {
+            ByteBuffer slice = chunk.duplicate();
+            slice.limit(end);
+            slice.position(begin);
+            slice.get(bytes, count, len);
+        }
+        count += len;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V parse(byte[] bytes, int offset, int len) {
+        if (chars == null || chars.length < len) {
+            chars = new char[Math.max(len, 1024)];
+        }
+
+        CharBuffer charBuf = CharBuffer.wrap(chars);
+        decoder.reset();
+        if (decoder.decode(ByteBuffer.wrap(bytes, offset, len), charBuf, true).isError()
+                || decoder.flush(charBuf).isError()) {
+            throw new JSONException("illegal utf-8 input, " + len + " bytes");
+        }
+
+        DefaultJSONParser parser = new DefaultJSONParser(chars, charBuf.position(), config, features);
+        Object value = parser.parseObject(type);
+        parser.handleResovleTask(value);
+        parser.close();
+        return (V) value;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == '\b';
+    }
+
+    private static boolean isStructural(byte b) {
+        return b == '{' || b == '}' || b == '[' || b == ']' || b == ',' || b == ':' || b == '"' || b == '\'';
+    }
+}
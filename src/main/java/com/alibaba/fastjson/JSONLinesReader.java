@@ -0,0 +1,330 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * Reads newline delimited json (NDJSON / JSON Lines), one value of type T per record.
+ *
+ * <pre>
+ * JSONLinesReader&lt;Model&gt; reader = JSON.parseLines(in, Model.class);
+ * try {
+ *     while (reader.hasNext()) {
+ *         Model model = reader.next();
+ *     }
+ * } finally {
+ *     reader.close();
+ * }
+ * </pre>
+ *
+ * The sequential reader keeps one lexer and one read buffer for the whole input. The parallel reader cuts the
+ * input into blocks of whole lines and deserializes up to parallelism blocks at the same time, records are still
+ * returned in input order.
+ *
+ * @since 1.2.84
+ */
+public class JSONLinesReader<T> implements Iterator<T>, Closeable {
+
+    static final int                   BLOCK_SIZE = 1024 * 256;
+
+    private final Type                 type;
+    private final ParserConfig         config;
+    private final int                  features;
+
+    // sequential
+    private final DefaultJSONParser    parser;
+
+    // parallel
+    private final Reader               reader;
+    private final Executor             executor;
+    private final int                  parallelism;
+    private final ArrayDeque<FutureTask<List<T>>> pending;
+    private char[]                     block;
+    private int                        blockCount;
+    private boolean                    eof;
+    private List<T>                    records = Collections.emptyList();
+    private int                        recordIndex;
+
+    public JSONLinesReader(InputStream in, Type type) {
+        this(new InputStreamReader(in, IOUtils.UTF8), type, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public JSONLinesReader(Reader reader, Type type, Feature... features) {
+        this(reader, type, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE, features);
+    }
+
+    public JSONLinesReader(Reader reader, Type type, ParserConfig config, int featureValues, Feature... features) {
+        if (reader == null) {
+            throw new IllegalArgumentException("reader is null");
+        }
+
+        for (Feature feature : features) {
+            featureValues |= feature.mask;
+        }
+
+        this.type = type;
+        this.config = config;
+        this.features = featureValues;
+        this.parser = new DefaultJSONParser(new JSONReaderScanner(reader, featureValues), config);
+
+        this.reader = null;
+        this.executor = null;
+        this.parallelism = 0;
+        this.pending = null;
+    }
+
+    /**
+     * @param executor runs the deserialization of the blocks
+     * @param parallelism max number of blocks in flight
+     */
+    public JSONLinesReader(Reader reader, Type type, ParserConfig config, int features, Executor executor, int parallelism) {
+        if (reader == null) {
+            throw new IllegalArgumentException("reader is null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is null");
+        }
+
+        this.type = type;
+        this.config = config;
+        this.features = features;
+        this.parser = null;
+
+        this.reader = reader;
+        this.executor = executor;
+        this.parallelism = parallelism < 1 ? 1 : parallelism;
+        this.pending = new ArrayDeque<FutureTask<List<T>>>(this.parallelism);
+        this.block = new char[BLOCK_SIZE];
+
+        config.getDeserializer(type);
+    }
+
+    /**
+     * read the records in blocks on the common ForkJoinPool
+     */
+    public static <T> JSONLinesReader<T> parallel(InputStream in, Type type, int parallelism) {
+        return new JSONLinesReader<T>(new InputStreamReader(in, IOUtils.UTF8)
+                , type
+                , ParserConfig.global
+                , JSON.DEFAULT_PARSER_FEATURE
+                , ForkJoinPool.commonPool()
+                , parallelism);
+    }
+
+    public boolean hasNext() {
+        if (parser != null) {
+            return parser.lexer.token() != JSONToken.EOF;
+        }
+
+        while (recordIndex >= records.size()) {
+            if (!nextBlock()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        if (parser != null) {
+            return readRecord(parser, type);
+        }
+
+        return records.get(recordIndex++);
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return a sequential stream of the remaining records, closing the stream closes this reader
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(new Runnable() {
+                    public void run() {
+                        IOUtils.close(JSONLinesReader.this);
+                    }
+                });
+    }
+
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.lexer.close();
+            return;
+        }
+
+        for (FutureTask<List<T>> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+        block = null;
+        reader.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T readRecord(DefaultJSONParser parser, Type type) {
+        T value = (T) parser.parseObject(type);
+        parser.handleResovleTask(value);
+        parser.resetContext();
+        return value;
+    }
+
+    private boolean nextBlock() {
+        while (pending.size() < parallelism) {
+            String text = readBlock();
+            if (text == null) {
+                break;
+            }
+
+            FutureTask<List<T>> task = new FutureTask<List<T>>(new ParseBlockTask<T>(text, type, config, features));
+            pending.add(task);
+            executor.execute(task);
+        }
+
+        FutureTask<List<T>> task = pending.poll();
+        if (task == null) {
+            return false;
+        }
+
+        try {
+            records = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JSONException("parse lines interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new JSONException("parse lines error", cause);
+        }
+        recordIndex = 0;
+        return true;
+    }
+
+    /**
+     * @return whole lines of the input, null at the end of the input
+     */
+    private String readBlock() {
+        if (eof) {
+            return null;
+        }
+
+        for (;;) {
+            if (blockCount == block.length) {
+                char[] newBlock = new char[block.length * 2];
+                System.arraycopy(block, 0, newBlock, 0, blockCount);
+                block = newBlock;
+            }
+
+            int len;
+            try {
+                len = reader.read(block, blockCount, block.length - blockCount);
+            } catch (IOException e) {
+                throw new JSONException("read lines error", e);
+            }
+
+            if (len == -1) {
+                eof = true;
+                if (blockCount == 0) {
+                    return null;
+                }
+                String text = new String(block, 0, blockCount);
+                blockCount = 0;
+                return text;
+            }
+
+            blockCount += len;
+            if (blockCount < block.length) {
+                continue;
+            }
+
+            int lineEnd = blockCount - 1;
+            while (lineEnd >= 0 && block[lineEnd] != '\n') {
+                lineEnd--;
+            }
+            if (lineEnd == -1) {
+                continue;
+            }
+
+            String text = new String(block, 0, lineEnd + 1);
+            blockCount -= lineEnd + 1;
+            System.arraycopy(block, lineEnd + 1, block, 0, blockCount);
+            return text;
+        }
+    }
+
+    static class ParseBlockTask<T> implements Callable<List<T>> {
+        private final String       text;
+        private final Type         type;
+        private final ParserConfig config;
+        private final int          features;
+
+        ParseBlockTask(String text, Type type, ParserConfig config, int features) {
+            this.text = text;
+            this.type = type;
+            this.config = config;
+            this.features = features;
+        }
+
+        public List<T> call() {
+            List<T> records = new ArrayList<T>();
+            DefaultJSONParser parser = new DefaultJSONParser(text, config, features);
+            try {
+                while (parser.lexer.token() != JSONToken.EOF) {
+                    records.add(JSONLinesReader.<T>readRecord(parser, type));
+                }
+            } finally {
+                parser.lexer.close();
+            }
+            return records;
+        }
+    }
+}
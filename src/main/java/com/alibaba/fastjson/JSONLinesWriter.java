@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * Writes newline delimited json (NDJSON / JSON Lines), one value per line. All records share one
+ * {@link SerializeWriter} buffer, which is flushed to the underlying writer when it fills up.
+ * PrettyFormat is always disabled, a record never spans more than one line.
+ *
+ * @since 1.2.84
+ */
+public class JSONLinesWriter implements Closeable, Flushable {
+
+    private final SerializeWriter out;
+    private final SerializeConfig config;
+
+    public JSONLinesWriter(OutputStream os, SerializerFeature... features) {
+        this(new OutputStreamWriter(os, IOUtils.UTF8), features);
+    }
+
+    public JSONLinesWriter(Writer writer, SerializerFeature... features) {
+        this(writer, SerializeConfig.globalInstance, features);
+    }
+
+    public JSONLinesWriter(Writer writer, SerializeConfig config, SerializerFeature... features) {
+        this.out = new SerializeWriter(writer, JSON.DEFAULT_GENERATE_FEATURE, features);
+        this.out.config(SerializerFeature.PrettyFormat, false);
+        this.config = config;
+    }
+
+    public void config(SerializerFeature feature, boolean state) {
+        if (feature == SerializerFeature.PrettyFormat) {
+            return;
+        }
+        out.config(feature, state);
+    }
+
+    public void write(Object object) {
+        // references are tracked per record, a record never refers into an earlier line
+        JSONSerializer serializer = new JSONSerializer(out, config);
+        serializer.write(object);
+        serializer.releaseReferences();
+        out.write('\n');
+    }
+
+    /**
+     * @return number of records written
+     */
+    public int writeAll(Iterator<?> it) {
+        int count = 0;
+        while (it.hasNext()) {
+            write(it.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of records written
+     */
+    public int writeAll(Iterable<?> iterable) {
+        return writeAll(iterable.iterator());
+    }
+
+    /**
+     * @return number of records written
+     */
+    public int writeAll(Stream<?> stream) {
+        return writeAll(stream.iterator());
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        out.close();
+    }
+}
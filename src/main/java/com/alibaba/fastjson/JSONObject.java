@@ -41,6 +41,7 @@ import java.util.*;
 import com.alibaba.fastjson.annotation.JSONField;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.CompactMap;
 import com.alibaba.fastjson.util.TypeUtils;
 
 /**
@@ -403,7 +404,11 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public JSONObject clone() {
+        if (map instanceof CompactMap) {
+            return new JSONObject(((CompactMap<String, Object>) map).clone());
+        }
         return new JSONObject(map instanceof LinkedHashMap //
                 ? new LinkedHashMap<String, Object>(map) //
                 : new HashMap<String, Object>(map)
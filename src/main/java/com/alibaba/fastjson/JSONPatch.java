@@ -1,11 +1,289 @@
 package com.alibaba.fastjson;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import com.alibaba.fastjson.annotation.JSONField;
 import com.alibaba.fastjson.annotation.JSONType;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.parser.JSONScanner;
+import com.alibaba.fastjson.serializer.SerializerFeature;
 
 public class JSONPatch {
+
+    /**
+     * above this many cells of the LCS table, array elements are compared by position
+     */
+    private final static int  MAX_LCS_CELLS = 1024 * 1024;
+
+    private final Operation[] operations;
+    private final String[][]  paths;
+    private final String[][]  froms;
+
+    private JSONPatch(Operation[] operations) {
+        this.operations = operations;
+        this.paths = new String[operations.length][];
+        this.froms = new String[operations.length][];
+
+        for (int i = 0; i < operations.length; ++i) {
+            Operation op = operations[i];
+            if (op.type == null) {
+                throw new JSONException("json patch op is required");
+            }
+            paths[i] = parsePointer(op.path);
+            if (op.type == OperationType.move || op.type == OperationType.copy) {
+                froms[i] = parsePointer(op.from);
+            }
+        }
+    }
+
+    /**
+     * Parse an RFC 6902 patch once, the result is immutable and can be applied to any number of documents.
+     *
+     * @since 1.2.84
+     */
+    public static JSONPatch compile(String patch) {
+        Object parsed = JSON.parse(patch, Feature.OrderedField);
+
+        List<?> items;
+        if (parsed instanceof List) {
+            items = (List<?>) parsed;
+        } else if (parsed instanceof Map) {
+            List<Object> list = new ArrayList<Object>(1);
+            list.add(parsed);
+            items = list;
+        } else {
+            throw new JSONException("illegal json patch : " + patch);
+        }
+
+        Operation[] operations = new Operation[items.size()];
+        for (int i = 0; i < operations.length; ++i) {
+            Object item = items.get(i);
+            if (!(item instanceof Map)) {
+                throw new JSONException("illegal json patch operation : " + item);
+            }
+            Map<?, ?> map = (Map<?, ?>) item;
+
+            Operation op = new Operation();
+            Object type = map.get("op");
+            try {
+                op.type = type == null ? null : OperationType.valueOf(type.toString());
+            } catch (IllegalArgumentException ex) {
+                throw new JSONException("unsupported json patch op : " + type);
+            }
+            op.path = map.get("path") == null ? null : map.get("path").toString();
+            op.from = map.get("from") == null ? null : map.get("from").toString();
+            op.value = map.get("value");
+
+            if ((op.type == OperationType.add || op.type == OperationType.replace || op.type == OperationType.test)
+                    && !map.containsKey("value")) {
+                throw new JSONException("json patch " + op.type + " requires value, path " + op.path);
+            }
+            operations[i] = op;
+        }
+
+        return new JSONPatch(operations);
+    }
+
+    public Operation[] getOperations() {
+        return operations.clone();
+    }
+
+    /**
+     * Apply to a json tree of Map and List in place, following RFC 6902.
+     *
+     * @return the document, a new root if the patch replaced it
+     * @throws JSONException if a path does not exist or a test fails, the document may be partially patched then
+     * @since 1.2.84
+     */
+    public Object apply(Object document) {
+        for (int i = 0; i < operations.length; ++i) {
+            Operation op = operations[i];
+            String[] path = paths[i];
+            switch (op.type) {
+                case add:
+                    document = add(document, path, copyValue(op.value), op.path);
+                    break;
+                case remove:
+                    remove(document, path, op.path);
+                    if (path.length == 0) {
+                        document = null;
+                    }
+                    break;
+                case replace:
+                    get(document, path, op.path);
+                    if (path.length != 0) {
+                        remove(document, path, op.path);
+                    }
+                    document = add(document, path, copyValue(op.value), op.path);
+                    break;
+                case move: {
+                    Object value = get(document, froms[i], op.from);
+                    if (!startsWith(path, froms[i]) || path.length == froms[i].length) {
+                        remove(document, froms[i], op.from);
+                        document = add(froms[i].length == 0 ? null : document, path, value, op.path);
+                    } else {
+                        throw new JSONException("json patch can not move into a child, " + op.from + " -> " + op.path);
+                    }
+                    break;
+                }
+                case copy:
+                    document = add(document, path, copyValue(get(document, froms[i], op.from)), op.path);
+                    break;
+                case test:
+                    if (!equals(get(document, path, op.path), op.value)) {
+                        throw new JSONException("json patch test failed, path " + op.path);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return document;
+    }
+
+    /**
+     * @since 1.2.84
+     */
+    public String apply(String document) {
+        return JSON.toJSONString(apply(JSON.parse(document, Feature.OrderedField)), SerializerFeature.WriteMapNullValue);
+    }
+
+    /**
+     * the RFC 6902 patch text, value members are written even when null
+     */
+    public String toString() {
+        JSONArray array = new JSONArray(operations.length);
+        for (Operation op : operations) {
+            JSONObject item = new JSONObject(4, true);
+            item.put("op", op.type.name());
+            if (op.from != null) {
+                item.put("from", op.from);
+            }
+            item.put("path", op.path);
+            if (op.type == OperationType.add || op.type == OperationType.replace || op.type == OperationType.test) {
+                item.put("value", op.value);
+            }
+            array.add(item);
+        }
+        return JSON.toJSONString(array, SerializerFeature.WriteMapNullValue);
+    }
+
+    /**
+     * Compute an RFC 6902 patch which turns source into target. Subtrees are compared by hash first, arrays are
+     * aligned by their longest common subsequence and a member removed in one object and added in another becomes a
+     * move.
+     *
+     * @param source json tree or java bean, beans are converted by JSON.toJSON
+     * @since 1.2.84
+     */
+    public static JSONPatch diff(Object source, Object target) {
+        Differ differ = new Differ();
+        differ.diff("", JSON.toJSON(source), JSON.toJSON(target), false);
+        return new JSONPatch(differ.finish());
+    }
+
+    /**
+     * @return the patch text
+     * @since 1.2.84
+     */
+    public static String diff(String source, String target) {
+        return diff(JSON.parse(source, Feature.OrderedField), JSON.parse(target, Feature.OrderedField)).toString();
+    }
+
+    /**
+     * Apply an RFC 7396 merge patch, objects of target are changed in place.
+     *
+     * @return the merged document
+     * @since 1.2.84
+     */
+    @SuppressWarnings("unchecked")
+    public static Object mergePatch(Object target, Object patch) {
+        if (!(patch instanceof Map)) {
+            return copyValue(patch);
+        }
+
+        Map<String, Object> object;
+        if (target instanceof Map) {
+            object = (Map<String, Object>) target;
+        } else {
+            object = new JSONObject(true);
+        }
+
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) patch).entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            Object value = entry.getValue();
+            if (value == null) {
+                object.remove(key);
+            } else {
+                object.put(key, mergePatch(object.get(key), value));
+            }
+        }
+        return object;
+    }
+
+    /**
+     * @since 1.2.84
+     */
+    public static String mergePatch(String target, String patch) {
+        Object result = mergePatch(JSON.parse(target, Feature.OrderedField), JSON.parse(patch, Feature.OrderedField));
+        return JSON.toJSONString(result, SerializerFeature.WriteMapNullValue);
+    }
+
+    /**
+     * Compute an RFC 7396 merge patch which turns source into target. Merge patches can not set a member to null,
+     * such a member is removed by the patch.
+     *
+     * @since 1.2.84
+     */
+    public static Object createMergePatch(Object source, Object target) {
+        source = JSON.toJSON(source);
+        target = JSON.toJSON(target);
+        if (!(source instanceof Map) || !(target instanceof Map)) {
+            return target;
+        }
+
+        Map<?, ?> sourceMap = (Map<?, ?>) source;
+        Map<?, ?> targetMap = (Map<?, ?>) target;
+
+        JSONObject patch = new JSONObject(true);
+        for (Map.Entry<?, ?> entry : sourceMap.entrySet()) {
+            if (!targetMap.containsKey(entry.getKey()) || targetMap.get(entry.getKey()) == null) {
+                if (entry.getValue() != null || !targetMap.containsKey(entry.getKey())) {
+                    patch.put(String.valueOf(entry.getKey()), null);
+                }
+            }
+        }
+        for (Map.Entry<?, ?> entry : targetMap.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+
+            Object key = entry.getKey();
+            if (!sourceMap.containsKey(key)) {
+                patch.put(String.valueOf(key), value);
+            } else if (!equals(sourceMap.get(key), value)) {
+                patch.put(String.valueOf(key), createMergePatch(sourceMap.get(key), value));
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * @since 1.2.84
+     */
+    public static String createMergePatch(String source, String target) {
+        Object patch = createMergePatch(JSON.parse(source, Feature.OrderedField), JSON.parse(target, Feature.OrderedField));
+        return JSON.toJSONString(patch, SerializerFeature.WriteMapNullValue);
+    }
+
     public static String apply(String original, String patch) {
         Object object
                 = apply(
@@ -84,6 +362,547 @@ public class JSONPatch {
         return false;
     }
 
+    static String[] parsePointer(String pointer) {
+        if (pointer == null) {
+            throw new JSONException("json patch path is required");
+        }
+        if (pointer.length() == 0) {
+            return new String[0];
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new JSONException("illegal json pointer : " + pointer);
+        }
+
+        List<String> tokens = new ArrayList<String>();
+        int start = 1;
+        for (;;) {
+            int end = pointer.indexOf('/', start);
+            String token = pointer.substring(start, end == -1 ? pointer.length() : end);
+            if (token.indexOf('~') != -1) {
+                token = token.replace("~1", "/").replace("~0", "~");
+            }
+            tokens.add(token);
+            if (end == -1) {
+                break;
+            }
+            start = end + 1;
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    static String appendPointer(String pointer, String token) {
+        if (token.indexOf('~') != -1 || token.indexOf('/') != -1) {
+            token = token.replace("~", "~0").replace("/", "~1");
+        }
+        return pointer + '/' + token;
+    }
+
+    private static boolean startsWith(String[] path, String[] prefix) {
+        if (path.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; ++i) {
+            if (!path[i].equals(prefix[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object get(Object document, String[] path, String pointer) {
+        Object current = document;
+        for (String token : path) {
+            current = child(current, token, pointer);
+        }
+        return current;
+    }
+
+    private static Object child(Object container, String token, String pointer) {
+        if (container instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) container;
+            if (!map.containsKey(token)) {
+                throw new JSONException("json patch path not found : " + pointer);
+            }
+            return map.get(token);
+        }
+        if (container instanceof List) {
+            List<?> list = (List<?>) container;
+            int index = index(token, list.size() - 1, pointer);
+            return list.get(index);
+        }
+        throw new JSONException("json patch path not found : " + pointer);
+    }
+
+    private static Object parent(Object document, String[] path, String pointer) {
+        Object current = document;
+        for (int i = 0; i < path.length - 1; ++i) {
+            current = child(current, path[i], pointer);
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object add(Object document, String[] path, Object value, String pointer) {
+        if (path.length == 0) {
+            return value;
+        }
+
+        Object parent = parent(document, path, pointer);
+        String token = path[path.length - 1];
+        if (parent instanceof Map) {
+            ((Map<String, Object>) parent).put(token, value);
+        } else if (parent instanceof List) {
+            List<Object> list = (List<Object>) parent;
+            if ("-".equals(token)) {
+                list.add(value);
+            } else {
+                list.add(index(token, list.size(), pointer), value);
+            }
+        } else {
+            throw new JSONException("json patch path not found : " + pointer);
+        }
+        return document;
+    }
+
+    private static void remove(Object document, String[] path, String pointer) {
+        if (path.length == 0) {
+            return;
+        }
+
+        Object parent = parent(document, path, pointer);
+        String token = path[path.length - 1];
+        if (parent instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) parent;
+            if (!map.containsKey(token)) {
+                throw new JSONException("json patch path not found : " + pointer);
+            }
+            map.remove(token);
+        } else if (parent instanceof List) {
+            List<?> list = (List<?>) parent;
+            list.remove(index(token, list.size() - 1, pointer));
+        } else {
+            throw new JSONException("json patch path not found : " + pointer);
+        }
+    }
+
+    private static int index(String token, int max, String pointer) {
+        int len = token.length();
+        boolean valid = len > 0 && len <= 9 && (len == 1 || token.charAt(0) != '0');
+        int index = 0;
+        for (int i = 0; valid && i < len; ++i) {
+            char ch = token.charAt(i);
+            if (ch < '0' || ch > '9') {
+                valid = false;
+            } else {
+                index = index * 10 + (ch - '0');
+            }
+        }
+        if (!valid || index > max) {
+            throw new JSONException("json patch path not found : " + pointer);
+        }
+        return index;
+    }
+
+    /**
+     * values of a patch are copied into a document, so a compiled patch is never changed by a later operation
+     */
+    private static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            JSONObject copy = new JSONObject(map.size(), true);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), copyValue(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            JSONArray copy = new JSONArray(collection.size());
+            for (Object item : collection) {
+                copy.add(copyValue(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    static boolean equals(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+
+        if (a instanceof Number && b instanceof Number) {
+            return compare((Number) a, (Number) b);
+        }
+
+        if (a instanceof Map && b instanceof Map) {
+            Map<?, ?> mapA = (Map<?, ?>) a;
+            Map<?, ?> mapB = (Map<?, ?>) b;
+            if (mapA.size() != mapB.size()) {
+                return false;
+            }
+            for (Map.Entry<?, ?> entry : mapA.entrySet()) {
+                Object key = entry.getKey();
+                if (!mapB.containsKey(key) || !equals(entry.getValue(), mapB.get(key))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (a instanceof List && b instanceof List) {
+            List<?> listA = (List<?>) a;
+            List<?> listB = (List<?>) b;
+            if (listA.size() != listB.size()) {
+                return false;
+            }
+            for (int i = 0; i < listA.size(); ++i) {
+                if (!equals(listA.get(i), listB.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return a.equals(b);
+    }
+
+    private static boolean compare(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) {
+            if (a instanceof BigInteger || b instanceof BigInteger) {
+                return toBigInteger(a).equals(toBigInteger(b));
+            }
+            return a.longValue() == b.longValue();
+        }
+        return toBigDecimal(a).compareTo(toBigDecimal(b)) == 0;
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte || number instanceof BigInteger;
+    }
+
+    private static BigInteger toBigInteger(Number number) {
+        return number instanceof BigInteger ? (BigInteger) number : BigInteger.valueOf(number.longValue());
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    /**
+     * builds the operations of diff, subtree hashes are memoized per node
+     */
+    private static final class Differ {
+
+        private final List<Operation>               operations = new ArrayList<Operation>();
+        private final List<Object>                  removedValues = new ArrayList<Object>();
+        private final IdentityHashMap<Object, Integer> hashes = new IdentityHashMap<Object, Integer>();
+
+        Operation[] finish() {
+            detectMoves();
+
+            List<Operation> result = new ArrayList<Operation>(operations.size());
+            for (Operation op : operations) {
+                if (op != null) {
+                    result.add(op);
+                }
+            }
+            return result.toArray(new Operation[result.size()]);
+        }
+
+        /**
+         * @param inArray true when an array index is in path, members removed there are not turned into moves
+         */
+        void diff(String path, Object source, Object target, boolean inArray) {
+            if (source == target) {
+                return;
+            }
+
+            if (source instanceof Map && target instanceof Map) {
+                if (hash(source) == hash(target) && JSONPatch.equals(source, target)) {
+                    return;
+                }
+                diffObject(path, (Map<?, ?>) source, (Map<?, ?>) target, inArray);
+                return;
+            }
+
+            if (source instanceof List && target instanceof List) {
+                if (hash(source) == hash(target) && JSONPatch.equals(source, target)) {
+                    return;
+                }
+                diffArray(path, (List<?>) source, (List<?>) target);
+                return;
+            }
+
+            if (!JSONPatch.equals(source, target)) {
+                add(OperationType.replace, path, target);
+            }
+        }
+
+        private void diffObject(String path, Map<?, ?> source, Map<?, ?> target, boolean inArray) {
+            for (Map.Entry<?, ?> entry : source.entrySet()) {
+                Object key = entry.getKey();
+                String childPath = appendPointer(path, String.valueOf(key));
+                if (!target.containsKey(key)) {
+                    add(OperationType.remove, childPath, null);
+                    if (!inArray) {
+                        removedValues.set(operations.size() - 1, entry.getValue());
+                    }
+                } else {
+                    diff(childPath, entry.getValue(), target.get(key), inArray);
+                }
+            }
+
+            for (Map.Entry<?, ?> entry : target.entrySet()) {
+                Object key = entry.getKey();
+                if (!source.containsKey(key)) {
+                    add(OperationType.add, appendPointer(path, String.valueOf(key)), entry.getValue());
+                }
+            }
+        }
+
+        private void diffArray(String path, List<?> source, List<?> target) {
+            int start = 0;
+            int sourceEnd = source.size();
+            int targetEnd = target.size();
+            while (start < sourceEnd && start < targetEnd && same(source.get(start), target.get(start))) {
+                start++;
+            }
+            while (sourceEnd > start && targetEnd > start
+                    && same(source.get(sourceEnd - 1), target.get(targetEnd - 1))) {
+                sourceEnd--;
+                targetEnd--;
+            }
+
+            int n = sourceEnd - start;
+            int m = targetEnd - start;
+            if (n == 0 && m == 0) {
+                return;
+            }
+
+            // script of the middle part, 0 keep, 1 delete source item, 2 insert target item
+            byte[] script;
+            if ((long) (n + 1) * (m + 1) > MAX_LCS_CELLS) {
+                script = new byte[n + m];
+                for (int i = 0; i < n; ++i) {
+                    script[i] = 1;
+                }
+                for (int i = 0; i < m; ++i) {
+                    script[n + i] = 2;
+                }
+            } else {
+                script = lcsScript(source, start, n, target, start, m);
+            }
+
+            int index = start;
+            int sourceIndex = start;
+            int targetIndex = start;
+            for (int i = 0; i < script.length;) {
+                if (script[i] == 0) {
+                    index++;
+                    sourceIndex++;
+                    targetIndex++;
+                    i++;
+                    continue;
+                }
+
+                int deletes = 0;
+                int inserts = 0;
+                int j = i;
+                for (; j < script.length && script[j] != 0; ++j) {
+                    if (script[j] == 1) {
+                        deletes++;
+                    } else {
+                        inserts++;
+                    }
+                }
+
+                // a deleted item followed by an inserted one is changed in place, nested changes stay small
+                int changes = Math.min(deletes, inserts);
+                for (int k = 0; k < changes; ++k) {
+                    diff(appendPointer(path, Integer.toString(index)), source.get(sourceIndex++),
+                         target.get(targetIndex++), true);
+                    index++;
+                }
+                for (int k = changes; k < deletes; ++k) {
+                    add(OperationType.remove, appendPointer(path, Integer.toString(index)), null);
+                    sourceIndex++;
+                }
+                for (int k = changes; k < inserts; ++k) {
+                    add(OperationType.add, appendPointer(path, Integer.toString(index)), target.get(targetIndex++));
+                    index++;
+                }
+                i = j;
+            }
+        }
+
+        private byte[] lcsScript(List<?> source, int sourceStart, int n, List<?> target, int targetStart, int m) {
+            int[] sourceHashes = new int[n];
+            int[] targetHashes = new int[m];
+            for (int i = 0; i < n; ++i) {
+                sourceHashes[i] = hash(source.get(sourceStart + i));
+            }
+            for (int j = 0; j < m; ++j) {
+                targetHashes[j] = hash(target.get(targetStart + j));
+            }
+
+            // lengths[i][j] is the LCS of source[i..] and target[j..]
+            int[] lengths = new int[(n + 1) * (m + 1)];
+            int width = m + 1;
+            for (int i = n - 1; i >= 0; --i) {
+                for (int j = m - 1; j >= 0; --j) {
+                    if (sourceHashes[i] == targetHashes[j]
+                            && JSONPatch.equals(source.get(sourceStart + i), target.get(targetStart + j))) {
+                        lengths[i * width + j] = lengths[(i + 1) * width + j + 1] + 1;
+                    } else {
+                        lengths[i * width + j] = Math.max(lengths[(i + 1) * width + j], lengths[i * width + j + 1]);
+                    }
+                }
+            }
+
+            byte[] script = new byte[n + m - lengths[0]];
+            int i = 0, j = 0, k = 0;
+            while (i < n || j < m) {
+                if (i < n && j < m && sourceHashes[i] == targetHashes[j]
+                        && lengths[i * width + j] == lengths[(i + 1) * width + j + 1] + 1
+                        && JSONPatch.equals(source.get(sourceStart + i), target.get(targetStart + j))) {
+                    script[k++] = 0;
+                    i++;
+                    j++;
+                } else if (j == m || (i < n && lengths[(i + 1) * width + j] >= lengths[i * width + j + 1])) {
+                    script[k++] = 1;
+                    i++;
+                } else {
+                    script[k++] = 2;
+                    j++;
+                }
+            }
+            return script;
+        }
+
+        /**
+         * an added value equal to a removed object member becomes a move from there
+         */
+        private void detectMoves() {
+            Map<Integer, List<Integer>> removes = null;
+            for (int i = 0; i < operations.size(); ++i) {
+                Object value = removedValues.get(i);
+                if (value != null && (value instanceof Map || value instanceof List)) {
+                    if (removes == null) {
+                        removes = new HashMap<Integer, List<Integer>>();
+                    }
+                    Integer hash = hash(value);
+                    List<Integer> indexes = removes.get(hash);
+                    if (indexes == null) {
+                        removes.put(hash, indexes = new ArrayList<Integer>(2));
+                    }
+                    indexes.add(i);
+                }
+            }
+            if (removes == null) {
+                return;
+            }
+
+            for (int i = 0; i < operations.size(); ++i) {
+                Operation op = operations.get(i);
+                if (op == null || op.type != OperationType.add
+                        || !(op.value instanceof Map || op.value instanceof List)) {
+                    continue;
+                }
+
+                List<Integer> indexes = removes.get(hash(op.value));
+                if (indexes == null) {
+                    continue;
+                }
+                for (int k = 0; k < indexes.size(); ++k) {
+                    int removeIndex = indexes.get(k);
+                    if (JSONPatch.equals(removedValues.get(removeIndex), op.value)) {
+                        Operation move = new Operation();
+                        move.type = OperationType.move;
+                        move.from = operations.get(removeIndex).path;
+                        move.path = op.path;
+                        operations.set(i, move);
+                        operations.set(removeIndex, null);
+                        indexes.remove(k);
+                        break;
+                    }
+                }
+            }
+        }
+
+        private boolean same(Object a, Object b) {
+            return a == b || (hash(a) == hash(b) && JSONPatch.equals(a, b));
+        }
+
+        private Operation add(OperationType type, String path, Object value) {
+            Operation op = new Operation();
+            op.type = type;
+            op.path = path;
+            op.value = value;
+            operations.add(op);
+            removedValues.add(null);
+            return op;
+        }
+
+        int hash(Object value) {
+            if (value == null) {
+                return 0;
+            }
+
+            if (value instanceof Map || value instanceof List) {
+                Integer cached = hashes.get(value);
+                if (cached != null) {
+                    return cached;
+                }
+
+                int hash;
+                if (value instanceof Map) {
+                    hash = 1;
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        // order independent, members of an object have no order
+                        hash += String.valueOf(entry.getKey()).hashCode() ^ (hash(entry.getValue()) * 31);
+                    }
+                } else {
+                    hash = 2;
+                    for (Object item : (List<?>) value) {
+                        hash = hash * 31 + hash(item);
+                    }
+                }
+                hashes.put(value, hash);
+                return hash;
+            }
+
+            if (value instanceof Number) {
+                Number number = (Number) value;
+                if (isIntegral(number) && !(number instanceof BigInteger)) {
+                    long longValue = number.longValue();
+                    return (int) (longValue ^ (longValue >>> 32));
+                }
+                BigDecimal decimal = toBigDecimal(number).stripTrailingZeros();
+                if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() <= 18) {
+                    long longValue = decimal.longValue();
+                    return (int) (longValue ^ (longValue >>> 32));
+                }
+                return decimal.hashCode();
+            }
+
+            return value.hashCode();
+        }
+    }
+
     @JSONType(orders = {"op", "from", "path", "value"})
     public static class Operation {
         @JSONField(name = "op")
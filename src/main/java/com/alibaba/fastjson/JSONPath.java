@@ -216,6 +216,53 @@ public class JSONPath implements JSONAware {
         return context.object;
     }
 
+    /**
+     * extract over a prebuilt structural index. Property and index segments jump straight to the value,
+     * the remaining segments are evaluated on the parsed value.
+     *
+     * @since 1.2.84
+     */
+    public Object extractIndexed(JSONStructuralIndex index) {
+        if (index == null || index.size() == 0) {
+            return null;
+        }
+
+        init();
+
+        if (hasRefSegment) {
+            return this.eval(index.parse(0));
+        }
+
+        int token = 0;
+        int i = 0;
+        for (; i < segments.length; ++i) {
+            Segment segment = segments[i];
+            int next;
+            if (segment instanceof PropertySegment
+                    && !((PropertySegment) segment).deep
+                    && index.charAt(token) == '{') {
+                next = index.seekObjectToField(token, ((PropertySegment) segment).propertyName);
+            } else if (segment instanceof ArrayAccessSegment
+                    && ((ArrayAccessSegment) segment).index >= 0
+                    && index.charAt(token) == '[') {
+                next = index.seekArrayToItem(token, ((ArrayAccessSegment) segment).index);
+            } else {
+                break;
+            }
+
+            if (next == -1) {
+                return null;
+            }
+            token = next;
+        }
+
+        Object currentObject = index.parse(token, parserConfig, JSON.DEFAULT_PARSER_FEATURE | Feature.OrderedField.mask);
+        for (; i < segments.length; ++i) {
+            currentObject = segments[i].eval(this, currentObject, currentObject);
+        }
+        return currentObject;
+    }
+
     private static class Context {
         final Context parent;
         final boolean eval;
@@ -782,6 +829,14 @@ public class JSONPath implements JSONAware {
         return extract(json, path, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE);
     }
 
+    /**
+     * @since 1.2.84
+     */
+    public static Object extractIndexed(JSONStructuralIndex index, String path) {
+        JSONPath jsonPath = compile(path);
+        return jsonPath.extractIndexed(index);
+    }
+
     public static Map<String, Object> paths(Object javaObject) {
         return paths(javaObject, SerializeConfig.globalInstance);
     }
@@ -7,17 +7,30 @@ import static com.alibaba.fastjson.JSONStreamContext.StartArray;
 import static com.alibaba.fastjson.JSONStreamContext.StartObject;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TimeZone;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.alibaba.fastjson.parser.DefaultJSONParser;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.parser.JSONLexer;
 import com.alibaba.fastjson.parser.JSONReaderScanner;
 import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParseContext;
+import com.alibaba.fastjson.parser.deserializer.JavaBeanDeserializer;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.util.MappedFileReader;
 import com.alibaba.fastjson.util.TypeUtils;
 
 public class JSONReader implements Closeable {
@@ -37,6 +50,24 @@ public class JSONReader implements Closeable {
         }
     }
 
+    /**
+     * read a utf-8 json file through a memory mapped window
+     *
+     * @since 1.2.84
+     */
+    public JSONReader(Path path, Feature... features) throws IOException {
+        this(new MappedFileReader(path), features);
+    }
+
+    /**
+     * read utf-8 json from the current position of channel through a memory mapped window, channel is not closed
+     *
+     * @since 1.2.84
+     */
+    public JSONReader(FileChannel channel, Feature... features) throws IOException {
+        this(new MappedFileReader(channel), features);
+    }
+
     public JSONReader(JSONLexer lexer) {
         this(new DefaultJSONParser(lexer));
     }
@@ -265,6 +296,38 @@ public class JSONReader implements Closeable {
         return object;
     }
 
+    /**
+     * iterate the items of the current array, or of the array at the current position when no structure is
+     * started, in which case the array is also ended by the iterator. The item deserializer is resolved once.
+     *
+     * @since 1.2.84
+     */
+    public <T> Iterator<T> iterator(Class<T> clazz) {
+        return new ItemIterator<T>(clazz, null);
+    }
+
+    /**
+     * like {@link #iterator(Class)}, but every item is read into instance, which is returned by each next().
+     * Fields absent from an item keep the value of the previous item.
+     *
+     * @since 1.2.84
+     */
+    public <T> Iterator<T> iterator(Class<T> clazz, T instance) {
+        if (instance == null) {
+            throw new IllegalArgumentException("instance is null");
+        }
+        return new ItemIterator<T>(clazz, instance);
+    }
+
+    /**
+     * @see #iterator(Class)
+     * @since 1.2.84
+     */
+    public <T> Stream<T> stream(Class<T> clazz) {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator(clazz), Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false);
+    }
+
     public void readObject(Object object) {
         if (context == null) {
             parser.parseObject(object);
@@ -309,6 +372,89 @@ public class JSONReader implements Closeable {
         return value;
     }
 
+    private class ItemIterator<T> implements Iterator<T> {
+        private final Class<T>           clazz;
+        private final T                  instance;
+        private final ObjectDeserializer deserializer;
+        private final JSONStreamContext  arrayContext;
+        private final boolean            endArray;
+
+        ItemIterator(Class<T> clazz, T instance) {
+            this.endArray = context == null;
+            if (endArray) {
+                startArray();
+            } else if (context.state != StartArray && context.state != ArrayValue) {
+                throw new JSONException("illegal state : " + context.state);
+            }
+            this.arrayContext = context;
+
+            this.clazz = clazz;
+            this.instance = instance;
+            this.deserializer = parser.getConfig().getDeserializer(clazz);
+            if (instance != null && !(deserializer instanceof JavaBeanDeserializer)) {
+                throw new JSONException("can not read into instance of " + clazz.getName());
+            }
+        }
+
+        public boolean hasNext() {
+            if (context != arrayContext) {
+                return false;
+            }
+
+            if (parser.lexer.token() != JSONToken.RBRACKET) {
+                return true;
+            }
+
+            if (endArray) {
+                endArray();
+            }
+            return false;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            readBefore();
+            T item = readItem();
+            readAfter();
+            return item;
+        }
+
+        private T readItem() {
+            JSONLexer lexer = parser.lexer;
+            if (lexer.token() == JSONToken.NULL) {
+                lexer.nextToken(JSONToken.COMMA);
+                return null;
+            }
+
+            ParseContext context = parser.getContext();
+            int resolveTaskIndex = parser.getResolveTaskList().size();
+
+            T item;
+            try {
+                if (instance != null) {
+                    item = ((JavaBeanDeserializer) deserializer).deserialzeTo(parser, clazz, instance);
+                } else {
+                    item = deserializer.deserialze(parser, clazz, null);
+                }
+            } catch (JSONException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JSONException(e.getMessage(), e);
+            }
+
+            parser.handleResovleTask(item, resolveTaskIndex);
+            parser.resetContext(context, resolveTaskIndex);
+            return item;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private void readBefore() {
         int state = context.state;
         // before
@@ -0,0 +1,363 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.alibaba.fastjson.util.TypeUtils;
+
+/**
+ * A compiled subset of JSON Schema, checked by {@link JSONValidator} during its syntax scan without building objects.
+ *
+ * <pre>
+ * JSONSchema schema = JSONSchema.parseSchema("{\"type\":\"object\",\"required\":[\"id\"],\"properties\":{\"id\":{\"type\":\"integer\",\"minimum\":1}}}");
+ * JSONValidator validator = JSONValidator.from(json).setSchema(schema);
+ * if (!validator.validate()) {
+ *     System.out.println(validator.getViolationPath() + " : " + validator.getViolationMessage());
+ * }
+ * </pre>
+ *
+ * Supported keywords: type, enum, properties, required, additionalProperties, minProperties, maxProperties,
+ * items, minItems, maxItems, minLength, maxLength, pattern, minimum, maximum, exclusiveMinimum, exclusiveMaximum.
+ * Any other keyword raises a {@link JSONException} when compiling, so a schema is never silently weakened.
+ *
+ * @since 1.2.84
+ */
+public final class JSONSchema {
+    static final int TYPE_OBJECT  = 1;
+    static final int TYPE_ARRAY   = 2;
+    static final int TYPE_STRING  = 4;
+    static final int TYPE_INTEGER = 8;
+    static final int TYPE_NUMBER  = 16;
+    static final int TYPE_BOOLEAN = 32;
+    static final int TYPE_NULL    = 64;
+    static final int TYPE_ANY     = 127;
+
+    final int          types;
+    final Object[]     enumValues;
+
+    // object, properties sorted by name hash
+    final long[]       propertyHashes;
+    final String[]     propertyNames;
+    final JSONSchema[] propertySchemas;
+    final long[]       propertyRequiredMasks;
+    final String[]     requiredNames;
+    final long         requiredMask;
+    final boolean      additionalProperties;
+    final JSONSchema   additionalSchema;
+    final int          minProperties;
+    final int          maxProperties;
+
+    // array
+    final JSONSchema   items;
+    final int          minItems;
+    final int          maxItems;
+
+    // string
+    final int          minLength;
+    final int          maxLength;
+    final Pattern      pattern;
+    final boolean      captureString;
+
+    // number
+    final double       minimum;
+    final double       maximum;
+    final boolean      exclusiveMinimum;
+    final boolean      exclusiveMaximum;
+    final boolean      captureNumber;
+
+    private JSONSchema(JSONObject schema) {
+        for (String key : schema.keySet()) {
+            if (!isSupportedKeyword(key)) {
+                throw new JSONException("not support schema keyword : " + key);
+            }
+        }
+
+        this.types = parseTypes(schema.get("type"));
+
+        Object enumValue = schema.get("enum");
+        if (enumValue instanceof Collection) {
+            Collection<?> values = (Collection<?>) enumValue;
+            this.enumValues = values.toArray(new Object[values.size()]);
+        } else if (enumValue != null) {
+            throw new JSONException("illegal schema enum : " + enumValue);
+        } else {
+            this.enumValues = null;
+        }
+
+        JSONObject properties = schema.getJSONObject("properties");
+        JSONArray required = schema.getJSONArray("required");
+        if (required != null && required.size() > 64) {
+            throw new JSONException("not support more than 64 required properties");
+        }
+
+        List<String> names = new ArrayList<String>();
+        if (properties != null) {
+            names.addAll(properties.keySet());
+        }
+        if (required != null) {
+            for (int i = 0; i < required.size(); ++i) {
+                String name = required.getString(i);
+                if (!names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+
+        long[] hashes = new long[names.size()];
+        for (int i = 0; i < hashes.length; ++i) {
+            hashes[i] = TypeUtils.fnv1a_64(names.get(i));
+        }
+        Arrays.sort(hashes);
+        for (int i = 1; i < hashes.length; ++i) {
+            if (hashes[i] == hashes[i - 1]) {
+                throw new JSONException("not support properties with the same name hash");
+            }
+        }
+
+        this.propertyHashes = hashes;
+        this.propertyNames = new String[hashes.length];
+        this.propertySchemas = new JSONSchema[hashes.length];
+        this.propertyRequiredMasks = new long[hashes.length];
+        for (String name : names) {
+            int p = Arrays.binarySearch(hashes, TypeUtils.fnv1a_64(name));
+            propertyNames[p] = name;
+            JSONObject propertySchema = properties == null ? null : properties.getJSONObject(name);
+            if (propertySchema != null) {
+                propertySchemas[p] = new JSONSchema(propertySchema);
+            }
+        }
+
+        long requiredMask = 0;
+        if (required != null) {
+            this.requiredNames = new String[required.size()];
+            for (int i = 0; i < requiredNames.length; ++i) {
+                String name = required.getString(i);
+                requiredNames[i] = name;
+                int p = Arrays.binarySearch(hashes, TypeUtils.fnv1a_64(name));
+                propertyRequiredMasks[p] |= 1L << i;
+                requiredMask |= 1L << i;
+            }
+        } else {
+            this.requiredNames = null;
+        }
+        this.requiredMask = requiredMask;
+
+        Object additional = schema.get("additionalProperties");
+        if (additional instanceof JSONObject) {
+            this.additionalProperties = true;
+            this.additionalSchema = new JSONSchema((JSONObject) additional);
+        } else {
+            this.additionalProperties = additional == null || Boolean.TRUE.equals(additional);
+            this.additionalSchema = null;
+        }
+        this.minProperties = intValue(schema, "minProperties");
+        this.maxProperties = intValue(schema, "maxProperties");
+
+        JSONObject items = schema.getJSONObject("items");
+        this.items = items == null ? null : new JSONSchema(items);
+        this.minItems = intValue(schema, "minItems");
+        this.maxItems = intValue(schema, "maxItems");
+
+        this.minLength = intValue(schema, "minLength");
+        this.maxLength = intValue(schema, "maxLength");
+        String pattern = schema.getString("pattern");
+        this.pattern = pattern == null ? null : Pattern.compile(pattern);
+
+        Number minimum = (Number) schema.get("minimum");
+        Number maximum = (Number) schema.get("maximum");
+        Object exclusiveMinimum = schema.get("exclusiveMinimum");
+        Object exclusiveMaximum = schema.get("exclusiveMaximum");
+        if (exclusiveMinimum instanceof Number) {
+            minimum = (Number) exclusiveMinimum;
+        }
+        if (exclusiveMaximum instanceof Number) {
+            maximum = (Number) exclusiveMaximum;
+        }
+        this.minimum = minimum == null ? Double.NaN : minimum.doubleValue();
+        this.maximum = maximum == null ? Double.NaN : maximum.doubleValue();
+        this.exclusiveMinimum = exclusiveMinimum instanceof Number || Boolean.TRUE.equals(exclusiveMinimum);
+        this.exclusiveMaximum = exclusiveMaximum instanceof Number || Boolean.TRUE.equals(exclusiveMaximum);
+
+        this.captureString = minLength >= 0 || maxLength >= 0 || this.pattern != null || enumValues != null;
+        this.captureNumber = minimum != null || maximum != null || enumValues != null
+                || (types & (TYPE_INTEGER | TYPE_NUMBER)) == TYPE_INTEGER;
+    }
+
+    public static JSONSchema parseSchema(String schema) {
+        return of(JSON.parseObject(schema));
+    }
+
+    public static JSONSchema of(JSONObject schema) {
+        if (schema == null) {
+            throw new IllegalArgumentException("schema is null");
+        }
+        return new JSONSchema(schema);
+    }
+
+    /**
+     * @return true if json is well formed and matches this schema
+     */
+    public boolean isValid(String json) {
+        return JSONValidator.from(json).setSchema(this).validate();
+    }
+
+    private static boolean isSupportedKeyword(String key) {
+        return "type".equals(key)
+                || "enum".equals(key)
+                || "properties".equals(key)
+                || "required".equals(key)
+                || "additionalProperties".equals(key)
+                || "minProperties".equals(key)
+                || "maxProperties".equals(key)
+                || "items".equals(key)
+                || "minItems".equals(key)
+                || "maxItems".equals(key)
+                || "minLength".equals(key)
+                || "maxLength".equals(key)
+                || "pattern".equals(key)
+                || "minimum".equals(key)
+                || "maximum".equals(key)
+                || "exclusiveMinimum".equals(key)
+                || "exclusiveMaximum".equals(key)
+                || "$schema".equals(key)
+                || "$id".equals(key)
+                || "title".equals(key)
+                || "description".equals(key);
+    }
+
+    private static int parseTypes(Object type) {
+        if (type == null) {
+            return TYPE_ANY;
+        }
+
+        if (type instanceof Collection) {
+            int types = 0;
+            for (Object item : (Collection<?>) type) {
+                types |= parseTypes(item);
+            }
+            return types;
+        }
+
+        String name = type.toString();
+        if ("object".equals(name)) {
+            return TYPE_OBJECT;
+        }
+        if ("array".equals(name)) {
+            return TYPE_ARRAY;
+        }
+        if ("string".equals(name)) {
+            return TYPE_STRING;
+        }
+        if ("integer".equals(name)) {
+            return TYPE_INTEGER;
+        }
+        if ("number".equals(name)) {
+            return TYPE_NUMBER | TYPE_INTEGER;
+        }
+        if ("boolean".equals(name)) {
+            return TYPE_BOOLEAN;
+        }
+        if ("null".equals(name)) {
+            return TYPE_NULL;
+        }
+        throw new JSONException("illegal schema type : " + name);
+    }
+
+    private static int intValue(JSONObject schema, String key) {
+        Integer value = schema.getInteger(key);
+        return value == null ? -1 : value.intValue();
+    }
+
+    boolean accept(int type) {
+        return (types & type) != 0;
+    }
+
+    String typeName() {
+        StringBuilder buf = new StringBuilder();
+        String[] names = {"object", "array", "string", "integer", "number", "boolean", "null"};
+        for (int i = 0; i < names.length; ++i) {
+            if ((types & (1 << i)) != 0) {
+                if (buf.length() != 0) {
+                    buf.append('|');
+                }
+                buf.append(names[i]);
+            }
+        }
+        return buf.toString();
+    }
+
+    /**
+     * @param hash fnv1a_64 of the name in chars[0, len), the name is compared as well since a crafted name may collide
+     * @return index into propertySchemas, -1 if the property is not declared
+     */
+    int propertyIndex(long hash, char[] chars, int len) {
+        int p = Arrays.binarySearch(propertyHashes, hash);
+        return p >= 0 && regionEquals(propertyNames[p], chars, len) ? p : -1;
+    }
+
+    String missingRequired(long mask) {
+        for (int i = 0; i < requiredNames.length; ++i) {
+            if ((mask & (1L << i)) == 0) {
+                return requiredNames[i];
+            }
+        }
+        return null;
+    }
+
+    boolean enumContains(char[] chars, int len) {
+        for (Object value : enumValues) {
+            if (value instanceof String && regionEquals((String) value, chars, len)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionEquals(String str, char[] chars, int len) {
+        if (str.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; ++i) {
+            if (str.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean enumContains(double number) {
+        for (Object value : enumValues) {
+            if (value instanceof Number && ((Number) value).doubleValue() == number) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean enumContainsLiteral(Object literal) {
+        for (Object value : enumValues) {
+            if (literal == null ? value == null : literal.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
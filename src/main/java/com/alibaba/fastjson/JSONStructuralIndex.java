@@ -0,0 +1,519 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.lang.reflect.Type;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+/**
+ * Structural index of a json text, in the style of simdjson stage 1. A single pass records the position of
+ * every '{' '}' '[' ']' ':' ',' outside of strings, of every string and of every other scalar, and links each
+ * '{' and '[' to its closing token. Navigation over the index never rescans skipped values, so repeated
+ * lookups on a large document only pay for the values they return.
+ *
+ * <pre>
+ * JSONStructuralIndex index = JSONStructuralIndex.of(text);
+ * Object name = JSONPath.extractIndexed(index, "$.store.book[1].name");
+ * boolean valid = JSONValidator.from(index).validate();
+ * </pre>
+ *
+ * Only standard json is indexed: single quoted strings and comments are not supported.
+ *
+ * @since 1.2.84
+ */
+public final class JSONStructuralIndex {
+
+    private final String text;
+
+    // token start position in text
+    private int[]        positions;
+
+    // '{' and '[' : token index of the closing token, string and scalar : end position (exclusive)
+    private int[]        ends;
+
+    private int          size;
+
+    private JSONStructuralIndex(String text) {
+        this.text = text;
+
+        int capacity = text.length() / 8 + 16;
+        this.positions = new int[capacity];
+        this.ends = new int[capacity];
+    }
+
+    public static JSONStructuralIndex of(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("text is null");
+        }
+
+        JSONStructuralIndex index = new JSONStructuralIndex(text);
+        index.build();
+        return index;
+    }
+
+    private void build() {
+        final String text = this.text;
+        final int len = text.length();
+
+        int[] stack = new int[32];
+        int depth = 0;
+
+        for (int i = 0; i < len;) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                case '\f':
+                case '\b':
+                    i++;
+                    break;
+                case '{':
+                case '[':
+                    if (depth == stack.length) {
+                        int[] newStack = new int[stack.length * 2];
+                        System.arraycopy(stack, 0, newStack, 0, depth);
+                        stack = newStack;
+                    }
+                    stack[depth++] = size;
+                    add(i, -1);
+                    i++;
+                    break;
+                case '}':
+                case ']': {
+                    char open = ch == '}' ? '{' : '[';
+                    if (depth == 0 || text.charAt(positions[stack[depth - 1]]) != open) {
+                        throw new JSONException("illegal json, unbalanced '" + ch + "', pos " + i);
+                    }
+                    ends[stack[--depth]] = size;
+                    add(i, -1);
+                    i++;
+                    break;
+                }
+                case ':':
+                case ',':
+                    add(i, -1);
+                    i++;
+                    break;
+                case '"': {
+                    int j = i + 1;
+                    for (;;) {
+                        if (j >= len) {
+                            throw new JSONException("unclosed str, pos " + i);
+                        }
+                        char c = text.charAt(j);
+                        if (c == '\\') {
+                            j += 2;
+                            continue;
+                        }
+                        if (c == '"') {
+                            break;
+                        }
+                        j++;
+                    }
+                    add(i, j + 1);
+                    i = j + 1;
+                    break;
+                }
+                default: {
+                    int j = i + 1;
+                    while (j < len && !isScalarEnd(text.charAt(j))) {
+                        j++;
+                    }
+                    add(i, j);
+                    i = j;
+                    break;
+                }
+            }
+        }
+
+        if (depth != 0) {
+            throw new JSONException("illegal json, unclosed '" + text.charAt(positions[stack[depth - 1]]) + "'");
+        }
+    }
+
+    private void add(int position, int end) {
+        if (size == positions.length) {
+            int newCapacity = positions.length + (positions.length >> 1);
+
+            int[] newPositions = new int[newCapacity];
+            System.arraycopy(positions, 0, newPositions, 0, size);
+            positions = newPositions;
+
+            int[] newEnds = new int[newCapacity];
+            System.arraycopy(ends, 0, newEnds, 0, size);
+            ends = newEnds;
+        }
+
+        positions[size] = position;
+        ends[size] = end;
+        size++;
+    }
+
+    private static boolean isScalarEnd(char ch) {
+        switch (ch) {
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case ':':
+            case ',':
+            case '"':
+            case ' ':
+            case '\t':
+            case '\r':
+            case '\n':
+            case '\f':
+            case '\b':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return number of indexed tokens
+     */
+    public int size() {
+        return size;
+    }
+
+    public int position(int token) {
+        return positions[token];
+    }
+
+    public char charAt(int token) {
+        return text.charAt(positions[token]);
+    }
+
+    /**
+     * @return end position (exclusive) in text of the value starting at token
+     */
+    public int end(int token) {
+        char ch = text.charAt(positions[token]);
+        if (ch == '{' || ch == '[') {
+            return positions[ends[token]] + 1;
+        }
+
+        if (ends[token] == -1) {
+            return positions[token] + 1;
+        }
+
+        return ends[token];
+    }
+
+    /**
+     * @return index of the first token after the value starting at token
+     */
+    public int skip(int token) {
+        char ch = text.charAt(positions[token]);
+        if (ch == '{' || ch == '[') {
+            return ends[token] + 1;
+        }
+        return token + 1;
+    }
+
+    /**
+     * @return token index of the value of fieldName in the object starting at token, -1 if not found
+     */
+    public int seekObjectToField(int token, String fieldName) {
+        if (token < 0 || token >= size || charAt(token) != '{') {
+            return -1;
+        }
+
+        int t = token + 1;
+        for (;;) {
+            if (t >= size || charAt(t) != '"') {
+                return -1;
+            }
+
+            int key = t;
+            if (t + 2 >= size || charAt(t + 1) != ':') {
+                return -1;
+            }
+
+            int value = t + 2;
+            if (keyEquals(key, fieldName)) {
+                return value;
+            }
+
+            t = skip(value);
+            if (t >= size || charAt(t) != ',') {
+                return -1;
+            }
+            t++;
+        }
+    }
+
+    /**
+     * @return token index of item index in the array starting at token, -1 if out of range
+     */
+    public int seekArrayToItem(int token, int index) {
+        if (index < 0 || token < 0 || token >= size || charAt(token) != '[') {
+            return -1;
+        }
+
+        int t = token + 1;
+        if (t >= size || charAt(t) == ']') {
+            return -1;
+        }
+
+        for (int i = 0;; ++i) {
+            if (i == index) {
+                return t;
+            }
+
+            t = skip(t);
+            if (t >= size || charAt(t) != ',') {
+                return -1;
+            }
+            t++;
+        }
+    }
+
+    private boolean keyEquals(int key, String fieldName) {
+        int begin = positions[key] + 1;
+        int end = ends[key] - 1;
+
+        for (int i = begin; i < end; ++i) {
+            if (text.charAt(i) == '\\') {
+                return fieldName.equals(JSON.parse(text.substring(begin - 1, end + 1)));
+            }
+        }
+
+        return end - begin == fieldName.length()
+                && text.regionMatches(begin, fieldName, 0, fieldName.length());
+    }
+
+    public Object parse(int token) {
+        return parse(token, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public Object parse(int token, ParserConfig config, int features) {
+        if (token < 0 || token >= size) {
+            return null;
+        }
+
+        DefaultJSONParser parser = new DefaultJSONParser(text.substring(positions[token], end(token)), config, features);
+        Object value = parser.parse();
+        parser.handleResovleTask(value);
+        parser.close();
+        return value;
+    }
+
+    public <T> T parseObject(int token, Type type) {
+        if (token < 0 || token >= size) {
+            return null;
+        }
+
+        return JSON.parseObject(text.substring(positions[token], end(token)), type);
+    }
+
+    /**
+     * split the items of the array starting at token into ranges of about chunkSize chars
+     *
+     * @return [begin0, end0, begin1, end1, ...], each range holds whole items separated by ','
+     */
+    public int[] splitArray(int token, int chunkSize) {
+        if (token < 0 || token >= size || charAt(token) != '[') {
+            throw new JSONException("not array, token " + token);
+        }
+
+        int close = ends[token];
+
+        int[] ranges = new int[16];
+        int count = 0;
+
+        int t = token + 1;
+        int chunkBegin = -1, itemEnd = -1;
+        while (t < close) {
+            if (charAt(t) == ',') {
+                t++;
+                continue;
+            }
+
+            if (chunkBegin == -1) {
+                chunkBegin = positions[t];
+            }
+            itemEnd = end(t);
+            t = skip(t);
+
+            if (itemEnd - chunkBegin >= chunkSize || t >= close) {
+                if (count + 2 > ranges.length) {
+                    int[] newRanges = new int[ranges.length * 2];
+                    System.arraycopy(ranges, 0, newRanges, 0, count);
+                    ranges = newRanges;
+                }
+                ranges[count++] = chunkBegin;
+                ranges[count++] = itemEnd;
+                chunkBegin = -1;
+            }
+        }
+
+        if (chunkBegin != -1) {
+            int[] newRanges = new int[count + 2];
+            System.arraycopy(ranges, 0, newRanges, 0, count);
+            newRanges[count++] = chunkBegin;
+            newRanges[count++] = itemEnd;
+            return newRanges;
+        }
+
+        int[] result = new int[count];
+        System.arraycopy(ranges, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * check the grammar of the value starting at token, with an explicit stack like build, so that deep nesting
+     * can not overflow the thread stack
+     *
+     * @return index of the first token after the value, -1 if the value is illegal
+     */
+    int validate(int token) {
+        char[] stack = new char[32];
+        int depth = 0;
+
+        int t = token;
+        for (;;) {
+            // t is the start of a value
+            if (t >= size) {
+                return -1;
+            }
+
+            char ch = charAt(t);
+            if (ch == '{' || ch == '[') {
+                if (charAt(t + 1) == (ch == '{' ? '}' : ']')) {
+                    t += 2;
+                } else {
+                    if (depth == stack.length) {
+                        char[] newStack = new char[stack.length * 2];
+                        System.arraycopy(stack, 0, newStack, 0, depth);
+                        stack = newStack;
+                    }
+                    stack[depth++] = ch;
+                    t++;
+                    if (ch == '{' && !isKey(t)) {
+                        return -1;
+                    }
+                    if (ch == '{') {
+                        t += 2;
+                    }
+                    continue;
+                }
+            } else if (ch == '"') {
+                t++;
+            } else if (ch != '}' && ch != ']' && ch != ':' && ch != ',' && isScalar(positions[t], ends[t])) {
+                t++;
+            } else {
+                return -1;
+            }
+
+            // t is after a value, close the containers it ends
+            for (;;) {
+                if (depth == 0) {
+                    return t;
+                }
+                if (t >= size) {
+                    return -1;
+                }
+
+                char open = stack[depth - 1];
+                ch = charAt(t);
+                if (ch == (open == '{' ? '}' : ']')) {
+                    depth--;
+                    t++;
+                    continue;
+                }
+                if (ch != ',') {
+                    return -1;
+                }
+                t++;
+                if (open == '{') {
+                    if (!isKey(t)) {
+                        return -1;
+                    }
+                    t += 2;
+                }
+                break;
+            }
+        }
+    }
+
+    private boolean isKey(int t) {
+        return t + 1 < size && charAt(t) == '"' && charAt(t + 1) == ':';
+    }
+
+    private boolean isScalar(int begin, int end) {
+        int len = end - begin;
+        if (len == 4 && (text.startsWith("true", begin) || text.startsWith("null", begin))) {
+            return true;
+        }
+        if (len == 5 && text.startsWith("false", begin)) {
+            return true;
+        }
+
+        int i = begin;
+        char ch = text.charAt(i);
+        if (ch == '-') {
+            i++;
+        }
+
+        int digits = i;
+        while (i < end && isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == digits) {
+            return false;
+        }
+
+        if (i < end && text.charAt(i) == '.') {
+            int fraction = ++i;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == fraction) {
+                return false;
+            }
+        }
+
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponent = i;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == exponent) {
+                return false;
+            }
+        }
+
+        return i == end;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+}
@@ -4,6 +4,11 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+
+import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.TypeUtils;
 
 public abstract class JSONValidator implements Cloneable, Closeable {
     public enum Type {
@@ -19,6 +24,14 @@ public abstract class JSONValidator implements Cloneable, Closeable {
     protected int count = 0;
     protected boolean supportMultiValue = false;
 
+    protected JSONSchema schema;
+    protected boolean utf8;
+    private StringBuilder path;
+    private char[] sbuf;
+    private int sp;
+    private String violationPath;
+    private String violationMessage;
+
     public static JSONValidator fromUtf8(byte[] jsonBytes) {
         return new UTF8Validator(jsonBytes);
     }
@@ -35,6 +48,14 @@ public abstract class JSONValidator implements Cloneable, Closeable {
         return new ReaderValidator(r);
     }
 
+    /**
+     * validate over a prebuilt structural index, only scalars are rescanned
+     * @since 1.2.84
+     */
+    public static JSONValidator from(JSONStructuralIndex index) {
+        return new IndexValidator(index);
+    }
+
     public boolean isSupportMultiValue() {
         return supportMultiValue;
     }
@@ -44,6 +65,35 @@ public abstract class JSONValidator implements Cloneable, Closeable {
         return this;
     }
 
+    /**
+     * check the input against a compiled schema in the same pass as the syntax check
+     * @since 1.2.84
+     */
+    public JSONValidator setSchema(JSONSchema schema) {
+        this.schema = schema;
+        return this;
+    }
+
+    public JSONSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return path of the first schema violation such as $.items[2].price, null if there is none
+     * or the input is not well formed json
+     * @since 1.2.84
+     */
+    public String getViolationPath() {
+        return violationPath;
+    }
+
+    /**
+     * @since 1.2.84
+     */
+    public String getViolationMessage() {
+        return violationMessage;
+    }
+
     public Type getType() {
         if (type == null) {
             validate();
@@ -59,8 +109,18 @@ public abstract class JSONValidator implements Cloneable, Closeable {
             return validateResult;
         }
 
+        if (schema != null && path == null) {
+            path = new StringBuilder();
+            sbuf = new char[64];
+        }
+
         for (;;) {
-            if (!any()) {
+            if (schema != null) {
+                path.setLength(0);
+                path.append('$');
+            }
+
+            if (!any(schema)) {
                 validateResult = false;
                 return false;
             }
@@ -91,25 +151,52 @@ public abstract class JSONValidator implements Cloneable, Closeable {
 
     }
 
-    private boolean any() {
+    private boolean any(JSONSchema schema) {
         switch (ch) {
-            case '{':
+            case '{': {
+                if (schema != null && !schema.accept(JSONSchema.TYPE_OBJECT)) {
+                    return violate("expect " + schema.typeName() + ", but object");
+                }
                 next();
 
                 while (isWhiteSpace(ch)) {
                     next();
                 }
 
+                long required = 0;
+                int properties = 0;
                 if (ch == '}') {
                     next();
                     type = Type.Object;
-                    return true;
+                    return schema == null || checkObject(schema, required, properties);
                 }
 
                 for (;;) {
                     if (ch != '"')
                         return false;
-                    fieldName();
+
+                    JSONSchema fieldSchema = null;
+                    int pathLength = 0;
+                    if (schema == null) {
+                        fieldName();
+                    } else {
+                        pathLength = path.length();
+                        if (!captureString()) {
+                            return false;
+                        }
+                        path.append('.').append(sbuf, 0, sp);
+
+                        int p = schema.propertyIndex(fieldNameHash(), sbuf, sp);
+                        if (p != -1) {
+                            fieldSchema = schema.propertySchemas[p];
+                            required |= schema.propertyRequiredMasks[p];
+                        } else if (!schema.additionalProperties) {
+                            return violate("additional property not allowed");
+                        } else {
+                            fieldSchema = schema.additionalSchema;
+                        }
+                        properties++;
+                    }
 
                     skipWhiteSpace();
                     if (ch != ':')
@@ -117,50 +204,70 @@ public abstract class JSONValidator implements Cloneable, Closeable {
                     next();
                     skipWhiteSpace();
 
-                    if (!any()) {
+                    if (!any(fieldSchema)) {
                         return false;
                     }
 
+                    if (schema != null) {
+                        path.setLength(pathLength);
+                    }
+
                     // kv 结束时，只能是 "," 或 "}"
                     skipWhiteSpace();
                     if (ch != ','){
                         if (ch == '}') {
                             next();
                             type = Type.Object;
-                            return true;
+                            return schema == null || checkObject(schema, required, properties);
                         }
                         return false;
                     }
                     next();
                     skipWhiteSpace();
                 }
-            case '[':
+            }
+            case '[': {
+                if (schema != null && !schema.accept(JSONSchema.TYPE_ARRAY)) {
+                    return violate("expect " + schema.typeName() + ", but array");
+                }
                 next();
                 skipWhiteSpace();
 
                 if (ch == ']') {
                     next();
                     type = Type.Array;
-                    return true;
+                    return schema == null || checkArray(schema, 0);
                 }
 
-                for (;;) {
-                    if (!any()) {
+                JSONSchema itemSchema = schema == null ? null : schema.items;
+                for (int i = 0;;++i) {
+                    int pathLength = 0;
+                    if (schema != null) {
+                        pathLength = path.length();
+                        path.append('[').append(i).append(']');
+                    }
+
+                    if (!any(itemSchema)) {
                         return false;
                     }
 
+                    if (schema != null) {
+                        path.setLength(pathLength);
+                    }
+
                     skipWhiteSpace();
                     if (ch != ','){
                         if (ch == ']') {
                             next();
                             type = Type.Array;
-                            return true;
+                            return schema == null || checkArray(schema, i + 1);
                         }
                         return false;
                     }
                     next();
                     skipWhiteSpace();
                 }
+            }
             case '0':
             case '1':
             case '2':
@@ -172,8 +279,13 @@ public abstract class JSONValidator implements Cloneable, Closeable {
             case '8':
             case '9':
             case '+':
-            case '-':
+            case '-': {
+                boolean capture = schema != null && schema.captureNumber;
+                sp = 0;
                 if (ch == '-' || ch == '+') {
+                    if (capture) {
+                        putChar(ch);
+                    }
                     next();
                     skipWhiteSpace();
                     if (ch < '0' || ch > '9') {
@@ -182,38 +294,80 @@ public abstract class JSONValidator implements Cloneable, Closeable {
                 }
 
                 do {
+                    if (capture) {
+                        putChar(ch);
+                    }
                     next();
                 } while (ch >= '0' && ch <= '9');
 
+                boolean integer = true;
                 if (ch == '.') {
+                    integer = false;
+                    if (capture) {
+                        putChar(ch);
+                    }
                     next();
                     // bug fix: 0.e7 should not pass the test
                     if (ch < '0' || ch > '9') {
                         return false;
                     }
                     while (ch >= '0' && ch <= '9') {
+                        if (capture) {
+                            putChar(ch);
+                        }
                         next();
                     }
                 }
 
                 if (ch == 'e' || ch == 'E') {
+                    integer = false;
+                    if (capture) {
+                        putChar(ch);
+                    }
                     next();
                     if (ch == '-' || ch == '+') {
+                        if (capture) {
+                            putChar(ch);
+                        }
                         next();
                     }
 
                     if (!(ch >= '0' && ch <= '9'))
                         return false;
+                    if (capture) {
+                        putChar(ch);
+                    }
                     next();
 
                     while (ch >= '0' && ch <= '9') {
+                        if (capture) {
+                            putChar(ch);
+                        }
                         next();
                     }
                 }
 
                 type = Type.Value;
+                if (schema != null && !checkNumber(schema, integer)) {
+                    return false;
+                }
                 break;
+            }
             case '"':
+                if (schema != null) {
+                    if (!schema.accept(JSONSchema.TYPE_STRING)) {
+                        return violate("expect " + schema.typeName() + ", but string");
+                    }
+
+                    if (schema.captureString) {
+                        if (!captureString()) {
+                            return false;
+                        }
+                        type = Type.Value;
+                        return checkString(schema);
+                    }
+                }
+
                 next();
                 for (;;) {
                     if (eof) {
@@ -263,7 +417,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
 
                 if (isWhiteSpace(ch) || ch == ',' || ch == ']' || ch == '}' || ch == '\0') {
                     type = Type.Value;
-                    return true;
+                    return schema == null || checkLiteral(schema, JSONSchema.TYPE_BOOLEAN, Boolean.TRUE);
                 }
                 return false;
             case 'f':
@@ -291,7 +445,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
 
                 if (isWhiteSpace(ch) || ch == ',' || ch == ']' || ch == '}' || ch == '\0') {
                     type = Type.Value;
-                    return true;
+                    return schema == null || checkLiteral(schema, JSONSchema.TYPE_BOOLEAN, Boolean.FALSE);
                 }
                 return false;
             case 'n':
@@ -314,7 +468,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
 
                 if (isWhiteSpace(ch) || ch == ',' || ch == ']' || ch == '}' || ch == '\0') {
                     type = Type.Value;
-                    return true;
+                    return schema == null || checkLiteral(schema, JSONSchema.TYPE_NULL, null);
                 }
                 return false;
             default:
@@ -323,6 +477,215 @@ public abstract class JSONValidator implements Cloneable, Closeable {
         return true;
     }
 
+    private boolean violate(String message) {
+        violationPath = path.toString();
+        violationMessage = message;
+        return false;
+    }
+
+    private boolean checkObject(JSONSchema schema, long required, int properties) {
+        if ((required & schema.requiredMask) != schema.requiredMask) {
+            return violate("required property '" + schema.missingRequired(required) + "' missing");
+        }
+        if (schema.minProperties >= 0 && properties < schema.minProperties) {
+            return violate("expect at least " + schema.minProperties + " properties, but " + properties);
+        }
+        if (schema.maxProperties >= 0 && properties > schema.maxProperties) {
+            return violate("expect at most " + schema.maxProperties + " properties, but " + properties);
+        }
+        return true;
+    }
+
+    private boolean checkArray(JSONSchema schema, int items) {
+        if (schema.minItems >= 0 && items < schema.minItems) {
+            return violate("expect at least " + schema.minItems + " items, but " + items);
+        }
+        if (schema.maxItems >= 0 && items > schema.maxItems) {
+            return violate("expect at most " + schema.maxItems + " items, but " + items);
+        }
+        return true;
+    }
+
+    private boolean checkString(JSONSchema schema) {
+        if (schema.minLength >= 0 || schema.maxLength >= 0) {
+            int length = Character.codePointCount(sbuf, 0, sp);
+            if (schema.minLength >= 0 && length < schema.minLength) {
+                return violate("expect minLength " + schema.minLength + ", but " + length);
+            }
+            if (schema.maxLength >= 0 && length > schema.maxLength) {
+                return violate("expect maxLength " + schema.maxLength + ", but " + length);
+            }
+        }
+        if (schema.pattern != null && !schema.pattern.matcher(CharBuffer.wrap(sbuf, 0, sp)).find()) {
+            return violate("not match pattern " + schema.pattern.pattern());
+        }
+        if (schema.enumValues != null && !schema.enumContains(sbuf, sp)) {
+            return violate("value not in enum");
+        }
+        return true;
+    }
+
+    private boolean checkNumber(JSONSchema schema, boolean integer) {
+        if (!schema.accept(JSONSchema.TYPE_NUMBER)) {
+            if (!schema.accept(JSONSchema.TYPE_INTEGER)) {
+                return violate("expect " + schema.typeName() + ", but number");
+            }
+            if (!integer && new BigDecimal(sbuf, 0, sp).stripTrailingZeros().scale() > 0) {
+                return violate("expect integer, but " + new String(sbuf, 0, sp));
+            }
+        }
+
+        if (!schema.captureNumber) {
+            return true;
+        }
+
+        double value = integer && sp < 19 ? parseLong() : Double.parseDouble(new String(sbuf, 0, sp));
+        if (schema.minimum == schema.minimum) {
+            if (schema.exclusiveMinimum ? value <= schema.minimum : value < schema.minimum) {
+                return violate("expect " + (schema.exclusiveMinimum ? "exclusiveMinimum " : "minimum ") + schema.minimum + ", but " + new String(sbuf, 0, sp));
+            }
+        }
+        if (schema.maximum == schema.maximum) {
+            if (schema.exclusiveMaximum ? value >= schema.maximum : value > schema.maximum) {
+                return violate("expect " + (schema.exclusiveMaximum ? "exclusiveMaximum " : "maximum ") + schema.maximum + ", but " + new String(sbuf, 0, sp));
+            }
+        }
+        if (schema.enumValues != null && !schema.enumContains(value)) {
+            return violate("value not in enum");
+        }
+        return true;
+    }
+
+    private long parseLong() {
+        int i = 0;
+        boolean negative = false;
+        if (sbuf[0] == '-' || sbuf[0] == '+') {
+            negative = sbuf[0] == '-';
+            i++;
+        }
+
+        long value = 0;
+        for (; i < sp; ++i) {
+            value = value * 10 + (sbuf[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private boolean checkLiteral(JSONSchema schema, int literalType, Object literal) {
+        if (!schema.accept(literalType)) {
+            return violate("expect " + schema.typeName() + ", but " + literal);
+        }
+        if (schema.enumValues != null && !schema.enumContainsLiteral(literal)) {
+            return violate("value not in enum");
+        }
+        return true;
+    }
+
+    private long fieldNameHash() {
+        long hash = TypeUtils.fnv1a_64_magic_hashcode;
+        for (int i = 0; i < sp; ++i) {
+            hash ^= sbuf[i];
+            hash *= TypeUtils.fnv1a_64_magic_prime;
+        }
+        return hash;
+    }
+
+    /**
+     * scan the string at the current position and store its unescaped value in sbuf
+     */
+    private boolean captureString() {
+        sp = 0;
+        // sbuf[raw, sp) holds raw chars not yet decoded, escapes are appended after decoding them
+        int raw = 0;
+        boolean ascii = true;
+        next();
+        for (;;) {
+            if (eof) {
+                return false;
+            }
+
+            if (ch == '\\') {
+                if (utf8 && !ascii) {
+                    decodeUTF8(raw);
+                    ascii = true;
+                }
+                next();
+                switch (ch) {
+                    case 'u': {
+                        int value = 0;
+                        for (int i = 0; i < 4; ++i) {
+                            next();
+                            int digit = Character.digit(ch, 16);
+                            if (digit == -1) {
+                                return false;
+                            }
+                            value = (value << 4) | digit;
+                        }
+                        putChar((char) value);
+                        break;
+                    }
+                    case 'b':
+                        putChar('\b');
+                        break;
+                    case 'f':
+                        putChar('\f');
+                        break;
+                    case 'n':
+                        putChar('\n');
+                        break;
+                    case 'r':
+                        putChar('\r');
+                        break;
+                    case 't':
+                        putChar('\t');
+                        break;
+                    default:
+                        putChar(ch);
+                        break;
+                }
+                raw = sp;
+                next();
+            } else if (ch == '"') {
+                next();
+                break;
+            } else {
+                if (ch > 0x7F) {
+                    ascii = false;
+                }
+                putChar(ch);
+                next();
+            }
+        }
+
+        if (utf8 && !ascii) {
+            decodeUTF8(raw);
+        }
+        return true;
+    }
+
+    /**
+     * utf8 validators read raw bytes as chars, turn the bytes captured from sbuf[from] back into utf16 chars.
+     * Malformed input is replaced with U+FFFD as by new String(bytes, UTF_8)
+     */
+    private void decodeUTF8(int from) {
+        byte[] bytes = new byte[sp - from];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) sbuf[from + i];
+        }
+        String str = new String(bytes, IOUtils.UTF8);
+        str.getChars(0, str.length(), sbuf, from);
+        sp = from + str.length();
+    }
+
+    private void putChar(char ch) {
+        if (sp == sbuf.length) {
+            char[] newBuf = new char[sbuf.length * 2];
+            System.arraycopy(sbuf, 0, newBuf, 0, sp);
+            sbuf = newBuf;
+        }
+        sbuf[sp++] = ch;
+    }
+
     protected void fieldName()
     {
         next();
@@ -401,6 +764,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
 
         public UTF8Validator(byte[] bytes) {
             this.bytes = bytes;
+            this.utf8 = true;
             next();
             skipWhiteSpace();
         }
@@ -427,6 +791,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
 
         public UTF8InputStreamValidator(InputStream is) {
             this.is = is;
+            this.utf8 = true;
             buf = bufLocal.get();
             if (buf != null) {
                 bufLocal.set(null);
@@ -627,4 +992,55 @@ public abstract class JSONValidator implements Cloneable, Closeable {
             r.close();
         }
     }
+
+    static class IndexValidator extends JSONValidator {
+        private final JSONStructuralIndex index;
+        private Boolean validateResult;
+
+        IndexValidator(JSONStructuralIndex index) {
+            this.index = index;
+            this.eof = true;
+        }
+
+        void next() {
+
+        }
+
+        public boolean validate() {
+            if (validateResult != null) {
+                return validateResult;
+            }
+
+            if (schema != null) {
+                JSONValidator validator = from(index.getText())
+                        .setSupportMultiValue(supportMultiValue)
+                        .setSchema(schema);
+                validateResult = validator.validate();
+                type = validator.type;
+                count = validator.count;
+                ((JSONValidator) this).violationPath = validator.violationPath;
+                ((JSONValidator) this).violationMessage = validator.violationMessage;
+                return validateResult;
+            }
+
+            int size = index.size();
+            int token = 0;
+            boolean result = size > 0;
+            while (token < size) {
+                char ch = index.charAt(token);
+                int next = index.validate(token);
+                if (next == -1 || (count > 0 && !supportMultiValue)) {
+                    result = false;
+                    break;
+                }
+
+                type = ch == '{' ? Type.Object : ch == '[' ? Type.Array : Type.Value;
+                count++;
+                token = next;
+            }
+
+            validateResult = result;
+            return result;
+        }
+    }
 }
@@ -77,4 +77,12 @@ public @interface JSONType {
      * @return
      */
     Class<? extends ParserConfig.AutoTypeCheckHandler> autoTypeCheckHandler() default ParserConfig.AutoTypeCheckHandler.class;
+
+    /**
+     * cache the serialized text of each instance, only for immutable types
+     *
+     * @see com.alibaba.fastjson.serializer.CachedJavaBeanSerializer
+     * @since 1.2.84
+     */
+    boolean cacheSerialized() default false;
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser;
+
+/**
+ * Fields of a date time string scanned in place from the lexer buffer, one instance is reused by a lexer so no
+ * String or temporary is created per value. Only strict fixed layouts are matched, see the LAYOUT_ constants,
+ * everything else is left to the DateTimeFormatter of the deserializer.
+ *
+ * @since 1.2.84
+ */
+public final class DateTimeFields {
+
+    /**
+     * yyyy-MM-dd
+     */
+    public final static int LAYOUT_DATE               = 1;
+    /**
+     * yyyy-MM-dd HH:mm:ss or yyyy-MM-ddTHH:mm:ss
+     */
+    public final static int LAYOUT_DATE_TIME          = 1 << 1;
+    /**
+     * yyyy-MM-dd HH:mm:ss.SSS
+     */
+    public final static int LAYOUT_DATE_TIME_MILLIS   = 1 << 2;
+    /**
+     * yyyy-MM-ddTHH:mm:ss.SSS
+     */
+    public final static int LAYOUT_DATE_TIME_MILLIS_T = 1 << 3;
+    /**
+     * yyyy-MM-ddTHH:mm:ss[.S-SSSSSSSSS] followed by Z or +HH:mm
+     */
+    public final static int LAYOUT_OFFSET             = 1 << 4;
+    /**
+     * yyyy-MM-ddTHH:mm:ss[.S-SSSSSSSSS]Z
+     */
+    public final static int LAYOUT_UTC                = 1 << 5;
+
+    public int              year;
+    public int              month;
+    public int              dayOfMonth;
+    public int              hour;
+    public int              minute;
+    public int              second;
+    public int              nano;
+    public int              offsetSeconds;
+
+    /**
+     * LAYOUT_ bits matched by the last scan
+     */
+    public int              layout;
+
+    /**
+     * the string when it matches none of the layouts in the accepted mask of JSONLexerBase.scanFieldDateTime
+     */
+    public String           text;
+
+    /**
+     * @return LAYOUT_ bits, 0 if chars [start, start + len) of lexer is not a fixed layout
+     */
+    int scan(JSONLexerBase lexer, int start, int len) {
+        layout = 0;
+        text = null;
+
+        if (len < 10 || len > 35) {
+            return 0;
+        }
+
+        if (lexer.charAt(start + 4) != '-' || lexer.charAt(start + 7) != '-') {
+            return 0;
+        }
+        year = digits(lexer, start, 4);
+        month = digits(lexer, start + 5, 2);
+        dayOfMonth = digits(lexer, start + 8, 2);
+        hour = 0;
+        minute = 0;
+        second = 0;
+        nano = 0;
+        offsetSeconds = 0;
+
+        if (year < 1 || month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > lengthOfMonth(year, month)) {
+            return 0;
+        }
+
+        if (len == 10) {
+            return layout = LAYOUT_DATE;
+        }
+
+        char separator = lexer.charAt(start + 10);
+        if (len < 19
+                || (separator != ' ' && separator != 'T')
+                || lexer.charAt(start + 13) != ':'
+                || lexer.charAt(start + 16) != ':') {
+            return 0;
+        }
+        hour = digits(lexer, start + 11, 2);
+        minute = digits(lexer, start + 14, 2);
+        second = digits(lexer, start + 17, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return 0;
+        }
+
+        int i = 19;
+        int nanoDigits = 0;
+        if (i < len && lexer.charAt(start + i) == '.') {
+            i++;
+            for (; i < len && nanoDigits < 9; ++i, ++nanoDigits) {
+                char ch = lexer.charAt(start + i);
+                if (ch < '0' || ch > '9') {
+                    break;
+                }
+                nano = nano * 10 + (ch - '0');
+            }
+            if (nanoDigits == 0) {
+                return 0;
+            }
+            for (int j = nanoDigits; j < 9; ++j) {
+                nano *= 10;
+            }
+        }
+
+        if (i == len) {
+            if (nanoDigits == 0) {
+                return layout = LAYOUT_DATE_TIME;
+            }
+            if (nanoDigits == 3) {
+                return layout = separator == ' ' ? LAYOUT_DATE_TIME_MILLIS : LAYOUT_DATE_TIME_MILLIS_T;
+            }
+            return 0;
+        }
+
+        if (separator != 'T') {
+            return 0;
+        }
+
+        char sign = lexer.charAt(start + i);
+        if (sign == 'Z' && i + 1 == len) {
+            return layout = LAYOUT_OFFSET | LAYOUT_UTC;
+        }
+
+        if ((sign != '+' && sign != '-') || i + 6 != len || lexer.charAt(start + i + 3) != ':') {
+            return 0;
+        }
+        int offsetHours = digits(lexer, start + i + 1, 2);
+        int offsetMinutes = digits(lexer, start + i + 4, 2);
+        if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59
+                || (offsetHours == 18 && offsetMinutes != 0)) {
+            return 0;
+        }
+        offsetSeconds = (offsetHours * 60 + offsetMinutes) * 60;
+        if (sign == '-') {
+            offsetSeconds = -offsetSeconds;
+        }
+        return layout = LAYOUT_OFFSET;
+    }
+
+    /**
+     * @return days since 1970-01-01
+     */
+    public long toEpochDay() {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * @return seconds since 1970-01-01T00:00:00Z, the offset applied
+     */
+    public long toEpochSecond() {
+        return toEpochDay() * 86400 + (hour * 60 + minute) * 60 + second - offsetSeconds;
+    }
+
+    private static int digits(JSONLexerBase lexer, int off, int len) {
+        int value = 0;
+        for (int i = off, end = off + len; i < end; ++i) {
+            char ch = lexer.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.alibaba.fastjson.parser;
 import com.alibaba.fastjson.*;
 import com.alibaba.fastjson.parser.deserializer.*;
 import com.alibaba.fastjson.serializer.*;
+import com.alibaba.fastjson.util.CompactMap;
+import com.alibaba.fastjson.util.PrimitiveList;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import java.io.Closeable;
@@ -65,6 +67,8 @@ public class DefaultJSONParser implements Closeable {
 
     private List<ExtraTypeProvider>    extraTypeProviders = null;
     private List<ExtraProcessor>       extraProcessors = null;
+    private Projection                 projection;
+    private boolean                    sortFeidFastMatch;
     protected FieldTypeResolver        fieldTypeResolver = null;
 
     private int                        objectKeyLevel = 0;
@@ -158,6 +162,9 @@ public class DefaultJSONParser implements Closeable {
         this.input = input;
         this.config = config;
         this.symbolTable = config.symbolTable;
+        if (config.getProjection() != null) {
+            setProjection(config.getProjection());
+        }
 
         int ch = lexer.getCurrent();
         if (ch == '{') {
@@ -532,7 +539,7 @@ public class DefaultJSONParser implements Closeable {
                     ? mapDeserializer.createMap(Map.class, lexer.getFeatures())
                     : mapDeserializer.createMap(Map.class);
         } else {
-            input = new JSONObject(lexer.isEnabled(Feature.OrderedField));
+            input = createJSONObject();
         }
         ParseContext ctxLocal = null;
 
@@ -576,7 +583,7 @@ public class DefaultJSONParser implements Closeable {
         Object value;
         lexer.nextToken();
 
-        JSONArray list = new JSONArray();
+        JSONArray list = createJSONArray();
 
         boolean parentIsArray = fieldName != null && fieldName.getClass() == Integer.class;
 //                    if (!parentIsArray) {
@@ -934,6 +941,14 @@ public class DefaultJSONParser implements Closeable {
     }
 
     public Object[] parseArray(Type[] types) {
+        return parseArray(types, null);
+    }
+
+    /**
+     * @param deserializers resolved deserializers of types, or null to look them up in the config
+     * @since 1.2.84
+     */
+    public Object[] parseArray(Type[] types, ObjectDeserializer[] deserializers) {
         if (lexer.token() == JSONToken.NULL) {
             lexer.nextToken(JSONToken.COMMA);
             return null;
@@ -966,7 +981,7 @@ public class DefaultJSONParser implements Closeable {
                 } else if (type == String.class) {
                     value = parseStringValue(type);
                 } else {
-                    value = deserializeValue(types, i, type);
+                    value = deserializeValue(types, i, type, deserializers == null ? null : deserializers[i]);
                 }
             }
             list[i] = value;
@@ -991,7 +1006,7 @@ public class DefaultJSONParser implements Closeable {
         return list;
     }
 
-    private Object deserializeValue(Type[] types, int i, Type type) {
+    private Object deserializeValue(Type[] types, int i, Type type, ObjectDeserializer deserializer) {
         Object value;
         boolean isArray = false;
         Class<?> componentType = null;
@@ -1011,7 +1026,9 @@ public class DefaultJSONParser implements Closeable {
 		if (isArray && lexer.token() != JSONToken.LBRACKET) {
             value = deserializeToList(type, componentType);
         } else {
-            ObjectDeserializer deserializer = config.getDeserializer(type);
+            if (deserializer == null) {
+                deserializer = config.getDeserializer(type);
+            }
             value = deserializer.deserialze(this, type, i);
         }
         return value;
@@ -1347,8 +1364,22 @@ public class DefaultJSONParser implements Closeable {
         return parseObject(object, null);
     }
 
+    private JSONObject createJSONObject() {
+        if (lexer.isEnabled(Feature.CompactObject)) {
+            return new JSONObject(new CompactMap<String, Object>(config.getCompactShapes()));
+        }
+        return new JSONObject(lexer.isEnabled(Feature.OrderedField));
+    }
+
+    private JSONArray createJSONArray() {
+        if (lexer.isEnabled(Feature.PrimitiveArray)) {
+            return new JSONArray(new PrimitiveList());
+        }
+        return new JSONArray();
+    }
+
     public JSONObject parseObject() {
-        JSONObject object = new JSONObject(lexer.isEnabled(Feature.OrderedField));
+        JSONObject object = createJSONObject();
         Object parsedObject = parseObject(object);
 
         if (parsedObject instanceof JSONObject) {
@@ -1419,7 +1450,7 @@ public class DefaultJSONParser implements Closeable {
                         lexer.nextToken(JSONToken.COMMA);
                         break;
                     case LBRACE:
-                        JSONObject object = new JSONObject(lexer.isEnabled(Feature.OrderedField));
+                        JSONObject object = createJSONObject();
                         value = parseObject(object, i);
                         break;
                     case LBRACKET:
@@ -1471,7 +1502,7 @@ public class DefaultJSONParser implements Closeable {
 
     private Object parseJSONArray(JSONLexer lexer, int i) {
         Object value;
-        Collection items = new JSONArray();
+        Collection items = createJSONArray();
         parseArray(items, i);
         if (lexer.isEnabled(Feature.UseObjectArray)) {
             value = items.toArray();
@@ -1537,6 +1568,47 @@ public class DefaultJSONParser implements Closeable {
         return resolveTaskList.get(resolveTaskList.size() - 1);
     }
 
+    /**
+     * @since 1.2.84
+     */
+    public Projection getProjection() {
+        return projection;
+    }
+
+    /**
+     * fields to bind at the current level, null to bind and parse every field. SortFeidFastMatch is turned off
+     * while an include set is active and restored when it is cleared.
+     *
+     * @since 1.2.84
+     */
+    public void setProjection(Projection projection) {
+        boolean include = projection != null && !projection.isAll();
+        boolean included = this.projection != null && !this.projection.isAll();
+        if (include && !included) {
+            // asm deserializers bind the fields in declaration order, an include set has to see every key
+            sortFeidFastMatch = lexer.isEnabled(Feature.SortFeidFastMatch);
+            lexer.config(Feature.SortFeidFastMatch, false);
+        } else if (included && !include) {
+            lexer.config(Feature.SortFeidFastMatch, sortFeidFastMatch);
+        }
+        this.projection = projection;
+    }
+
+    /**
+     * skip ':' and the value of the current field without building it
+     *
+     * @since 1.2.84
+     */
+    public void skipFieldValue() {
+        if (lexer instanceof JSONLexerBase) {
+            ((JSONLexerBase) lexer).skipFieldValue();
+            return;
+        }
+
+        lexer.nextTokenWithColon();
+        parse();
+    }
+
     public List<ExtraProcessor> getExtraProcessors() {
         if (extraProcessors == null) {
             extraProcessors = new ArrayList<ExtraProcessor>(2);
@@ -1617,6 +1689,47 @@ public class DefaultJSONParser implements Closeable {
         contextArray = newArray;
     }
 
+    /**
+     * drop the contexts and resolve tasks of the last top level value, so one parser can read a long sequence of
+     * values without holding on to them.
+     *
+     * @since 1.2.84
+     */
+    public void resetContext() {
+        if (contextArray != null) {
+            Arrays.fill(contextArray, 0, contextArrayIndex, null);
+        }
+        contextArrayIndex = 0;
+        context = null;
+
+        if (resolveTaskList != null) {
+            resolveTaskList.clear();
+        }
+        resolveStatus = NONE;
+    }
+
+    /**
+     * drop the contexts pushed after context and the resolve tasks added from resolveTaskIndex on, the enclosing
+     * contexts and pending resolve tasks are kept. Used to read the items of an array one by one.
+     *
+     * @since 1.2.84
+     */
+    public void resetContext(ParseContext context, int resolveTaskIndex) {
+        int index = contextArrayIndex;
+        while (index > 0 && contextArray[index - 1] != context) {
+            contextArray[--index] = null;
+        }
+        contextArrayIndex = index;
+        this.context = context;
+
+        if (resolveTaskList != null && resolveTaskIndex < resolveTaskList.size()) {
+            resolveTaskList.subList(resolveTaskIndex, resolveTaskList.size()).clear();
+        }
+        if (resolveTaskList == null || resolveTaskList.isEmpty()) {
+            resolveStatus = NONE;
+        }
+    }
+
     public Object parse() {
         return parse(null);
     }
@@ -1646,7 +1759,7 @@ public class DefaultJSONParser implements Closeable {
             case LBRACKET:
                 Collection array = isEnabled(Feature.UseNativeJavaObject)
                         ? new ArrayList()
-                        : new JSONArray();
+                        : createJSONArray();
                 parseArray(array, fieldName);
                 if (lexer.isEnabled(Feature.UseObjectArray)) {
                     return array.toArray();
@@ -1657,7 +1770,7 @@ public class DefaultJSONParser implements Closeable {
                     ? lexer.isEnabled(Feature.OrderedField)
                     ? new HashMap()
                     : new LinkedHashMap()
-                    : new JSONObject(lexer.isEnabled(Feature.OrderedField));
+                    : createJSONObject();
                 return parseObject(object, fieldName);
 //            case LBRACE: {
 //                Map<String, Object> map = lexer.isEnabled(Feature.OrderedField)
@@ -1822,6 +1935,21 @@ public class DefaultJSONParser implements Closeable {
         }
     }
 
+    /**
+     * resolve only the tasks added from resolveTaskIndex on
+     *
+     * @since 1.2.84
+     */
+    public void handleResovleTask(Object value, int resolveTaskIndex) {
+        if (resolveTaskList == null) {
+            return;
+        }
+
+        for (int i = resolveTaskIndex, size = resolveTaskList.size();i < size;++i) {
+            resolveReferenceValue_(value, i);
+        }
+    }
+
     private void resolveReferenceValue_(Object value, int i) {
         ResolveTask task = resolveTaskList.get(i);
         String ref = task.referenceValue;
@@ -1925,6 +2053,14 @@ public class DefaultJSONParser implements Closeable {
     }
 
     public void parseExtra(Object object, String key) {
+        if (projection != null
+                && extraTypeProviders == null
+                && extraProcessors == null
+                && !(object instanceof ExtraProcessable)) {
+            skipFieldValue();
+            return;
+        }
+
         JSONLexer lexer = this.lexer; // xxx
         lexer.nextTokenWithColon();
         Type type = null;
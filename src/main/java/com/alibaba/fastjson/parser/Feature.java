@@ -156,7 +156,20 @@ public enum Feature {
      * @since 1.2.77
      * use HashMap instead of JSONObject, ArrayList instead of JSONArray
      */
-    UseNativeJavaObject
+    UseNativeJavaObject,
+
+    /**
+     * @since 1.2.84
+     * JSONObject keeps its members in a CompactMap, objects with the same keys share one key array.
+     */
+    CompactObject,
+
+    /**
+     * @since 1.2.84
+     * JSONArray keeps its elements in a PrimitiveList, numbers of one type are not boxed. Decimals are kept in a
+     * double[] only without UseBigDecimal, as they are parsed into BigDecimal otherwise
+     */
+    PrimitiveArray
     ;
 
     Feature() {
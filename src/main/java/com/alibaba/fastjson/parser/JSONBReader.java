@@ -0,0 +1,815 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser;
+
+import static com.alibaba.fastjson.serializer.JSONBWriter.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.UUID;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.TypeUtils;
+
+/**
+ * A lexer over JSONB written by JSONBWriter, so DefaultJSONParser and the deserializers of the ParserConfig read
+ * JSONB the same way as text. The lexer presents the structure of the bytes as the chars '{', '[', '}', ']', ',' and
+ * ':', and each scalar as one token: numbers keep their binary value, and a double is read as Double whether or not
+ * Feature.UseBigDecimal is enabled. Object keys are added to the symbol table of the ParserConfig.
+ * <p>
+ * Feature.SortFeidFastMatch is turned off, its fast match compares field names as text.
+ *
+ * @see com.alibaba.fastjson.serializer.JSONBWriter
+ * @since 1.2.84
+ */
+public final class JSONBReader extends JSONLexerBase {
+
+    private final static int  MAX_LEVEL    = 2048;
+
+    // what is expected next in the object or array of each level, level 0 is the top value
+    private final static byte STATE_KEY    = 0;
+    private final static byte STATE_COLON  = 1;
+    private final static byte STATE_VALUE  = 2;
+    private final static byte STATE_NEXT   = 3;
+
+    private final byte[]      bytes;
+    private final int         end;
+    private final SymbolTable symbolTable;
+
+    private int               level;
+    private boolean[]         objects      = new boolean[16];
+    private byte[]            states       = new byte[16];
+
+    private String[]          symbols;
+    private int               symbolCount;
+
+    // the value of the current token, by the type it was written with
+    private byte              type;
+    private long              longValue;
+    private double            doubleValue;
+    private Number            bigValue;
+    private String            stringValue;
+    private byte[]            binaryValue;
+
+    public JSONBReader(byte[] bytes) {
+        this(bytes, 0, bytes.length, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public JSONBReader(byte[] bytes, int offset, int length, ParserConfig config, int features) {
+        super(features & ~Feature.SortFeidFastMatch.mask);
+        this.bytes = bytes;
+        this.bp = offset;
+        this.end = offset + length;
+        this.symbolTable = config.symbolTable;
+        states[0] = STATE_VALUE;
+        peek();
+    }
+
+    public char next() {
+        switch (ch) {
+            case '{':
+            case '[':
+                bp++;
+                push(ch == '{');
+                break;
+            case '}':
+            case ']':
+                bp++;
+                level--;
+                states[level] = STATE_NEXT;
+                break;
+            case ',':
+                states[level] = objects[level] ? STATE_KEY : STATE_VALUE;
+                break;
+            case ':':
+                states[level] = STATE_VALUE;
+                break;
+            case EOI:
+                return ch;
+            default:
+                throw new JSONException("illegal jsonb, the value at offset " + bp + " is not a char");
+        }
+        peek();
+        return ch;
+    }
+
+    public void nextToken() {
+        sp = 0;
+        pos = bp;
+
+        switch (ch) {
+            case '{':
+                token = JSONToken.LBRACE;
+                next();
+                return;
+            case '[':
+                token = JSONToken.LBRACKET;
+                next();
+                return;
+            case '}':
+                token = JSONToken.RBRACE;
+                next();
+                return;
+            case ']':
+                token = JSONToken.RBRACKET;
+                next();
+                return;
+            case ',':
+                token = JSONToken.COMMA;
+                next();
+                return;
+            case ':':
+                token = JSONToken.COLON;
+                next();
+                return;
+            case EOI:
+                token = JSONToken.EOF;
+                return;
+            default:
+                break;
+        }
+
+        if (states[level] == STATE_KEY) {
+            stringValue = readKey(symbolTable);
+            type = BC_STRING;
+            token = JSONToken.LITERAL_STRING;
+            states[level] = STATE_COLON;
+            peek();
+            return;
+        }
+
+        readValue();
+    }
+
+    public void nextToken(int expect) {
+        nextToken();
+    }
+
+    public String scanSymbol(SymbolTable symbolTable, char quote) {
+        if (ch != '"') {
+            throw new JSONException("syntax error, expect string, " + info());
+        }
+
+        pos = bp;
+        if (states[level] == STATE_KEY) {
+            String key = readKey(symbolTable);
+            states[level] = STATE_COLON;
+            peek();
+            return key;
+        }
+
+        // a string value read as a symbol, the value of @type
+        bp++;
+        String symbol = readSymbol(symbolTable);
+        states[level] = STATE_NEXT;
+        peek();
+        return symbol;
+    }
+
+    public void scanString() {
+        if (ch != '"') {
+            throw new JSONException("syntax error, expect string, " + info());
+        }
+        nextToken();
+    }
+
+    public void scanNumber() {
+        if (ch != '0') {
+            throw new JSONException("syntax error, expect number, " + info());
+        }
+        nextToken();
+    }
+
+    public String stringVal() {
+        return stringValue;
+    }
+
+    public boolean isRef() {
+        return token == JSONToken.LITERAL_STRING && "$ref".equals(stringValue);
+    }
+
+    public byte[] bytesValue() {
+        if (token == JSONToken.HEX) {
+            return binaryValue;
+        }
+        if (token == JSONToken.LITERAL_STRING) {
+            return IOUtils.decodeBase64(stringValue);
+        }
+        throw new JSONException("syntax error, expect binary, " + info());
+    }
+
+    public String numberString() {
+        switch (type) {
+            case BC_INT32:
+            case BC_INT64:
+                return Long.toString(longValue);
+            case BC_FLOAT:
+                return Float.toString((float) doubleValue);
+            case BC_DOUBLE:
+                return Double.toString(doubleValue);
+            case BC_BIGINT:
+            case BC_DECIMAL:
+                return bigValue.toString();
+            default:
+                return stringValue;
+        }
+    }
+
+    public Number integerValue() throws NumberFormatException {
+        switch (type) {
+            case BC_INT32:
+                return (int) longValue;
+            case BC_INT64:
+                return longValue;
+            case BC_BIGINT:
+                return bigValue;
+            default:
+                return decimalValue(false);
+        }
+    }
+
+    public int intValue() {
+        long value = longValue();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException(numberString());
+        }
+        return (int) value;
+    }
+
+    public long longValue() throws NumberFormatException {
+        if (type == BC_INT32 || type == BC_INT64) {
+            return longValue;
+        }
+        if (type == BC_BIGINT && ((BigInteger) bigValue).bitLength() < 64) {
+            return bigValue.longValue();
+        }
+        throw new NumberFormatException(numberString());
+    }
+
+    public float floatValue() {
+        switch (type) {
+            case BC_FLOAT:
+            case BC_DOUBLE:
+                return (float) doubleValue;
+            case BC_INT32:
+            case BC_INT64:
+                return (float) longValue;
+            default:
+                return bigValue.floatValue();
+        }
+    }
+
+    public double doubleValue() {
+        switch (type) {
+            case BC_FLOAT:
+            case BC_DOUBLE:
+                return doubleValue;
+            case BC_INT32:
+            case BC_INT64:
+                return (double) longValue;
+            default:
+                return bigValue.doubleValue();
+        }
+    }
+
+    public BigDecimal decimalValue() {
+        switch (type) {
+            case BC_INT32:
+            case BC_INT64:
+                return BigDecimal.valueOf(longValue);
+            case BC_FLOAT:
+                return new BigDecimal(Float.toString((float) doubleValue));
+            case BC_DOUBLE:
+                return BigDecimal.valueOf(doubleValue);
+            case BC_BIGINT:
+                return new BigDecimal((BigInteger) bigValue);
+            default:
+                return (BigDecimal) bigValue;
+        }
+    }
+
+    /**
+     * float and double keep their type, only a decimal is read as BigDecimal or Double
+     */
+    public Number decimalValue(boolean decimal) {
+        switch (type) {
+            case BC_FLOAT:
+                return (float) doubleValue;
+            case BC_DOUBLE:
+                return doubleValue;
+            default:
+                return decimal ? decimalValue() : (Number) doubleValue();
+        }
+    }
+
+    public boolean isEOF() {
+        return bp >= end;
+    }
+
+    public String info() {
+        return "offset " + bp + ", token " + JSONToken.name(token);
+    }
+
+    /**
+     * skips the value by its tags, symbols in it are still numbered
+     */
+    protected void skipValue() {
+        int depth = 0;
+        do {
+            checkAvailable(1);
+            byte b = bytes[bp++];
+            switch (b) {
+                case BC_OBJECT:
+                case BC_ARRAY:
+                    depth++;
+                    break;
+                case BC_END:
+                    depth--;
+                    break;
+                case BC_SYMBOL:
+                case BC_SYMBOL_REF:
+                    bp--;
+                    readKey(symbolTable);
+                    break;
+                default:
+                    skipScalar(b);
+                    break;
+            }
+        } while (depth > 0);
+
+        states[level] = STATE_NEXT;
+        peek();
+        nextToken();
+    }
+
+    // the fields of a bean written as an array, see Feature.SupportArrayToBean
+
+    public int scanInt(char seperator) {
+        Object value = scanValue(seperator);
+        return value == null ? 0 : TypeUtils.castToInt(value);
+    }
+
+    public long scanLong(char seperator) {
+        Object value = scanValue(seperator);
+        return value == null ? 0 : TypeUtils.castToLong(value);
+    }
+
+    public boolean scanBoolean(char seperator) {
+        Object value = scanValue(seperator);
+        return value != null && TypeUtils.castToBoolean(value);
+    }
+
+    public float scanFloat(char seperator) {
+        Object value = scanValue(seperator);
+        return value == null ? 0 : TypeUtils.castToFloat(value);
+    }
+
+    public double scanDouble(char seperator) {
+        Object value = scanValue(seperator);
+        return value == null ? 0 : TypeUtils.castToDouble(value);
+    }
+
+    public String scanString(char seperator) {
+        Object value = scanValue(seperator);
+        return value == null ? stringDefaultValue : value.toString();
+    }
+
+    public BigDecimal scanDecimal(char seperator) {
+        return TypeUtils.castToBigDecimal(scanValue(seperator));
+    }
+
+    public Date scanDate(char seperator) {
+        return TypeUtils.castToDate(scanValue(seperator));
+    }
+
+    public UUID scanUUID(char seperator) {
+        Object value = scanValue(seperator);
+        return value == null ? null : UUID.fromString(value.toString());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Enum<?> scanEnum(Class<?> enumClass, SymbolTable symbolTable, char seperator) {
+        Object value = scanValue(seperator);
+        return value == null ? null : Enum.valueOf((Class<? extends Enum>) enumClass, value.toString());
+    }
+
+    public void scanStringArray(Collection<String> list, char seperator) {
+        matchStat = UNKNOWN;
+        if (ch == 'n') {
+            scanValue(seperator);
+            return;
+        }
+
+        if (ch != '[') {
+            throw new JSONException("syntax error, expect array, " + info());
+        }
+        next();
+        while (ch != ']') {
+            if (ch == ',') {
+                next();
+                continue;
+            }
+            nextToken();
+            if (token == JSONToken.NULL) {
+                list.add(null);
+            } else if (token == JSONToken.LITERAL_STRING) {
+                list.add(stringValue);
+            } else {
+                throw new JSONException("syntax error, expect string, " + info());
+            }
+        }
+        next();
+        scanSeperator(seperator);
+        matchStat = VALUE;
+    }
+
+    /**
+     * reads a scalar and the seperator after it, as the text lexer does for a bean written as an array
+     *
+     * @return null for a jsonb null, matchStat is VALUE_NULL then
+     */
+    private Object scanValue(char seperator) {
+        matchStat = UNKNOWN;
+        nextToken();
+
+        Object value;
+        switch (token) {
+            case JSONToken.NULL:
+                value = null;
+                break;
+            case JSONToken.TRUE:
+                value = Boolean.TRUE;
+                break;
+            case JSONToken.FALSE:
+                value = Boolean.FALSE;
+                break;
+            case JSONToken.LITERAL_INT:
+                value = integerValue();
+                break;
+            case JSONToken.LITERAL_FLOAT:
+                value = decimalValue(true);
+                break;
+            case JSONToken.LITERAL_STRING:
+                value = stringValue;
+                break;
+            default:
+                throw new JSONException("syntax error, expect a value, " + info());
+        }
+
+        scanSeperator(seperator);
+        matchStat = value == null ? VALUE_NULL : VALUE;
+        return value;
+    }
+
+    private void scanSeperator(char seperator) {
+        if (ch != seperator) {
+            throw new JSONException("syntax error, expect " + seperator + ", " + info());
+        }
+        next();
+        token = JSONToken.COMMA;
+    }
+
+    /**
+     * sets ch for the next byte: a char of the structure, '"' for a key or a string, '0' for a number, 'n', 't', 'f'
+     * for null and booleans, 'x' for binary, and EOI after the top value
+     */
+    private void peek() {
+        byte state = states[level];
+        if (state == STATE_COLON) {
+            ch = ':';
+            return;
+        }
+
+        if (level == 0) {
+            ch = state == STATE_NEXT || bp >= end ? EOI : valueChar(bytes[bp]);
+            return;
+        }
+
+        if (bp >= end) {
+            throw new JSONException("unexpected end of jsonb");
+        }
+
+        byte b = bytes[bp];
+        if (b == BC_END) {
+            if (state == STATE_VALUE && objects[level]) {
+                throw new JSONException("illegal jsonb, object member without value, offset " + bp);
+            }
+            ch = objects[level] ? '}' : ']';
+        } else if (state == STATE_NEXT) {
+            ch = ',';
+        } else if (state == STATE_KEY) {
+            if (b != BC_STRING && b != BC_SYMBOL && b != BC_SYMBOL_REF) {
+                throw new JSONException("illegal jsonb key type " + b + ", offset " + bp);
+            }
+            ch = '"';
+        } else {
+            ch = valueChar(b);
+        }
+    }
+
+    private char valueChar(byte b) {
+        switch (b) {
+            case BC_NULL:
+                return 'n';
+            case BC_FALSE:
+                return 'f';
+            case BC_TRUE:
+                return 't';
+            case BC_INT32:
+            case BC_INT64:
+            case BC_FLOAT:
+            case BC_DOUBLE:
+            case BC_BIGINT:
+            case BC_DECIMAL:
+                return '0';
+            case BC_STRING:
+                return '"';
+            case BC_OBJECT:
+                return '{';
+            case BC_ARRAY:
+                return '[';
+            case BC_BINARY:
+                return 'x';
+            default:
+                throw new JSONException("illegal jsonb type " + b + ", offset " + bp);
+        }
+    }
+
+    private void push(boolean object) {
+        if (++level > MAX_LEVEL) {
+            throw new JSONException("jsonb level > " + MAX_LEVEL);
+        }
+
+        if (level == states.length) {
+            objects = Arrays.copyOf(objects, level * 2);
+            states = Arrays.copyOf(states, level * 2);
+        }
+        objects[level] = object;
+        states[level] = object ? STATE_KEY : STATE_VALUE;
+    }
+
+    private void readValue() {
+        byte b = bytes[bp++];
+        switch (b) {
+            case BC_NULL:
+                token = JSONToken.NULL;
+                break;
+            case BC_FALSE:
+                token = JSONToken.FALSE;
+                break;
+            case BC_TRUE:
+                token = JSONToken.TRUE;
+                break;
+            case BC_INT32: {
+                int value = readVarInt();
+                longValue = (value >>> 1) ^ -(value & 1);
+                token = JSONToken.LITERAL_INT;
+                break;
+            }
+            case BC_INT64: {
+                long value = readVarLong();
+                longValue = (value >>> 1) ^ -(value & 1);
+                token = JSONToken.LITERAL_INT;
+                break;
+            }
+            case BC_BIGINT:
+                bigValue = new BigInteger(readBinary());
+                token = JSONToken.LITERAL_INT;
+                break;
+            case BC_FLOAT:
+                doubleValue = Float.intBitsToFloat(readFixedInt());
+                token = JSONToken.LITERAL_FLOAT;
+                break;
+            case BC_DOUBLE:
+                doubleValue = Double.longBitsToDouble(((long) readFixedInt() << 32) | (readFixedInt() & 0xFFFFFFFFL));
+                token = JSONToken.LITERAL_FLOAT;
+                break;
+            case BC_DECIMAL: {
+                int scale = readVarInt();
+                scale = (scale >>> 1) ^ -(scale & 1);
+                bigValue = new BigDecimal(new BigInteger(readBinary()), scale);
+                token = JSONToken.LITERAL_FLOAT;
+                break;
+            }
+            case BC_STRING:
+                stringValue = readUTF8();
+                token = JSONToken.LITERAL_STRING;
+                break;
+            case BC_BINARY:
+                binaryValue = readBinary();
+                token = JSONToken.HEX;
+                break;
+            default:
+                throw new JSONException("illegal jsonb type " + b + ", offset " + (bp - 1));
+        }
+        type = b;
+
+        states[level] = STATE_NEXT;
+        peek();
+    }
+
+    private void skipScalar(byte b) {
+        switch (b) {
+            case BC_NULL:
+            case BC_FALSE:
+            case BC_TRUE:
+                break;
+            case BC_INT32:
+            case BC_INT64:
+                readVarLong();
+                break;
+            case BC_FLOAT:
+                checkAvailable(4);
+                bp += 4;
+                break;
+            case BC_DOUBLE:
+                checkAvailable(8);
+                bp += 8;
+                break;
+            case BC_DECIMAL:
+                readVarInt();
+                skipBytes();
+                break;
+            case BC_BIGINT:
+            case BC_STRING:
+            case BC_BINARY:
+                skipBytes();
+                break;
+            default:
+                throw new JSONException("illegal jsonb type " + b + ", offset " + (bp - 1));
+        }
+    }
+
+    private String readKey(SymbolTable symbolTable) {
+        byte b = bytes[bp++];
+        if (b == BC_SYMBOL_REF) {
+            int symbol = readVarInt();
+            if (symbol < 0 || symbol >= symbolCount) {
+                throw new JSONException("illegal jsonb symbol " + symbol);
+            }
+            return symbols[symbol];
+        }
+
+        String key = readSymbol(symbolTable);
+        if (b == BC_SYMBOL) {
+            if (symbols == null) {
+                symbols = new String[16];
+            } else if (symbolCount == symbols.length) {
+                symbols = Arrays.copyOf(symbols, symbolCount * 2);
+            }
+            symbols[symbolCount++] = key;
+        }
+        return key;
+    }
+
+    private String readSymbol(SymbolTable symbolTable) {
+        int length = readVarInt();
+        checkAvailable(length);
+
+        int start = bp;
+        bp += length;
+        if (length > sbuf.length) {
+            sbuf = new char[length];
+        }
+
+        int hash = 0;
+        for (int i = 0; i < length; ++i) {
+            byte b = bytes[start + i];
+            if (b < 0) {
+                String text = new String(bytes, start, length, IOUtils.UTF8);
+                return symbolTable.addSymbol(text, 0, text.length(), text.hashCode());
+            }
+            sbuf[i] = (char) b;
+            hash = 31 * hash + b;
+        }
+        return symbolTable.addSymbol(sbuf, 0, length, hash);
+    }
+
+    private int readFixedInt() {
+        checkAvailable(4);
+        int value = ((bytes[bp] & 0xFF) << 24)
+                | ((bytes[bp + 1] & 0xFF) << 16)
+                | ((bytes[bp + 2] & 0xFF) << 8)
+                | (bytes[bp + 3] & 0xFF);
+        bp += 4;
+        return value;
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            checkAvailable(1);
+            byte b = bytes[bp++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new JSONException("illegal jsonb varint, offset " + bp);
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            checkAvailable(1);
+            byte b = bytes[bp++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new JSONException("illegal jsonb varint, offset " + bp);
+    }
+
+    private byte[] readBinary() {
+        int length = readVarInt();
+        checkAvailable(length);
+        byte[] binary = Arrays.copyOfRange(bytes, bp, bp + length);
+        bp += length;
+        return binary;
+    }
+
+    private void skipBytes() {
+        int length = readVarInt();
+        checkAvailable(length);
+        bp += length;
+    }
+
+    private String readUTF8() {
+        int length = readVarInt();
+        checkAvailable(length);
+
+        int start = bp;
+        bp += length;
+        for (int i = start; i < bp; ++i) {
+            if (bytes[i] < 0) {
+                return new String(bytes, start, length, IOUtils.UTF8);
+            }
+        }
+
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = (char) bytes[start + i];
+        }
+        return new String(chars);
+    }
+
+    private void checkAvailable(int length) {
+        if (length < 0 || length > end - bp) {
+            throw new JSONException("unexpected end of jsonb");
+        }
+    }
+
+    // the text access of JSONLexerBase, jsonb has no chars: field names never match as text and the scan methods
+    // which read chars see EOI
+
+    public char charAt(int index) {
+        return EOI;
+    }
+
+    protected boolean charArrayCompare(char[] chars) {
+        return false;
+    }
+
+    protected void arrayCopy(int srcPos, char[] dest, int destPos, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    protected void copyTo(int offset, int count, char[] dest) {
+        throw new UnsupportedOperationException();
+    }
+
+    public int indexOf(char ch, int startIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    public String addSymbol(int offset, int len, int hash, SymbolTable symbolTable) {
+        throw new UnsupportedOperationException();
+    }
+
+    public String subString(int offset, int count) {
+        throw new UnsupportedOperationException();
+    }
+
+    protected char[] sub_chars(int offset, int count) {
+        throw new UnsupportedOperationException();
+    }
+}
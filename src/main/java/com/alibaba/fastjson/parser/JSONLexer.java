@@ -96,6 +96,11 @@ public interface JSONLexer {
 
     float floatValue();
 
+    /**
+     * @since 1.2.84
+     */
+    double doubleValue();
+
     int scanInt(char expectNext);
     long scanLong(char expectNextChar);
     float scanFloat(char seperator);
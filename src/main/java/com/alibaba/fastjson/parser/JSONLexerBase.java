@@ -71,6 +71,8 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
     protected String                         stringDefaultValue = null;
     protected int                            nanos = 0;
 
+    private DateTimeFields                   dateTimeFields;
+
     public JSONLexerBase(int features) {
         this.features = features;
 
@@ -97,7 +99,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         this.token = token;
     }
 
-    public final void nextToken() {
+    public void nextToken() {
         sp = 0;
 
         for (;;) {
@@ -234,7 +236,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         scanStringSingleQuote();
     }
 
-    public final void nextToken(int expect) {
+    public void nextToken(int expect) {
         sp = 0;
 
         for (;;) {
@@ -434,7 +436,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         return stringDefaultValue;
     }
 
-    public final Number integerValue() throws NumberFormatException {
+    public Number integerValue() throws NumberFormatException {
         long result = 0;
         boolean negative = false;
         if (np == -1) {
@@ -672,7 +674,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     protected abstract void arrayCopy(int srcPos, char[] dest, int destPos, int length);
 
-    public final String scanSymbol(SymbolTable symbolTable, char quote) {
+    public String scanSymbol(SymbolTable symbolTable, char quote) {
         int hash = 0;
 
         np = bp;
@@ -929,7 +931,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     protected abstract void copyTo(int offset, int count, char[] dest);
 
-    public final void scanString() {
+    public void scanString() {
         np = bp;
         hasSpecial = false;
 
@@ -1103,7 +1105,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         this.locale = locale;
     }
 
-    public final int intValue() {
+    public int intValue() {
         if (np == -1) {
             np = 0;
         }
@@ -1169,7 +1171,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         this.sbuf = null;
     }
 
-    public final boolean isRef() {
+    public boolean isRef() {
         if (sp != 4) {
             return false;
         }
@@ -1307,6 +1309,71 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * skip ':' and the following value without building it, then scan the next token as after a field value
+     *
+     * @since 1.2.84
+     */
+    public void skipFieldValue() {
+        for (;;) {
+            if (ch == ':') {
+                next();
+                break;
+            }
+            if (isWhitespace(ch)) {
+                next();
+                continue;
+            }
+            throw new JSONException("not match : - " + ch + ", info : " + this.info());
+        }
+
+        skipWhitespace();
+        skipValue();
+    }
+
+    /**
+     * skip the value starting at ch, then scan the next token
+     */
+    protected void skipValue() {
+        int depth = 0;
+        char quote = 0;
+        for (;;) {
+            char c = ch;
+            if (c == EOI && isEOF()) {
+                throw new JSONException("unclosed json, " + info());
+            }
+
+            if (quote != 0) {
+                if (c == '\\') {
+                    next();
+                } else if (c == quote) {
+                    quote = 0;
+                    if (depth == 0) {
+                        next();
+                        break;
+                    }
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    break;
+                }
+                if (--depth == 0) {
+                    next();
+                    break;
+                }
+            } else if (depth == 0 && (c == ',' || isWhitespace(c))) {
+                break;
+            }
+            next();
+        }
+
+        nextToken(JSONToken.COMMA);
+    }
+
     public abstract int indexOf(char ch, int startIndex);
 
     public abstract String addSymbol(int offset, int len, int hash, SymbolTable symbolTable);
@@ -2763,7 +2830,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         return value;
     }
 
-    public final float scanFloat(char seperator) {
+    public float scanFloat(char seperator) {
         matchStat = UNKNOWN;
 
         int offset = 0;
@@ -4175,6 +4242,118 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         return dateVal;
     }
 
+    /**
+     * scan the current string token in place as a fixed date time layout
+     *
+     * @return the fields reused by this lexer, null if the token is not one of the layouts of DateTimeFields
+     * @since 1.2.84
+     */
+    public final DateTimeFields scanDateTime() {
+        if (token != JSONToken.LITERAL_STRING || hasSpecial || charAt(np) != '"') {
+            return null;
+        }
+
+        DateTimeFields fields = getDateTimeFields();
+        if (fields.scan(this, np + 1, sp) == 0) {
+            return null;
+        }
+        return fields;
+    }
+
+    /**
+     * @param accept DateTimeFields.LAYOUT_ bits of the target type, other strings are returned in DateTimeFields.text
+     * @return null for json null or when not matched
+     * @since 1.2.84
+     */
+    public final DateTimeFields scanFieldDateTime(char[] fieldName, int accept) {
+        matchStat = UNKNOWN;
+
+        if (!charArrayCompare(fieldName)) {
+            matchStat = NOT_MATCH_NAME;
+            return null;
+        }
+
+        int offset = fieldName.length;
+        char chLocal = charAt(bp + (offset++));
+
+        DateTimeFields fields;
+        if (chLocal == '"') {
+            int startIndex = bp + offset;
+            int endIndex = indexOf('"', startIndex);
+            if (endIndex == -1) {
+                throw new JSONException("unclosed str");
+            }
+
+            startIndex = bp + offset; // must re compute
+            int len = endIndex - startIndex;
+            fields = getDateTimeFields();
+            if ((fields.scan(this, startIndex, len) & accept) == 0) {
+                String text = subString(startIndex, len);
+                if (text.indexOf('\\') != -1) {
+                    matchStat = NOT_MATCH;
+                    return null;
+                }
+                fields.text = text;
+            }
+
+            offset += len + 1;
+            chLocal = charAt(bp + (offset++));
+        } else if (chLocal == 'n'
+                && charAt(bp + offset) == 'u'
+                && charAt(bp + offset + 1) == 'l'
+                && charAt(bp + offset + 2) == 'l') {
+            fields = null;
+            offset += 3;
+            chLocal = charAt(bp + (offset++));
+        } else {
+            matchStat = NOT_MATCH;
+            return null;
+        }
+
+        if (chLocal == ',') {
+            updateCharPosition(offset);
+            matchStat = VALUE;
+            return fields;
+        }
+
+        if (chLocal != '}') {
+            matchStat = NOT_MATCH;
+            return null;
+        }
+        chLocal = charAt(bp + (offset++));
+        if (chLocal == ',') {
+            token = JSONToken.COMMA;
+            updateCharPosition(offset);
+        }
+        else if (chLocal == ']') {
+            token = JSONToken.RBRACKET;
+            updateCharPosition(offset);
+        }
+        else if (chLocal == '}') {
+            token = JSONToken.RBRACE;
+            updateCharPosition(offset);
+        }
+        else{
+            if (chLocal != EOI) {
+                matchStat = NOT_MATCH;
+                return null;
+            }
+            token = JSONToken.EOF;
+            bp += offset - 1;
+            ch = EOI;
+        }
+        matchStat = END;
+
+        return fields;
+    }
+
+    private DateTimeFields getDateTimeFields() {
+        if (dateTimeFields == null) {
+            dateTimeFields = new DateTimeFields();
+        }
+        return dateTimeFields;
+    }
+
     public java.util.Date scanDate(char seperator) {
         matchStat = UNKNOWN;
 
@@ -5289,7 +5468,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         }
     }
 
-    public final void scanNumber() {
+    public void scanNumber() {
         np = bp;
 
         if (ch == '-') {
@@ -5366,7 +5545,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         next();
     }
 
-    public final long longValue() throws NumberFormatException {
+    public long longValue() throws NumberFormatException {
         long result = 0;
         boolean negative = false;
         long limit;
@@ -5423,7 +5602,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         return result;
     }
 
-    public final Number decimalValue(boolean decimal) {
+    public Number decimalValue(boolean decimal) {
         char chLocal = charAt(np + sp - 1);
         try {
             return parseNumberType(decimal, chLocal);
@@ -24,6 +24,7 @@ import java.math.MathContext;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
 import com.alibaba.fastjson.util.IOUtils;
 
 //这个类，为了性能优化做了很多特别处理，一切都是为了性能！！！
@@ -33,8 +34,6 @@ import com.alibaba.fastjson.util.IOUtils;
  */
 public final class JSONReaderScanner extends JSONLexerBase {
 
-    private final static ThreadLocal<char[]> BUF_LOCAL = new ThreadLocal<char[]>();
-
     private Reader                           reader;
     private char[]                           buf;
     private int                              bufLength;
@@ -59,14 +58,7 @@ public final class JSONReaderScanner extends JSONLexerBase {
         super(features);
         this.reader = reader;
 
-        buf = BUF_LOCAL.get();
-        if (buf != null) {
-            BUF_LOCAL.set(null);
-        }
-
-        if (buf == null) {
-            buf = new char[1024 * 16];
-        }
+        buf = BufferPool.getGlobal().leaseChars(1024 * 16);
 
         try {
             bufLength = reader.read(buf);
@@ -345,9 +337,7 @@ public final class JSONReaderScanner extends JSONLexerBase {
     public void close() {
         super.close();
 
-        if (buf.length <= 1024 * 64) {
-            BUF_LOCAL.set(buf);
-        }
+        BufferPool.getGlobal().releaseChars(buf);
         this.buf = null;
 
         IOUtils.close(reader);
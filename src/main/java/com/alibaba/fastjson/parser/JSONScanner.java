@@ -69,6 +69,21 @@ public final class JSONScanner extends JSONLexerBase {
                 : text.charAt(index);
     }
 
+    /**
+     * scans input[offset, offset + length) only, so that a part of a larger text is parsed in place
+     *
+     * @since 1.2.84
+     */
+    public JSONScanner(String input, int offset, int length, int features) {
+        super(features);
+
+        text = input;
+        len = offset + length;
+        bp = offset - 1;
+
+        next();
+    }
+
     public JSONScanner(char[] input, int inputLength) {
         this(input, inputLength, JSON.DEFAULT_PARSER_FEATURE);
     }
@@ -101,7 +116,8 @@ public final class JSONScanner extends JSONLexerBase {
     }
 
     public final int indexOf(char ch, int startIndex) {
-        return text.indexOf(ch, startIndex);
+        int index = text.indexOf(ch, startIndex);
+        return index < len ? index : -1;
     }
 
     public final String addSymbol(int offset, int len, int hash, SymbolTable symbolTable) {
@@ -2517,7 +2533,7 @@ public final class JSONScanner extends JSONLexerBase {
         boolean quote = false;
         int braceCnt = 0;
         int i = bp;
-        for (;i < text.length();++i) {
+        for (;i < len;++i) {
             char ch = text.charAt(i);
             if (ch == '\\') {
                 if (i >= len - 1) {
@@ -2546,7 +2562,7 @@ public final class JSONScanner extends JSONLexerBase {
                 }
                 if (braceCnt == -1) {
                     this.bp = i + 1;
-                    if (this.bp == text.length()) {
+                    if (this.bp == len) {
                         this.ch = EOI;
                         this.token = JSONToken.EOF;
                         return;
@@ -2555,7 +2571,7 @@ public final class JSONScanner extends JSONLexerBase {
                     if (this.ch == ',') {
                         token = JSONToken.COMMA;
                         int index = ++bp;
-                        this.ch = index >= text.length() //
+                        this.ch = index >= len //
                                 ? EOI //
                                 : text.charAt(index);
                         return;
@@ -2577,12 +2593,12 @@ public final class JSONScanner extends JSONLexerBase {
         }
 
         for (int j = 0;j < bp;j++) {
-            if (j < text.length() && text.charAt(j) == ' ') {
+            if (j < len && text.charAt(j) == ' ') {
                 i++;
             }
         }
 
-        if (i == text.length()) {
+        if (i == len) {
             throw new JSONException("illegal str, " + info());
         }
     }
@@ -2595,7 +2611,7 @@ public final class JSONScanner extends JSONLexerBase {
         boolean quote = false;
         int bracketCnt = 0;
         int i = bp;
-        for (;i < text.length();++i) {
+        for (;i < len;++i) {
             char ch = text.charAt(i);
             if (ch == '\\') {
                 if (i >= len - 1) {
@@ -2618,7 +2634,7 @@ public final class JSONScanner extends JSONLexerBase {
             else if (ch == '{' && valid) {
                 {
                     int index = ++bp;
-                    this.ch = index >= text.length() //
+                    this.ch = index >= len //
                             ? EOI //
                             : text.charAt(index);
                 }
@@ -2634,7 +2650,7 @@ public final class JSONScanner extends JSONLexerBase {
                 }
                 if (bracketCnt == -1) {
                     this.bp = i + 1;
-                    if (this.bp == text.length()) {
+                    if (this.bp == len) {
                         this.ch = EOI;
                         token = JSONToken.EOF;
                         return;
@@ -2646,7 +2662,7 @@ public final class JSONScanner extends JSONLexerBase {
             }
         }
 
-        if (i == text.length()) {
+        if (i == len) {
             throw new JSONException("illegal str, " + info());
         }
     }
@@ -2655,7 +2671,7 @@ public final class JSONScanner extends JSONLexerBase {
         if (ch != '"') {
             throw new UnsupportedOperationException();
         }
-        for (int i = bp + 1;i < text.length();++i) {
+        for (int i = bp + 1;i < len;++i) {
             char c = text.charAt(i);
             if (c == '\\') {
                 if (i < len - 1) {
@@ -2671,6 +2687,108 @@ public final class JSONScanner extends JSONLexerBase {
         throw new JSONException("unclosed str");
     }
 
+    /**
+     * split the items of the current array into ranges of about chunkSize chars, skipping each item
+     * with skipObject/skipArray/skipString instead of parsing it. lexer must be positioned at '['.
+     *
+     * @return [begin0, end0, begin1, end1, ...], each range holds whole items separated by ','
+     * @since 1.2.84
+     */
+    public int[] splitArray(int chunkSize) {
+        if (token != JSONToken.LBRACKET) {
+            throw new JSONException("syntax error, expect [, actual " + JSONToken.name(token) + ", " + info());
+        }
+
+        int[] ranges = new int[16];
+        int count = 0;
+        int chunkBegin = -1, itemEnd = -1;
+
+        for (;;) {
+            skipWhitespace();
+
+            if (ch == ',') {
+                // same as DefaultJSONParser.parseArray
+                if (!isEnabled(Feature.AllowArbitraryCommas)) {
+                    throw new JSONException("syntax error, unexpected ',', " + info());
+                }
+                next();
+                continue;
+            }
+
+            if (ch == ']') {
+                next();
+                token = JSONToken.RBRACKET;
+            } else {
+                int itemBegin = bp;
+                if (chunkBegin == -1) {
+                    chunkBegin = itemBegin;
+                }
+
+                skipArrayItem();
+
+                itemEnd = bp - 1;
+                while (itemEnd > itemBegin && isWhitespace(text.charAt(itemEnd - 1))) {
+                    itemEnd--;
+                }
+            }
+
+            if (token == JSONToken.COMMA) {
+                if (itemEnd - chunkBegin < chunkSize) {
+                    continue;
+                }
+            } else if (token != JSONToken.RBRACKET) {
+                throw new JSONException("illegal json, " + info());
+            }
+
+            if (chunkBegin != -1) {
+                if (count + 2 > ranges.length) {
+                    int[] newRanges = new int[ranges.length * 2];
+                    System.arraycopy(ranges, 0, newRanges, 0, count);
+                    ranges = newRanges;
+                }
+                ranges[count++] = chunkBegin;
+                ranges[count++] = itemEnd;
+                chunkBegin = -1;
+            }
+
+            if (token == JSONToken.RBRACKET) {
+                nextToken(JSONToken.EOF);
+                break;
+            }
+        }
+
+        int[] result = new int[count];
+        System.arraycopy(ranges, 0, result, 0, count);
+        return result;
+    }
+
+    protected void skipValue() {
+        skipArrayItem();
+    }
+
+    private void skipArrayItem() {
+        switch (ch) {
+            case '{':
+                next();
+                token = JSONToken.LBRACE;
+                skipObject(false);
+                break;
+            case '[':
+                next();
+                token = JSONToken.LBRACKET;
+                skipArray(false);
+                break;
+            case '"':
+                skipString();
+                nextToken(JSONToken.COMMA);
+                break;
+            default:
+                nextToken();
+                nextToken(JSONToken.COMMA);
+                break;
+        }
+    }
+
     public boolean seekArrayToItem(int index) {
         if (index < 0) {
             throw new IllegalArgumentException("index must > 0, but " + index);
@@ -2712,7 +2830,7 @@ public final class JSONScanner extends JSONLexerBase {
             }
             else {
                 boolean match = false;
-                for (int j = bp + 1;j < text.length();++j) {
+                for (int j = bp + 1;j < len;++j) {
                     char c = text.charAt(j);
                     if (c == ',') {
                         match = true;
@@ -2785,11 +2903,11 @@ public final class JSONScanner extends JSONLexerBase {
                 throw new UnsupportedOperationException();
             hash = fnv1a_64_magic_hashcode;
 
-            for (int i = bp + 1;i < text.length();++i) {
+            for (int i = bp + 1;i < len;++i) {
                 char c = text.charAt(i);
                 if (c == '\\') {
                     ++i;
-                    if (i == text.length()) {
+                    if (i == len) {
                         throw new JSONException("unclosed str, " + info());
                     }
                     c = text.charAt(i);
@@ -2797,7 +2915,7 @@ public final class JSONScanner extends JSONLexerBase {
 
                 if (c == '"') {
                     bp = i + 1;
-                    ch = bp >= text.length() //
+                    ch = bp >= len //
                             ? EOI //
                             : text.charAt(bp);
                     break;
@@ -3041,7 +3159,7 @@ public final class JSONScanner extends JSONLexerBase {
 
     private void incrementIndexAndGetChar() {
         int index = ++bp;
-        ch = index >= text.length() //
+        ch = index >= len //
 		        ? EOI //
 		        : text.charAt(index);
     }
@@ -3075,11 +3193,11 @@ public final class JSONScanner extends JSONLexerBase {
                 throw new UnsupportedOperationException();
             hash = fnv1a_64_magic_hashcode;
 
-            for (int i = bp + 1;i < text.length();++i) {
+            for (int i = bp + 1;i < len;++i) {
                 char c = text.charAt(i);
                 if (c == '\\') {
                     ++i;
-                    if (i == text.length()) {
+                    if (i == len) {
                         throw new JSONException("unclosed str, " + info());
                     }
                     c = text.charAt(i);
@@ -3087,7 +3205,7 @@ public final class JSONScanner extends JSONLexerBase {
 
                 if (c == '"') {
                     bp = i + 1;
-                    ch = bp >= text.length() //
+                    ch = bp >= len //
                             ? EOI //
                             : text.charAt(bp);
                     break;
@@ -51,6 +51,7 @@ import com.alibaba.fastjson.asm.ClassReader;
 import com.alibaba.fastjson.asm.TypeCollector;
 import com.alibaba.fastjson.parser.deserializer.*;
 import com.alibaba.fastjson.serializer.*;
+import com.alibaba.fastjson.spi.Metrics;
 import com.alibaba.fastjson.spi.Module;
 import com.alibaba.fastjson.support.moneta.MonetaCodec;
 import com.alibaba.fastjson.util.*;
@@ -151,6 +152,9 @@ public class ParserConfig {
     private List<Module>                                    modules = new ArrayList<Module>();
     private volatile List<AutoTypeCheckHandler>             autoTypeCheckHandlers;
     private boolean                                         safeMode = SAFE_MODE;
+    private Projection                                      projection;
+    private volatile Metrics                                metrics;
+    private volatile CompactMap.Shapes                      compactShapes;
 
     {
         denyHashCodes = new long[]{
@@ -557,6 +561,40 @@ public class ParserConfig {
         this.safeMode = safeMode;
     }
 
+    /**
+     * @since 1.2.84
+     */
+    public Projection getProjection() {
+        return projection;
+    }
+
+    /**
+     * projection of every parser created with this config, {@link Projection#ALL} skips the unmatched fields
+     *
+     * @since 1.2.84
+     */
+    public void setProjection(Projection projection) {
+        this.projection = projection;
+    }
+
+    /**
+     * the shapes of the JSONObjects parsed with Feature.CompactObject, they retain their keys as long as this config
+     *
+     * @since 1.2.84
+     */
+    public CompactMap.Shapes getCompactShapes() {
+        CompactMap.Shapes shapes = compactShapes;
+        if (shapes == null) {
+            synchronized (this) {
+                shapes = compactShapes;
+                if (shapes == null) {
+                    compactShapes = shapes = new CompactMap.Shapes();
+                }
+            }
+        }
+        return shapes;
+    }
+
     public boolean isAutoTypeSupport() {
         return autoTypeSupport;
     }
@@ -573,6 +611,21 @@ public class ParserConfig {
         this.asmEnable = asmEnable;
     }
 
+    /**
+     * @since 1.2.84
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics receives parse and deserializer events of this config, null to disable
+     * @since 1.2.84
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * @deprecated
      */
@@ -586,6 +639,10 @@ public class ParserConfig {
 
     public ObjectDeserializer getDeserializer(Type type) {
         ObjectDeserializer deserializer = get(type);
+        Metrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.cacheLookup(true, deserializer != null);
+        }
         if (deserializer != null) {
             return deserializer;
         }
@@ -985,7 +1042,9 @@ public class ParserConfig {
     }
 
     public ObjectDeserializer createJavaBeanDeserializer(Class<?> clazz, Type type) {
+        long start = this.metrics == null ? 0 : System.nanoTime();
         boolean asmEnable = this.asmEnable & !this.fieldBased;
+        String reason = asmEnable ? null : (this.fieldBased ? "fieldBased" : "asmDisabled");
         if (asmEnable) {
             JSONType jsonType = TypeUtils.getAnnotation(clazz, JSONType.class);
 
@@ -1004,6 +1063,9 @@ public class ParserConfig {
 
                 asmEnable = jsonType.asm()
                         && jsonType.parseFeatures().length == 0;
+                if (!asmEnable) {
+                    reason = "jsonType";
+                }
             }
 
             if (asmEnable) {
@@ -1015,6 +1077,7 @@ public class ParserConfig {
                 for (;;) {
                     if (!Modifier.isPublic(superClass.getModifiers())) {
                         asmEnable = false;
+                        reason = "notPublic";
                         break;
                     }
 
@@ -1026,56 +1089,78 @@ public class ParserConfig {
             }
         }
 
-        if (clazz.getTypeParameters().length != 0) {
+        if (asmEnable && clazz.getTypeParameters().length != 0) {
             asmEnable = false;
+            reason = "typeParameters";
         }
 
         if (asmEnable && asmFactory != null && asmFactory.classLoader.isExternalClass(clazz)) {
             asmEnable = false;
+            reason = "externalClass";
         }
 
-        if (asmEnable) {
-            asmEnable = ASMUtils.checkName(clazz.getSimpleName());
+        if (asmEnable && !ASMUtils.checkName(clazz.getSimpleName())) {
+            asmEnable = false;
+            reason = "className";
         }
 
         if (asmEnable) {
-            asmEnable = determineAsmEligibility(clazz, type, asmEnable);
+            reason = determineAsmEligibility(clazz, type);
+            asmEnable = reason == null;
         }
 
         if (asmEnable) {
             if (clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers())) {
                 asmEnable = false;
+                reason = "innerClass";
             }
         }
 
         if (asmEnable) {
             if (TypeUtils.isXmlField(clazz)) {
                 asmEnable = false;
+                reason = "xmlField";
             }
         }
 
+        Metrics metrics = this.metrics;
         if (!asmEnable) {
+            if (metrics != null) {
+                metrics.codecCreated(clazz, true, false, reason, System.nanoTime() - start);
+            }
             return new JavaBeanDeserializer(this, clazz, type);
         }
 
         JavaBeanInfo beanInfo = JavaBeanInfo.build(clazz, type, propertyNamingStrategy);
+        ObjectDeserializer deserializer;
         try {
-            return asmFactory.createJavaBeanDeserializer(this, beanInfo);
+            deserializer = asmFactory.createJavaBeanDeserializer(this, beanInfo);
+            reason = null;
             // } catch (VerifyError e) {
             // e.printStackTrace();
             // return new JavaBeanDeserializer(this, clazz, type);
         } catch (NoSuchMethodException ex) {
-            return new JavaBeanDeserializer(this, clazz, type);
+            deserializer = new JavaBeanDeserializer(this, clazz, type);
+            reason = "asmError";
         } catch (JSONException asmError) {
-            return new JavaBeanDeserializer(this, beanInfo);
+            deserializer = new JavaBeanDeserializer(this, beanInfo);
+            reason = "asmError";
         } catch (Exception e) {
             throw new JSONException("create asm deserializer error, " + clazz.getName(), e);
         }
+
+        if (metrics != null) {
+            metrics.codecCreated(clazz, true, reason == null, reason, System.nanoTime() - start);
+        }
+        return deserializer;
     }
 
-    private boolean determineAsmEligibility(Class<?> clazz, Type type, boolean asmEnable) {
+    /**
+     * @return why asm can not be used for clazz, null if it can
+     */
+    private String determineAsmEligibility(Class<?> clazz, Type type) {
         if (clazz.isInterface()) {
-            asmEnable = false;
+            return "interface";
         }
         JavaBeanInfo beanInfo = JavaBeanInfo.build(clazz
                 , type
@@ -1085,40 +1170,36 @@ public class ParserConfig {
                 , jacksonCompatible
         );
 
-        if (asmEnable && beanInfo.fields.length > 200) {
-            asmEnable = false;
+        if (beanInfo.fields.length > 200) {
+            return "fieldCount";
         }
 
         Constructor<?> defaultConstructor = beanInfo.defaultConstructor;
-        if (asmEnable && defaultConstructor == null && !clazz.isInterface()) {
-            asmEnable = false;
+        if (defaultConstructor == null) {
+            return "noDefaultConstructor";
         }
 
-        return checkAsmEligibility_(asmEnable, beanInfo);
+        return checkAsmEligibility_(beanInfo);
     }
 
-    private boolean checkAsmEligibility_(boolean asmEnable, JavaBeanInfo beanInfo) {
+    private String checkAsmEligibility_(JavaBeanInfo beanInfo) {
         for (FieldInfo fieldInfo : beanInfo.fields) {
             if (fieldInfo.getOnly) {
-                asmEnable = false;
-                break;
+                return "getOnly:" + fieldInfo.name;
             }
 
             Class<?> fieldClass = fieldInfo.fieldClass;
             if (!Modifier.isPublic(fieldClass.getModifiers())) {
-                asmEnable = false;
-                break;
+                return "fieldClassNotPublic:" + fieldInfo.name;
             }
 
             if (fieldClass.isMemberClass() && !Modifier.isStatic(fieldClass.getModifiers())) {
-                asmEnable = false;
-                break;
+                return "fieldInnerClass:" + fieldInfo.name;
             }
 
             if (fieldInfo.getMember() != null //
 		        && !ASMUtils.checkName(fieldInfo.getMember().getName())) {
-                asmEnable = false;
-                break;
+                return "memberName:" + fieldInfo.name;
             }
 
             JSONField annotation = fieldInfo.getAnnotation();
@@ -1129,19 +1210,17 @@ public class ParserConfig {
 		            || annotation.parseFeatures().length != 0 //
 		            || annotation.unwrapped())
                     || (fieldInfo.method != null && fieldInfo.method.getParameterTypes().length > 1)) {
-                asmEnable = false;
-                break;
+                return "jsonField:" + fieldInfo.name;
             }
 
             if (fieldClass.isEnum()) { // EnumDeserializer
 		        ObjectDeserializer fieldDeser = this.getDeserializer(fieldClass);
                 if (!(fieldDeser instanceof EnumDeserializer)) {
-                    asmEnable = false;
-                    break;
+                    return "enumDeserializer:" + fieldInfo.name;
                 }
             }
         }
-        return asmEnable;
+        return null;
     }
 
     public FieldDeserializer createFieldDeserializer(ParserConfig mapping, //
@@ -1403,6 +1482,22 @@ public class ParserConfig {
     }
 
     public Class<?> checkAutoType(String typeName, Class<?> expectClass, int features) {
+        Metrics metrics = this.metrics;
+        if (metrics == null || typeName == null) {
+            return checkAutoType0(typeName, expectClass, features);
+        }
+
+        long start = System.nanoTime();
+        Class<?> type = null;
+        try {
+            type = checkAutoType0(typeName, expectClass, features);
+            return type;
+        } finally {
+            metrics.autoTypeChecked(typeName, type, System.nanoTime() - start);
+        }
+    }
+
+    private Class<?> checkAutoType0(String typeName, Class<?> expectClass, int features) {
         if (typeName == null) {
             return null;
         }
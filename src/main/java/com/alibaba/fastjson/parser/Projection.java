@@ -0,0 +1,123 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSONException;
+
+/**
+ * Fields to bind when deserializing java beans. With a projection set on the parser, the values of unmatched
+ * fields are skipped by the lexer without being built, unless an ExtraProcessor, ExtraTypeProvider or
+ * ExtraProcessable needs them.
+ *
+ * <pre>
+ * Projection projection = Projection.of("$.id", "$.user.name", "$.items[*].sku");
+ * Order order = JSON.parseObject(text, Order.class, projection);
+ * </pre>
+ *
+ * Array index segments are ignored, the items of an array field share the projection of the field. Map fields
+ * are bound whole, paths below a Map field are not applied to its entries.
+ *
+ * @since 1.2.84
+ */
+public final class Projection {
+
+    /**
+     * bind every matched field, only the unmatched fields are skipped
+     */
+    public final static Projection ALL = new Projection(null);
+
+    // null : all fields
+    private final Map<String, Projection> fields;
+
+    private Projection(Map<String, Projection> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param paths json paths of the fields to bind, like "$.user.name" or "items[*].sku"
+     */
+    public static Projection of(String... paths) {
+        Map<String, Projection> root = new HashMap<String, Projection>();
+        for (String path : paths) {
+            if (add(root, path)) {
+                return ALL;
+            }
+        }
+        return new Projection(root);
+    }
+
+    /**
+     * @return true if path selects the whole document
+     */
+    private static boolean add(Map<String, Projection> root, String path) {
+        if (path == null) {
+            throw new JSONException("projection path is null");
+        }
+
+        String[] segments = path.split("\\.");
+        Map<String, Projection> fields = root;
+        int count = 0;
+        for (int i = 0; i < segments.length; ++i) {
+            String name = segments[i];
+            int bracket = name.indexOf('[');
+            if (bracket != -1) {
+                name = name.substring(0, bracket);
+            }
+            if ((i == 0 && "$".equals(name)) || name.length() == 0) {
+                continue;
+            }
+
+            boolean last = i == segments.length - 1;
+            Projection child = fields.get(name);
+            if (last) {
+                fields.put(name, ALL);
+                return false;
+            }
+            if (child == ALL) {
+                return false;
+            }
+            if (child == null) {
+                child = new Projection(new HashMap<String, Projection>());
+                fields.put(name, child);
+            }
+            fields = child.fields;
+            count++;
+        }
+
+        // "$" or a path ending with an index segment
+        if (count == 0) {
+            return true;
+        }
+        throw new JSONException("illegal projection path : " + path);
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * @return projection of the value of field name, null if the field is excluded
+     */
+    public Projection get(String name) {
+        if (fields == null) {
+            return this;
+        }
+        return fields.get(name);
+    }
+}
@@ -899,6 +899,14 @@ public class ASMDeserializerFactory implements Opcodes {
         else if (fieldClass.isEnum()) {
             deserializeEnumField(context, mw, fieldInfo, fieldClass);
         }
+        else if (isJavaTimeScanField(context, fieldInfo)) {
+            loadLexerField(context, mw, fieldInfo);
+            mw.visitLdcInsn(com.alibaba.fastjson.asm.Type.getType(desc(fieldClass)));
+            mw.visitMethodInsn(INVOKESTATIC, type(Jdk8DateCodec.class), "scanField",
+                    "(" + desc(com.alibaba.fastjson.parser.JSONLexerBase.class) + "[CLjava/lang/Class;)Ljava/lang/Object;");
+            mw.visitTypeInsn(CHECKCAST, type(fieldClass));
+            mw.visitVarInsn(ASTORE, context.var_asm(fieldInfo));
+        }
         else{
             if (!Collection.class.isAssignableFrom(fieldClass)) {
                 deserializeFieldInfo(context, mw, reset_, fieldListSize, i, fieldInfo, fieldClass);
@@ -945,6 +953,14 @@ public class ASMDeserializerFactory implements Opcodes {
         }
     }
 
+    private boolean isJavaTimeScanField(Context context, FieldInfo fieldInfo) {
+        Class<?> fieldClass = fieldInfo.fieldClass;
+        return fieldClass.getName().startsWith("java.time.")
+                && fieldInfo.format == null
+                && Jdk8DateCodec.isScanFieldSupported(fieldClass)
+                && context.config.getDeserializer(fieldClass) == Jdk8DateCodec.instance;
+    }
+
 	private void invokeLexerStatusCheck(Context context, MethodVisitor mw) {
 		getLexerMatchStatus(context, mw);
         mw.visitLdcInsn(com.alibaba.fastjson.parser.JSONLexerBase.END);
@@ -1855,6 +1871,7 @@ public class ASMDeserializerFactory implements Opcodes {
 
         private final Class<?>             clazz;
         private final JavaBeanInfo         beanInfo;
+        private final ParserConfig         config;
         private final String               className;
         private FieldInfo[]                fieldInfoList;
 
@@ -1863,6 +1880,7 @@ public class ASMDeserializerFactory implements Opcodes {
             this.clazz = beanInfo.clazz;
             this.variantIndex = initVariantIndex;
             this.beanInfo = beanInfo;
+            this.config = config;
             fieldInfoList = beanInfo.fields;
         }
 
@@ -2,12 +2,13 @@ package com.alibaba.fastjson.parser.deserializer;
 
 import java.lang.reflect.Type;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Locale;
+import java.util.TimeZone;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.parser.*;
+import com.alibaba.fastjson.util.DateFormatter;
 import com.alibaba.fastjson.util.TypeUtils;
 
 public abstract class AbstractDateDeserializer extends ContextObjectDeserializer implements ObjectDeserializer {
@@ -113,28 +114,14 @@ public abstract class AbstractDateDeserializer extends ContextObjectDeserializer
 
     private <T> Object parseFormattedDate(DefaultJSONParser parser, String format, String strVal) {
         Object val;
-        SimpleDateFormat simpleDateFormat = null;
-        try {
-            simpleDateFormat = new SimpleDateFormat(format, parser.lexer.getLocale());
-        } catch (IllegalArgumentException ex) {
-            simpleDateFormat = formatDate(parser, format, simpleDateFormat, ex);
-        }
+        TimeZone timeZone = parser.lexer.getTimeZone();
+        DateFormatter dateFormatter = getDateFormatter(format, parser.lexer.getLocale(), timeZone);
 
-        if (JSON.defaultTimeZone != null) {
-            simpleDateFormat.setTimeZone(parser.lexer.getTimeZone());
-        }
-
-        val = parseDate(strVal, simpleDateFormat);
+        val = parseDate(strVal, dateFormatter);
 
         if (val == null && JSON.defaultLocale == Locale.CHINA) {
-            try {
-                simpleDateFormat = new SimpleDateFormat(format, Locale.US);
-            } catch (IllegalArgumentException ex) {
-                simpleDateFormat = formatDate(parser, format, simpleDateFormat, ex);
-            }
-            simpleDateFormat.setTimeZone(parser.lexer.getTimeZone());
-
-            val = parseDate(strVal, simpleDateFormat);
+            dateFormatter = getDateFormatter(format, Locale.US, timeZone);
+            val = parseDate(strVal, dateFormatter);
         }
 
         if (val == null) {
@@ -178,14 +165,8 @@ public abstract class AbstractDateDeserializer extends ContextObjectDeserializer
         Object val;
         if (format.equals("yyyy-MM-dd'T'HH:mm:ss.SSS") //
 		        && strVal.length() == 19) {
-            try {
-                SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", JSON.defaultLocale);
-                df.setTimeZone(JSON.defaultTimeZone);
-                val = df.parse(strVal);
-            } catch (ParseException ex2) {
-                // skip
-		        val = null;
-            }
+            DateFormatter df = DateFormatter.of("yyyy-MM-dd'T'HH:mm:ss", JSON.defaultLocale, JSON.defaultTimeZone);
+            val = parseDate(strVal, df);
         } else {
             // skip
 		    val = null;
@@ -202,10 +183,10 @@ public abstract class AbstractDateDeserializer extends ContextObjectDeserializer
         return millis;
     }
 
-    private <T> Object parseDate(String strVal, SimpleDateFormat simpleDateFormat) {
+    private <T> Object parseDate(String strVal, DateFormatter dateFormatter) {
         Object val;
         try {
-            val = simpleDateFormat.parse(strVal);
+            val = dateFormatter.parse(strVal);
         } catch (ParseException ex) {
             val = null;
             // skip
@@ -213,17 +194,20 @@ public abstract class AbstractDateDeserializer extends ContextObjectDeserializer
         return val;
     }
 
-    private <T> SimpleDateFormat formatDate(DefaultJSONParser parser, String format, SimpleDateFormat simpleDateFormat,
-            IllegalArgumentException ex) {
-        if (format.contains("T")) {
-            String fromat2 = format.replaceAll("T", "'T'");
-            try {
-            simpleDateFormat = new SimpleDateFormat(fromat2, parser.lexer.getLocale());
-            } catch (IllegalArgumentException e2) {
-                throw ex;
+    private DateFormatter getDateFormatter(String format, Locale locale, TimeZone timeZone) {
+        try {
+            return DateFormatter.of(format, locale, timeZone);
+        } catch (IllegalArgumentException ex) {
+            if (format.contains("T")) {
+                String fromat2 = format.replaceAll("T", "'T'");
+                try {
+                    return DateFormatter.of(fromat2, locale, timeZone);
+                } catch (IllegalArgumentException e2) {
+                    // skip
+                }
             }
+            throw ex;
         }
-        return simpleDateFormat;
     }
 
     protected abstract <T> T cast(DefaultJSONParser parser, Type clazz, Object fieldName, Object value);
@@ -351,6 +351,15 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
         return deserialze(parser, type, fieldName, null, features, null);
     }
 
+    /**
+     * deserialize the current object into an existing instance, fields absent from the json keep their value
+     *
+     * @since 1.2.84
+     */
+    public <T> T deserialzeTo(DefaultJSONParser parser, Type type, T object) {
+        return deserialze(parser, type, null, object, 0, null);
+    }
+
     @SuppressWarnings({"unchecked"})
     public <T> T deserialzeArrayMapping(DefaultJSONParser parser, Type type, Object fieldName, Object object) {
         JSONLexer lexer = parser.lexer; // xxx
@@ -519,6 +528,9 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
             }
 
             String typeKey = beanInfo.typeKey;
+            // an include set has to see every key, the sorted fast match would bind excluded fields
+            Projection projection = parser.getProjection();
+            boolean fastMatch = projection == null || projection.isAll();
             for (int fieldIndex = 0, notMatchCount = 0;;fieldIndex++) {
                 String key = null;
                 FieldDeserializer fieldDeserializer = null;
@@ -526,7 +538,7 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                 Class<?> fieldClass = null;
                 JSONField fieldAnnotation = null;
                 boolean customDeserializer = false;
-                if (fieldIndex < sortedFieldDeserializers.length && notMatchCount < 16) {
+                if (fastMatch && fieldIndex < sortedFieldDeserializers.length && notMatchCount < 16) {
                     fieldDeserializer = sortedFieldDeserializers[fieldIndex];
                     fieldInfo = fieldDeserializer.fieldInfo;
                     fieldClass = fieldInfo.fieldClass;
@@ -1335,6 +1347,13 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                               Map<String, Object> fieldValues, int[] setFlags) {
         JSONLexer lexer = parser.lexer; // xxx
 
+        Projection projection = parser.getProjection();
+        Projection fieldProjection = projection == null ? null : projection.get(key);
+        if (projection != null && fieldProjection == null) {
+            parser.skipFieldValue();
+            return false;
+        }
+
         int disableFieldSmartMatchMask = Feature.DisableFieldSmartMatch.mask;
         int initStringFieldAsEmpty = Feature.InitStringFieldAsEmpty.mask;
         FieldDeserializer fieldDeserializer;
@@ -1375,7 +1394,21 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
 
         lexer.nextTokenWithColon(fieldDeserializer.getFastMatchToken());
 
-        fieldDeserializer.parseField(parser, object, objectType, fieldValues);
+        if (fieldProjection != null && Map.class.isAssignableFrom(fieldDeserializer.fieldInfo.fieldClass)) {
+            // map entries are not projected, the values are bound whole
+            fieldProjection = null;
+        }
+
+        if (projection == fieldProjection) {
+            fieldDeserializer.parseField(parser, object, objectType, fieldValues);
+        } else {
+            parser.setProjection(fieldProjection);
+            try {
+                fieldDeserializer.parseField(parser, object, objectType, fieldValues);
+            } finally {
+                parser.setProjection(projection);
+            }
+        }
 
         setFlagAtIndex(setFlags, fieldIndex);
 
@@ -11,6 +11,7 @@ import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.time.Period;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.chrono.ChronoZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -21,8 +22,10 @@ import java.util.TimeZone;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.DateTimeFields;
 import com.alibaba.fastjson.parser.DefaultJSONParser;
 import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONLexerBase;
 import com.alibaba.fastjson.parser.JSONScanner;
 import com.alibaba.fastjson.parser.JSONToken;
 import com.alibaba.fastjson.serializer.*;
@@ -70,39 +73,21 @@ public class Jdk8DateCodec extends ContextObjectDeserializer implements ObjectSe
         }
 
         if (lexer.token() == JSONToken.LITERAL_STRING) {
-            String text = lexer.stringVal();
-            lexer.nextToken();
-
-            DateTimeFormatter formatter = null;
-            if (format != null) {
-                formatter = getDateTimeFormatter(format);
+            if (format == null && lexer instanceof JSONLexerBase) {
+                DateTimeFields fields = ((JSONLexerBase) lexer).scanDateTime();
+                if (fields != null) {
+                    Object value = toJavaTime(fields, type, lexer.getTimeZone());
+                    if (value != null) {
+                        lexer.nextToken();
+                        return (T) value;
+                    }
+                }
             }
 
-            if ("".equals(text)) {
-                return null;
-            }
+            String text = lexer.stringVal();
+            lexer.nextToken();
 
-            if (type == LocalDateTime.class)
-                return parseToDateTime(format, text, formatter);
-            if (type == LocalDate.class)
-                return parseToLocalDate(format, text, formatter);
-            if (type == LocalTime.class)
-                return parseToSpecificLocalTime(text);
-            if (type == ZonedDateTime.class)
-                return parseToZonedDateTime(parser, text, formatter);
-            if (type == OffsetDateTime.class)
-                return (T) OffsetDateTime.parse(text);
-            if (type == OffsetTime.class)
-                return (T) OffsetTime.parse(text);
-            if (type == ZoneId.class)
-                return (T) ZoneId.of(text);
-            if (type == Period.class)
-                return (T) Period.parse(text);
-            if (type == Duration.class)
-                return (T) Duration.parse(text);
-            if (type == Instant.class) {
-                return parseToInstant(text);
-            }
+            return parseString(type, text, format, lexer.getTimeZone());
         }
         else{
             if (lexer.token() == JSONToken.LITERAL_INT)
@@ -136,6 +121,131 @@ public class Jdk8DateCodec extends ContextObjectDeserializer implements ObjectSe
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> T parseString(Type type, String text, String format, TimeZone timeZone) {
+        DateTimeFormatter formatter = null;
+        if (format != null) {
+            formatter = getDateTimeFormatter(format);
+        }
+
+        if ("".equals(text)) {
+            return null;
+        }
+
+        if (type == LocalDateTime.class)
+            return parseToDateTime(format, text, formatter);
+        if (type == LocalDate.class)
+            return parseToLocalDate(format, text, formatter);
+        if (type == LocalTime.class)
+            return parseToSpecificLocalTime(text);
+        if (type == ZonedDateTime.class)
+            return parseToZonedDateTime(timeZone, text, formatter);
+        if (type == OffsetDateTime.class)
+            return (T) OffsetDateTime.parse(text);
+        if (type == OffsetTime.class)
+            return (T) OffsetTime.parse(text);
+        if (type == ZoneId.class)
+            return (T) ZoneId.of(text);
+        if (type == Period.class)
+            return (T) Period.parse(text);
+        if (type == Duration.class)
+            return (T) Duration.parse(text);
+        if (type == Instant.class) {
+            return parseToInstant(text);
+        }
+        return null;
+    }
+
+    /**
+     * @return the layouts a type is built from without a DateTimeFormatter, with the same result
+     */
+    private static int acceptLayouts(Type type) {
+        if (type == LocalDateTime.class) {
+            return DateTimeFields.LAYOUT_DATE | DateTimeFields.LAYOUT_DATE_TIME | DateTimeFields.LAYOUT_DATE_TIME_MILLIS;
+        }
+        if (type == LocalDate.class) {
+            return DateTimeFields.LAYOUT_DATE | DateTimeFields.LAYOUT_DATE_TIME_MILLIS_T;
+        }
+        if (type == Instant.class) {
+            return DateTimeFields.LAYOUT_UTC;
+        }
+        if (type == OffsetDateTime.class) {
+            return DateTimeFields.LAYOUT_OFFSET;
+        }
+        if (type == ZonedDateTime.class) {
+            return DateTimeFields.LAYOUT_DATE | DateTimeFields.LAYOUT_DATE_TIME | DateTimeFields.LAYOUT_OFFSET;
+        }
+        return 0;
+    }
+
+    /**
+     * @return null if type is not built from the scanned layout
+     */
+    private static Object toJavaTime(DateTimeFields fields, Type type, TimeZone timeZone) {
+        if ((fields.layout & acceptLayouts(type)) == 0) {
+            return null;
+        }
+
+        if (type == LocalDate.class) {
+            return LocalDate.of(fields.year, fields.month, fields.dayOfMonth);
+        }
+
+        if (type == Instant.class) {
+            return Instant.ofEpochSecond(fields.toEpochSecond(), fields.nano);
+        }
+
+        LocalDateTime localDateTime = LocalDateTime.of(fields.year
+                , fields.month
+                , fields.dayOfMonth
+                , fields.hour
+                , fields.minute
+                , fields.second
+                , fields.nano);
+
+        if (type == LocalDateTime.class) {
+            return localDateTime;
+        }
+
+        if ((fields.layout & DateTimeFields.LAYOUT_OFFSET) != 0) {
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds(fields.offsetSeconds);
+            return type == OffsetDateTime.class
+                    ? OffsetDateTime.of(localDateTime, offset)
+                    : ZonedDateTime.of(localDateTime, offset);
+        }
+
+        // ZonedDateTime in the time zone of the lexer, gaps and overlaps are resolved by the Calendar path
+        ZoneId zoneId = timeZone.toZoneId();
+        if (fields.year < 1583 || zoneId.getRules().getTransition(localDateTime) != null) {
+            return null;
+        }
+        return ZonedDateTime.of(localDateTime, zoneId);
+    }
+
+    /**
+     * scanField path of the ASM deserializers, for fields of LocalDateTime, LocalDate, Instant, OffsetDateTime
+     * and ZonedDateTime without format
+     *
+     * @since 1.2.84
+     */
+    public static Object scanField(JSONLexerBase lexer, char[] fieldName, Class<?> type) {
+        DateTimeFields fields = lexer.scanFieldDateTime(fieldName, acceptLayouts(type));
+        if (fields == null) {
+            return null;
+        }
+
+        if (fields.text != null) {
+            return instance.parseString(type, fields.text, null, lexer.getTimeZone());
+        }
+        return toJavaTime(fields, type, lexer.getTimeZone());
+    }
+
+    /**
+     * @return true if {@link #scanField(JSONLexerBase, char[], Class)} supports fields of type
+     */
+    public static boolean isScanFieldSupported(Class<?> type) {
+        return acceptLayouts(type) != 0;
+    }
+
     private <T> T parseToFormattedDateTime(Type type, String format, JSONLexer lexer) {
         long millis = lexer.longValue();
         lexer.nextToken();
@@ -188,7 +298,7 @@ public class Jdk8DateCodec extends ContextObjectDeserializer implements ObjectSe
         return (T) Instant.parse(text);
     }
 
-    private <T> T parseToZonedDateTime(DefaultJSONParser parser, String text, DateTimeFormatter formatter) {
+    private <T> T parseToZonedDateTime(TimeZone timeZone, String text, DateTimeFormatter formatter) {
         if (formatter == defaultFormatter) {
             formatter = ISO_FIXED_FORMAT;
         }
@@ -196,7 +306,6 @@ public class Jdk8DateCodec extends ContextObjectDeserializer implements ObjectSe
         if (formatter == null) {
             if (text.length() <= 19) {
                 JSONScanner s = new JSONScanner(text);
-                TimeZone timeZone = parser.lexer.getTimeZone();
                 s.setTimeZone(timeZone);
                 boolean match = s.scanISO8601DateIfMatch(false);
                 if (match) {
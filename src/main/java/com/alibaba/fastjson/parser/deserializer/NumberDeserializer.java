@@ -64,9 +64,9 @@ public class NumberDeserializer implements ObjectDeserializer {
 
     private <T> T parseValueType(Type clazz, JSONLexer lexer) {
         if (clazz == double.class || clazz == Double.class) {
-            String val = lexer.numberString();
+            double val = lexer.doubleValue();
             lexer.nextToken(JSONToken.COMMA);
-            return (T) Double.valueOf(Double.parseDouble(val));
+            return (T) Double.valueOf(val);
         }
 
         if (clazz == short.class || clazz == Short.class) {
@@ -87,9 +87,9 @@ public class NumberDeserializer implements ObjectDeserializer {
 
     private <T> T parseNumberValue(Type clazz, JSONLexer lexer) {
         if (clazz == double.class || clazz == Double.class) {
-            String val = lexer.numberString();
+            double val = lexer.doubleValue();
             lexer.nextToken(JSONToken.COMMA);
-            return (T) Double.valueOf(Double.parseDouble(val));
+            return (T) Double.valueOf(val);
         }
         
         long val = lexer.longValue();
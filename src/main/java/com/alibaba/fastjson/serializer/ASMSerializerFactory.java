@@ -306,6 +306,20 @@ public class ASMSerializerFactory implements Opcodes {
                 mw.visitMethodInsn(INVOKEVIRTUAL, JavaBeanSerializer, "writeDirect", "(L" + JSONSerializer + ";)Z");
                 mw.visitJumpInsn(IFNE, _directElse);
 
+                Label _filteredElse = new Label();
+                mw.visitVarInsn(ALOAD, 0);
+                mw.visitVarInsn(ALOAD, 1);
+                mw.visitVarInsn(ALOAD, 2);
+                mw.visitVarInsn(ALOAD, 3);
+                mw.visitVarInsn(ALOAD, 4);
+                mw.visitVarInsn(ILOAD, 5);
+                mw.visitMethodInsn(INVOKEVIRTUAL, JavaBeanSerializer,
+                                   "writeFiltered", "(L" + JSONSerializer
+                                                    + ";Ljava/lang/Object;Ljava/lang/Object;Ljava/lang/reflect/Type;I)Z");
+                mw.visitJumpInsn(IFEQ, _filteredElse);
+                mw.visitInsn(RETURN);
+
+                mw.visitLabel(_filteredElse);
                 mw.visitVarInsn(ALOAD, 0);
                 mw.visitVarInsn(ALOAD, 1);
                 mw.visitVarInsn(ALOAD, 2);
@@ -25,8 +25,8 @@ public abstract class AfterFilter implements SerializeFilter {
 
         boolean ref = serializer.containsReference(value);
         serializer.writeKeyValue(seperator, key, value);
-        if (!ref && serializer.references != null) {
-            serializer.references.remove(value);
+        if (!ref) {
+            serializer.untrack(value);
         }
         if (seperator != ',') {
             seperatorLocal.set(COMMA);
@@ -20,10 +20,10 @@ public abstract class BeforeFilter implements SerializeFilter {
         JSONSerializer serializer = serializerLocal.get();
         char seperator = seperatorLocal.get();
 
-        boolean ref = serializer.references.containsKey(value);
+        boolean ref = serializer.isTracked(value);
         serializer.writeKeyValue(seperator, key, value);
         if (!ref) {
-            serializer.references.remove(value);
+            serializer.untrack(value);
         }
 
         if (seperator != ',') {
@@ -42,6 +42,11 @@ public class BigDecimalCodec implements ObjectSerializer, ObjectDeserializer {
             out.writeNull(SerializerFeature.WriteNullNumberAsZero);
         } else {
             BigDecimal val = (BigDecimal) object;
+            if (out instanceof JSONBWriter) {
+                ((JSONBWriter) out).writeDecimal(val);
+                return;
+            }
+
             int scale = val.scale();
 
             String outText;
@@ -48,6 +48,11 @@ public class BigIntegerCodec implements ObjectSerializer, ObjectDeserializer {
         }
         
         BigInteger val = (BigInteger) object;
+        if (out instanceof JSONBWriter) {
+            ((JSONBWriter) out).writeBigInteger(val);
+            return;
+        }
+
         String str = val.toString();
         if (str.length() >= 16
                 && SerializerFeature.isEnabled(features, out.features, SerializerFeature.BrowserCompatible)
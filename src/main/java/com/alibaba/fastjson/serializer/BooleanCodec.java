@@ -42,11 +42,7 @@ public class BooleanCodec implements ObjectSerializer, ObjectDeserializer {
             return;
         }
 
-        if (value.booleanValue()) {
-            out.write("true");
-        } else {
-            out.write("false");
-        }
+        out.write(value.booleanValue());
     }
 
     @SuppressWarnings("unchecked")
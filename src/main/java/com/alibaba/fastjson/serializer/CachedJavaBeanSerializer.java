@@ -0,0 +1,252 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.fastjson.util.IdentityHashMap;
+
+/**
+ * Keeps the serialized text of each instance and splices it into the output the next time the same instance is
+ * written, for immutable reference data such as currency tables or configs which are embedded in every response.
+ * Enabled by JSONType#cacheSerialized or SerializeConfig#setCacheSerialized. Entries are keyed by identity and
+ * isolated by the features, date format, time zone and locale they were written with; when a serializer has
+ * filters, pretty format or WriteClassName on, the delegate writes as usual. With circular reference detection on,
+ * only beans without nested beans, collections or maps are cached, as those would have to be tracked for $ref.
+ *
+ * @since 1.2.84
+ */
+public class CachedJavaBeanSerializer extends JavaBeanSerializer {
+
+    public final static int                          DEFAULT_MAX_SIZE = 1024;
+
+    private final JavaBeanSerializer                 serializer;
+    private final int                                maxSize;
+
+    private volatile IdentityHashMap<Object, Fragment> fragments;
+    private final AtomicInteger                      size = new AtomicInteger();
+
+    public CachedJavaBeanSerializer(JavaBeanSerializer serializer) {
+        this(serializer, DEFAULT_MAX_SIZE);
+    }
+
+    public CachedJavaBeanSerializer(JavaBeanSerializer serializer, int maxSize) {
+        super(serializer.beanInfo);
+        this.serializer = serializer;
+        this.maxSize = maxSize;
+        this.fragments = new IdentityHashMap<Object, Fragment>(tableSize(maxSize));
+    }
+
+    public JavaBeanSerializer getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * drop all cached text, after an instance was changed in place
+     */
+    public void clear() {
+        fragments = new IdentityHashMap<Object, Fragment>(tableSize(maxSize));
+        size.set(0);
+    }
+
+    /**
+     * @return number of cached instances
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public void write(JSONSerializer serializer, //
+                      Object object, //
+                      Object fieldName, //
+                      Type fieldType, //
+                      int features) throws IOException {
+        if (!writeCached(serializer, object, fieldName, features, false)) {
+            int start = serializer.out.count;
+            int tracked = serializer.trackedSize();
+            this.serializer.write(serializer, object, fieldName, fieldType, features);
+            cache(serializer, object, features, start, tracked + 1);
+        }
+    }
+
+    public void writeDirectNonContext(JSONSerializer serializer, //
+                                      Object object, //
+                                      Object fieldName, //
+                                      Type fieldType, //
+                                      int features) throws IOException {
+        if (!writeCached(serializer, object, fieldName, features, true)) {
+            int start = serializer.out.count;
+            int tracked = serializer.trackedSize();
+            this.serializer.writeDirectNonContext(serializer, object, fieldName, fieldType, features);
+            cache(serializer, object, features, start, tracked);
+        }
+    }
+
+    public void writeAsArray(JSONSerializer serializer, //
+                             Object object, //
+                             Object fieldName, //
+                             Type fieldType, //
+                             int features) throws IOException {
+        this.serializer.writeAsArray(serializer, object, fieldName, fieldType, features);
+    }
+
+    public void writeAsArrayNonContext(JSONSerializer serializer, //
+                                       Object object, //
+                                       Object fieldName, //
+                                       Type fieldType, //
+                                       int features) throws IOException {
+        this.serializer.writeAsArrayNonContext(serializer, object, fieldName, fieldType, features);
+    }
+
+    public void writeNoneASM(JSONSerializer serializer, //
+                             Object object, //
+                             Object fieldName, //
+                             Type fieldType, //
+                             int features) throws IOException {
+        this.serializer.writeNoneASM(serializer, object, fieldName, fieldType, features);
+    }
+
+    protected void write(JSONSerializer serializer, //
+                         Object object, //
+                         Object fieldName, //
+                         Type fieldType, //
+                         int features, //
+                         boolean unwrapped) throws IOException {
+        this.serializer.write(serializer, object, fieldName, fieldType, features, unwrapped);
+    }
+
+    private boolean writeCached(JSONSerializer serializer, Object object, Object fieldName, int features,
+                                boolean nonContext) {
+        if (object == null || !isCacheable(serializer, features)) {
+            return false;
+        }
+
+        Fragment fragment = fragments.get(object);
+        if (fragment == null || !fragment.matches(serializer, features)) {
+            return false;
+        }
+
+        if (nonContext) {
+            serializer.out.write(fragment.chars, 0, fragment.chars.length);
+            return true;
+        }
+
+        if (writeReference(serializer, object, features)) {
+            return true;
+        }
+
+        // registered like a written bean, so a later occurrence still becomes a $ref
+        SerialContext parent = serializer.context;
+        serializer.setContext(parent, object, fieldName, beanInfo.features, features);
+        serializer.out.write(fragment.chars, 0, fragment.chars.length);
+        serializer.context = parent;
+        return true;
+    }
+
+    private void cache(JSONSerializer serializer, Object object, int features, int start, int maxTracked) {
+        SerializeWriter out = serializer.out;
+        if (object == null || !out.isBuffered() || !isCacheable(serializer, features) || out.count <= start) {
+            return;
+        }
+
+        if (serializer.trackedSize() > maxTracked) {
+            // the objects nested in the text are not registered when it is spliced in, a later occurrence would be
+            // written in full instead of as a $ref
+            return;
+        }
+
+        char[] chars = Arrays.copyOfRange(out.buf, start, out.count);
+        if (containsReference(chars)) {
+            // $ref paths are relative to where the object was written
+            return;
+        }
+
+        IdentityHashMap<Object, Fragment> fragments = this.fragments;
+        if (fragments.get(object) == null && size.get() >= maxSize) {
+            clear();
+            fragments = this.fragments;
+        }
+        if (!fragments.put(object, new Fragment(serializer, features, chars))) {
+            // put returns true when an instance cached with other features is replaced
+            size.incrementAndGet();
+        }
+    }
+
+    private static boolean containsReference(char[] chars) {
+        for (int i = 0; i + 4 < chars.length; ++i) {
+            if (chars[i] == '$' && chars[i + 1] == 'r' && chars[i + 2] == 'e' && chars[i + 3] == 'f') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCacheable(JSONSerializer serializer, int features) {
+        int mask = SerializerFeature.WriteClassName.mask | SerializerFeature.PrettyFormat.mask;
+        // the fragments are text, JSONB is written by the bean serializer itself
+        return serializer.writeDirect
+                && !(serializer.out instanceof JSONBWriter)
+                && (serializer.out.features & mask) == 0
+                && (features & mask) == 0;
+    }
+
+    private static int tableSize(int maxSize) {
+        int tableSize = 16;
+        while (tableSize < maxSize && tableSize < IdentityHashMap.DEFAULT_SIZE) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    private static final class Fragment {
+
+        final int      outFeatures;
+        final int      features;
+        final String   dateFormatPattern;
+        final String   fastJsonConfigDateFormatPattern;
+        final TimeZone timeZone;
+        final Locale   locale;
+        final char[]   chars;
+
+        Fragment(JSONSerializer serializer, int features, char[] chars) {
+            this.outFeatures = serializer.out.features;
+            this.features = features;
+            this.dateFormatPattern = serializer.getDateFormatPattern();
+            this.fastJsonConfigDateFormatPattern = serializer.getFastJsonConfigDateFormatPattern();
+            this.timeZone = serializer.timeZone;
+            this.locale = serializer.locale;
+            this.chars = chars;
+        }
+
+        boolean matches(JSONSerializer serializer, int features) {
+            return outFeatures == serializer.out.features
+                    && this.features == features
+                    && equals(dateFormatPattern, serializer.getDateFormatPattern())
+                    && equals(fastJsonConfigDateFormatPattern, serializer.getFastJsonConfigDateFormatPattern())
+                    && equals(timeZone, serializer.timeZone)
+                    && equals(locale, serializer.locale);
+        }
+
+        private static boolean equals(Object a, Object b) {
+            return a == b || (a != null && a.equals(b));
+        }
+    }
+}
@@ -2,11 +2,10 @@ package com.alibaba.fastjson.serializer;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.Locale;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.parser.DefaultJSONParser;
@@ -14,6 +13,7 @@ import com.alibaba.fastjson.parser.JSONLexer;
 import com.alibaba.fastjson.parser.JSONToken;
 import com.alibaba.fastjson.parser.deserializer.ContextObjectDeserializer;
 import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.util.DateFormatter;
 import com.alibaba.fastjson.util.IOUtils;
 
 import javax.xml.datatype.DatatypeConfigurationException;
@@ -37,13 +37,8 @@ public class CalendarCodec extends ContextObjectDeserializer implements ObjectSe
             return;
         }
 
-        DateFormat dateFormat = new SimpleDateFormat(format);
-        if (dateFormat == null) {
-            dateFormat = new SimpleDateFormat(JSON.DEFFAULT_DATE_FORMAT, serializer.locale);
-        }
-        dateFormat.setTimeZone(serializer.timeZone);
-        String text = dateFormat.format(calendar.getTime());
-        out.writeString(text);
+        DateFormatter formatter = DateFormatter.of(format, Locale.getDefault(Locale.Category.FORMAT), serializer.timeZone);
+        out.writeDate(formatter, calendar.getTimeInMillis());
     }
 
 
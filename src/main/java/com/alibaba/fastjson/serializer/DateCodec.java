@@ -20,7 +20,6 @@ import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
@@ -32,6 +31,7 @@ import com.alibaba.fastjson.parser.JSONScanner;
 import com.alibaba.fastjson.parser.JSONToken;
 import com.alibaba.fastjson.parser.deserializer.AbstractDateDeserializer;
 import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.util.DateFormatter;
 import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.TypeUtils;
 
@@ -127,52 +127,35 @@ public class DateCodec extends AbstractDateDeserializer implements ObjectSeriali
 
         long time = date.getTime();
         if (out.isEnabled(SerializerFeature.UseISO8601DateFormat)) {
-            char quote = out.isEnabled(SerializerFeature.UseSingleQuotes) ? '\'' : '\"'; 
-            out.write(quote);
-
-            Calendar calendar = Calendar.getInstance(serializer.timeZone, serializer.locale);
-            calendar.setTimeInMillis(time);
-
-            int year = calendar.get(Calendar.YEAR);
-            int month = calendar.get(Calendar.MONTH) + 1;
-            int day = calendar.get(Calendar.DAY_OF_MONTH);
-            int hour = calendar.get(Calendar.HOUR_OF_DAY);
-            int minute = calendar.get(Calendar.MINUTE);
-            int second = calendar.get(Calendar.SECOND);
-            int millis = calendar.get(Calendar.MILLISECOND);
-
-            char[] buf;
-            if (nanos > 0) {
-                buf = formatDateTime(nanos, year, month, day, hour, minute, second);
-            } else if (millis != 0) {
-                buf = formatDateTimeArray(year, month, day, hour, minute, second, millis);
-
-            } else {
-                buf = formatDateTimeArray__(year, month, day, hour, minute, second);
-            }
-
-
             if (nanos > 0) { // java.sql.Timestamp
-                writeTrimmedBufferWithQuote(out, quote, buf);
+                writeTimestamp(serializer, out, time, nanos);
                 return;
             }
 
-            out.write(buf);
-
-            float timeZoneF = calendar.getTimeZone().getOffset(calendar.getTimeInMillis()) / (3600.0f * 1000);
-            int timeZone = (int) timeZoneF;
-            if (timeZone == 0.0) {
-                out.write('Z');
-            } else {
-                writeTimeZone(out, timeZoneF, timeZone);
-            }
-
-            out.write(quote);
+            out.writeDate(DateFormatter.iso8601(serializer.locale, serializer.timeZone), time);
         } else {
             out.writeLong(time);
         }
     }
 
+    private void writeTimestamp(JSONSerializer serializer, SerializeWriter out, long time, int nanos) {
+        char quote = out.isEnabled(SerializerFeature.UseSingleQuotes) ? '\'' : '\"';
+        out.write(quote);
+
+        Calendar calendar = Calendar.getInstance(serializer.timeZone, serializer.locale);
+        calendar.setTimeInMillis(time);
+
+        int year = calendar.get(Calendar.YEAR);
+        int month = calendar.get(Calendar.MONTH) + 1;
+        int day = calendar.get(Calendar.DAY_OF_MONTH);
+        int hour = calendar.get(Calendar.HOUR_OF_DAY);
+        int minute = calendar.get(Calendar.MINUTE);
+        int second = calendar.get(Calendar.SECOND);
+
+        char[] buf = formatDateTime(nanos, year, month, day, hour, minute, second);
+        writeTrimmedBufferWithQuote(out, quote, buf);
+    }
+
     private void writeTrimmedBufferWithQuote(SerializeWriter out, char quote, char[] buf) {
         int i = 0;
         i = findNonZeroCharacterIndex(buf, i);
@@ -180,48 +163,9 @@ public class DateCodec extends AbstractDateDeserializer implements ObjectSeriali
         out.write(quote);
     }
 
-    private char[] formatDateTimeArray__(int year, int month, int day, int hour, int minute, int second) {
-        char[] buf;
-        if (second == 0 && minute == 0 && hour == 0) {
-            buf = "0000-00-00".toCharArray();
-            formatDate(year, month, day, buf);
-        } else {
-            buf = formatDateTimeArray_(year, month, day, hour, minute, second);
-        }
-        return buf;
-    }
-
     private void serializeDate(JSONSerializer serializer, SerializeWriter out, Date date) {
-        DateFormat format = serializer.getDateFormat();
-        if (format == null) {
-            // 如果是通过FastJsonConfig进行设置，优先从FastJsonConfig获取
-		    format = createDateFormat(serializer);
-        }
-        String text = format.format(date);
-        out.writeString(text);
-    }
-
-    private void writeTimeZone(SerializeWriter out, float timeZoneF, int timeZone) {
-        if (timeZone > 9) {
-            out.write('+');
-            out.writeInt(timeZone);
-        } else if (timeZone > 0) {
-            out.write('+');
-            out.write('0');
-            out.writeInt(timeZone);
-        } else if (timeZone < -9) {
-            out.write('-');
-            out.writeInt(-timeZone);
-        } else if (timeZone < 0) {
-            out.write('-');
-            out.write('0');
-            out.writeInt(-timeZone);
-        }
-        out.write(':');
-        // handles uneven timeZones 30 mins, 45 mins
-		// this would always be less than 60
-		int offSet = (int) (Math.abs(timeZoneF - timeZone) * 60);
-        out.append(String.format("%02d", offSet));
+        // 如果是通过FastJsonConfig进行设置，优先从FastJsonConfig获取
+        serializer.formatDate(date, null);
     }
 
     private int findNonZeroCharacterIndex(char[] buf, int i) {
@@ -249,27 +193,6 @@ public class DateCodec extends AbstractDateDeserializer implements ObjectSeriali
         return i;
     }
 
-    private char[] formatDateTimeArray_(int year, int month, int day, int hour, int minute, int second) {
-        char[] buf;
-        buf = "0000-00-00T00:00:00".toCharArray();
-        IOUtils.getChars(second, 19, buf);
-        IOUtils.getChars(minute, 16, buf);
-        IOUtils.getChars(hour, 13, buf);
-        formatDate(year, month, day, buf);
-        return buf;
-    }
-
-    private char[] formatDateTimeArray(int year, int month, int day, int hour, int minute, int second, int millis) {
-        char[] buf;
-        buf = "0000-00-00T00:00:00.000".toCharArray();
-        IOUtils.getChars(millis, 23, buf);
-        IOUtils.getChars(second, 19, buf);
-        IOUtils.getChars(minute, 16, buf);
-        IOUtils.getChars(hour, 13, buf);
-        formatDate(year, month, day, buf);
-        return buf;
-    }
-
     private char[] formatDateTime(int nanos, int year, int month, int day, int hour, int minute, int second) {
         char[] buf;
         buf = "0000-00-00 00:00:00.000000000".toCharArray();
@@ -289,18 +212,6 @@ public class DateCodec extends AbstractDateDeserializer implements ObjectSeriali
         out.write('}');
     }
 
-    private DateFormat createDateFormat(JSONSerializer serializer) {
-        DateFormat format;
-        String dateFormatPattern = serializer.getFastJsonConfigDateFormatPattern();
-        if (dateFormatPattern == null) {
-            dateFormatPattern = JSON.DEFFAULT_DATE_FORMAT;
-        }
-
-        format = new SimpleDateFormat(dateFormatPattern, serializer.locale);
-        format.setTimeZone(serializer.timeZone);
-        return format;
-    }
-
     private void formatDate(int year, int month, int day, char[] buf) {
         IOUtils.getChars(day, 10, buf);
         IOUtils.getChars(month, 7, buf);
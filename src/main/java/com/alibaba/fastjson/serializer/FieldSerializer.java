@@ -18,13 +18,14 @@ package com.alibaba.fastjson.serializer;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.annotation.JSONField;
 import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.util.DateFormatter;
 import com.alibaba.fastjson.util.FieldInfo;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.text.SimpleDateFormat;
 import java.util.Collection;
+import java.util.Date;
 
 /**
  * @author wenshao[szujobs@hotmail.com]
@@ -171,6 +172,11 @@ public class FieldSerializer implements Comparable<FieldSerializer> {
     public void writePrefix(JSONSerializer serializer) throws IOException {
         SerializeWriter out = serializer.out;
 
+        if (out instanceof JSONBWriter) {
+            out.writeFieldName(fieldInfo.name);
+            return;
+        }
+
         if (out.quoteFieldNames) {
             writeFieldPrefixWithQuotes(out);
         } else {
@@ -213,9 +219,7 @@ public class FieldSerializer implements Comparable<FieldSerializer> {
         Object propertyValue = fieldInfo.get(object);
         if (format != null && propertyValue != null) {
             if (fieldInfo.fieldClass == java.util.Date.class || fieldInfo.fieldClass == java.sql.Date.class) {
-                SimpleDateFormat dateFormat = new SimpleDateFormat(format, JSON.defaultLocale);
-                dateFormat.setTimeZone(JSON.defaultTimeZone);
-                return dateFormat.format(propertyValue);
+                return DateFormatter.of(format, JSON.defaultLocale, JSON.defaultTimeZone).format((Date) propertyValue);
             }
         }
         return propertyValue;
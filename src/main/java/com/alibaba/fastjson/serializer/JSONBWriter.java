@@ -0,0 +1,729 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
+import com.alibaba.fastjson.util.DateFormatter;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * A SerializeWriter which writes JSONB, a binary encoding of the json data model: varint integers, raw IEEE floating
+ * point, length prefixed UTF-8 strings, and object keys written once and referred to by number afterwards.
+ * <p>
+ * The serializers of the SerializeConfig write to it as to a text writer. The typed methods, writeInt, writeDouble,
+ * writeString, writeFieldValue and so on, write their value in binary. The chars written with write are read as json
+ * text for the structure, the quoted strings and the literals, so the serializers which write text still work. The
+ * type hints of SerializerFeature.WriteClassName which are not json, as the L of a long, are dropped.
+ * <p>
+ * The chars are only a scratch for the string or literal being read, toByteArray returns the bytes.
+ *
+ * @see com.alibaba.fastjson.parser.JSONBReader
+ * @since 1.2.84
+ */
+public final class JSONBWriter extends SerializeWriter {
+
+    public final static byte BC_NULL       = 0x00;
+    public final static byte BC_FALSE      = 0x01;
+    public final static byte BC_TRUE       = 0x02;
+    /** zigzag varint */
+    public final static byte BC_INT32      = 0x03;
+    /** zigzag varint */
+    public final static byte BC_INT64      = 0x04;
+    /** 4 bytes big endian */
+    public final static byte BC_FLOAT      = 0x05;
+    /** 8 bytes big endian */
+    public final static byte BC_DOUBLE     = 0x06;
+    /** varint length, then the two's complement bytes */
+    public final static byte BC_BIGINT     = 0x07;
+    /** zigzag varint scale, then the unscaled value as BC_BIGINT without tag */
+    public final static byte BC_DECIMAL    = 0x08;
+    /** varint length, then UTF-8 */
+    public final static byte BC_STRING     = 0x09;
+    /** as BC_STRING, the string gets the next symbol number */
+    public final static byte BC_SYMBOL     = 0x0A;
+    /** varint symbol number */
+    public final static byte BC_SYMBOL_REF = 0x0B;
+    /** keys and values up to BC_END, a key is BC_STRING, BC_SYMBOL or BC_SYMBOL_REF */
+    public final static byte BC_OBJECT     = 0x0C;
+    /** values up to BC_END */
+    public final static byte BC_ARRAY      = 0x0D;
+    /** varint length, then the bytes */
+    public final static byte BC_BINARY     = 0x0E;
+    public final static byte BC_END        = 0x0F;
+
+    private final static int MAX_LEVEL    = 2048;
+
+    private final static int ESCAPE       = -1;
+
+    private byte[]               bytes;
+    private int                  size;
+
+    private int                  level;
+    private boolean[]            objects = new boolean[16];
+    // the next string or literal is an object key
+    private boolean              keyNext;
+
+    // the quote of the string being read, 0 out of a string
+    private char                 quote;
+    // ESCAPE after a backslash, else the number of hex digits left of a unicode escape
+    private int                  escape;
+    private int                  unicode;
+
+    private Map<String, Integer> symbols;
+
+    public JSONBWriter(SerializerFeature... features) {
+        this(JSON.DEFAULT_GENERATE_FEATURE, features);
+    }
+
+    public JSONBWriter(int defaultFeatures, SerializerFeature... features) {
+        super(null, defaultFeatures, features);
+        bytes = BufferPool.getGlobal().leaseBytes(1024);
+    }
+
+    public byte[] toByteArray() {
+        flushLiteral();
+        if (quote != 0 || level != 0) {
+            throw new JSONException("illegal jsonb, the value is not complete");
+        }
+        return Arrays.copyOf(bytes, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void close() {
+        super.close();
+        BufferPool.getGlobal().releaseBytes(bytes);
+        bytes = null;
+    }
+
+    public void write(int c) {
+        accept((char) c);
+    }
+
+    public void write(char c[], int off, int len) {
+        for (int i = off, end = off + len; i < end; ++i) {
+            accept(c[i]);
+        }
+    }
+
+    public void write(String str, int off, int len) {
+        for (int i = off, end = off + len; i < end; ++i) {
+            accept(str.charAt(i));
+        }
+    }
+
+    public void writeNull() {
+        if (textual()) {
+            writeText("null");
+            return;
+        }
+        writeByte(BC_NULL);
+    }
+
+    public void write(boolean value) {
+        if (textual()) {
+            writeText(value ? "true" : "false");
+            return;
+        }
+        writeByte(value ? BC_TRUE : BC_FALSE);
+    }
+
+    public void writeInt(int i) {
+        if (textual()) {
+            writeText(Integer.toString(i));
+            return;
+        }
+        writeByte(BC_INT32);
+        writeVarInt((i << 1) ^ (i >> 31));
+    }
+
+    public void writeLong(long i) {
+        if (textual()) {
+            writeText(Long.toString(i));
+            return;
+        }
+        writeByte(BC_INT64);
+        writeVarLong((i << 1) ^ (i >> 63));
+    }
+
+    /**
+     * NaN and infinity are written as null, the same as text
+     */
+    public void writeFloat(float value, boolean checkWriteClassName) {
+        if (value != value || value == Float.POSITIVE_INFINITY || value == Float.NEGATIVE_INFINITY) {
+            writeNull();
+            return;
+        }
+
+        if (textual()) {
+            writeText(Float.toString(value));
+            return;
+        }
+        ensureCapacity(size + 5);
+        bytes[size++] = BC_FLOAT;
+        putInt(Float.floatToIntBits(value));
+    }
+
+    /**
+     * NaN and infinity are written as null, the same as text
+     */
+    public void writeDouble(double value, boolean checkWriteClassName) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeNull();
+            return;
+        }
+
+        if (textual()) {
+            writeText(Double.toString(value));
+            return;
+        }
+        ensureCapacity(size + 9);
+        bytes[size++] = BC_DOUBLE;
+        long bits = Double.doubleToLongBits(value);
+        putInt((int) (bits >>> 32));
+        putInt((int) bits);
+    }
+
+    public void writeDecimal(BigDecimal value) {
+        if (textual()) {
+            writeText(value.toString());
+            return;
+        }
+        writeByte(BC_DECIMAL);
+        int scale = value.scale();
+        writeVarInt((scale << 1) ^ (scale >> 31));
+        writeBinary(value.unscaledValue().toByteArray());
+    }
+
+    public void writeBigInteger(BigInteger value) {
+        if (value.bitLength() < 64) {
+            // read back as Long, the same as a parsed number in the range of long
+            writeLong(value.longValue());
+            return;
+        }
+
+        if (textual()) {
+            writeText(value.toString());
+            return;
+        }
+        writeByte(BC_BIGINT);
+        writeBinary(value.toByteArray());
+    }
+
+    public void writeByteArray(byte[] binary) {
+        if (textual()) {
+            throw new JSONException("jsonb binary can not be a key or in a string");
+        }
+        writeByte(BC_BINARY);
+        writeBinary(binary);
+    }
+
+    public void writeHex(byte[] binary) {
+        writeByteArray(binary);
+    }
+
+    public void writeEnum(Enum<?> value) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+
+        if (writeEnumUsingName && !writeEnumUsingToString) {
+            writeString(value.name());
+        } else if (writeEnumUsingToString) {
+            writeString(value.toString());
+        } else {
+            writeInt(value.ordinal());
+        }
+    }
+
+    public void writeIntArray(int[] values, int off, int len) {
+        write('[');
+        ensureCapacity(size + len * 6);
+        for (int i = off, end = off + len; i < end; ++i) {
+            int value = values[i];
+            bytes[size++] = BC_INT32;
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+        write(']');
+    }
+
+    public void writeLongArray(long[] values, int off, int len) {
+        write('[');
+        for (int i = off, end = off + len; i < end; ++i) {
+            long value = values[i];
+            ensureCapacity(size + 11);
+            bytes[size++] = BC_INT64;
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+        write(']');
+    }
+
+    public void writeDoubleArray(double[] values, int off, int len, boolean checkWriteClassName) {
+        write('[');
+        ensureCapacity(size + len * 9);
+        for (int i = off, end = off + len; i < end; ++i) {
+            double value = values[i];
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                bytes[size++] = BC_NULL;
+                continue;
+            }
+            bytes[size++] = BC_DOUBLE;
+            long bits = Double.doubleToLongBits(value);
+            putInt((int) (bits >>> 32));
+            putInt((int) bits);
+        }
+        write(']');
+    }
+
+    public void writeStringWithDoubleQuote(String text, char seperator) {
+        writeStringValue(text);
+        if (seperator != 0) {
+            write(seperator);
+        }
+    }
+
+    public void writeStringWithDoubleQuote(char[] text, char seperator) {
+        writeStringValue(text == null ? null : new String(text));
+        if (seperator != 0) {
+            write(seperator);
+        }
+    }
+
+    public void writeString(String text, char seperator) {
+        writeStringWithDoubleQuote(text, seperator);
+    }
+
+    public void writeString(String text) {
+        writeStringValue(text);
+    }
+
+    public void writeString(char[] chars) {
+        writeStringValue(new String(chars));
+    }
+
+    protected void writeStringWithSingleQuote(String text) {
+        writeStringValue(text);
+    }
+
+    protected void writeStringWithSingleQuote(char[] chars) {
+        writeStringValue(chars == null ? null : new String(chars));
+    }
+
+    public void writeDate(DateFormatter formatter, long millis) {
+        writeStringValue(formatter.format(millis));
+    }
+
+    public void write(List<String> list) {
+        write('[');
+        for (int i = 0, list_size = list.size(); i < list_size; ++i) {
+            writeStringValue(list.get(i));
+        }
+        write(']');
+    }
+
+    public void writeFieldName(String key) {
+        writeFieldName(key, false);
+    }
+
+    public void writeFieldName(String key, boolean checkSpecial) {
+        flushLiteral();
+        if (!keyNext || quote != 0) {
+            throw new JSONException("illegal jsonb, field name out of an object: " + key);
+        }
+        writeKey(key == null ? "null" : key);
+    }
+
+    public void writeFieldNameDirect(String text) {
+        writeFieldName(text, false);
+    }
+
+    public void writeFieldValue(char seperator, String name, char value) {
+        write(seperator);
+        writeFieldName(name);
+        writeStringValue(Character.toString(value));
+    }
+
+    public void writeFieldValue(char seperator, String name, boolean value) {
+        write(seperator);
+        writeFieldName(name);
+        write(value);
+    }
+
+    public void writeFieldValue(char seperator, String name, int value) {
+        write(seperator);
+        writeFieldName(name);
+        writeInt(value);
+    }
+
+    public void writeFieldValue(char seperator, String name, long value) {
+        write(seperator);
+        writeFieldName(name);
+        writeLong(value);
+    }
+
+    public void writeFieldValue(char seperator, String name, float value) {
+        write(seperator);
+        writeFieldName(name);
+        writeFloat(value, false);
+    }
+
+    public void writeFieldValue(char seperator, String name, double value) {
+        write(seperator);
+        writeFieldName(name);
+        writeDouble(value, false);
+    }
+
+    public void writeFieldValue(char seperator, String name, String value) {
+        write(seperator);
+        writeFieldName(name);
+        writeStringValue(value);
+    }
+
+    public void writeFieldValueStringWithDoubleQuoteCheck(char seperator, String name, String value) {
+        writeFieldValue(seperator, name, value);
+    }
+
+    public void writeFieldValueStringWithDoubleQuote(char seperator, String name, String value) {
+        writeFieldValue(seperator, name, value);
+    }
+
+    public void writeFieldValue(char seperator, String name, Enum<?> value) {
+        write(seperator);
+        writeFieldName(name);
+        writeEnum(value);
+    }
+
+    public void writeFieldValue(char seperator, String name, BigDecimal value) {
+        write(seperator);
+        writeFieldName(name);
+        if (value == null) {
+            writeNull();
+        } else {
+            writeDecimal(value);
+        }
+    }
+
+    private void writeStringValue(String text) {
+        if (text == null) {
+            writeNull();
+            return;
+        }
+
+        if (textual()) {
+            writeText(text);
+            return;
+        }
+        writeByte(BC_STRING);
+        writeUTF8(text);
+    }
+
+    /**
+     * a value written in a string or as a key is written as its text
+     *
+     * @return true if the value goes into the string being read or is the next key
+     */
+    private boolean textual() {
+        flushLiteral();
+        return quote != 0 || keyNext;
+    }
+
+    private void writeText(String text) {
+        if (quote != 0) {
+            super.write(text, 0, text.length());
+        } else {
+            writeKey(text);
+        }
+    }
+
+    private void accept(char ch) {
+        if (quote != 0) {
+            acceptString(ch);
+            return;
+        }
+
+        switch (ch) {
+            case '{':
+            case '[':
+                flushLiteral();
+                if (keyNext) {
+                    throw new JSONException("jsonb object key must be a string");
+                }
+                writeByte(ch == '{' ? BC_OBJECT : BC_ARRAY);
+                push(ch == '{');
+                break;
+            case '}':
+            case ']':
+                flushLiteral();
+                if (level == 0 || objects[level] != (ch == '}')) {
+                    throw new JSONException("illegal jsonb, unbalanced " + ch);
+                }
+                writeByte(BC_END);
+                level--;
+                keyNext = false;
+                break;
+            case ',':
+                flushLiteral();
+                keyNext = objects[level];
+                break;
+            case ':':
+                flushLiteral();
+                keyNext = false;
+                break;
+            case '"':
+            case '\'':
+                flushLiteral();
+                quote = ch;
+                break;
+            case ' ':
+            case '\t':
+            case '\r':
+            case '\n':
+                flushLiteral();
+                break;
+            default:
+                super.write(ch);
+                break;
+        }
+    }
+
+    private void acceptString(char ch) {
+        if (escape == 0) {
+            if (ch == quote) {
+                quote = 0;
+                String text = new String(buf, 0, count);
+                count = 0;
+                if (keyNext) {
+                    writeKey(text);
+                } else {
+                    writeByte(BC_STRING);
+                    writeUTF8(text);
+                }
+            } else if (ch == '\\') {
+                escape = ESCAPE;
+            } else {
+                super.write(ch);
+            }
+            return;
+        }
+
+        if (escape == ESCAPE) {
+            switch (ch) {
+                case 'u':
+                    escape = 4;
+                    unicode = 0;
+                    return;
+                case 'b':
+                    ch = '\b';
+                    break;
+                case 'f':
+                    ch = '\f';
+                    break;
+                case 'n':
+                    ch = '\n';
+                    break;
+                case 'r':
+                    ch = '\r';
+                    break;
+                case 't':
+                    ch = '\t';
+                    break;
+                default:
+                    break;
+            }
+            escape = 0;
+            super.write(ch);
+            return;
+        }
+
+        int digit = Character.digit(ch, 16);
+        if (digit < 0) {
+            throw new JSONException("illegal unicode escape in jsonb string: " + ch);
+        }
+        unicode = (unicode << 4) | digit;
+        if (--escape == 0) {
+            super.write((char) unicode);
+        }
+    }
+
+    private void flushLiteral() {
+        if (quote != 0 || count == 0) {
+            return;
+        }
+
+        String literal = new String(buf, 0, count);
+        count = 0;
+        if (keyNext) {
+            writeKey(literal);
+            return;
+        }
+
+        if ("null".equals(literal)) {
+            writeByte(BC_NULL);
+        } else if ("true".equals(literal)) {
+            writeByte(BC_TRUE);
+        } else if ("false".equals(literal)) {
+            writeByte(BC_FALSE);
+        } else if (!isClassNameHint(literal)) {
+            writeNumber(literal);
+        }
+    }
+
+    /**
+     * the text SerializerFeature.WriteClassName writes around values, which is not json
+     */
+    private static boolean isClassNameHint(String literal) {
+        return literal.length() == 1 && "LSBFD.)".indexOf(literal.charAt(0)) != -1
+                || "new".equals(literal)
+                || "Date(".equals(literal)
+                || "Set".equals(literal)
+                || "TreeSet".equals(literal);
+    }
+
+    private void writeNumber(String literal) {
+        String text = literal;
+        char last = text.charAt(text.length() - 1);
+        if (last == 'L' || last == 'S' || last == 'B' || last == 'F' || last == 'D') {
+            text = text.substring(0, text.length() - 1);
+        }
+
+        try {
+            if (text.indexOf('.') != -1 || text.indexOf('e') != -1 || text.indexOf('E') != -1) {
+                writeDecimal(new BigDecimal(text));
+                return;
+            }
+
+            try {
+                long value = Long.parseLong(text);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    writeInt((int) value);
+                } else {
+                    writeLong(value);
+                }
+            } catch (NumberFormatException e) {
+                writeBigInteger(new BigInteger(text));
+            }
+        } catch (NumberFormatException e) {
+            throw new JSONException("illegal jsonb literal " + literal);
+        }
+    }
+
+    private void push(boolean object) {
+        if (++level > MAX_LEVEL) {
+            throw new JSONException("jsonb level > " + MAX_LEVEL);
+        }
+
+        if (level == objects.length) {
+            objects = Arrays.copyOf(objects, level * 2);
+        }
+        objects[level] = object;
+        keyNext = object;
+    }
+
+    private void writeKey(String key) {
+        keyNext = false;
+        if (symbols == null) {
+            symbols = new HashMap<String, Integer>();
+        }
+
+        Integer symbol = symbols.get(key);
+        if (symbol != null) {
+            writeByte(BC_SYMBOL_REF);
+            writeVarInt(symbol);
+            return;
+        }
+
+        symbols.put(key, symbols.size());
+        writeByte(BC_SYMBOL);
+        writeUTF8(key);
+    }
+
+    private void writeUTF8(String value) {
+        int length = value.length();
+        // ascii fast path, the length prefix is the char count
+        ensureCapacity(size + 5 + length);
+        int start = size;
+        writeVarInt(length);
+        int offset = size;
+        for (int i = 0; i < length; ++i) {
+            char ch = value.charAt(i);
+            if (ch >= 0x80) {
+                size = start;
+                writeBinary(value.getBytes(IOUtils.UTF8));
+                return;
+            }
+            bytes[offset + i] = (byte) ch;
+        }
+        size = offset + length;
+    }
+
+    private void writeByte(byte value) {
+        if (size == bytes.length) {
+            ensureCapacity(size + 1);
+        }
+        bytes[size++] = value;
+    }
+
+    private void writeBinary(byte[] src) {
+        writeVarInt(src.length);
+        ensureCapacity(size + src.length);
+        System.arraycopy(src, 0, bytes, size, src.length);
+        size += src.length;
+    }
+
+    private void writeVarInt(int value) {
+        ensureCapacity(size + 5);
+        while ((value & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(size + 10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    private void putInt(int bits) {
+        bytes[size++] = (byte) (bits >>> 24);
+        bytes[size++] = (byte) (bits >>> 16);
+        bytes[size++] = (byte) (bits >>> 8);
+        bytes[size++] = (byte) bits;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > bytes.length) {
+            int newCapacity = bytes.length + (bytes.length >> 1) + 1;
+            bytes = Arrays.copyOf(bytes, Math.max(newCapacity, minCapacity));
+        }
+    }
+}
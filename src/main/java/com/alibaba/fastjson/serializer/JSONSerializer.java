@@ -26,6 +26,7 @@ import java.util.zip.GZIPOutputStream;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.DateFormatter;
 import com.alibaba.fastjson.util.IOUtils;
 
 /**
@@ -50,8 +51,18 @@ public class JSONSerializer extends SerializeFilterable {
 
     private String                                   fastJsonConfigDateFormatPattern;
 
+    /**
+     * @deprecated since 1.2.84 the objects written are tracked by a {@link ReferenceTracker}. The map is still filled
+     * for subclasses of JSONSerializer, which may read it, but changing it has no effect on references
+     */
+    @Deprecated
     protected IdentityHashMap<Object, SerialContext> references = null;
     protected SerialContext                          context;
+    private ReferenceTracker                         tracker;
+    private final boolean                            fillReferences = getClass() != JSONSerializer.class;
+
+    private StaticFilters                            staticFilters;
+    private boolean                                  staticFiltersResolved;
 
     protected TimeZone                               timeZone = JSON.defaultTimeZone;
     protected Locale                                 locale = JSON.defaultLocale;
@@ -71,6 +82,9 @@ public class JSONSerializer extends SerializeFilterable {
     public JSONSerializer(SerializeWriter out, SerializeConfig config) {
         this.out = out;
         this.config = config;
+        if (out.metrics == null) {
+            out.metrics = config.getMetrics();
+        }
     }
 
     public String getDateFormatPattern() {
@@ -142,10 +156,31 @@ public class JSONSerializer extends SerializeFilterable {
         }
 
         this.context = new SerialContext(parent, object, fieldName, features, fieldFeatures);
-        if (references == null) {
-            references = new IdentityHashMap<Object, SerialContext>();
+        if (tracker == null) {
+            tracker = ReferenceTracker.acquire();
+        }
+        this.tracker.put(object, context);
+
+        if (fillReferences) {
+            if (references == null) {
+                references = new IdentityHashMap<Object, SerialContext>();
+            }
+            references.put(object, context);
         }
-        this.references.put(object, context);
+    }
+
+    /**
+     * forgets the objects written so far and hands their table back for reuse on this thread, a later write no longer
+     * refers to them with $ref. The JSON methods call it once their serializer is done.
+     *
+     * @since 1.2.84
+     */
+    public void releaseReferences() {
+        if (tracker != null) {
+            ReferenceTracker.release(tracker);
+            tracker = null;
+        }
+        references = null;
     }
 
     public void setContext(Object object, Object fieldName) {
@@ -166,11 +201,11 @@ public class JSONSerializer extends SerializeFilterable {
     }
 
     public boolean containsReference(Object value) {
-        if (references == null) {
+        if (tracker == null) {
             return false;
         }
 
-        SerialContext refContext = references.get(value);
+        SerialContext refContext = tracker.get(value);
         if (refContext == null) {
             return false;
         }
@@ -214,7 +249,7 @@ public class JSONSerializer extends SerializeFilterable {
 
     private void writeReferencePath(Object object) {
         out.write("{\"$ref\":\"");
-        String path = references.get(object).toString();
+        String path = tracker.get(object).toString();
         out.write(path);
         out.write("\"}");
     }
@@ -257,6 +292,19 @@ public class JSONSerializer extends SerializeFilterable {
                || (filterable.nameFilters != null && filterable.nameFilters.size() > 0);
     }
 
+    /**
+     * the filters are taken as fixed once the first bean is written
+     *
+     * @return null unless all filters only depend on the bean type and the field
+     */
+    final StaticFilters getStaticFilters() {
+        if (!staticFiltersResolved) {
+            staticFilters = StaticFilters.of(this);
+            staticFiltersResolved = true;
+        }
+        return staticFilters;
+    }
+
     public boolean hasPropertyFilters(SerializeFilterable filterable) {
         return (propertyFilters != null && propertyFilters.size() > 0) //
                 || (filterable.propertyFilters != null && filterable.propertyFilters.size() > 0);
@@ -339,6 +387,23 @@ public class JSONSerializer extends SerializeFilterable {
         }
     }
 
+    final boolean isTracked(Object object) {
+        return tracker != null && tracker.containsKey(object);
+    }
+
+    final void untrack(Object object) {
+        if (tracker != null) {
+            tracker.remove(object);
+        }
+        if (references != null) {
+            references.remove(object);
+        }
+    }
+
+    final int trackedSize() {
+        return tracker == null ? 0 : tracker.size();
+    }
+
     /**
      * @since 1.2.57
      *
@@ -444,13 +509,20 @@ public class JSONSerializer extends SerializeFilterable {
         }
     }
 
-    private void formatDate(Object object, String format) {
-        DateFormat dateFormat = this.getDateFormat();
+    /**
+     * goes through getDateFormat, which subclasses may override. Only when it returns null, or the DateFormat generated
+     * from the pattern, is the date written with a DateFormatter instead
+     */
+    final void formatDate(Object object, String format) {
+        Date date = (Date) object;
+        DateFormat dateFormat = getDateFormat();
         if (dateFormat == null) {
-            dateFormat = generateConditionalDateFormat(format);
+            out.writeDate(generateConditionalDateFormatter(format), date.getTime());
+        } else if (dateFormat == this.dateFormat && dateFormatPattern != null) {
+            out.writeDate(DateFormatter.of(dateFormatPattern, locale, timeZone), date.getTime());
+        } else {
+            out.writeString(dateFormat.format(date));
         }
-        String text = dateFormat.format((Date) object);
-        out.writeString(text);
     }
 
     private void writeFormattedItem(String format, Iterator iterator, int i) {
@@ -475,21 +547,20 @@ public class JSONSerializer extends SerializeFilterable {
         return gzipOut;
     }
 
-    private DateFormat generateConditionalDateFormat(String format) {
-        DateFormat dateFormat;
+    private DateFormatter generateConditionalDateFormatter(String format) {
         if (format != null) {
             try {
-                dateFormat = this.generateDateFormat(format);
+                return DateFormatter.of(format, locale, timeZone);
             } catch (IllegalArgumentException e) {
                 String format2 = format.replaceAll("T", "'T'");
-                dateFormat = this.generateDateFormat(format2);
+                return DateFormatter.of(format2, locale, timeZone);
             }
-        } else if (fastJsonConfigDateFormatPattern != null) {
-            dateFormat = this.generateDateFormat(fastJsonConfigDateFormatPattern);
-        } else {
-            dateFormat = this.generateDateFormat(JSON.DEFFAULT_DATE_FORMAT);
         }
-        return dateFormat;
+
+        if (fastJsonConfigDateFormatPattern != null) {
+            return DateFormatter.of(fastJsonConfigDateFormatPattern, locale, timeZone);
+        }
+        return DateFormatter.of(JSON.DEFFAULT_DATE_FORMAT, locale, timeZone);
     }
 
     public final void write(String text) {
@@ -30,13 +30,17 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.PropertyNamingStrategy;
 import com.alibaba.fastjson.annotation.JSONField;
 import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.util.ASMClassLoader;
 import com.alibaba.fastjson.util.FieldInfo;
+import com.alibaba.fastjson.util.TypeDictionary;
 import com.alibaba.fastjson.util.TypeUtils;
 
 /**
@@ -51,6 +55,15 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
 
     private transient volatile long[] hashArray;
     private transient volatile short[] hashArrayMapping;
+
+    private final static int MAX_FILTERED_SERIALIZERS = 16;
+
+    /**
+     * serializers generated for the fields passing a static filter set, see StaticFilters
+     */
+    private transient volatile ConcurrentMap<StaticFilters, JavaBeanSerializer> filteredSerializers;
+    private transient StaticFilters filteredBy;
+    private final boolean filterSpecializable;
     
     public JavaBeanSerializer(Class<?> beanType) {
         this(beanType, (Map<String, String>) null);
@@ -106,6 +119,12 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
         if (beanInfo.jsonType != null) {
             addSerializeFilters(beanInfo);
         }
+
+        // subclasses other than the asm generated ones may override write
+        Class<?> serializerClass = getClass();
+        filterSpecializable = (serializerClass == JavaBeanSerializer.class
+                || serializerClass.getClassLoader() instanceof ASMClassLoader)
+                && (beanInfo.jsonType == null || beanInfo.jsonType.serializer() == Void.class);
     }
 
     private void addSerializeFilters(SerializeBeanInfo beanInfo) {
@@ -185,6 +204,10 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
             return;
         }
 
+        if (!unwrapped && writeFiltered(serializer, object, fieldName, fieldType, features)) {
+            return;
+        }
+
         if (writeReference(serializer, object, features)) {
             return;
         }
@@ -662,21 +685,28 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
             typeKey = serializer.config.typeKey;
         }
         serializer.out.writeFieldName(typeKey, false);
-        String typeName = this.beanInfo.typeName;
+        String typeName = null;
+        TypeDictionary typeDictionary = serializer.config.typeDictionary;
+        if (typeDictionary != null) {
+            typeName = typeDictionary.getTypeName(getUserClass(object));
+        }
         if (typeName == null) {
-            typeName = getClassName(object);
+            typeName = this.beanInfo.typeName;
+        }
+        if (typeName == null) {
+            typeName = getUserClass(object).getName();
         }
         serializer.write(typeName);
     }
 
-    private String getClassName(Object object) {
+    private static Class<?> getUserClass(Object object) {
         Class<?> clazz = object.getClass();
 
         if (TypeUtils.isProxy(clazz)) {
             clazz = clazz.getSuperclass();
         }
 
-        return clazz.getName();
+        return clazz;
     }
 
     public boolean writeReference(JSONSerializer serializer, Object object, int fieldFeatures) {
@@ -686,7 +716,7 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
             return false;
         }
 
-        if (serializer.references != null && serializer.references.containsKey(object)) {
+        if (serializer.isTracked(object)) {
             serializer.writeReference(object);
             return true;
         }
@@ -1037,6 +1067,97 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
         return seperator;
     }
     
+    /**
+     * When the filters of serializer only depend on the bean type and the field, write object with a serializer
+     * generated for the passing fields, which runs the direct path without per field filter calls. Invoked by asm
+     * byte code too.
+     *
+     * @return false if the filters are not static, nothing is written then
+     * @since 1.2.84
+     */
+    protected boolean writeFiltered(JSONSerializer serializer, //
+                                    Object object, //
+                                    Object fieldName, //
+                                    Type fieldType, //
+                                    int features) throws IOException {
+        int mask = SerializerFeature.DisableCircularReferenceDetect.mask;
+        if (filteredBy != null
+                || !filterSpecializable
+                || !this.writeDirect
+                || object.getClass() != beanInfo.beanType
+                || (beanInfo.features & mask) != 0
+                || serializer.out.isEnabled(mask)
+                || isWriteAsArray(serializer, features)) {
+            return false;
+        }
+
+        StaticFilters filters = serializer.getStaticFilters();
+        if (filters == null) {
+            return false;
+        }
+
+        JavaBeanSerializer filteredSerializer = getFilteredSerializer(serializer.config, filters);
+        if (filteredSerializer == null) {
+            return false;
+        }
+
+        filteredSerializer.write(serializer, object, fieldName, fieldType, features);
+        return true;
+    }
+
+    private JavaBeanSerializer getFilteredSerializer(SerializeConfig config, StaticFilters filters) {
+        ConcurrentMap<StaticFilters, JavaBeanSerializer> filteredSerializers = this.filteredSerializers;
+        if (filteredSerializers == null) {
+            this.filteredSerializers = filteredSerializers = new ConcurrentHashMap<StaticFilters, JavaBeanSerializer>();
+        }
+
+        JavaBeanSerializer filteredSerializer = filteredSerializers.get(filters);
+        if (filteredSerializer != null) {
+            return filteredSerializer;
+        }
+
+        // every filter set generates a class, stop specializing rather than evicting
+        if (filteredSerializers.size() >= MAX_FILTERED_SERIALIZERS) {
+            return null;
+        }
+
+        FieldInfo[] fields = filterFields(beanInfo.fields, filters);
+        FieldInfo[] sortedFields = beanInfo.sortedFields == beanInfo.fields
+                ? fields
+                : filterFields(beanInfo.sortedFields, filters);
+        SerializeBeanInfo filteredBeanInfo = new SerializeBeanInfo(beanInfo.beanType, beanInfo.jsonType,
+                beanInfo.typeName, beanInfo.typeKey, beanInfo.features, fields, sortedFields);
+
+        ObjectSerializer created = config.createJavaBeanSerializer(filteredBeanInfo);
+        if (created instanceof JavaBeanSerializer) {
+            filteredSerializer = (JavaBeanSerializer) created;
+        } else {
+            filteredSerializer = new JavaBeanSerializer(filteredBeanInfo);
+        }
+        filteredSerializer.filteredBy = filters;
+
+        JavaBeanSerializer exists = filteredSerializers.putIfAbsent(filters, filteredSerializer);
+        return exists != null ? exists : filteredSerializer;
+    }
+
+    private FieldInfo[] filterFields(FieldInfo[] fields, StaticFilters filters) {
+        List<FieldInfo> list = new ArrayList<FieldInfo>(fields.length);
+        for (FieldInfo fieldInfo : fields) {
+            if (filters.apply(beanInfo.beanType, fieldInfo)) {
+                list.add(fieldInfo);
+            }
+        }
+        return list.toArray(new FieldInfo[list.size()]);
+    }
+
+    protected boolean writeDirect(JSONSerializer serializer) {
+        if (filteredBy != null) {
+            // only reached through writeFiltered, the filters of serializer are already applied to the fields
+            return serializer.out.writeDirect && this.writeDirect;
+        }
+        return super.writeDirect(serializer);
+    }
+
     protected boolean applyLabel(JSONSerializer jsonBeanDeser, String label) {
         if (jsonBeanDeser.labelFilters != null) {
             for (LabelFilter propertyFilter : jsonBeanDeser.labelFilters) {
@@ -48,6 +48,18 @@ public class Labels {
             return includes != null // 
                     && Arrays.binarySearch(includes, label) >= 0;
         }
+
+        public int hashCode() {
+            return Arrays.hashCode(includes) * 31 + Arrays.hashCode(excludes);
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DefaultLabelFilter)) {
+                return false;
+            }
+            DefaultLabelFilter other = (DefaultLabelFilter) obj;
+            return Arrays.equals(includes, other.includes) && Arrays.equals(excludes, other.excludes);
+        }
     }
 
     public static LabelFilter includes(String... views) {
@@ -15,6 +15,8 @@
  */
 package com.alibaba.fastjson.serializer;
 
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.util.PrimitiveList;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import java.io.IOException;
@@ -53,6 +55,13 @@ public final class ListSerializer implements ObjectSerializer {
             return;
         }
 
+        List<?> items = list instanceof JSONArray ? ((JSONArray) list).getInnerList() : list;
+        if (items instanceof PrimitiveList
+                && !out.isEnabled(SerializerFeature.PrettyFormat)
+                && writePrimitives(serializer, (PrimitiveList) items, writeClassName)) {
+            return;
+        }
+
         SerialContext context = serializer.context;
         serializer.setContext(context, object, fieldName, 0);
 
@@ -138,6 +147,27 @@ public final class ListSerializer implements ObjectSerializer {
         }
     }
 
+    /**
+     * unboxed elements are written in bulk, the same text as written per element
+     */
+    private boolean writePrimitives(JSONSerializer serializer, PrimitiveList list, boolean writeClassName) {
+        Class<?> primitiveType = list.getPrimitiveType();
+        SerializeWriter out = serializer.out;
+        if (primitiveType == int.class) {
+            out.writeIntArray(list.getIntArray(), 0, list.size());
+            return true;
+        }
+        if (primitiveType == long.class && !writeClassName) {
+            out.writeLongArray(list.getLongArray(), 0, list.size());
+            return true;
+        }
+        if (primitiveType == double.class && serializer.getObjectWriter(Double.class) == DoubleSerializer.instance) {
+            out.writeDoubleArray(list.getDoubleArray(), 0, list.size(), true);
+            return true;
+        }
+        return false;
+    }
+
     private void writeLongValue(boolean writeClassName, SerializeWriter out, Object item) {
         long val = ((Long) item).longValue();
         if (writeClassName) {
@@ -75,6 +75,11 @@ public class PrimitiveArraySerializer implements ObjectSerializer {
 
     private void writeDoubleArray(Object object, SerializeWriter out) {
         double[] array = (double[]) object;
+        if (out instanceof JSONBWriter) {
+            out.writeDoubleArray(array, 0, array.length, false);
+            return;
+        }
+
         out.write('[');
         for (int i = 0;i < array.length;++i) {
             writeDoubleArrayElement(out, array, i);
@@ -85,6 +90,14 @@ public class PrimitiveArraySerializer implements ObjectSerializer {
     private void writeFloatArray(Object object, SerializeWriter out) {
         float[] array = (float[]) object;
         out.write('[');
+        if (out instanceof JSONBWriter) {
+            for (int i = 0;i < array.length;++i) {
+                out.writeFloat(array[i], false);
+            }
+            out.write(']');
+            return;
+        }
+
         for (int i = 0;i < array.length;++i) {
             writeFloatArrayElement(out, array, i);
         }
@@ -125,13 +138,7 @@ public class PrimitiveArraySerializer implements ObjectSerializer {
 
     private void writeLongArray(Object object, SerializeWriter out) {
         long[] array = (long[]) object;
-
-        out.write('[');
-        for (int i = 0;i < array.length;++i) {
-            writeComma(out, i);
-            out.writeLong(array[i]);
-        }
-        out.write(']');
+        out.writeLongArray(array, 0, array.length);
     }
 
     private void writeShortArray(Object object, SerializeWriter out) {
@@ -146,12 +153,7 @@ public class PrimitiveArraySerializer implements ObjectSerializer {
 
     private void writeIntArray(Object object, SerializeWriter out) {
         int[] array = (int[]) object;
-        out.write('[');
-        for (int i = 0;i < array.length;++i) {
-            writeComma(out, i);
-            out.writeInt(array[i]);
-        }
-        out.write(']');
+        out.writeIntArray(array, 0, array.length);
     }
 
     private void writeComma(SerializeWriter out, int i) {
@@ -0,0 +1,192 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.util.Arrays;
+
+/**
+ * Identity table from the objects written so far to their SerialContext, used by JSONSerializer to detect
+ * references. Open addressing keeps it to two small arrays which grow on demand. A JSONSerializer keeps its table
+ * until releaseReferences, so a reused serializer writes $ref to the objects of its earlier writes, and the table is
+ * then recycled per thread for the next serializer. The $ref path is only built from the SerialContext when a
+ * reference is actually written.
+ *
+ * @since 1.2.84
+ */
+public final class ReferenceTracker {
+
+    private final static int                           INITIAL_CAPACITY     = 16;
+
+    /**
+     * larger tables are dropped instead of recycled, so one huge graph does not pin memory to the thread
+     */
+    private final static int                           MAX_RECYCLE_CAPACITY = 1024 * 4;
+
+    private final static ThreadLocal<ReferenceTracker> trackerLocal         = new ThreadLocal<ReferenceTracker>();
+
+    private Object[]                                   keys;
+    private SerialContext[]                            values;
+    private int                                        size;
+
+    public ReferenceTracker() {
+        keys = new Object[INITIAL_CAPACITY];
+        values = new SerialContext[INITIAL_CAPACITY];
+    }
+
+    static ReferenceTracker acquire() {
+        ReferenceTracker tracker = trackerLocal.get();
+        if (tracker != null) {
+            trackerLocal.set(null);
+            return tracker;
+        }
+        return new ReferenceTracker();
+    }
+
+    static void release(ReferenceTracker tracker) {
+        if (tracker.keys.length > MAX_RECYCLE_CAPACITY) {
+            return;
+        }
+        tracker.clear();
+        trackerLocal.set(tracker);
+    }
+
+    public SerialContext get(Object key) {
+        if (size == 0) {
+            return null;
+        }
+
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Object item = keys[i];
+            if (item == key) {
+                return values[i];
+            }
+            if (item == null) {
+                return null;
+            }
+        }
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public SerialContext put(Object key, SerialContext value) {
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (;; i = (i + 1) & mask) {
+            Object item = keys[i];
+            if (item == key) {
+                SerialContext old = values[i];
+                values[i] = value;
+                return old;
+            }
+            if (item == null) {
+                break;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length >> 1) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    public SerialContext remove(Object key) {
+        if (size == 0) {
+            return null;
+        }
+
+        Object[] keys = this.keys;
+        SerialContext[] values = this.values;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (;; i = (i + 1) & mask) {
+            Object item = keys[i];
+            if (item == key) {
+                break;
+            }
+            if (item == null) {
+                return null;
+            }
+        }
+
+        SerialContext old = values[i];
+        size--;
+
+        // shift back the entries of the probe chain, no tombstones needed
+        for (int j = (i + 1) & mask;; j = (j + 1) & mask) {
+            Object item = keys[j];
+            if (item == null) {
+                break;
+            }
+            int slot = hash(item) & mask;
+            if (((j - slot) & mask) >= ((j - i) & mask)) {
+                keys[i] = item;
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = null;
+        values[i] = null;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        if (size != 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        SerialContext[] oldValues = values;
+
+        Object[] keys = new Object[capacity];
+        SerialContext[] values = new SerialContext[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            Object key = oldKeys[i];
+            if (key == null) {
+                continue;
+            }
+            int j = hash(key) & mask;
+            while (keys[j] != null) {
+                j = (j + 1) & mask;
+            }
+            keys[j] = key;
+            values[j] = oldValues[i];
+        }
+
+        this.keys = keys;
+        this.values = values;
+    }
+
+    private static int hash(Object key) {
+        int h = System.identityHashCode(key);
+        return h ^ (h >>> 16);
+    }
+}
@@ -20,6 +20,7 @@ import com.alibaba.fastjson.annotation.JSONField;
 import com.alibaba.fastjson.annotation.JSONType;
 import com.alibaba.fastjson.parser.deserializer.Jdk8DateCodec;
 import com.alibaba.fastjson.parser.deserializer.OptionalCodec;
+import com.alibaba.fastjson.spi.Metrics;
 import com.alibaba.fastjson.spi.Module;
 import com.alibaba.fastjson.support.moneta.MonetaCodec;
 import com.alibaba.fastjson.support.springfox.SwaggerJsonSerializer;
@@ -63,6 +64,8 @@ public class SerializeConfig {
     private boolean                                       asm = !ASMUtils.IS_ANDROID;
     private ASMSerializerFactory                          asmFactory;
     protected String                                      typeKey = JSON.DEFAULT_TYPE_KEY;
+    protected TypeDictionary                              typeDictionary;
+    private volatile Metrics                              metrics;
     public PropertyNamingStrategy                         propertyNamingStrategy;
 
     private final IdentityHashMap<Type, ObjectSerializer> serializers;
@@ -85,6 +88,37 @@ public class SerializeConfig {
     public void setTypeKey(String typeKey) {
         this.typeKey = typeKey;
     }
+
+    /**
+     * @since 1.2.84
+     */
+    public TypeDictionary getTypeDictionary() {
+        return typeDictionary;
+    }
+
+    /**
+     * write the registered classes of typeDictionary as their id with WriteClassName
+     *
+     * @since 1.2.84
+     */
+    public void setTypeDictionary(TypeDictionary typeDictionary) {
+        this.typeDictionary = typeDictionary;
+    }
+
+    /**
+     * @since 1.2.84
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics receives serialize and serializer events of this config, null to disable
+     * @since 1.2.84
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
     
     private final JavaBeanSerializer createASMSerializer(SerializeBeanInfo beanInfo) throws Exception {
         JavaBeanSerializer serializer = asmFactory.createJavaBeanSerializer(beanInfo);
@@ -123,13 +157,21 @@ public class SerializeConfig {
             return MiscCodec.instance;
         }
 
-        return createJavaBeanSerializer(beanInfo);
+        ObjectSerializer serializer = createJavaBeanSerializer(beanInfo);
+        if (beanInfo.jsonType != null
+                && beanInfo.jsonType.cacheSerialized()
+                && serializer instanceof JavaBeanSerializer) {
+            serializer = new CachedJavaBeanSerializer((JavaBeanSerializer) serializer);
+        }
+        return serializer;
     }
     
     public ObjectSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo) {
         JSONType jsonType = beanInfo.jsonType;
 
+        long start = this.metrics == null ? 0 : System.nanoTime();
         boolean asm = this.asm && !fieldBased;
+        String reason = asm ? null : (fieldBased ? "fieldBased" : "asmDisabled");
         
         if (jsonType != null) {
             Class<?> serializerClass = jsonType.serializer();
@@ -144,37 +186,52 @@ public class SerializeConfig {
                 }
             }
             
-            asm = canUseAsm(jsonType, asm);
+            if (asm) {
+                asm = canUseAsm(jsonType, asm);
+                if (!asm) {
+                    reason = "jsonType";
+                }
+            }
         }
 
         Class<?> clazz = beanInfo.beanType;
         if (!Modifier.isPublic(beanInfo.beanType.getModifiers())) {
-            return new JavaBeanSerializer(beanInfo);
+            return createJavaBeanSerializer(beanInfo, "notPublic", start);
         }
 
 
 
         if (asm && asmFactory.classLoader.isExternalClass(clazz)
                 || clazz == Serializable.class || clazz == Object.class) {
+            if (asm) {
+                reason = clazz == Serializable.class || clazz == Object.class ? "objectType" : "externalClass";
+            }
             asm = false;
         }
 
         if (asm && !ASMUtils.checkName(clazz.getSimpleName())) {
             asm = false;
+            reason = "className";
         }
 
         if (asm && beanInfo.beanType.isInterface()) {
             asm = false;
+            reason = "interface";
         }
         
         if (asm) {
-            asm = checkAsmCompatibility(beanInfo, asm);
+            reason = checkAsmCompatibility(beanInfo);
+            asm = reason == null;
         }
         
         if (asm) {
             try {
                 ObjectSerializer asmSerializer = createASMSerializer(beanInfo);
                 if (asmSerializer != null) {
+                    Metrics metrics = this.metrics;
+                    if (metrics != null) {
+                        metrics.codecCreated(clazz, false, true, null, System.nanoTime() - start);
+                    }
                     return asmSerializer;
                 }
             } catch (ClassNotFoundException ex) {
@@ -191,29 +248,38 @@ public class SerializeConfig {
 			} catch (Throwable e) {
                 throw new JSONException("create asm serializer error, verson " + JSON.VERSION + ", class " + clazz, e);
             }
+            reason = "asmError";
         }
 
+        return createJavaBeanSerializer(beanInfo, reason, start);
+    }
+
+    private ObjectSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo, String reason, long start) {
+        Metrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.codecCreated(beanInfo.beanType, false, false, reason, System.nanoTime() - start);
+        }
         return new JavaBeanSerializer(beanInfo);
     }
 
-    private boolean checkAsmCompatibility(SerializeBeanInfo beanInfo, boolean asm) {
+    /**
+     * @return why asm can not be used for the bean, null if it can
+     */
+    private String checkAsmCompatibility(SerializeBeanInfo beanInfo) {
         for (FieldInfo fieldInfo : beanInfo.fields) {
             Field field = fieldInfo.field;
             if (field != null && !field.getType().equals(fieldInfo.fieldClass)) {
-                asm = false;
-                break;
+                return "fieldType:" + fieldInfo.name;
             }
 
             Method method = fieldInfo.method;
             if (method != null && !method.getReturnType().equals(fieldInfo.fieldClass)) {
-                asm = false;
-                break;
+                return "returnType:" + fieldInfo.name;
             }
 
             if (fieldInfo.fieldClass.isEnum()
                     && get(fieldInfo.fieldClass) != EnumSerializer.instance) {
-                asm = false;
-                break;
+                return "enumSerializer:" + fieldInfo.name;
             }
 
             JSONField annotation = fieldInfo.getAnnotation();
@@ -225,8 +291,7 @@ public class SerializeConfig {
             String format = annotation.format();
             if (format.length() != 0) {
                 if (!(fieldInfo.fieldClass == String.class && "trim".equals(format))) {
-                    asm = false;
-                    break;
+                    return "format:" + fieldInfo.name;
                 }
             }
 
@@ -235,22 +300,21 @@ public class SerializeConfig {
                     || annotation.serializeUsing() != Void.class
                     || annotation.unwrapped()
             ) {
-                asm = false;
-                break;
+                return "jsonField:" + fieldInfo.name;
             }
 
-            asm = isSerializeFeaturesAllowAsm(asm, annotation);
+            if (!isSerializeFeaturesAllowAsm(true, annotation)) {
+                return "serializeFeatures:" + fieldInfo.name;
+            }
 
             if (TypeUtils.isAnnotationPresentOneToMany(method) || TypeUtils.isAnnotationPresentManyToMany(method)) {
-                asm = false;
-                break;
+                return "oneToMany:" + fieldInfo.name;
             }
             if (annotation.defaultValue() != null && !"".equals(annotation.defaultValue())) {
-                asm = false;
-                break;
+                return "defaultValue:" + fieldInfo.name;
             }
         }
-        return asm;
+        return null;
     }
 
     private boolean canUseAsm(JSONType jsonType, boolean asm) {
@@ -423,6 +487,24 @@ public class SerializeConfig {
         }
     }
     
+    /**
+     * cache the serialized text of each instance of clazz, which must be immutable
+     *
+     * @see CachedJavaBeanSerializer
+     * @since 1.2.84
+     */
+    public void setCacheSerialized(Class<?> clazz, boolean value) {
+        ObjectSerializer serializer = getObjectWriter(clazz);
+
+        if (value) {
+            if (serializer instanceof JavaBeanSerializer && !(serializer instanceof CachedJavaBeanSerializer)) {
+                put(clazz, new CachedJavaBeanSerializer((JavaBeanSerializer) serializer));
+            }
+        } else if (serializer instanceof CachedJavaBeanSerializer) {
+            put(clazz, ((CachedJavaBeanSerializer) serializer).getSerializer());
+        }
+    }
+
     /** class level serializer feature config
      * @since 1.2.12
      */
@@ -479,6 +561,10 @@ public class SerializeConfig {
     
     public ObjectSerializer getObjectWriter(Class<?> clazz, boolean create) {
         ObjectSerializer writer = get(clazz);
+        Metrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.cacheLookup(false, writer != null);
+        }
 
         if (writer != null) {
             return writer;
@@ -17,6 +17,11 @@ package com.alibaba.fastjson.serializer;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.spi.Metrics;
+import com.alibaba.fastjson.util.BufferPool;
+import com.alibaba.fastjson.util.CompressedOutputStream;
+import com.alibaba.fastjson.util.Compression;
+import com.alibaba.fastjson.util.DateFormatter;
 import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.RyuDouble;
 import com.alibaba.fastjson.util.RyuFloat;
@@ -33,26 +38,9 @@ import static com.alibaba.fastjson.util.IOUtils.replaceChars;
 /**
  * @author wenshao[szujobs@hotmail.com]
  */
-public final class SerializeWriter extends Writer {
-    private final static ThreadLocal<char[]> bufLocal = new ThreadLocal<char[]>();
-    private final static ThreadLocal<byte[]> bytesBufLocal = new ThreadLocal<byte[]>();
+public class SerializeWriter extends Writer {
     private static final char[] VALUE_TRUE = ":true".toCharArray();
     private static final char[] VALUE_FALSE = ":false".toCharArray();
-    private static       int                 BUFFER_THRESHOLD = 1024 * 128;
-
-    static {
-        try {
-            String prop = IOUtils.getStringProperty("fastjson.serializer_buffer_threshold");
-            if (prop != null && prop.length() > 0) {
-                int serializer_buffer_threshold = Integer.parseInt(prop);
-                if (serializer_buffer_threshold >= 64 && serializer_buffer_threshold <= 1024 * 64) {
-                    BUFFER_THRESHOLD = serializer_buffer_threshold * 1024;
-                }
-            }
-        } catch (Throwable error) {
-            // skip
-        }
-    }
 
     protected char                           buf[];
 
@@ -80,6 +68,11 @@ public final class SerializeWriter extends Writer {
 
     protected int                            maxBufSize = -1;
 
+    Metrics                                  metrics;
+
+    private final static int                 ARRAY_CHUNK_SIZE = 256;
+    private final static int                 COMPRESS_CHUNK_SIZE = 1024 * 8;
+
     protected boolean                        browserSecure;
     protected long                           sepcialBits;
 
@@ -108,13 +101,7 @@ public final class SerializeWriter extends Writer {
     public SerializeWriter(Writer writer, int defaultFeatures, SerializerFeature... features) {
         this.writer = writer;
 
-        buf = bufLocal.get();
-
-        if (buf != null) {
-            bufLocal.set(null);
-        } else {
-            buf = new char[2048];
-        }
+        buf = BufferPool.getGlobal().leaseChars(2048);
 
         int featuresValue = defaultFeatures;
         for (SerializerFeature feature : features) {
@@ -237,6 +224,13 @@ public final class SerializeWriter extends Writer {
         return (this.features & feature.mask) != 0;
     }
     
+    /**
+     * @since 1.2.84
+     */
+    public int getFeatures() {
+        return features;
+    }
+
     public boolean isEnabled(int feature) {
         return (this.features & feature) != 0;
     }
@@ -313,16 +307,15 @@ public final class SerializeWriter extends Writer {
         if (newCapacity < minimumCapacity) {
             newCapacity = minimumCapacity;
         }
-        char newValue[] = new char[newCapacity];
+        BufferPool pool = BufferPool.getGlobal();
+        char newValue[] = pool.leaseChars(newCapacity);
         System.arraycopy(buf, 0, newValue, 0, count);
 
-        if (buf.length < BUFFER_THRESHOLD) {
-            char[] charsLocal = bufLocal.get();
-            if (charsLocal == null || charsLocal.length < buf.length) {
-                bufLocal.set(buf);
-            }
+        if (metrics != null) {
+            metrics.bufferExpanded(buf.length, newValue.length);
         }
 
+        pool.releaseChars(buf);
         buf = newValue;
     }
 
@@ -453,53 +446,88 @@ public final class SerializeWriter extends Writer {
     private int encodeToUTF8(OutputStream out) throws IOException {
 
         int bytesLength = (int) (count * (double) 3);
-        byte[] bytes = bytesBufLocal.get();
-
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
+        BufferPool pool = BufferPool.getGlobal();
+        byte[] bytes = pool.leaseBytes(bytesLength);
+        try {
+            int position = IOUtils.encodeUTF8(buf, 0, count, bytes);
+            out.write(bytes, 0, position);
+            return position;
+        } finally {
+            pool.releaseBytes(bytes);
         }
-        byte[] bytesLocal = bytes;
-
-        if (bytes.length < bytesLength) {
-            bytes = new byte[bytesLength];
+    }
+    
+    /**
+     * @return the number of bytes writeToEx writes for charset, for UTF-8 the chars are counted without encoding them
+     * @since 1.2.84
+     */
+    public int getEncodedLength(Charset charset) {
+        if (this.writer != null) {
+            throw new UnsupportedOperationException("writer not null");
         }
 
-        int position = IOUtils.encodeUTF8(buf, 0, count, bytes);
-        out.write(bytes, 0, position);
-
-        if (bytes != bytesLocal && bytes.length <= BUFFER_THRESHOLD) {
-            bytesBufLocal.set(bytes);
+        if (charset == IOUtils.UTF8) {
+            return IOUtils.encodedLengthUTF8(buf, 0, count);
         }
-
-        return position;
+        return new String(buf, 0, count).getBytes(charset).length;
     }
-    
-    private byte[] encodeToUTF8Bytes() {
-        int bytesLength = (int) (count * (double) 3);
-        byte[] bytes = bytesBufLocal.get();
 
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
+    /**
+     * encodes the buffered chars as UTF-8 in chunks and compresses each chunk into out, the whole text is never held
+     * as bytes
+     *
+     * @return number of compressed bytes written
+     * @since 1.2.84
+     */
+    public int writeToEx(OutputStream out, Compression compression) throws IOException {
+        if (this.writer != null) {
+            throw new UnsupportedOperationException("writer not null");
         }
-        byte[] bytesLocal = bytes;
 
-        if (bytes.length < bytesLength) {
-            bytes = new byte[bytesLength];
+        BufferPool pool = BufferPool.getGlobal();
+        byte[] bytes = pool.leaseBytes(COMPRESS_CHUNK_SIZE * 3);
+        CompressedOutputStream compressed = compression.compress(out);
+        try {
+            for (int off = 0; off < count;) {
+                int end = Math.min(count, off + COMPRESS_CHUNK_SIZE);
+                if (end < count && Character.isHighSurrogate(buf[end - 1])) {
+                    // keep a surrogate pair in one chunk
+                    end--;
+                }
+                int position = IOUtils.encodeUTF8(buf, off, end - off, bytes);
+                compressed.write(bytes, 0, position);
+                off = end;
+            }
+            compressed.finish();
+            return (int) compressed.getCount();
+        } finally {
+            // a failed write, such as a client gone away, still hands back the pooled deflater and buffers
+            compressed.end();
+            pool.releaseBytes(bytes);
         }
+    }
+
+    private byte[] encodeToUTF8Bytes() {
+        int bytesLength = (int) (count * (double) 3);
+        BufferPool pool = BufferPool.getGlobal();
+        byte[] bytes = pool.leaseBytes(bytesLength);
 
         int position = IOUtils.encodeUTF8(buf, 0, count, bytes);
         byte[] copy = new byte[position];
         System.arraycopy(bytes, 0, copy, 0, position);
 
-        if (bytes != bytesLocal && bytes.length <= BUFFER_THRESHOLD) {
-            bytesBufLocal.set(bytes);
-        }
-
+        pool.releaseBytes(bytes);
         return copy;
     }
     
+    /**
+     * @return false if chars are flushed to a writer, written chars can not be read back from buf then
+     * @since 1.2.84
+     */
+    final boolean isBuffered() {
+        return writer == null;
+    }
+
     public int size() {
         return count;
     }
@@ -509,17 +537,14 @@ public final class SerializeWriter extends Writer {
     }
 
     /**
-     * Close the stream. This method does not release the buffer, since its contents might still be required. Note:
-     * Invoking this method in this class will have no effect.
+     * Flushes to the writer and hands the buffer back to the {@link BufferPool}, the buffered chars can not be read
+     * after close.
      */
     public void close() {
         if (writer != null && count > 0) {
             flush();
         }
-        if (buf.length <= BUFFER_THRESHOLD) {
-            bufLocal.set(buf);
-        }
-
+        BufferPool.getGlobal().releaseChars(buf);
         this.buf = null;
     }
 
@@ -821,6 +846,133 @@ public final class SerializeWriter extends Writer {
         count = newcount;
     }
 
+    /**
+     * write values[off, off + len) as a json array, the capacity is checked once per chunk of elements instead of
+     * once per element
+     *
+     * @since 1.2.84
+     */
+    public void writeIntArray(int[] values, int off, int len) {
+        write('[');
+        for (int i = 0; i < len;) {
+            int end = i + Math.min(len - i, ARRAY_CHUNK_SIZE);
+            if (!reserve(count + (end - i) * 12)) {
+                for (; i < end; ++i) {
+                    if (i != 0) {
+                        write(',');
+                    }
+                    writeInt(values[off + i]);
+                }
+                continue;
+            }
+
+            for (; i < end; ++i) {
+                if (i != 0) {
+                    buf[count++] = ',';
+                }
+                int value = values[off + i];
+                if (value == Integer.MIN_VALUE) {
+                    "-2147483648".getChars(0, 11, buf, count);
+                    count += 11;
+                    continue;
+                }
+                count += value < 0 ? IOUtils.stringSize(-value) + 1 : IOUtils.stringSize(value);
+                IOUtils.getChars(value, count, buf);
+            }
+        }
+        write(']');
+    }
+
+    /**
+     * @see #writeIntArray(int[], int, int)
+     * @since 1.2.84
+     */
+    public void writeLongArray(long[] values, int off, int len) {
+        write('[');
+        // BrowserCompatible quotes some of the values
+        boolean bulk = !isEnabled(SerializerFeature.BrowserCompatible);
+        for (int i = 0; i < len;) {
+            int end = i + Math.min(len - i, ARRAY_CHUNK_SIZE);
+            if (!bulk || !reserve(count + (end - i) * 21)) {
+                for (; i < end; ++i) {
+                    if (i != 0) {
+                        write(',');
+                    }
+                    writeLong(values[off + i]);
+                }
+                continue;
+            }
+
+            for (; i < end; ++i) {
+                if (i != 0) {
+                    buf[count++] = ',';
+                }
+                long value = values[off + i];
+                if (value == Long.MIN_VALUE) {
+                    "-9223372036854775808".getChars(0, 20, buf, count);
+                    count += 20;
+                    continue;
+                }
+                count += value < 0 ? IOUtils.stringSize(-value) + 1 : IOUtils.stringSize(value);
+                IOUtils.getChars(value, count, buf);
+            }
+        }
+        write(']');
+    }
+
+    /**
+     * NaN and infinity are written as null, the same as writeDouble
+     *
+     * @see #writeIntArray(int[], int, int)
+     * @since 1.2.84
+     */
+    public void writeDoubleArray(double[] values, int off, int len, boolean checkWriteClassName) {
+        write('[');
+        boolean bulk = !(checkWriteClassName && isEnabled(SerializerFeature.WriteClassName));
+        for (int i = 0; i < len;) {
+            int end = i + Math.min(len - i, ARRAY_CHUNK_SIZE);
+            if (!bulk || !reserve(count + (end - i) * 25)) {
+                for (; i < end; ++i) {
+                    if (i != 0) {
+                        write(',');
+                    }
+                    writeDouble(values[off + i], checkWriteClassName);
+                }
+                continue;
+            }
+
+            for (; i < end; ++i) {
+                if (i != 0) {
+                    buf[count++] = ',';
+                }
+                double value = values[off + i];
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    "null".getChars(0, 4, buf, count);
+                    count += 4;
+                    continue;
+                }
+                count += RyuDouble.toString(value, buf, count);
+            }
+        }
+        write(']');
+    }
+
+    /**
+     * make room for newcount chars in the buffer
+     *
+     * @return false if the chars can not be reserved at once, as the buffer is flushed to a writer or is limited
+     */
+    private boolean reserve(int newcount) {
+        if (newcount <= buf.length) {
+            return true;
+        }
+        if (writer != null || (maxBufSize != -1 && newcount >= maxBufSize)) {
+            return false;
+        }
+        expandCapacity(newcount);
+        return true;
+    }
+
     private void writeCharsWithOptionalQuotes(long i, boolean needQuotationMark, int size) {
         char[] chars = new char[size];
         IOUtils.getChars(i, size, chars);
@@ -2100,6 +2252,38 @@ public final class SerializeWriter extends Writer {
         writeStringWithDoubleQuote(text, (char) 0);
     }
 
+    /**
+     * write date as a string, the layouts with a fast path are formatted straight into the buffer
+     *
+     * @since 1.2.84
+     */
+    public void writeDate(DateFormatter formatter, long millis) {
+        int maxLength = formatter.getMaxLength();
+        if (maxLength != 0) {
+            int newcount = count + maxLength + 2;
+            if (newcount > buf.length) {
+                if (writer == null) {
+                    expandCapacity(newcount);
+                } else {
+                    flush();
+                }
+            }
+
+            if (count + maxLength + 2 <= buf.length) {
+                int len = formatter.write(millis, buf, count + 1);
+                if (len != -1) {
+                    char quote = useSingleQuotes ? '\'' : '"';
+                    buf[count] = quote;
+                    buf[count + len + 1] = quote;
+                    count += len + 2;
+                    return;
+                }
+            }
+        }
+
+        writeString(formatter.format(millis));
+    }
+
     public void writeString(char[] chars) {
         if (useSingleQuotes) {
             writeStringWithSingleQuote(chars);
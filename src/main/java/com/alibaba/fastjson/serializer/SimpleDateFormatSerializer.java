@@ -2,9 +2,10 @@ package com.alibaba.fastjson.serializer;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
+import com.alibaba.fastjson.util.DateFormatter;
+
 public class SimpleDateFormatSerializer implements ObjectSerializer {
 
     private final String pattern;
@@ -20,10 +21,7 @@ public class SimpleDateFormatSerializer implements ObjectSerializer {
         }
         
         Date date = (Date) object;
-        SimpleDateFormat format = new SimpleDateFormat(pattern, serializer.locale);
-        format.setTimeZone(serializer.timeZone);
-
-        String text = format.format(date);
-        serializer.write(text);
+        DateFormatter formatter = DateFormatter.of(pattern, serializer.locale, serializer.timeZone);
+        serializer.out.writeDate(formatter, date.getTime());
     }
 }
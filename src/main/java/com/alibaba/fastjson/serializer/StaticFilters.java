@@ -0,0 +1,180 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.alibaba.fastjson.util.FieldInfo;
+
+/**
+ * Snapshot of a filter set whose result only depends on the bean type and the field: SimplePropertyPreFilter
+ * without maxLevel and LabelFilter. JavaBeanSerializer uses it as the key of a serializer generated for the fields
+ * passing the filters, so the filters are not consulted per field.
+ *
+ * @since 1.2.84
+ */
+final class StaticFilters {
+
+    private final static ConcurrentMap<Class<?>, Boolean> simplePreFilterClasses = new ConcurrentHashMap<Class<?>, Boolean>();
+
+    private final Object[]                                items;
+    private final int                                     hashCode;
+
+    private StaticFilters(Object[] items) {
+        this.items = items;
+        this.hashCode = Arrays.hashCode(items);
+    }
+
+    /**
+     * @return null if serializer has no filter, or a filter which depends on the value or the context
+     */
+    static StaticFilters of(JSONSerializer serializer) {
+        if (serializer.writeDirect
+                || !isEmpty(serializer.beforeFilters)
+                || !isEmpty(serializer.afterFilters)
+                || !isEmpty(serializer.propertyFilters)
+                || !isEmpty(serializer.valueFilters)
+                || !isEmpty(serializer.nameFilters)
+                || !isEmpty(serializer.contextValueFilters)) {
+            return null;
+        }
+
+        List<PropertyPreFilter> preFilters = serializer.propertyPreFilters;
+        List<LabelFilter> labelFilters = serializer.labelFilters;
+        int preSize = preFilters == null ? 0 : preFilters.size();
+        int labelSize = labelFilters == null ? 0 : labelFilters.size();
+        if (preSize + labelSize == 0) {
+            return null;
+        }
+
+        Object[] items = new Object[preSize + labelSize];
+        for (int i = 0; i < preSize; ++i) {
+            PropertyPreFilter filter = preFilters.get(i);
+            if (!(filter instanceof SimplePropertyPreFilter) || !isSimplePreFilterClass(filter.getClass())) {
+                return null;
+            }
+
+            SimplePropertyPreFilter simpleFilter = (SimplePropertyPreFilter) filter;
+            if (simpleFilter.getMaxLevel() > 0) {
+                return null;
+            }
+            items[i] = new Names(simpleFilter);
+        }
+        for (int i = 0; i < labelSize; ++i) {
+            items[preSize + i] = labelFilters.get(i);
+        }
+
+        return new StaticFilters(items);
+    }
+
+    /**
+     * same result as SerializeFilterable.applyName and JavaBeanSerializer.applyLabel for an instance of beanType
+     */
+    boolean apply(Class<?> beanType, FieldInfo fieldInfo) {
+        for (Object item : items) {
+            if (item instanceof Names) {
+                if (!((Names) item).apply(beanType, fieldInfo.name)) {
+                    return false;
+                }
+            } else if (!((LabelFilter) item).apply(fieldInfo.label)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int hashCode() {
+        return hashCode;
+    }
+
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof StaticFilters)) {
+            return false;
+        }
+        StaticFilters other = (StaticFilters) obj;
+        return hashCode == other.hashCode && Arrays.equals(items, other.items);
+    }
+
+    private static boolean isEmpty(List<?> filters) {
+        return filters == null || filters.size() == 0;
+    }
+
+    /**
+     * subclasses which override apply are not static
+     */
+    private static boolean isSimplePreFilterClass(Class<?> clazz) {
+        if (clazz == SimplePropertyPreFilter.class) {
+            return true;
+        }
+
+        Boolean simple = simplePreFilterClasses.get(clazz);
+        if (simple == null) {
+            try {
+                simple = clazz.getMethod("apply", JSONSerializer.class, Object.class, String.class)
+                        .getDeclaringClass() == SimplePropertyPreFilter.class;
+            } catch (NoSuchMethodException e) {
+                simple = Boolean.FALSE;
+            }
+            simplePreFilterClasses.putIfAbsent(clazz, simple);
+        }
+        return simple;
+    }
+
+    private static final class Names {
+
+        private final Class<?>    clazz;
+        private final Set<String> includes;
+        private final Set<String> excludes;
+
+        Names(SimplePropertyPreFilter filter) {
+            this.clazz = filter.getClazz();
+            this.includes = new HashSet<String>(filter.getIncludes());
+            this.excludes = new HashSet<String>(filter.getExcludes());
+        }
+
+        boolean apply(Class<?> beanType, String name) {
+            if (clazz != null && !clazz.isAssignableFrom(beanType)) {
+                return true;
+            }
+
+            if (excludes.contains(name)) {
+                return false;
+            }
+
+            return includes.size() == 0 || includes.contains(name);
+        }
+
+        public int hashCode() {
+            return (clazz == null ? 0 : clazz.hashCode()) * 31 * 31 + includes.hashCode() * 31 + excludes.hashCode();
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Names)) {
+                return false;
+            }
+            Names other = (Names) obj;
+            return clazz == other.clazz && includes.equals(other.includes) && excludes.equals(other.excludes);
+        }
+    }
+}
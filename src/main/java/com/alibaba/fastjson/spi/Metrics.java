@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.spi;
+
+import java.lang.reflect.Type;
+
+/**
+ * Receives parse and serialize events of a ParserConfig or SerializeConfig, set with setMetrics. Without metrics,
+ * the default, the only cost is a null check. Calls come from any thread and must not throw.
+ *
+ * @see com.alibaba.fastjson.util.HistogramMetrics
+ * @since 1.2.84
+ */
+public interface Metrics {
+
+    /**
+     * @param length length of the input text
+     * @param features parser features
+     */
+    void parse(Type type, int length, int features, long nanos);
+
+    /**
+     * @param length length of the output in chars or bytes, -1 if it is not known
+     * @param features serializer features
+     */
+    void serialize(Class<?> type, int length, int features, long nanos);
+
+    /**
+     * A deserializer or serializer for a bean type has been created, for an asm codec this includes generating its
+     * class.
+     *
+     * @param reason why the reflective codec was used, null for an asm codec
+     */
+    void codecCreated(Class<?> type, boolean deserializer, boolean asm, String reason, long nanos);
+
+    /**
+     * @param type the class typeName resolved to, null if it was rejected
+     */
+    void autoTypeChecked(String typeName, Class<?> type, long nanos);
+
+    void bufferExpanded(int capacity, int newCapacity);
+
+    void cacheLookup(boolean deserializer, boolean hit);
+}
@@ -4,10 +4,13 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.alibaba.fastjson.parser.*;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.alibaba.fastjson.parser.JSONLexer.NOT_MATCH_NAME;
 
@@ -18,6 +21,9 @@ public class HSFJSONUtils {
 
     final static char[]      fieldName_type = "\"@type\":".toCharArray();
 
+    final static int         MAX_INVOCATION_PLANS = 1024;
+    final static ConcurrentMap<PlanKey, InvocationPlan> invocationPlans = new ConcurrentHashMap<PlanKey, InvocationPlan>(16, 0.75f, 1);
+
     public static Object[] parseInvocationArguments(String json, MethodLocator methodLocator) {
         DefaultJSONParser parser = new DefaultJSONParser(json);
 
@@ -56,9 +62,8 @@ public class HSFJSONUtils {
         }
         lexer.nextToken(JSONToken.LBRACKET);
 
-        Method method = methodLocator.findMethod(typeNames);
-        Type[] argTypes = method.getGenericParameterTypes();
-        values = parser.parseArray(argTypes);
+        InvocationPlan plan = getInvocationPlan(methodLocator.findMethod(typeNames), parser.getConfig());
+        values = parser.parseArray(plan.argTypes, plan.deserializers);
         lexer.close();
         return values;
     }
@@ -75,7 +80,7 @@ public class HSFJSONUtils {
         if (method == null) {
             values = parseJsonToMethodArguments(json, methodLocator, lexer);
         } else {
-            values = parseMethodArguments(parser, lexer, rootContext, method);
+            values = parseMethodArguments(parser, lexer, rootContext, getInvocationPlan(method, parser.getConfig()));
         }
         return values;
     }
@@ -83,7 +88,7 @@ public class HSFJSONUtils {
     private static Object[] parseMethodParameters(MethodLocator methodLocator, DefaultJSONParser parser, String[] typeNames) {
         Object[] values;
         Method method = methodLocator.findMethod(null);
-        Type[] argTypes = method.getGenericParameterTypes();
+        Type[] argTypes = getInvocationPlan(method, parser.getConfig()).argTypes;
         values = new Object[typeNames.length];
         for (int i = 0;i < typeNames.length;++i) {
             castArgumentType(parser, values, typeNames, argTypes, i);
@@ -92,9 +97,8 @@ public class HSFJSONUtils {
     }
 
     private static Object[] parseMethodArguments(DefaultJSONParser parser, JSONLexerBase lexer, ParseContext rootContext,
-            Method method) {
+            InvocationPlan plan) {
         Object[] values;
-        Type[] argTypes = method.getGenericParameterTypes();
 
         lexer.skipWhitespace();
         if (lexer.getCurrent() == ',') {
@@ -102,7 +106,7 @@ public class HSFJSONUtils {
         }
 
         if (lexer.matchField2(fieldName_argsObjs)) {
-            values = parseJsonArrayArguments(parser, lexer, rootContext, argTypes);
+            values = parseJsonArrayArguments(parser, lexer, rootContext, plan);
         } else {
             values = null;
         }
@@ -125,7 +129,7 @@ public class HSFJSONUtils {
         if (argsObjs == null) {
             values = null;
         } else {
-            values = extractMethodArguments(method, argsObjs);
+            values = extractMethodArguments(getInvocationPlan(method, ParserConfig.global), argsObjs);
         }
         return values;
     }
@@ -142,12 +146,12 @@ public class HSFJSONUtils {
     }
 
     private static Object[] parseJsonArrayArguments(DefaultJSONParser parser, JSONLexerBase lexer, ParseContext rootContext,
-            Type[] argTypes) {
+            InvocationPlan plan) {
         Object[] values;
         lexer.nextToken();
 
         ParseContext context = parser.setContext(rootContext, null, "argsObjs");
-        values = parser.parseArray(argTypes);
+        values = parser.parseArray(plan.argTypes, plan.deserializers);
         context.object = values;
 
         parser.accept(JSONToken.RBRACE);
@@ -156,9 +160,9 @@ public class HSFJSONUtils {
         return values;
     }
 
-    private static Object[] extractMethodArguments(Method method, JSONArray argsObjs) {
+    private static Object[] extractMethodArguments(InvocationPlan plan, JSONArray argsObjs) {
         Object[] values;
-        Type[] argTypes = method.getGenericParameterTypes();
+        Type[] argTypes = plan.argTypes;
         values = new Object[argTypes.length];
         for (int i = 0;i < argTypes.length;i++) {
             Type type = argTypes[i];
@@ -174,4 +178,64 @@ public class HSFJSONUtils {
         }
         return typeNames;
     }
+
+    /**
+     * Method.getGenericParameterTypes returns new ParameterizedType instances for every copy of a Method, which miss
+     * the identity keyed deserializer cache of ParserConfig. The plan keeps one set of argument types per method and
+     * config together with their deserializers. The cache is dropped once it holds MAX_INVOCATION_PLANS plans, so the
+     * classes of methods no longer called are not kept for good.
+     */
+    static InvocationPlan getInvocationPlan(Method method, ParserConfig config) {
+        PlanKey key = new PlanKey(method, config);
+        InvocationPlan plan = invocationPlans.get(key);
+        if (plan == null) {
+            if (invocationPlans.size() >= MAX_INVOCATION_PLANS) {
+                invocationPlans.clear();
+            }
+            plan = new InvocationPlan(method, config);
+            InvocationPlan exists = invocationPlans.putIfAbsent(key, plan);
+            if (exists != null) {
+                plan = exists;
+            }
+        }
+        return plan;
+    }
+
+    static final class PlanKey {
+        final Method       method;
+        final ParserConfig config;
+
+        PlanKey(Method method, ParserConfig config) {
+            this.method = method;
+            this.config = config;
+        }
+
+        public int hashCode() {
+            return method.hashCode() * 31 + System.identityHashCode(config);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) o;
+            return method.equals(other.method) && config == other.config;
+        }
+    }
+
+    static final class InvocationPlan {
+        final Type[]               argTypes;
+        final ObjectDeserializer[] deserializers;
+
+        InvocationPlan(Method method, ParserConfig config) {
+            this.argTypes = method.getGenericParameterTypes();
+            this.deserializers = new ObjectDeserializer[argTypes.length];
+            for (int i = 0; i < argTypes.length; ++i) {
+                Type argType = argTypes[i];
+                if (argType != int.class && argType != Integer.class && argType != String.class) {
+                    deserializers[i] = config.getDeserializer(argType);
+                }
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.support.config.FastJsonConfig;
 
@@ -361,21 +362,26 @@ public class FastJsonProvider //
             setSerializerFeatures(fastJsonConfig, serializerFeatures);
         }
 
+        // getSize is -1, the buffer goes out to the entity stream each time it is full
+        SerializeWriter writer = new SerializeWriter(new OutputStreamWriter(entityStream, fastJsonConfig.getCharset()), //
+                JSON.DEFAULT_GENERATE_FEATURE, //
+                fastJsonConfig.getSerializerFeatures());
         try {
-            JSON.writeJSONStringWithFastJsonConfig(entityStream, //
-                    fastJsonConfig.getCharset(), //
+            JSON.writeJSONStringWithFastJsonConfig(writer, //
                     obj, //
                     fastJsonConfig.getSerializeConfig(), //
                     fastJsonConfig.getSerializeFilters(), //
-                    fastJsonConfig.getDateFormat(), //
-                    JSON.DEFAULT_GENERATE_FEATURE, //
-                    fastJsonConfig.getSerializerFeatures());
+                    fastJsonConfig.getDateFormat());
+
+            writer.flush();
 
             entityStream.flush();
 
         } catch (JSONException ex) {
 
             throw new WebApplicationException(ex);
+        } finally {
+            writer.close();
         }
     }
 
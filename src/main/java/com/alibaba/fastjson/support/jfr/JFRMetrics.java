@@ -0,0 +1,230 @@
+package com.alibaba.fastjson.support.jfr;
+
+import com.alibaba.fastjson.spi.Metrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.lang.reflect.Type;
+
+/**
+ * Metrics which commits JDK Flight Recorder events, requires a JDK with jdk.jfr (8u262 or 11 and later).
+ * Parse and serialize events are only committed when the call took at least the threshold, the other events are
+ * rare and always committed while they are enabled in the recording.
+ *
+ * <pre>
+ * JFRMetrics metrics = new JFRMetrics(TimeUnit.MILLISECONDS.toNanos(1));
+ * ParserConfig.getGlobalInstance().setMetrics(metrics);
+ * SerializeConfig.getGlobalInstance().setMetrics(metrics);
+ * </pre>
+ *
+ * The durations are measured by fastjson and recorded in the elapsed field, the events themselves are instant.
+ *
+ * @since 1.2.84
+ */
+public class JFRMetrics implements Metrics {
+
+    private final long    thresholdNanos;
+    private final Metrics next;
+
+    public JFRMetrics(long thresholdNanos) {
+        this(thresholdNanos, null);
+    }
+
+    /**
+     * @param next receives all events as well, null for none
+     */
+    public JFRMetrics(long thresholdNanos, Metrics next) {
+        this.thresholdNanos = thresholdNanos;
+        this.next = next;
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    public void parse(Type type, int length, int features, long nanos) {
+        if (nanos >= thresholdNanos) {
+            ParseEvent event = new ParseEvent();
+            if (event.isEnabled()) {
+                event.type = type == null ? null : type.getTypeName();
+                event.length = length;
+                event.features = features;
+                event.elapsed = nanos;
+                event.commit();
+            }
+        }
+
+        if (next != null) {
+            next.parse(type, length, features, nanos);
+        }
+    }
+
+    public void serialize(Class<?> type, int length, int features, long nanos) {
+        if (nanos >= thresholdNanos) {
+            SerializeEvent event = new SerializeEvent();
+            if (event.isEnabled()) {
+                event.type = type;
+                event.length = length;
+                event.features = features;
+                event.elapsed = nanos;
+                event.commit();
+            }
+        }
+
+        if (next != null) {
+            next.serialize(type, length, features, nanos);
+        }
+    }
+
+    public void codecCreated(Class<?> type, boolean deserializer, boolean asm, String reason, long nanos) {
+        CodecCreatedEvent event = new CodecCreatedEvent();
+        if (event.isEnabled()) {
+            event.type = type;
+            event.deserializer = deserializer;
+            event.asm = asm;
+            event.reason = reason;
+            event.elapsed = nanos;
+            event.commit();
+        }
+
+        if (next != null) {
+            next.codecCreated(type, deserializer, asm, reason, nanos);
+        }
+    }
+
+    public void autoTypeChecked(String typeName, Class<?> type, long nanos) {
+        AutoTypeCheckEvent event = new AutoTypeCheckEvent();
+        if (event.isEnabled()) {
+            event.typeName = typeName;
+            event.type = type;
+            event.elapsed = nanos;
+            event.commit();
+        }
+
+        if (next != null) {
+            next.autoTypeChecked(typeName, type, nanos);
+        }
+    }
+
+    public void bufferExpanded(int capacity, int newCapacity) {
+        BufferExpandedEvent event = new BufferExpandedEvent();
+        if (event.isEnabled()) {
+            event.capacity = capacity;
+            event.newCapacity = newCapacity;
+            event.commit();
+        }
+
+        if (next != null) {
+            next.bufferExpanded(capacity, newCapacity);
+        }
+    }
+
+    public void cacheLookup(boolean deserializer, boolean hit) {
+        // too frequent for events
+        if (next != null) {
+            next.cacheLookup(deserializer, hit);
+        }
+    }
+
+    @Name("com.alibaba.fastjson.Parse")
+    @Label("JSON Parse")
+    @Category("fastjson")
+    @Description("Text parsed into a type above the threshold duration")
+    public static class ParseEvent extends Event {
+
+        @Label("Type")
+        public String type;
+
+        @Label("Length")
+        @Description("Length of the input text")
+        public int    length;
+
+        @Label("Features")
+        public int    features;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        public long   elapsed;
+    }
+
+    @Name("com.alibaba.fastjson.Serialize")
+    @Label("JSON Serialize")
+    @Category("fastjson")
+    @Description("Object serialized above the threshold duration")
+    public static class SerializeEvent extends Event {
+
+        @Label("Type")
+        public Class<?> type;
+
+        @Label("Length")
+        @Description("Length of the output in chars or bytes, -1 if not known")
+        public int      length;
+
+        @Label("Features")
+        public int      features;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        public long     elapsed;
+    }
+
+    @Name("com.alibaba.fastjson.CodecCreated")
+    @Label("JSON Codec Created")
+    @Category("fastjson")
+    @Description("Bean deserializer or serializer created, asm codecs include generating their class")
+    public static class CodecCreatedEvent extends Event {
+
+        @Label("Type")
+        public Class<?> type;
+
+        @Label("Deserializer")
+        public boolean  deserializer;
+
+        @Label("ASM")
+        public boolean  asm;
+
+        @Label("Reason")
+        @Description("Why the reflective codec was used")
+        public String   reason;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        public long     elapsed;
+    }
+
+    @Name("com.alibaba.fastjson.AutoTypeCheck")
+    @Label("JSON AutoType Check")
+    @Category("fastjson")
+    public static class AutoTypeCheckEvent extends Event {
+
+        @Label("Type Name")
+        public String   typeName;
+
+        @Label("Type")
+        @Description("Resolved class, null if rejected")
+        public Class<?> type;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        public long     elapsed;
+    }
+
+    @Name("com.alibaba.fastjson.BufferExpanded")
+    @Label("JSON Buffer Expanded")
+    @Category("fastjson")
+    @StackTrace(false)
+    @Description("SerializeWriter buffer reallocated, buffers below the thread local threshold are kept for reuse")
+    public static class BufferExpandedEvent extends Event {
+
+        @Label("Capacity")
+        public int capacity;
+
+        @Label("New Capacity")
+        public int newCapacity;
+    }
+}
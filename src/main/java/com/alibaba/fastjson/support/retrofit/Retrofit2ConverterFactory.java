@@ -1,18 +1,22 @@
 package com.alibaba.fastjson.support.retrofit;
 
 import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.support.config.FastJsonConfig;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
 import retrofit2.Converter;
 import retrofit2.Retrofit;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
@@ -236,11 +240,56 @@ public class Retrofit2ConverterFactory extends Converter.Factory {
         }
     }
 
+    /**
+     * serialized each time it is written, chunked without a content length
+     *
+     * @since 1.2.84
+     */
+    final class JSONRequestBody extends RequestBody {
+        private final Object value;
+
+        JSONRequestBody(Object value) {
+            this.value = value;
+        }
+
+        public MediaType contentType() {
+            return MEDIA_TYPE;
+        }
+
+        public long contentLength() {
+            return -1;
+        }
+
+        public void writeTo(BufferedSink sink) throws IOException {
+            SerializeWriter writer = new SerializeWriter(new OutputStreamWriter(sink.outputStream(), fastJsonConfig.getCharset())
+                    , JSON.DEFAULT_GENERATE_FEATURE
+                    , fastJsonConfig.getSerializerFeatures()
+            );
+            try {
+                JSON.writeJSONStringWithFastJsonConfig(writer
+                        , value
+                        , fastJsonConfig.getSerializeConfig()
+                        , fastJsonConfig.getSerializeFilters()
+                        , fastJsonConfig.getDateFormat()
+                );
+                writer.flush();
+            } catch (JSONException e) {
+                throw new IOException("Could not write JSON: " + e.getMessage(), e);
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
     final class RequestBodyConverter<T> implements Converter<T, RequestBody> {
         RequestBodyConverter() {
         }
 
         public RequestBody convert(T value) throws IOException {
+            if (!fastJsonConfig.isWriteContentLength()) {
+                return new JSONRequestBody(value);
+            }
+
             try {
                 byte[] content = JSON.toJSONBytesWithFastJsonConfig(fastJsonConfig.getCharset()
                         , value
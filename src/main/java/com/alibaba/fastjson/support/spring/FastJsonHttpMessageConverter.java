@@ -4,6 +4,7 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.JSONPObject;
 import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.support.config.FastJsonConfig;
 import com.alibaba.fastjson.util.ParameterizedTypeImpl;
@@ -18,9 +19,9 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.util.StringUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -280,18 +281,15 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
     @Override
     protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
 
-        ByteArrayOutputStream outnew = new ByteArrayOutputStream();
         try {
-            writeJsonOutput(object, outputMessage, outnew);
+            writeJsonOutput(object, outputMessage);
 
         } catch (JSONException ex) {
             throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getMessage(), ex);
-        } finally {
-            outnew.close();
         }
     }
 
-    private void writeJsonOutput(Object object, HttpOutputMessage outputMessage, ByteArrayOutputStream outnew)
+    private void writeJsonOutput(Object object, HttpOutputMessage outputMessage)
             throws IOException {
         HttpHeaders headers = outputMessage.getHeaders();
 
@@ -320,30 +318,50 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
         }
 
 
-        int len = JSON.writeJSONStringWithFastJsonConfig(outnew, //
-		        fastJsonConfig.getCharset(), //
-		        value, //
-		        fastJsonConfig.getSerializeConfig(), //
-		        //fastJsonConfig.getSerializeFilters(), //
-		        allFilters.toArray(new SerializeFilter[allFilters.size()]),
-                fastJsonConfig.getDateFormat(), //
-		        JSON.DEFAULT_GENERATE_FEATURE, //
-		        fastJsonConfig.getSerializerFeatures());
-
         if (isJsonp) {
             headers.setContentType(APPLICATION_JAVASCRIPT);
         }
 
-        if (fastJsonConfig.isWriteContentLength() && !setLengthError) {
+        Charset charset = fastJsonConfig.getCharset();
+        SerializeFilter[] filters = allFilters.toArray(new SerializeFilter[allFilters.size()]);
+
+        if (!fastJsonConfig.isWriteContentLength() || setLengthError) {
+            // no length to compute, the buffer goes out as chunks each time it is full
+            SerializeWriter writer = new SerializeWriter(new OutputStreamWriter(outputMessage.getBody(), charset), //
+                    JSON.DEFAULT_GENERATE_FEATURE, //
+                    fastJsonConfig.getSerializerFeatures());
             try {
-                headers.setContentLength(len);
+                JSON.writeJSONStringWithFastJsonConfig(writer, //
+                        value, //
+                        fastJsonConfig.getSerializeConfig(), //
+                        filters, //
+                        fastJsonConfig.getDateFormat());
+            } finally {
+                writer.close();
+            }
+            return;
+        }
+
+        // the length is known once the text is in the buffer, it is encoded straight into the body afterwards
+        SerializeWriter writer = new SerializeWriter(null, JSON.DEFAULT_GENERATE_FEATURE, fastJsonConfig.getSerializerFeatures());
+        try {
+            JSON.writeJSONStringWithFastJsonConfig(writer, //
+                    value, //
+                    fastJsonConfig.getSerializeConfig(), //
+                    filters, //
+                    fastJsonConfig.getDateFormat());
+
+            try {
+                headers.setContentLength(writer.getEncodedLength(charset));
             } catch (UnsupportedOperationException ex) {
                 // skip
 		        setLengthError = true;
             }
-        }
 
-        outnew.writeTo(outputMessage.getBody());
+            writer.writeToEx(outputMessage.getBody(), charset);
+        } finally {
+            writer.close();
+        }
     }
 
     private Object addFiltersAndGetValue(List<SerializeFilter> allFilters, Object value) {
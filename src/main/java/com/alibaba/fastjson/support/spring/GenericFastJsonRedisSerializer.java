@@ -2,8 +2,10 @@ package com.alibaba.fastjson.support.spring;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.TypeDictionary;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
@@ -18,12 +20,33 @@ public class GenericFastJsonRedisSerializer implements RedisSerializer<Object> {
  defaultRedisConfig.setAutoTypeSupport(true);
 }
 
+    private final SerializeConfig serializeConfig;
+    private final ParserConfig    parserConfig;
+
+    public GenericFastJsonRedisSerializer() {
+        this.serializeConfig = SerializeConfig.globalInstance;
+        this.parserConfig = defaultRedisConfig;
+    }
+
+    /**
+     * registered classes are written as their id in @type and read back by id
+     *
+     * @since 1.2.84
+     */
+    public GenericFastJsonRedisSerializer(TypeDictionary typeDictionary) {
+        this.serializeConfig = new SerializeConfig();
+        this.serializeConfig.setTypeDictionary(typeDictionary);
+        this.parserConfig = new ParserConfig();
+        this.parserConfig.setAutoTypeSupport(true);
+        this.parserConfig.addAutoTypeCheckHandler(typeDictionary);
+    }
+
     public byte[] serialize(Object object) throws SerializationException {
         if (object == null) {
             return new byte[0];
         }
         try {
-            return JSON.toJSONBytes(object, SerializerFeature.WriteClassName);
+            return JSON.toJSONBytes(object, serializeConfig, SerializerFeature.WriteClassName);
         } catch (Exception ex) {
             throw new SerializationException("Could not serialize: " + ex.getMessage(), ex);
         }
@@ -34,7 +57,7 @@ public class GenericFastJsonRedisSerializer implements RedisSerializer<Object> {
             return null;
         }
         try {
-            return JSON.parseObject(new String(bytes, IOUtils.UTF8), Object.class, defaultRedisConfig);
+            return JSON.parseObject(new String(bytes, IOUtils.UTF8), Object.class, parserConfig);
         } catch (Exception ex) {
             throw new SerializationException("Could not deserialize: " + ex.getMessage(), ex);
         }
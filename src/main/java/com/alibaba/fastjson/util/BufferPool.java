@@ -0,0 +1,90 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Pool of the char and byte buffers used by SerializeWriter, JSONReaderScanner and the byte[] / InputStream entry
+ * points of JSON. A leased buffer is owned by the caller until it is released, and must not be touched after that.
+ * Buffers which are never released are simply collected.
+ * <p>
+ * The global pool is a {@link StripedBufferPool}, shared by all threads, so that virtual threads or large thread
+ * pools do not keep a buffer each. Start with -Dfastjson.buffer_pool=threadlocal for the former one buffer per thread
+ * behaviour ({@link ThreadLocalBufferPool}), or install another pool with {@link #setGlobal(BufferPool)}.
+ *
+ * @since 1.2.84
+ */
+public abstract class BufferPool {
+
+    public final static String        PROPERTY = "fastjson.buffer_pool";
+
+    private static volatile BufferPool global;
+
+    static {
+        BufferPool pool = null;
+        try {
+            String prop = IOUtils.getStringProperty(PROPERTY);
+            if ("threadlocal".equals(prop)) {
+                pool = new ThreadLocalBufferPool();
+            }
+        } catch (Throwable error) {
+            // skip
+        }
+        global = pool != null ? pool : new StripedBufferPool();
+    }
+
+    public static BufferPool getGlobal() {
+        return global;
+    }
+
+    public static void setGlobal(BufferPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool is null");
+        }
+        global = pool;
+    }
+
+    /**
+     * @return a buffer of at least minLength chars, its content is undefined
+     */
+    public abstract char[] leaseChars(int minLength);
+
+    /**
+     * hands a buffer back to the pool, null is ignored
+     */
+    public abstract void releaseChars(char[] chars);
+
+    /**
+     * @return a buffer of at least minLength bytes, its content is undefined
+     */
+    public abstract byte[] leaseBytes(int minLength);
+
+    /**
+     * hands a buffer back to the pool, null is ignored
+     */
+    public abstract void releaseBytes(byte[] bytes);
+
+    /**
+     * drops all pooled buffers
+     */
+    public abstract void clear();
+
+    /**
+     * @return occupancy and miss counters of the pool
+     */
+    public abstract JSONObject snapshot();
+}
@@ -0,0 +1,543 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Insertion ordered map which keeps its values in a flat array. The keys live in a shape shared by every map built
+ * with the same key sequence, so an array of parsed records holds one key array instead of one hash table per
+ * record. Used for JSONObject when Feature.CompactObject is enabled.
+ * <p>
+ * Maps with keys which are not strings or with more than MAX_KEYS keys switch to a LinkedHashMap.
+ * <p>
+ * The shapes are kept in a {@link Shapes} tree and retain their key strings until the tree is dropped or cleared.
+ * Each ParserConfig has its own tree, maps created with the default constructor share a global one which holds
+ * at most -Dfastjson.compact_map.max_shapes shapes, MAX_SHAPES by default. Once a tree is full new key sequences
+ * get shapes of their own, which are collected with their maps.
+ *
+ * @since 1.2.84
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> implements Cloneable, Serializable {
+
+    private static final long          serialVersionUID = 1L;
+
+    public final static int            MAX_KEYS         = 64;
+    public final static int            MAX_SHAPES       = 1024 * 16;
+
+    private final static Object[]      EMPTY_VALUES     = new Object[0];
+    private final static Shapes        global           = new Shapes(defaultMaxShapes());
+
+    private transient Shape            shape;
+    private transient Object[]         values;
+    private transient Map<K, V>        map;
+
+    public CompactMap() {
+        this(global);
+    }
+
+    public CompactMap(Shapes shapes) {
+        this.shape = shapes.empty;
+        this.values = EMPTY_VALUES;
+    }
+
+    public CompactMap(Map<? extends K, ? extends V> map) {
+        this(global);
+        if (map instanceof CompactMap && ((CompactMap<?, ?>) map).map == null) {
+            CompactMap<?, ?> other = (CompactMap<?, ?>) map;
+            this.shape = other.shape;
+            this.values = new Object[other.shape.keys.length];
+            System.arraycopy(other.values, 0, values, 0, values.length);
+            return;
+        }
+        putAll(map);
+    }
+
+    public int size() {
+        if (map != null) {
+            return map.size();
+        }
+        return shape.keys.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        if (map != null) {
+            return map.containsKey(key);
+        }
+        return shape.indexOf(key) != -1;
+    }
+
+    public boolean containsValue(Object value) {
+        if (map != null) {
+            return map.containsValue(value);
+        }
+        for (int i = 0, size = shape.keys.length; i < size; ++i) {
+            Object item = values[i];
+            if (item == value || (item != null && item.equals(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (map != null) {
+            return map.get(key);
+        }
+        int index = shape.indexOf(key);
+        return index == -1 ? null : (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (map != null) {
+            return map.put(key, value);
+        }
+
+        int index = shape.indexOf(key);
+        if (index != -1) {
+            Object old = values[index];
+            values[index] = value;
+            return (V) old;
+        }
+
+        int size = shape.keys.length;
+        // the parser puts raw keys into the inner map of a JSONObject, they are not always strings
+        if (!(key instanceof String) || size >= MAX_KEYS) {
+            inflate();
+            return map.put(key, value);
+        }
+
+        Shape next = shape.add((String) key);
+        if (size == values.length) {
+            // the keys which followed this shape before are likely to follow again
+            int chainLength = next.chainLength();
+            int capacity = size + (chainLength != 0 ? chainLength + 1 : Math.max(4, size >> 1));
+            Object[] newValues = new Object[Math.min(capacity, MAX_KEYS)];
+            System.arraycopy(values, 0, newValues, 0, size);
+            values = newValues;
+        }
+        values[size] = value;
+        shape = next;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (map != null) {
+            return map.remove(key);
+        }
+
+        int index = shape.indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        Object old = values[index];
+        removeAt(index);
+        return (V) old;
+    }
+
+    public void clear() {
+        map = null;
+        shape = shape.owner.empty;
+        values = EMPTY_VALUES;
+    }
+
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (map != null) {
+            return map.entrySet();
+        }
+        return new EntrySet();
+    }
+
+    public CompactMap<K, V> clone() {
+        if (map != null) {
+            CompactMap<K, V> clone = new CompactMap<K, V>();
+            clone.map = new LinkedHashMap<K, V>(map);
+            return clone;
+        }
+        return new CompactMap<K, V>(this);
+    }
+
+    /**
+     * @return true if the keys are held in a shape shared with other maps
+     */
+    public boolean isShared() {
+        return map == null && shape.shared;
+    }
+
+    private void removeAt(int index) {
+        String[] keys = shape.keys;
+        int size = keys.length;
+
+        Shape next = shape.owner.empty;
+        for (int i = 0; i < size; ++i) {
+            if (i != index) {
+                next = next.add(keys[i]);
+            }
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        values[size - 1] = null;
+        shape = next;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inflate() {
+        String[] keys = shape.keys;
+        Map<K, V> map = new LinkedHashMap<K, V>(Math.max(16, keys.length * 2));
+        for (int i = 0; i < keys.length; ++i) {
+            map.put((K) keys[i], (V) values[i]);
+        }
+        this.map = map;
+        this.shape = shape.owner.empty;
+        this.values = EMPTY_VALUES;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size());
+        for (Map.Entry<K, V> entry : entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        shape = global.empty;
+        values = EMPTY_VALUES;
+        int size = in.readInt();
+        for (int i = 0; i < size; ++i) {
+            K key = (K) in.readObject();
+            V value = (V) in.readObject();
+            put(key, value);
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        public int size() {
+            return CompactMap.this.size();
+        }
+
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object key = entry.getKey();
+            if (!containsKey(key)) {
+                return false;
+            }
+            Object value = get(key);
+            return value == null ? entry.getValue() == null : value.equals(entry.getValue());
+        }
+
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            CompactMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        private int index;
+        private int last = -1;
+
+        public boolean hasNext() {
+            return index < shape.keys.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (index >= shape.keys.length) {
+                throw new NoSuchElementException();
+            }
+            last = index;
+            return new Entry((K) shape.keys[index++]);
+        }
+
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+            removeAt(last);
+            index = last;
+            last = -1;
+        }
+    }
+
+    private final class Entry implements Map.Entry<K, V> {
+
+        private final K key;
+
+        Entry(K key) {
+            this.key = key;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return get(key);
+        }
+
+        public V setValue(V value) {
+            return put(key, value);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            V value = getValue();
+            return key.equals(other.getKey())
+                    && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        public int hashCode() {
+            V value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    private static int defaultMaxShapes() {
+        try {
+            String prop = IOUtils.getStringProperty("fastjson.compact_map.max_shapes");
+            if (prop != null && prop.length() > 0) {
+                return Integer.parseInt(prop);
+            }
+        } catch (Throwable error) {
+            // skip
+        }
+        return MAX_SHAPES;
+    }
+
+    /**
+     * the tree of the shapes shared by maps, it holds at most maxShapes shapes and their keys as long as it is
+     * reachable from a ParserConfig or a map
+     */
+    public static final class Shapes {
+
+        final int                   maxShapes;
+        final AtomicInteger         count = new AtomicInteger();
+        volatile Shape              empty;
+
+        public Shapes() {
+            this(MAX_SHAPES);
+        }
+
+        public Shapes(int maxShapes) {
+            this.maxShapes = maxShapes;
+            this.empty = new Shape(new String[0], this, true);
+        }
+
+        public int getMaxShapes() {
+            return maxShapes;
+        }
+
+        /**
+         * @return number of shared shapes
+         */
+        public int size() {
+            return count.get();
+        }
+
+        /**
+         * drop the shared shapes, the maps already built keep theirs
+         */
+        public void clear() {
+            empty = new Shape(new String[0], this, true);
+            count.set(0);
+        }
+    }
+
+    /**
+     * an immutable key sequence, maps adding the same key to the same shape get the same next shape
+     */
+    private static final class Shape {
+
+        final String[]                         keys;
+        final Shapes                           owner;
+        final boolean                          shared;
+
+        private volatile Shape                 next;
+        private volatile ConcurrentMap<String, Shape> transitions;
+        private volatile int[]                 table;
+
+        Shape(String[] keys, Shapes owner, boolean shared) {
+            this.keys = keys;
+            this.owner = owner;
+            this.shared = shared;
+        }
+
+        int indexOf(Object key) {
+            String[] keys = this.keys;
+            if (keys.length <= 8) {
+                for (int i = 0; i < keys.length; ++i) {
+                    if (keys[i] == key) {
+                        return i;
+                    }
+                }
+                if (key == null) {
+                    return -1;
+                }
+                for (int i = 0; i < keys.length; ++i) {
+                    if (key.equals(keys[i])) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            if (key == null) {
+                return -1;
+            }
+
+            int[] table = this.table;
+            if (table == null) {
+                this.table = table = buildTable(keys);
+            }
+            int mask = table.length - 1;
+            for (int i = key.hashCode() & mask;; i = (i + 1) & mask) {
+                int slot = table[i];
+                if (slot == 0) {
+                    return -1;
+                }
+                String k = keys[slot - 1];
+                if (k == key || k.equals(key)) {
+                    return slot - 1;
+                }
+            }
+        }
+
+        Shape add(String key) {
+            Shape next = this.next;
+            if (next != null && next.lastKey().equals(key)) {
+                return next;
+            }
+            ConcurrentMap<String, Shape> transitions = this.transitions;
+            if (transitions != null) {
+                next = transitions.get(key);
+                if (next != null) {
+                    return next;
+                }
+            }
+            return addSlow(key);
+        }
+
+        /**
+         * the number of keys which followed this shape so far, if they always were the same
+         */
+        int chainLength() {
+            int length = 0;
+            for (Shape shape = this.next; shape != null && length < MAX_KEYS; shape = shape.next) {
+                length++;
+                if (shape.transitions != null) {
+                    break;
+                }
+            }
+            return length;
+        }
+
+        private String lastKey() {
+            return keys[keys.length - 1];
+        }
+
+        private synchronized Shape addSlow(String key) {
+            String[] newKeys = new String[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, keys.length);
+            newKeys[keys.length] = key;
+
+            if (!shared || owner.count.get() >= owner.maxShapes) {
+                return new Shape(newKeys, owner, false);
+            }
+
+            Shape next = this.next;
+            if (next != null && next.lastKey().equals(key)) {
+                return next;
+            }
+            if (transitions != null && (next = transitions.get(key)) != null) {
+                return next;
+            }
+
+            owner.count.incrementAndGet();
+            next = new Shape(newKeys, owner, true);
+            if (this.next == null) {
+                this.next = next;
+            } else {
+                if (transitions == null) {
+                    transitions = new ConcurrentHashMap<String, Shape>(4);
+                }
+                transitions.put(key, next);
+            }
+            return next;
+        }
+
+        private static int[] buildTable(String[] keys) {
+            int capacity = 16;
+            while (capacity < keys.length * 2) {
+                capacity <<= 1;
+            }
+            int[] table = new int[capacity];
+            int mask = capacity - 1;
+            for (int k = 0; k < keys.length; ++k) {
+                int i = keys[k].hashCode() & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = k + 1;
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses into an OutputStream with a pooled Deflater and buffers leased from the global BufferPool. finish
+ * completes the compressed data and returns the pooled objects without closing the underlying stream.
+ * <p>
+ * Compression.LZ writes the magic bytes FJLZ, then each block as the varint raw length, the varint stored length and
+ * the stored bytes, which are not compressed when both lengths are equal, and ends with a raw length of 0.
+ *
+ * @since 1.2.84
+ */
+public final class CompressedOutputStream extends OutputStream {
+
+    final static byte[]                      LZ_MAGIC    = { 'F', 'J', 'L', 'Z' };
+
+    private final static int                 BUF_SIZE    = 1024 * 8;
+
+    private final OutputStream               out;
+    private final Compression                compression;
+    private final BufferPool                 pool;
+
+    private Deflater                         deflater;
+    private CRC32                            crc;
+    private byte[]                           buf;
+
+    private byte[]                           block;
+    private int                              blockCount;
+    private char[]                           table;
+
+    private long                             size;
+    private long                             count;
+    private boolean                          finished;
+
+    CompressedOutputStream(OutputStream out, Compression compression) {
+        this.out = out;
+        this.compression = compression;
+        this.pool = BufferPool.getGlobal();
+
+        if (compression == Compression.LZ) {
+            block = pool.leaseBytes(LZBlock.BLOCK_SIZE);
+            buf = pool.leaseBytes(LZBlock.maxCompressedLength(LZBlock.BLOCK_SIZE) + 10);
+            table = pool.leaseChars(LZBlock.TABLE_SIZE);
+        } else {
+            deflater = compression.takeDeflater();
+            buf = pool.leaseBytes(BUF_SIZE);
+            if (compression == Compression.GZIP) {
+                crc = new CRC32();
+            }
+        }
+    }
+
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("write after finish");
+        }
+        if (len == 0) {
+            return;
+        }
+
+        if (size == 0) {
+            writeHeader();
+        }
+        size += len;
+
+        if (compression == Compression.LZ) {
+            // whole blocks are compressed from the caller's array without a copy
+            while (blockCount == 0 && len >= LZBlock.BLOCK_SIZE) {
+                writeBlock(b, off, LZBlock.BLOCK_SIZE);
+                off += LZBlock.BLOCK_SIZE;
+                len -= LZBlock.BLOCK_SIZE;
+            }
+            while (len > 0) {
+                int n = Math.min(len, LZBlock.BLOCK_SIZE - blockCount);
+                System.arraycopy(b, off, block, blockCount, n);
+                blockCount += n;
+                off += n;
+                len -= n;
+                if (blockCount == LZBlock.BLOCK_SIZE) {
+                    writeBlock(block, 0, blockCount);
+                    blockCount = 0;
+                }
+            }
+            return;
+        }
+
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+    }
+
+    /**
+     * completes the compressed data, the underlying stream is not closed
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+
+        try {
+            if (size == 0) {
+                writeHeader();
+            }
+
+            if (compression == Compression.LZ) {
+                if (blockCount > 0) {
+                    writeBlock(block, 0, blockCount);
+                    blockCount = 0;
+                }
+                buf[0] = 0;
+                writeOut(buf, 0, 1);
+            } else {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+                if (crc != null) {
+                    writeIntLE((int) crc.getValue(), buf, 0);
+                    writeIntLE((int) size, buf, 4);
+                    writeOut(buf, 0, 8);
+                }
+            }
+        } finally {
+            finished = true;
+            release();
+        }
+    }
+
+    /**
+     * returns the pooled objects without completing the compressed data, for a stream abandoned after a failed
+     * write. Nothing is written to the underlying stream, a finished stream is left as is.
+     */
+    public void end() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        release();
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @return number of uncompressed bytes written
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return number of compressed bytes written to the underlying stream
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private void writeHeader() throws IOException {
+        if (compression == Compression.GZIP) {
+            // magic, deflate, no flags, no mtime, no extra flags, unknown os
+            byte[] header = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+            writeOut(header, 0, header.length);
+        } else if (compression == Compression.LZ) {
+            writeOut(LZ_MAGIC, 0, LZ_MAGIC.length);
+        }
+    }
+
+    private void deflate() throws IOException {
+        int n = deflater.deflate(buf, 0, buf.length);
+        if (n > 0) {
+            writeOut(buf, 0, n);
+        }
+    }
+
+    private void writeBlock(byte[] src, int off, int len) throws IOException {
+        int headerLength = writeVarInt(len, buf, 0);
+        int start = headerLength + 5;
+        int compressed = LZBlock.compress(src, off, len, buf, start, table);
+
+        if (compressed >= len) {
+            headerLength = writeVarInt(len, buf, headerLength);
+            writeOut(buf, 0, headerLength);
+            writeOut(src, off, len);
+            return;
+        }
+
+        int lengthEnd = writeVarInt(compressed, buf, headerLength);
+        // move the block next to its length
+        System.arraycopy(buf, start, buf, lengthEnd, compressed);
+        writeOut(buf, 0, lengthEnd + compressed);
+    }
+
+    private void writeOut(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+
+    private void release() {
+        if (deflater != null) {
+            compression.releaseDeflater(deflater);
+            deflater = null;
+        } else {
+            pool.releaseBytes(block);
+            pool.releaseChars(table);
+            block = null;
+            table = null;
+        }
+        pool.releaseBytes(buf);
+        buf = null;
+    }
+
+    static int writeVarInt(int value, byte[] buf, int off) {
+        while ((value & ~0x7F) != 0) {
+            buf[off++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[off++] = (byte) value;
+        return off;
+    }
+
+    private static void writeIntLE(int value, byte[] buf, int off) {
+        buf[off] = (byte) value;
+        buf[off + 1] = (byte) (value >>> 8);
+        buf[off + 2] = (byte) (value >>> 16);
+        buf[off + 3] = (byte) (value >>> 24);
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reads UTF-8 text compressed by CompressedOutputStream, or by any gzip or zlib writer. Data is decompressed into a
+ * byte buffer leased from the global BufferPool and decoded from there into the char array passed to read, which for JSONReaderScanner is its
+ * refill buffer. Compressed input in a byte array is inflated in place without a copy.
+ *
+ * @since 1.2.84
+ */
+public final class CompressedReader extends Reader {
+
+    private final static int                 INPUT_SIZE  = 1024 * 8;
+
+    private final Compression                compression;
+    private final BufferPool                 pool;
+    private InputStream                      in;
+
+    private byte[]                           input;
+    private int                              inputPos;
+    private int                              inputLimit;
+    private boolean                          pooledInput;
+
+    private Inflater                         inflater;
+    private CRC32                            crc;
+    private byte[]                           block;
+
+    private byte[]                           bytes;
+    private ByteBuffer                       byteBuffer;
+    private final CharsetDecoder             decoder;
+    private int                              pendingChar = -1;
+
+    private boolean                          started;
+    private boolean                          eof;
+    private boolean                          flushed;
+    private boolean                          closed;
+
+    CompressedReader(InputStream in, Compression compression) {
+        this(compression);
+        this.in = in;
+        this.input = pool.leaseBytes(INPUT_SIZE);
+        this.pooledInput = true;
+    }
+
+    CompressedReader(byte[] bytes, int off, int len, Compression compression) {
+        this(compression);
+        this.input = bytes;
+        this.inputPos = off;
+        this.inputLimit = off + len;
+    }
+
+    private CompressedReader(Compression compression) {
+        this.compression = compression;
+        this.pool = BufferPool.getGlobal();
+        this.bytes = pool.leaseBytes(LZBlock.BLOCK_SIZE + 8);
+        this.byteBuffer = ByteBuffer.wrap(bytes);
+        this.byteBuffer.limit(0);
+        this.decoder = IOUtils.UTF8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        if (compression != Compression.LZ) {
+            inflater = compression.takeInflater();
+            if (compression == Compression.GZIP) {
+                crc = new CRC32();
+            }
+        }
+    }
+
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("reader closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (flushed) {
+            return -1;
+        }
+
+        if (pendingChar != -1) {
+            cbuf[off] = (char) pendingChar;
+            pendingChar = -1;
+            return 1;
+        }
+
+        CharBuffer chars = CharBuffer.wrap(cbuf, off, len);
+        for (;;) {
+            CoderResult result = decoder.decode(byteBuffer, chars, eof);
+            int n = chars.position() - off;
+            if (n > 0) {
+                return n;
+            }
+
+            if (result.isOverflow()) {
+                // a surrogate pair does not fit into a single char
+                char[] pair = new char[2];
+                CharBuffer pairBuffer = CharBuffer.wrap(pair);
+                decoder.decode(byteBuffer, pairBuffer, eof);
+                cbuf[off] = pair[0];
+                pendingChar = pair[1];
+                return 1;
+            }
+
+            if (eof) {
+                decoder.flush(chars);
+                flushed = true;
+                n = chars.position() - off;
+                return n > 0 ? n : -1;
+            }
+
+            byteBuffer.compact();
+            int position = byteBuffer.position();
+            int count = fill(position);
+            byteBuffer.position(position + count);
+            byteBuffer.flip();
+        }
+    }
+
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (inflater != null) {
+            compression.releaseInflater(inflater);
+            inflater = null;
+        }
+        if (pooledInput) {
+            pool.releaseBytes(input);
+        }
+        pool.releaseBytes(block);
+        pool.releaseBytes(bytes);
+        input = null;
+        block = null;
+        bytes = null;
+        byteBuffer = null;
+
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    /**
+     * decompresses into bytes from off
+     *
+     * @return number of bytes, 0 only at the end of the data
+     */
+    private int fill(int off) throws IOException {
+        if (!started) {
+            started = true;
+            if (compression == Compression.GZIP) {
+                readGzipHeader();
+            } else if (compression == Compression.LZ) {
+                for (int i = 0; i < CompressedOutputStream.LZ_MAGIC.length; ++i) {
+                    if (readByte() != CompressedOutputStream.LZ_MAGIC[i]) {
+                        throw new IOException("not in lz format");
+                    }
+                }
+            }
+        }
+
+        if (compression == Compression.LZ) {
+            return readBlock(off);
+        }
+
+        for (;;) {
+            if (inflater.finished()) {
+                inputPos = inputLimit - inflater.getRemaining();
+                if (crc != null) {
+                    readGzipTrailer();
+                }
+                eof = true;
+                return 0;
+            }
+
+            if (inflater.needsDictionary()) {
+                throw new ZipException("deflate with preset dictionary");
+            }
+
+            if (inflater.needsInput()) {
+                if (inputPos == inputLimit && !refill()) {
+                    throw new EOFException("unexpected end of compressed data");
+                }
+                inflater.setInput(input, inputPos, inputLimit - inputPos);
+                inputPos = inputLimit;
+            }
+
+            int n;
+            try {
+                n = inflater.inflate(bytes, off, bytes.length - off);
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+            if (n > 0) {
+                if (crc != null) {
+                    crc.update(bytes, off, n);
+                }
+                return n;
+            }
+        }
+    }
+
+    private int readBlock(int off) throws IOException {
+        int length = readVarInt();
+        if (length == 0) {
+            eof = true;
+            return 0;
+        }
+        int storedLength = readVarInt();
+        if (length < 0 || length > LZBlock.BLOCK_SIZE || storedLength <= 0
+                || storedLength > LZBlock.maxCompressedLength(length)) {
+            throw new IOException("corrupt lz frame, length " + length + ", stored " + storedLength);
+        }
+
+        if (storedLength == length) {
+            readFully(bytes, off, length);
+            return length;
+        }
+
+        byte[] src;
+        int srcOff;
+        if (!pooledInput && inputLimit - inputPos >= storedLength) {
+            // decompress straight from the caller's array
+            src = input;
+            srcOff = inputPos;
+            inputPos += storedLength;
+        } else {
+            if (block == null) {
+                block = pool.leaseBytes(LZBlock.maxCompressedLength(LZBlock.BLOCK_SIZE));
+            }
+            readFully(block, 0, storedLength);
+            src = block;
+            srcOff = 0;
+        }
+        LZBlock.decompress(src, srcOff, storedLength, bytes, off, length);
+        return length;
+    }
+
+    private void readGzipHeader() throws IOException {
+        if (readByte() != 0x1f || readByte() != (byte) 0x8b) {
+            throw new ZipException("not in gzip format");
+        }
+        if (readByte() != 8) {
+            throw new ZipException("unsupported gzip compression method");
+        }
+        int flags = readByte() & 0xFF;
+        // mtime, extra flags, os
+        skip(6);
+        if ((flags & 4) != 0) {
+            int extraLength = (readByte() & 0xFF) | ((readByte() & 0xFF) << 8);
+            skip(extraLength);
+        }
+        if ((flags & 8) != 0) {
+            while (readByte() != 0) {
+                // file name
+            }
+        }
+        if ((flags & 16) != 0) {
+            while (readByte() != 0) {
+                // comment
+            }
+        }
+        if ((flags & 2) != 0) {
+            skip(2);
+        }
+    }
+
+    private void readGzipTrailer() throws IOException {
+        int crcValue = readIntLE();
+        int size = readIntLE();
+        if (crcValue != (int) crc.getValue()) {
+            throw new ZipException("corrupt gzip trailer, crc mismatch");
+        }
+        if (size != (int) inflater.getBytesWritten()) {
+            throw new ZipException("corrupt gzip trailer, size mismatch");
+        }
+    }
+
+    private int readIntLE() throws IOException {
+        return (readByte() & 0xFF) | ((readByte() & 0xFF) << 8) | ((readByte() & 0xFF) << 16)
+                | ((readByte() & 0xFF) << 24);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("corrupt lz frame, illegal varint");
+    }
+
+    private byte readByte() throws IOException {
+        if (inputPos == inputLimit && !refill()) {
+            throw new EOFException("unexpected end of compressed data");
+        }
+        return input[inputPos++];
+    }
+
+    private void skip(int n) throws IOException {
+        for (int i = 0; i < n; ++i) {
+            readByte();
+        }
+    }
+
+    private void readFully(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (inputPos == inputLimit && !refill()) {
+                throw new EOFException("unexpected end of compressed data");
+            }
+            int n = Math.min(len, inputLimit - inputPos);
+            System.arraycopy(input, inputPos, b, off, n);
+            inputPos += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private boolean refill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        int n = in.read(input, 0, input.length);
+        if (n <= 0) {
+            return false;
+        }
+        inputPos = 0;
+        inputLimit = n;
+        return true;
+    }
+}
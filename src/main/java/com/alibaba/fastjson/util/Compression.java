@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of json text. Deflaters, inflaters and buffers are pooled per thread.
+ *
+ * @see CompressedOutputStream
+ * @see CompressedReader
+ * @since 1.2.84
+ */
+public enum Compression {
+    /** RFC 1952, readable by GZIPInputStream and gunzip */
+    GZIP,
+    /** RFC 1950, zlib wrapped deflate as HTTP Content-Encoding deflate */
+    DEFLATE,
+    /** LZ4 block format in frames of 64K, faster than deflate with a lower ratio */
+    LZ;
+
+    private final static ThreadLocal<Deflater> deflaterLocal = new ThreadLocal<Deflater>();
+    private final static ThreadLocal<Deflater> deflaterNowrapLocal = new ThreadLocal<Deflater>();
+    private final static ThreadLocal<Inflater> inflaterLocal = new ThreadLocal<Inflater>();
+    private final static ThreadLocal<Inflater> inflaterNowrapLocal = new ThreadLocal<Inflater>();
+
+    /**
+     * @return a stream which compresses into out, finish or close it to complete the data
+     */
+    public CompressedOutputStream compress(OutputStream out) {
+        return new CompressedOutputStream(out, this);
+    }
+
+    /**
+     * @return a reader of the UTF-8 text decompressed from in, close it to return the pooled buffers
+     */
+    public CompressedReader reader(InputStream in) {
+        return new CompressedReader(in, this);
+    }
+
+    public CompressedReader reader(byte[] bytes, int off, int len) {
+        return new CompressedReader(bytes, off, len, this);
+    }
+
+    Deflater takeDeflater() {
+        ThreadLocal<Deflater> local = this == GZIP ? deflaterNowrapLocal : deflaterLocal;
+        Deflater deflater = local.get();
+        if (deflater != null) {
+            local.set(null);
+            return deflater;
+        }
+        return new Deflater(Deflater.DEFAULT_COMPRESSION, this == GZIP);
+    }
+
+    void releaseDeflater(Deflater deflater) {
+        ThreadLocal<Deflater> local = this == GZIP ? deflaterNowrapLocal : deflaterLocal;
+        if (local.get() == null) {
+            deflater.reset();
+            local.set(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    Inflater takeInflater() {
+        ThreadLocal<Inflater> local = this == GZIP ? inflaterNowrapLocal : inflaterLocal;
+        Inflater inflater = local.get();
+        if (inflater != null) {
+            local.set(null);
+            return inflater;
+        }
+        return new Inflater(this == GZIP);
+    }
+
+    void releaseInflater(Inflater inflater) {
+        ThreadLocal<Inflater> local = this == GZIP ? inflaterNowrapLocal : inflaterLocal;
+        if (local.get() == null) {
+            inflater.reset();
+            local.set(inflater);
+        } else {
+            inflater.end();
+        }
+    }
+}
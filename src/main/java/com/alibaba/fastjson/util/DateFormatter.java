@@ -0,0 +1,625 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.alibaba.fastjson.parser.JSONScanner;
+
+/**
+ * Immutable, thread safe date format shared by pattern, locale and time zone, a drop-in for a
+ * {@link SimpleDateFormat} created with the same arguments.
+ *
+ * <pre>
+ * DateFormatter formatter = DateFormatter.of("yyyy-MM-dd HH:mm:ss", locale, timeZone);
+ * String text = formatter.format(date);
+ * </pre>
+ *
+ * The layouts yyyy-MM-dd, yyyy-MM-dd HH:mm:ss and yyyy-MM-dd'T'HH:mm:ss[.SSS] and the fastjson ISO-8601 layout are
+ * formatted digit by digit, the text of the last formatted second is reused. Other numeric patterns are formatted
+ * with a {@link DateTimeFormatter}, the rest and every parse that is not a fast layout go to a copy of a
+ * {@link SimpleDateFormat} prototype, so the output and the lenient parsing match SimpleDateFormat. The ISO-8601
+ * layout is parsed by {@link JSONScanner}.
+ *
+ * @since 1.2.84
+ */
+public final class DateFormatter {
+
+    private final static int                                LAYOUT_NONE             = 0;
+    private final static int                                LAYOUT_DATE             = 1;
+    private final static int                                LAYOUT_DATE_TIME        = 2;
+    private final static int                                LAYOUT_DATE_TIME_MILLIS = 3;
+    private final static int                                LAYOUT_ISO8601          = 4;
+
+    private final static long                               MILLIS_PER_DAY          = 24L * 60 * 60 * 1000;
+
+    // local time range of the fast paths, after the julian to gregorian cutover and with 4 digits years
+    private final static long                               MIN_LOCAL_MILLIS        = epochDay(1583, 1, 1) * MILLIS_PER_DAY;
+    private final static long                               MAX_LOCAL_MILLIS        = epochDay(10000, 1, 1) * MILLIS_PER_DAY;
+
+    private final static int                                CACHE_SIZE              = 1024;
+    private final static ConcurrentMap<Key, DateFormatter> cache                   = new ConcurrentHashMap<Key, DateFormatter>(16, 0.75f, 1);
+
+    private final String                                    pattern;
+    private final Locale                                    locale;
+    private final TimeZone                                  timeZone;
+    private final int                                       layout;
+    private final char                                      separator;
+    // gregorian calendar and ascii digits, what the fast paths and the DateTimeFormatter produce
+    private final boolean                                   isoChronology;
+    private final DateTimeFormatter                         formatter;
+    private final SimpleDateFormat                          prototype;
+
+    private volatile Second                                 lastSecond;
+
+    private DateFormatter(String pattern, Locale locale, TimeZone timeZone){
+        this.pattern = pattern;
+        this.locale = locale;
+        this.timeZone = timeZone;
+
+        isoChronology = isIsoChronology(locale);
+
+        if (pattern == null) {
+            layout = LAYOUT_ISO8601;
+            separator = 'T';
+            formatter = null;
+            prototype = null;
+            return;
+        }
+
+        // throws IllegalArgumentException for an illegal pattern, the same as new SimpleDateFormat
+        prototype = new SimpleDateFormat(pattern, locale);
+        prototype.setTimeZone(timeZone);
+
+        if ("yyyy-MM-dd".equals(pattern)) {
+            layout = LAYOUT_DATE;
+            separator = ' ';
+        } else if ("yyyy-MM-dd HH:mm:ss".equals(pattern)) {
+            layout = LAYOUT_DATE_TIME;
+            separator = ' ';
+        } else if ("yyyy-MM-dd'T'HH:mm:ss".equals(pattern)) {
+            layout = LAYOUT_DATE_TIME;
+            separator = 'T';
+        } else if ("yyyy-MM-dd HH:mm:ss.SSS".equals(pattern)) {
+            layout = LAYOUT_DATE_TIME_MILLIS;
+            separator = ' ';
+        } else if ("yyyy-MM-dd'T'HH:mm:ss.SSS".equals(pattern)) {
+            layout = LAYOUT_DATE_TIME_MILLIS;
+            separator = 'T';
+        } else {
+            layout = LAYOUT_NONE;
+            separator = ' ';
+        }
+
+        DateTimeFormatter formatter = null;
+        if (layout == LAYOUT_NONE && isoChronology) {
+            String isoPattern = toIsoPattern(pattern);
+            if (isoPattern != null) {
+                try {
+                    formatter = DateTimeFormatter.ofPattern(isoPattern, locale);
+                } catch (IllegalArgumentException ex) {
+                    // skip
+                }
+            }
+        }
+        this.formatter = formatter;
+    }
+
+    /**
+     * @throws IllegalArgumentException if pattern is illegal
+     */
+    public static DateFormatter of(String pattern, Locale locale, TimeZone timeZone) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern is null");
+        }
+        return lookup(pattern, locale, timeZone);
+    }
+
+    /**
+     * the layout of SerializerFeature.UseISO8601DateFormat, like 2017-05-01T10:20:30+08:00, 2017-05-01T10:20:30.123Z,
+     * or 2017-05-01+08:00 at midnight
+     */
+    public static DateFormatter iso8601(Locale locale, TimeZone timeZone) {
+        return lookup(null, locale, timeZone);
+    }
+
+    private static DateFormatter lookup(String pattern, Locale locale, TimeZone timeZone) {
+        Key key = new Key(pattern, locale, timeZone);
+        DateFormatter formatter = cache.get(key);
+        if (formatter == null) {
+            if (cache.size() >= CACHE_SIZE) {
+                cache.clear();
+            }
+            formatter = new DateFormatter(pattern, locale, timeZone);
+            DateFormatter exists = cache.putIfAbsent(key, formatter);
+            if (exists != null) {
+                formatter = exists;
+            }
+        }
+        return formatter;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * @return max length of the text written by {@link #write(long, char[], int)}, 0 if there is no fast path
+     */
+    public int getMaxLength() {
+        switch (layout) {
+            case LAYOUT_DATE:
+                return 10;
+            case LAYOUT_DATE_TIME:
+                return 19;
+            case LAYOUT_DATE_TIME_MILLIS:
+                return 23;
+            case LAYOUT_ISO8601:
+                return 29;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * write the text of millis to buf at off, buf must have {@link #getMaxLength()} chars from off
+     *
+     * @return number of chars written, -1 if millis is out of the fast path, use {@link #format(long)} then
+     */
+    public int write(long millis, char[] buf, int off) {
+        if (layout == LAYOUT_NONE) {
+            return -1;
+        }
+
+        long epochSecond = floorDiv(millis, 1000);
+        Second second = lastSecond;
+        if (second == null || second.epochSecond != epochSecond) {
+            if (!isoChronology) {
+                return -1;
+            }
+            int offset = timeZone.getOffset(millis);
+            long localMillis = millis + offset;
+            if (localMillis < MIN_LOCAL_MILLIS || localMillis >= MAX_LOCAL_MILLIS) {
+                return -1;
+            }
+            second = new Second(epochSecond, localMillis, offset, separator);
+            lastSecond = second;
+        }
+
+        int millisOfSecond = (int) (millis - epochSecond * 1000);
+        switch (layout) {
+            case LAYOUT_DATE:
+                System.arraycopy(second.chars, 0, buf, off, 10);
+                return 10;
+            case LAYOUT_DATE_TIME:
+                System.arraycopy(second.chars, 0, buf, off, 19);
+                return 19;
+            case LAYOUT_DATE_TIME_MILLIS:
+                System.arraycopy(second.chars, 0, buf, off, 19);
+                writeMillis(millisOfSecond, buf, off + 19);
+                return 23;
+            default:
+                int len;
+                if (millisOfSecond != 0) {
+                    System.arraycopy(second.chars, 0, buf, off, 19);
+                    writeMillis(millisOfSecond, buf, off + 19);
+                    len = 23;
+                } else if (second.midnight) {
+                    System.arraycopy(second.chars, 0, buf, off, 10);
+                    len = 10;
+                } else {
+                    System.arraycopy(second.chars, 0, buf, off, 19);
+                    len = 19;
+                }
+                return len + writeZone(second.offset, buf, off + len);
+        }
+    }
+
+    public String format(Date date) {
+        return format(date.getTime());
+    }
+
+    public String format(long millis) {
+        if (layout != LAYOUT_NONE) {
+            char[] buf = new char[getMaxLength()];
+            int len = write(millis, buf, 0);
+            if (len != -1) {
+                return new String(buf, 0, len);
+            }
+
+            if (layout == LAYOUT_ISO8601) {
+                return formatISO8601(millis);
+            }
+        }
+
+        if (formatter != null) {
+            int offset = timeZone.getOffset(millis);
+            long localMillis = millis + offset;
+            if (localMillis >= MIN_LOCAL_MILLIS && localMillis < MAX_LOCAL_MILLIS && offset % 60000 == 0) {
+                return formatter.format(Instant.ofEpochMilli(millis).atOffset(ZoneOffset.ofTotalSeconds(offset / 1000)));
+            }
+        }
+
+        return ((SimpleDateFormat) prototype.clone()).format(new Date(millis));
+    }
+
+    /**
+     * parse text the same as {@link SimpleDateFormat#parse(String)}, the ISO-8601 layout parses what the parser
+     * accepts for an ISO-8601 date string, a text without zone is local time of the time zone
+     */
+    public Date parse(String text) throws ParseException {
+        if (layout == LAYOUT_ISO8601) {
+            return parseISO8601(text);
+        }
+
+        if (isoChronology && layout != LAYOUT_NONE) {
+            long millis = parseFast(text);
+            if (millis != Long.MIN_VALUE) {
+                return new Date(millis);
+            }
+        }
+
+        return ((SimpleDateFormat) prototype.clone()).parse(text);
+    }
+
+    private Date parseISO8601(String text) throws ParseException {
+        JSONScanner lexer = new JSONScanner(text);
+        try {
+            lexer.setTimeZone(timeZone);
+            lexer.setLocale(locale);
+            if (lexer.scanISO8601DateIfMatch(false)) {
+                return lexer.getCalendar().getTime();
+            }
+        } finally {
+            lexer.close();
+        }
+        throw new ParseException("Unparseable date: \"" + text + "\"", 0);
+    }
+
+    /**
+     * @return Long.MIN_VALUE if text is not a strict match of the layout
+     */
+    private long parseFast(String text) {
+        int len = text.length();
+        if (len != getMaxLength()) {
+            return Long.MIN_VALUE;
+        }
+
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return Long.MIN_VALUE;
+        }
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = 0, minute = 0, second = 0, millis = 0;
+        if (len > 10) {
+            if (text.charAt(10) != separator || text.charAt(13) != ':' || text.charAt(16) != ':') {
+                return Long.MIN_VALUE;
+            }
+            hour = digits(text, 11, 2);
+            minute = digits(text, 14, 2);
+            second = digits(text, 17, 2);
+            if (len > 19) {
+                if (text.charAt(19) != '.') {
+                    return Long.MIN_VALUE;
+                }
+                millis = digits(text, 20, 3);
+            }
+        }
+
+        if (year < 1583 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59 || millis < 0 || hour < 0 || minute < 0 || second < 0) {
+            return Long.MIN_VALUE;
+        }
+
+        long localMillis = epochDay(year, month, day) * MILLIS_PER_DAY
+                + ((hour * 60 + minute) * 60 + second) * 1000L + millis;
+
+        // a transition around the local time has a gap or an overlap, let SimpleDateFormat resolve it
+        int offset = timeZone.getOffset(localMillis - timeZone.getRawOffset());
+        long utcMillis = localMillis - offset;
+        if (timeZone.getOffset(utcMillis - MILLIS_PER_DAY) != offset
+                || timeZone.getOffset(utcMillis + MILLIS_PER_DAY) != offset) {
+            return Long.MIN_VALUE;
+        }
+        return utcMillis;
+    }
+
+    private String formatISO8601(long millis) {
+        Calendar calendar = Calendar.getInstance(timeZone, locale);
+        calendar.setTimeInMillis(millis);
+
+        char[] buf = new char[29];
+        writeDateTime(calendar.get(Calendar.YEAR)
+                , calendar.get(Calendar.MONTH) + 1
+                , calendar.get(Calendar.DAY_OF_MONTH)
+                , calendar.get(Calendar.HOUR_OF_DAY)
+                , calendar.get(Calendar.MINUTE)
+                , calendar.get(Calendar.SECOND)
+                , separator
+                , buf);
+
+        int millisOfSecond = calendar.get(Calendar.MILLISECOND);
+        int len;
+        if (millisOfSecond != 0) {
+            writeMillis(millisOfSecond, buf, 19);
+            len = 23;
+        } else if (calendar.get(Calendar.HOUR_OF_DAY) == 0
+                && calendar.get(Calendar.MINUTE) == 0
+                && calendar.get(Calendar.SECOND) == 0) {
+            len = 10;
+        } else {
+            len = 19;
+        }
+        len += writeZone(timeZone.getOffset(millis), buf, len);
+        return new String(buf, 0, len);
+    }
+
+    private static int writeZone(int offset, char[] buf, int off) {
+        float hoursF = offset / (3600.0f * 1000);
+        int hours = (int) hoursF;
+        if (hours == 0) {
+            buf[off] = 'Z';
+            return 1;
+        }
+
+        // handles uneven time zones like +05:30 and +05:45
+        int minutes = (int) (Math.abs(hoursF - hours) * 60);
+        buf[off] = hours > 0 ? '+' : '-';
+        write2(Math.abs(hours), buf, off + 1);
+        buf[off + 3] = ':';
+        write2(minutes, buf, off + 4);
+        return 6;
+    }
+
+    private static void writeDateTime(int year, int month, int day, int hour, int minute, int second, char separator,
+                                      char[] buf) {
+        buf[0] = (char) ('0' + year / 1000 % 10);
+        buf[1] = (char) ('0' + year / 100 % 10);
+        write2(year % 100, buf, 2);
+        buf[4] = '-';
+        write2(month, buf, 5);
+        buf[7] = '-';
+        write2(day, buf, 8);
+        buf[10] = separator;
+        write2(hour, buf, 11);
+        buf[13] = ':';
+        write2(minute, buf, 14);
+        buf[16] = ':';
+        write2(second, buf, 17);
+    }
+
+    private static void writeMillis(int millis, char[] buf, int off) {
+        buf[off] = '.';
+        buf[off + 1] = (char) ('0' + millis / 100);
+        write2(millis % 100, buf, off + 2);
+    }
+
+    private static void write2(int value, char[] buf, int off) {
+        buf[off] = (char) ('0' + value / 10);
+        buf[off + 1] = (char) ('0' + value % 10);
+    }
+
+    private static int digits(String text, int off, int len) {
+        int value = 0;
+        for (int i = off, end = off + len; i < end; ++i) {
+            char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long r = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            r--;
+        }
+        return r;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * days since 1970-01-01 of a proleptic gregorian date
+     */
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static boolean isIsoChronology(Locale locale) {
+        // the locales Calendar.getInstance answers with a buddhist or japanese imperial calendar
+        if (locale.getUnicodeLocaleType("ca") != null
+                || ("th".equals(locale.getLanguage()) && "TH".equals(locale.getCountry()))
+                || ("ja".equals(locale.getLanguage()) && "JP".equals(locale.getCountry()) && "JP".equals(locale.getVariant()))) {
+            return false;
+        }
+        return DecimalFormatSymbols.getInstance(locale).getZeroDigit() == '0';
+    }
+
+    /**
+     * @return the DateTimeFormatter pattern that formats the same as the SimpleDateFormat pattern, null if any field
+     * is text or formatted differently
+     */
+    static String toIsoPattern(String pattern) {
+        StringBuilder buf = new StringBuilder(pattern.length());
+        for (int i = 0, len = pattern.length(); i < len;) {
+            char ch = pattern.charAt(i);
+            if (ch == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end == -1) {
+                    return null;
+                }
+                buf.append(pattern, i, end + 1);
+                i = end + 1;
+                continue;
+            }
+
+            if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')) {
+                int count = 1;
+                while (i + count < len && pattern.charAt(i + count) == ch) {
+                    count++;
+                }
+
+                boolean supported;
+                switch (ch) {
+                    case 'y':
+                        supported = true;
+                        break;
+                    case 'M':
+                    case 'd':
+                    case 'H':
+                    case 'h':
+                    case 'K':
+                    case 'k':
+                    case 'm':
+                    case 's':
+                        supported = count <= 2;
+                        break;
+                    case 'S':
+                        supported = count == 3;
+                        break;
+                    case 'Z':
+                        supported = count <= 3;
+                        break;
+                    case 'X':
+                        supported = count == 2 || count == 3;
+                        break;
+                    default:
+                        supported = false;
+                        break;
+                }
+                if (!supported) {
+                    return null;
+                }
+
+                for (int j = 0; j < count; ++j) {
+                    buf.append(ch);
+                }
+                i += count;
+                continue;
+            }
+
+            // optional sections and reserved chars of DateTimeFormatter
+            if (ch == '[' || ch == ']' || ch == '{' || ch == '}' || ch == '#') {
+                return null;
+            }
+            buf.append(ch);
+            i++;
+        }
+        return buf.toString();
+    }
+
+    private static final class Second {
+
+        final long    epochSecond;
+        final int     offset;
+        final boolean midnight;
+        // yyyy-MM-dd?HH:mm:ss
+        final char[]  chars = new char[19];
+
+        Second(long epochSecond, long localMillis, int offset, char separator){
+            this.epochSecond = epochSecond;
+            this.offset = offset;
+
+            long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+            int secondOfDay = (int) ((localMillis - epochDay * MILLIS_PER_DAY) / 1000);
+
+            // civil from days, the inverse of epochDay(int, int, int)
+            long z = epochDay + 719468;
+            long era = (z >= 0 ? z : z - 146096) / 146097;
+            long dayOfEra = z - era * 146097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long mp = (5 * dayOfYear + 2) / 153;
+            int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+            int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+            int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+            midnight = secondOfDay == 0;
+            writeDateTime(year, month, day, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, separator,
+                          chars);
+        }
+    }
+
+    private static final class Key {
+
+        final String   pattern;
+        final Locale   locale;
+        final TimeZone timeZone;
+
+        Key(String pattern, Locale locale, TimeZone timeZone){
+            this.pattern = pattern;
+            this.locale = locale;
+            this.timeZone = timeZone;
+        }
+
+        public int hashCode() {
+            int h = pattern == null ? 0 : pattern.hashCode();
+            h = 31 * h + locale.hashCode();
+            return 31 * h + timeZone.hashCode();
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return (pattern == null ? other.pattern == null : pattern.equals(other.pattern))
+                    && locale.equals(other.locale)
+                    && timeZone.equals(other.timeZone);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.spi.Metrics;
+
+/**
+ * In memory Metrics. Durations are counted per type in power of two buckets of nanoseconds, snapshot returns all
+ * counters as a JSONObject to be scraped.
+ *
+ * <pre>
+ * HistogramMetrics metrics = new HistogramMetrics();
+ * ParserConfig.getGlobalInstance().setMetrics(metrics);
+ * SerializeConfig.getGlobalInstance().setMetrics(metrics);
+ * ...
+ * String text = metrics.snapshot().toJSONString();
+ * </pre>
+ *
+ * @since 1.2.84
+ */
+public class HistogramMetrics implements Metrics {
+
+    private final ConcurrentMap<String, Histogram>  parse                   = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, Histogram>  serialize               = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, AtomicLong> codecs                  = new ConcurrentHashMap<String, AtomicLong>();
+
+    private final AtomicLong                        bufferExpansions        = new AtomicLong();
+    private final AtomicLong                        bufferMaxCapacity       = new AtomicLong();
+    private final AtomicLong                        deserializerCacheHits   = new AtomicLong();
+    private final AtomicLong                        deserializerCacheMisses = new AtomicLong();
+    private final AtomicLong                        serializerCacheHits     = new AtomicLong();
+    private final AtomicLong                        serializerCacheMisses   = new AtomicLong();
+    private final AtomicLong                        autoTypeChecks          = new AtomicLong();
+    private final AtomicLong                        autoTypeRejects         = new AtomicLong();
+
+    public void parse(Type type, int length, int features, long nanos) {
+        histogram(parse, type == null ? "null" : type.toString()).record(length, nanos);
+    }
+
+    public void serialize(Class<?> type, int length, int features, long nanos) {
+        histogram(serialize, type == null ? "null" : type.getName()).record(length, nanos);
+    }
+
+    public void codecCreated(Class<?> type, boolean deserializer, boolean asm, String reason, long nanos) {
+        String key = (deserializer ? "deserializer." : "serializer.") + (asm ? "asm" : "reflect." + reason);
+        AtomicLong counter = codecs.get(key);
+        if (counter == null) {
+            codecs.putIfAbsent(key, new AtomicLong());
+            counter = codecs.get(key);
+        }
+        counter.incrementAndGet();
+    }
+
+    public void autoTypeChecked(String typeName, Class<?> type, long nanos) {
+        autoTypeChecks.incrementAndGet();
+        if (type == null) {
+            autoTypeRejects.incrementAndGet();
+        }
+    }
+
+    public void bufferExpanded(int capacity, int newCapacity) {
+        bufferExpansions.incrementAndGet();
+        max(bufferMaxCapacity, newCapacity);
+    }
+
+    public void cacheLookup(boolean deserializer, boolean hit) {
+        if (deserializer) {
+            (hit ? deserializerCacheHits : deserializerCacheMisses).incrementAndGet();
+        } else {
+            (hit ? serializerCacheHits : serializerCacheMisses).incrementAndGet();
+        }
+    }
+
+    public Histogram getParseHistogram(Type type) {
+        return parse.get(type.toString());
+    }
+
+    public Histogram getSerializeHistogram(Class<?> type) {
+        return serialize.get(type.getName());
+    }
+
+    public JSONObject snapshot() {
+        JSONObject parse = new JSONObject(true);
+        for (Map.Entry<String, Histogram> entry : this.parse.entrySet()) {
+            parse.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        JSONObject serialize = new JSONObject(true);
+        for (Map.Entry<String, Histogram> entry : this.serialize.entrySet()) {
+            serialize.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        JSONObject codecs = new JSONObject(true);
+        for (Map.Entry<String, AtomicLong> entry : this.codecs.entrySet()) {
+            codecs.put(entry.getKey(), entry.getValue().get());
+        }
+
+        JSONObject snapshot = new JSONObject(true);
+        snapshot.put("parse", parse);
+        snapshot.put("serialize", serialize);
+        snapshot.put("codecs", codecs);
+        snapshot.put("bufferExpansions", bufferExpansions.get());
+        snapshot.put("bufferMaxCapacity", bufferMaxCapacity.get());
+        snapshot.put("deserializerCacheHits", deserializerCacheHits.get());
+        snapshot.put("deserializerCacheMisses", deserializerCacheMisses.get());
+        snapshot.put("serializerCacheHits", serializerCacheHits.get());
+        snapshot.put("serializerCacheMisses", serializerCacheMisses.get());
+        snapshot.put("autoTypeChecks", autoTypeChecks.get());
+        snapshot.put("autoTypeRejects", autoTypeRejects.get());
+        return snapshot;
+    }
+
+    public void reset() {
+        parse.clear();
+        serialize.clear();
+        codecs.clear();
+        bufferExpansions.set(0);
+        bufferMaxCapacity.set(0);
+        deserializerCacheHits.set(0);
+        deserializerCacheMisses.set(0);
+        serializerCacheHits.set(0);
+        serializerCacheMisses.set(0);
+        autoTypeChecks.set(0);
+        autoTypeRejects.set(0);
+    }
+
+    private static Histogram histogram(ConcurrentMap<String, Histogram> histograms, String key) {
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histograms.putIfAbsent(key, new Histogram());
+            histogram = histograms.get(key);
+        }
+        return histogram;
+    }
+
+    static void max(AtomicLong max, long value) {
+        for (;;) {
+            long current = max.get();
+            if (value <= current || max.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Durations counted in buckets, bucket i holds durations below 2^i nanoseconds.
+     */
+    public static final class Histogram {
+
+        private final AtomicLong      count       = new AtomicLong();
+        private final AtomicLong      totalNanos  = new AtomicLong();
+        private final AtomicLong      maxNanos    = new AtomicLong();
+        private final AtomicLong      totalLength = new AtomicLong();
+        private final AtomicLongArray buckets     = new AtomicLongArray(64);
+
+        void record(int length, long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            max(maxNanos, nanos);
+            if (length > 0) {
+                totalLength.addAndGet(length);
+            }
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos));
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.get();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getTotalLength() {
+            return totalLength.get();
+        }
+
+        /**
+         * @return upper bound in nanoseconds of the bucket holding the given percentile, 0 to 100
+         */
+        public long getPercentile(double percentile) {
+            long count = this.count.get();
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < 64; ++i) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return i == 63 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return 0;
+        }
+
+        JSONObject snapshot() {
+            JSONObject snapshot = new JSONObject(true);
+            snapshot.put("count", getCount());
+            snapshot.put("totalNanos", getTotalNanos());
+            snapshot.put("maxNanos", getMaxNanos());
+            snapshot.put("totalLength", getTotalLength());
+            snapshot.put("p50", getPercentile(50));
+            snapshot.put("p99", getPercentile(99));
+            return snapshot;
+        }
+    }
+}
@@ -616,6 +616,34 @@ public class IOUtils {
         return dArr;
     }
     
+    /**
+     * @return the number of bytes encodeUTF8 writes for the chars
+     * @since 1.2.84
+     */
+    public static int encodedLengthUTF8(char[] chars, int offset, int len) {
+        int sl = offset + len;
+        int length = 0;
+        while (offset < sl) {
+            char c = chars[offset++];
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (c >= '\uD800' && c < ('\uDFFF' + 1)) {
+                // a pair is 4 bytes, an unpaired surrogate is written as '?'
+                if (c < '\uDC00' && offset < sl && chars[offset] >= '\uDC00' && chars[offset] < ('\uDFFF' + 1)) {
+                    offset++;
+                    length += 4;
+                } else {
+                    length++;
+                }
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
     public static int encodeUTF8(char[] chars, int offset, int len, byte[] bytes) {
         int sl = offset + len;
         int dp = 0;
@@ -0,0 +1,227 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Block compression in the LZ4 block format: a sequence is a token, literals, a 2 byte little endian offset and the
+ * match length. Blocks are at most BLOCK_SIZE bytes, so every offset fits.
+ *
+ * @since 1.2.84
+ */
+final class LZBlock {
+
+    final static int BLOCK_SIZE   = 1024 * 64;
+
+    private final static int MIN_MATCH     = 4;
+    /** the last match starts at least this many bytes before the end of the block */
+    private final static int MF_LIMIT      = 12;
+    /** the last bytes of a block are always literals */
+    private final static int LAST_LITERALS = 5;
+    private final static int HASH_LOG      = 14;
+    final static int         TABLE_SIZE    = 1 << HASH_LOG;
+
+    private LZBlock() {
+
+    }
+
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * @param table at least TABLE_SIZE chars, reused between blocks. Positions are below BLOCK_SIZE - MF_LIMIT and fit
+     *            in a char, so the table can be leased from the BufferPool
+     * @return the compressed length in dst, which has room for maxCompressedLength(len)
+     */
+    static int compress(byte[] src, int off, int len, byte[] dst, int dstOff, char[] table) {
+        int end = off + len;
+        int anchor = off;
+        int op = dstOff;
+
+        if (len > MF_LIMIT) {
+            // positions are stored one based so that 0 is empty
+            Arrays.fill(table, 0, TABLE_SIZE, (char) 0);
+            int matchLimit = end - MF_LIMIT;
+            int literalLimit = end - LAST_LITERALS;
+
+            int ip = off;
+            while (ip < matchLimit) {
+                int sequence = readInt(src, ip);
+                int h = hash(sequence);
+                int ref = table[h] - 1 + off;
+                table[h] = (char) (ip - off + 1);
+
+                if (ref < off || readInt(src, ref) != sequence) {
+                    // skip faster through data which does not compress
+                    ip += 1 + ((ip - anchor) >>> 6);
+                    continue;
+                }
+
+                while (ip > anchor && ref > off && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < literalLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op);
+                ip += matchLength;
+                anchor = ip;
+
+                if (ip - 2 < matchLimit) {
+                    table[hash(readInt(src, ip - 2))] = (char) (ip - 2 - off + 1);
+                }
+            }
+        }
+
+        int literalLength = end - anchor;
+        int token = op++;
+        op = writeLength(literalLength, dst, token, op);
+        System.arraycopy(src, anchor, dst, op, literalLength);
+        return op + literalLength - dstOff;
+    }
+
+    /**
+     * decompresses exactly length bytes into dst
+     */
+    static void decompress(byte[] src, int off, int len, byte[] dst, int dstOff, int length) throws IOException {
+        int ip = off;
+        int end = off + len;
+        int op = dstOff;
+        int dstEnd = dstOff + length;
+
+        for (;;) {
+            if (ip >= end) {
+                throw new IOException("corrupt lz block");
+            }
+            int token = src[ip++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == 15) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw new IOException("corrupt lz block");
+                    }
+                    b = src[ip++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            if (literalLength > end - ip || literalLength > dstEnd - op) {
+                throw new IOException("corrupt lz block");
+            }
+            System.arraycopy(src, ip, dst, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+
+            if (ip == end) {
+                break;
+            }
+
+            if (end - ip < 2) {
+                throw new IOException("corrupt lz block");
+            }
+            int offset = (src[ip] & 0xFF) | ((src[ip + 1] & 0xFF) << 8);
+            ip += 2;
+            if (offset == 0 || offset > op - dstOff) {
+                throw new IOException("corrupt lz block, offset " + offset);
+            }
+
+            int matchLength = token & 0x0F;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw new IOException("corrupt lz block");
+                    }
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > dstEnd - op) {
+                throw new IOException("corrupt lz block");
+            }
+
+            int ref = op - offset;
+            if (offset >= matchLength) {
+                System.arraycopy(dst, ref, dst, op, matchLength);
+            } else {
+                // overlapping copy repeats the last offset bytes
+                for (int i = 0; i < matchLength; ++i) {
+                    dst[op + i] = dst[ref + i];
+                }
+            }
+            op += matchLength;
+        }
+
+        if (op != dstEnd) {
+            throw new IOException("corrupt lz block, length " + (op - dstOff) + ", expect " + length);
+        }
+    }
+
+    private static int writeSequence(byte[] src, int anchor, int literalLength, int offset, int matchLength,
+                                     byte[] dst, int op) {
+        int token = op++;
+        op = writeLength(literalLength, dst, token, op);
+        System.arraycopy(src, anchor, dst, op, literalLength);
+        op += literalLength;
+
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+
+        int length = matchLength - MIN_MATCH;
+        if (length >= 15) {
+            dst[token] |= 0x0F;
+            op = writeExtra(length - 15, dst, op);
+        } else {
+            dst[token] |= (byte) length;
+        }
+        return op;
+    }
+
+    private static int writeLength(int length, byte[] dst, int token, int op) {
+        if (length >= 15) {
+            dst[token] = (byte) 0xF0;
+            return writeExtra(length - 15, dst, op);
+        }
+        dst[token] = (byte) (length << 4);
+        return op;
+    }
+
+    private static int writeExtra(int length, byte[] dst, int op) {
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int readInt(byte[] buf, int i) {
+        return (buf[i] & 0xFF) | ((buf[i + 1] & 0xFF) << 8) | ((buf[i + 2] & 0xFF) << 16) | (buf[i + 3] << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
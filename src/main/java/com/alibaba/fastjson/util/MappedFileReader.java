@@ -0,0 +1,164 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Decodes a utf-8 file straight from a memory mapped window into the caller's char buffer, so the file content is
+ * never copied on heap. The window is remapped as it is consumed, which also covers files larger than 2G.
+ * <p>
+ * A window is unmapped as soon as it is consumed and on close where the runtime provides sun.misc.Unsafe.invokeCleaner
+ * (java 9 and later), otherwise it stays mapped until the garbage collector frees it, at most one window per reader
+ * is referenced at a time.
+ *
+ * @since 1.2.84
+ */
+public class MappedFileReader extends Reader {
+
+    public final static int  DEFAULT_WINDOW_SIZE = 1024 * 1024 * 256;
+
+    private final static Object UNSAFE;
+    private final static Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Throwable error) {
+            // skip, java 8 or no Unsafe
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final FileChannel    channel;
+    private final boolean        closeChannel;
+    private final long           size;
+    private final int            windowSize;
+    private final CharsetDecoder decoder = IOUtils.UTF8.newDecoder();
+
+    private MappedByteBuffer     window;
+    // file position of the window start
+    private long                 windowPosition;
+    private boolean              eof;
+
+    public MappedFileReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), DEFAULT_WINDOW_SIZE, true);
+    }
+
+    /**
+     * read from the current position of channel, which is moved past the bytes decoded so far. channel is not
+     * closed by this reader
+     */
+    public MappedFileReader(FileChannel channel) throws IOException {
+        this(channel, DEFAULT_WINDOW_SIZE, false);
+    }
+
+    public MappedFileReader(FileChannel channel, int windowSize) throws IOException {
+        this(channel, windowSize, false);
+    }
+
+    private MappedFileReader(FileChannel channel, int windowSize, boolean closeChannel) throws IOException {
+        if (windowSize < 16) {
+            throw new IllegalArgumentException("windowSize must >= 16");
+        }
+
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        this.windowPosition = channel.position();
+    }
+
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        // fill the whole request, JSONReaderScanner treats a short read as a full buffer
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (out.hasRemaining() && !eof) {
+            if (window == null) {
+                window = channel.map(FileChannel.MapMode.READ_ONLY
+                        , windowPosition
+                        , Math.min(windowSize, size - windowPosition));
+            }
+
+            boolean endOfInput = windowPosition + window.limit() >= size;
+            CoderResult result = decoder.decode(window, out, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+
+            if (result.isOverflow()) {
+                break; // no room for a surrogate pair
+            }
+
+            if (result.isUnderflow()) {
+                if (endOfInput) {
+                    decoder.flush(out);
+                    eof = true;
+                } else {
+                    // a sequence split at the window end is decoded again from the next window
+                    windowPosition += window.position();
+                    unmap();
+                }
+            }
+        }
+
+        channel.position(window == null ? windowPosition : windowPosition + window.position());
+
+        int count = out.position() - off;
+        return count == 0 && eof ? -1 : count;
+    }
+
+    public void close() throws IOException {
+        unmap();
+        eof = true;
+        if (closeChannel) {
+            channel.close();
+        }
+    }
+
+    private void unmap() {
+        MappedByteBuffer window = this.window;
+        this.window = null;
+        if (window != null && INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, window);
+            } catch (Throwable error) {
+                // skip, released by gc
+            }
+        }
+    }
+}
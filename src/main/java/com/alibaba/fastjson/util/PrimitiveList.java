@@ -0,0 +1,321 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * List which keeps Integer, Long or Double elements in an int[], long[] or double[] as long as all elements are of
+ * that one type, and boxes them into an Object[] on the first element of another type. get returns the same boxed
+ * type which was added, so the list is equal to an ArrayList of the same elements. Used for JSONArray when
+ * Feature.PrimitiveArray is enabled.
+ *
+ * @since 1.2.84
+ */
+public class PrimitiveList extends AbstractList<Object> implements RandomAccess, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final static int  EMPTY            = 0;
+    private final static int  INT              = 1;
+    private final static int  LONG             = 2;
+    private final static int  DOUBLE           = 3;
+    private final static int  OBJECT           = 4;
+
+    private int               kind;
+    private int               size;
+    private int[]             ints;
+    private long[]            longs;
+    private double[]          doubles;
+    private Object[]          objects;
+
+    public PrimitiveList() {
+
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return int.class, long.class or double.class while the elements are kept unboxed, otherwise null
+     */
+    public Class<?> getPrimitiveType() {
+        switch (kind) {
+            case INT:
+                return int.class;
+            case LONG:
+                return long.class;
+            case DOUBLE:
+                return double.class;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * the backing array while the primitive type is int, valid up to size()
+     */
+    public int[] getIntArray() {
+        return ints;
+    }
+
+    public long[] getLongArray() {
+        return longs;
+    }
+
+    public double[] getDoubleArray() {
+        return doubles;
+    }
+
+    public Object get(int index) {
+        rangeCheck(index);
+        switch (kind) {
+            case INT:
+                return ints[index];
+            case LONG:
+                return longs[index];
+            case DOUBLE:
+                return doubles[index];
+            default:
+                return objects[index];
+        }
+    }
+
+    public int getInt(int index) {
+        rangeCheck(index);
+        switch (kind) {
+            case INT:
+                return ints[index];
+            case LONG:
+                return (int) longs[index];
+            case DOUBLE:
+                return (int) doubles[index];
+            default:
+                Integer value = TypeUtils.castToInt(objects[index]);
+                return value == null ? 0 : value;
+        }
+    }
+
+    public long getLong(int index) {
+        rangeCheck(index);
+        switch (kind) {
+            case INT:
+                return ints[index];
+            case LONG:
+                return longs[index];
+            case DOUBLE:
+                return (long) doubles[index];
+            default:
+                Long value = TypeUtils.castToLong(objects[index]);
+                return value == null ? 0L : value;
+        }
+    }
+
+    public double getDouble(int index) {
+        rangeCheck(index);
+        switch (kind) {
+            case INT:
+                return ints[index];
+            case LONG:
+                return longs[index];
+            case DOUBLE:
+                return doubles[index];
+            default:
+                Double value = TypeUtils.castToDouble(objects[index]);
+                return value == null ? 0D : value;
+        }
+    }
+
+    public Object set(int index, Object element) {
+        rangeCheck(index);
+        Object old = get(index);
+        if (!accepts(element)) {
+            box(size);
+        }
+        store(index, element);
+        return old;
+    }
+
+    public boolean add(Object element) {
+        add(size, element);
+        return true;
+    }
+
+    public void add(int index, Object element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        if (kind == EMPTY) {
+            kind = kindOf(element);
+        } else if (!accepts(element)) {
+            box(size + 1);
+        }
+
+        ensureCapacity(size + 1);
+        Object array = array();
+        if (index < size) {
+            System.arraycopy(array, index, array, index + 1, size - index);
+        }
+        size++;
+        modCount++;
+        store(index, element);
+    }
+
+    public Object remove(int index) {
+        Object old = get(index);
+        Object array = array();
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        if (kind == OBJECT) {
+            objects[size] = null;
+        }
+        modCount++;
+        return old;
+    }
+
+    public void clear() {
+        kind = EMPTY;
+        size = 0;
+        ints = null;
+        longs = null;
+        doubles = null;
+        objects = null;
+        modCount++;
+    }
+
+    public PrimitiveList clone() {
+        PrimitiveList clone = new PrimitiveList();
+        clone.kind = kind;
+        clone.size = size;
+        clone.ints = ints == null ? null : Arrays.copyOf(ints, size);
+        clone.longs = longs == null ? null : Arrays.copyOf(longs, size);
+        clone.doubles = doubles == null ? null : Arrays.copyOf(doubles, size);
+        clone.objects = objects == null ? null : Arrays.copyOf(objects, size);
+        return clone;
+    }
+
+    private static int kindOf(Object element) {
+        if (element != null) {
+            Class<?> clazz = element.getClass();
+            if (clazz == Integer.class) {
+                return INT;
+            }
+            if (clazz == Long.class) {
+                return LONG;
+            }
+            if (clazz == Double.class) {
+                return DOUBLE;
+            }
+        }
+        return OBJECT;
+    }
+
+    private boolean accepts(Object element) {
+        return kind == OBJECT || kindOf(element) == kind;
+    }
+
+    private void store(int index, Object element) {
+        switch (kind) {
+            case INT:
+                ints[index] = (Integer) element;
+                break;
+            case LONG:
+                longs[index] = (Long) element;
+                break;
+            case DOUBLE:
+                doubles[index] = (Double) element;
+                break;
+            default:
+                objects[index] = element;
+                break;
+        }
+    }
+
+    private Object array() {
+        switch (kind) {
+            case INT:
+                return ints;
+            case LONG:
+                return longs;
+            case DOUBLE:
+                return doubles;
+            default:
+                return objects;
+        }
+    }
+
+    private int capacity() {
+        switch (kind) {
+            case INT:
+                return ints == null ? 0 : ints.length;
+            case LONG:
+                return longs == null ? 0 : longs.length;
+            case DOUBLE:
+                return doubles == null ? 0 : doubles.length;
+            default:
+                return objects == null ? 0 : objects.length;
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        int capacity = capacity();
+        if (minCapacity <= capacity) {
+            return;
+        }
+
+        int newCapacity = Math.max(minCapacity, Math.max(10, capacity + (capacity >> 1)));
+        switch (kind) {
+            case INT:
+                ints = ints == null ? new int[newCapacity] : Arrays.copyOf(ints, newCapacity);
+                break;
+            case LONG:
+                longs = longs == null ? new long[newCapacity] : Arrays.copyOf(longs, newCapacity);
+                break;
+            case DOUBLE:
+                doubles = doubles == null ? new double[newCapacity] : Arrays.copyOf(doubles, newCapacity);
+                break;
+            default:
+                objects = objects == null ? new Object[newCapacity] : Arrays.copyOf(objects, newCapacity);
+                break;
+        }
+    }
+
+    /**
+     * element of another type, keep the elements boxed from now on
+     */
+    private void box(int minCapacity) {
+        Object[] boxed = new Object[Math.max(minCapacity, Math.max(10, size + (size >> 1)))];
+        for (int i = 0; i < size; ++i) {
+            boxed[i] = get(i);
+        }
+        kind = OBJECT;
+        objects = boxed;
+        ints = null;
+        longs = null;
+        doubles = null;
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
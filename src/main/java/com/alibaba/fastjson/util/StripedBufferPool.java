@@ -0,0 +1,250 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Bounded BufferPool shared by all threads. Buffers are pooled in power of two size classes from 1k to maxLength
+ * elements, each class is a fixed array of slots which are taken and filled with compareAndSet, a thread starts
+ * probing at a slot picked from its id so that threads mostly hit different slots. A class keeps at most
+ * maxClassBytes of buffers, a lease finding no buffer allocates one and a release finding no free slot drops it.
+ * Leases over maxLength are allocated with the requested length and never pooled.
+ *
+ * @since 1.2.84
+ */
+public class StripedBufferPool extends BufferPool {
+
+    final static int         MIN_EXP = 10;
+
+    private final int        maxLength;
+    private final Slots[]    chars;
+    private final Slots[]    bytes;
+    private final AtomicLong oversized = new AtomicLong();
+
+    /**
+     * two slots per processor, buffers up to 1m elements and up to 2m bytes per size class
+     */
+    public StripedBufferPool() {
+        this(Runtime.getRuntime().availableProcessors(), 1024 * 1024, 1024 * 1024 * 2);
+    }
+
+    public StripedBufferPool(int stripes, int maxLength, int maxClassBytes) {
+        if (stripes <= 0 || maxLength <= 0 || maxClassBytes <= 0) {
+            throw new IllegalArgumentException("stripes " + stripes + ", maxLength " + maxLength + ", maxClassBytes "
+                                               + maxClassBytes);
+        }
+
+        int maxExp = Math.max(MIN_EXP, 32 - Integer.numberOfLeadingZeros(maxLength - 1));
+        if (maxExp > 30) {
+            throw new IllegalArgumentException("maxLength " + maxLength);
+        }
+        this.maxLength = 1 << maxExp;
+
+        int maxSlots = Integer.highestOneBit(Math.min(stripes, 1 << 16) * 2 - 1) * 2;
+        chars = new Slots[maxExp - MIN_EXP + 1];
+        bytes = new Slots[maxExp - MIN_EXP + 1];
+        for (int i = 0; i < chars.length; ++i) {
+            int length = 1 << (MIN_EXP + i);
+            chars[i] = new Slots(length, capacity(maxSlots, maxClassBytes / 2 / length));
+            bytes[i] = new Slots(length, capacity(maxSlots, maxClassBytes / length));
+        }
+    }
+
+    private static int capacity(int maxSlots, int budget) {
+        if (budget <= 1) {
+            return 1;
+        }
+        return Math.min(maxSlots, Integer.highestOneBit(budget));
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public char[] leaseChars(int minLength) {
+        if (minLength > maxLength) {
+            oversized.incrementAndGet();
+            return new char[minLength];
+        }
+
+        Slots slots = chars[leaseIndex(minLength)];
+        char[] buf = (char[]) slots.poll(probe());
+        return buf != null ? buf : new char[slots.length];
+    }
+
+    public void releaseChars(char[] chars) {
+        if (chars == null) {
+            return;
+        }
+
+        int index = releaseIndex(chars.length);
+        if (index >= 0) {
+            this.chars[index].offer(probe(), chars);
+        }
+    }
+
+    public byte[] leaseBytes(int minLength) {
+        if (minLength > maxLength) {
+            oversized.incrementAndGet();
+            return new byte[minLength];
+        }
+
+        Slots slots = bytes[leaseIndex(minLength)];
+        byte[] buf = (byte[]) slots.poll(probe());
+        return buf != null ? buf : new byte[slots.length];
+    }
+
+    public void releaseBytes(byte[] bytes) {
+        if (bytes == null) {
+            return;
+        }
+
+        int index = releaseIndex(bytes.length);
+        if (index >= 0) {
+            this.bytes[index].offer(probe(), bytes);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < chars.length; ++i) {
+            chars[i].clear();
+            bytes[i].clear();
+        }
+    }
+
+    public JSONObject snapshot() {
+        JSONObject snapshot = new JSONObject(true);
+        snapshot.put("maxLength", maxLength);
+        snapshot.put("chars", snapshot(chars));
+        snapshot.put("bytes", snapshot(bytes));
+        snapshot.put("pooledBytes", pooledBytes(chars) + pooledBytes(bytes));
+        snapshot.put("oversized", oversized.get());
+        return snapshot;
+    }
+
+    private static JSONArray snapshot(Slots[] classes) {
+        JSONArray array = new JSONArray(classes.length);
+        for (Slots slots : classes) {
+            JSONObject item = new JSONObject(true);
+            item.put("length", slots.length);
+            item.put("capacity", slots.slots.length());
+            item.put("pooled", slots.size());
+            item.put("misses", slots.misses.get());
+            item.put("drops", slots.drops.get());
+            array.add(item);
+        }
+        return array;
+    }
+
+    private static long pooledBytes(Slots[] classes) {
+        long size = 0;
+        for (Slots slots : classes) {
+            for (int i = 0; i <= slots.mask; ++i) {
+                Object buf = slots.slots.get(i);
+                if (buf instanceof char[]) {
+                    size += ((char[]) buf).length * 2L;
+                } else if (buf instanceof byte[]) {
+                    size += ((byte[]) buf).length;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * smallest class holding minLength
+     */
+    private static int leaseIndex(int minLength) {
+        if (minLength <= 1 << MIN_EXP) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(minLength - 1) - MIN_EXP;
+    }
+
+    /**
+     * largest class a buffer of length can serve, -1 if it is not pooled
+     */
+    private int releaseIndex(int length) {
+        if (length < 1 << MIN_EXP || length > maxLength) {
+            return -1;
+        }
+        return 31 - Integer.numberOfLeadingZeros(length) - MIN_EXP;
+    }
+
+    private static int probe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static final class Slots {
+
+        final int                          length;
+        final AtomicReferenceArray<Object> slots;
+        final int                          mask;
+        final AtomicLong                   misses = new AtomicLong();
+        final AtomicLong                   drops  = new AtomicLong();
+
+        Slots(int length, int capacity){
+            this.length = length;
+            this.slots = new AtomicReferenceArray<Object>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        Object poll(int probe) {
+            for (int i = 0; i <= mask; ++i) {
+                int index = (probe + i) & mask;
+                Object buf = slots.get(index);
+                if (buf != null && slots.compareAndSet(index, buf, null)) {
+                    return buf;
+                }
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        void offer(int probe, Object buf) {
+            for (int i = 0; i <= mask; ++i) {
+                int index = (probe + i) & mask;
+                if (slots.get(index) == null && slots.compareAndSet(index, null, buf)) {
+                    return;
+                }
+            }
+            drops.incrementAndGet();
+        }
+
+        int size() {
+            int size = 0;
+            for (int i = 0; i <= mask; ++i) {
+                if (slots.get(i) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        void clear() {
+            for (int i = 0; i <= mask; ++i) {
+                slots.set(i, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * BufferPool keeping the largest released char and byte buffer of each thread, up to maxLength elements, as
+ * SerializeWriter did before 1.2.84. The default maxLength is 128k, or -Dfastjson.serializer_buffer_threshold in k.
+ *
+ * @since 1.2.84
+ */
+public class ThreadLocalBufferPool extends BufferPool {
+
+    private final int                    maxLength;
+    private volatile ThreadLocal<char[]> charsLocal = new ThreadLocal<char[]>();
+    private volatile ThreadLocal<byte[]> bytesLocal = new ThreadLocal<byte[]>();
+    private final AtomicLong             misses     = new AtomicLong();
+
+    public ThreadLocalBufferPool() {
+        this(defaultMaxLength());
+    }
+
+    public ThreadLocalBufferPool(int maxLength) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength " + maxLength);
+        }
+        this.maxLength = maxLength;
+    }
+
+    private static int defaultMaxLength() {
+        try {
+            String prop = IOUtils.getStringProperty("fastjson.serializer_buffer_threshold");
+            if (prop != null && prop.length() > 0) {
+                int serializer_buffer_threshold = Integer.parseInt(prop);
+                if (serializer_buffer_threshold >= 64 && serializer_buffer_threshold <= 1024 * 64) {
+                    return serializer_buffer_threshold * 1024;
+                }
+            }
+        } catch (Throwable error) {
+            // skip
+        }
+        return 1024 * 128;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public char[] leaseChars(int minLength) {
+        ThreadLocal<char[]> local = charsLocal;
+        char[] chars = local.get();
+        if (chars != null && chars.length >= minLength) {
+            local.set(null);
+            return chars;
+        }
+
+        misses.incrementAndGet();
+        return new char[allocateLength(minLength)];
+    }
+
+    public void releaseChars(char[] chars) {
+        if (chars == null || chars.length > maxLength) {
+            return;
+        }
+
+        ThreadLocal<char[]> local = charsLocal;
+        char[] cached = local.get();
+        if (cached == null || cached.length < chars.length) {
+            local.set(chars);
+        }
+    }
+
+    public byte[] leaseBytes(int minLength) {
+        ThreadLocal<byte[]> local = bytesLocal;
+        byte[] bytes = local.get();
+        if (bytes != null && bytes.length >= minLength) {
+            local.set(null);
+            return bytes;
+        }
+
+        misses.incrementAndGet();
+        return new byte[allocateLength(minLength)];
+    }
+
+    public void releaseBytes(byte[] bytes) {
+        if (bytes == null || bytes.length > maxLength) {
+            return;
+        }
+
+        ThreadLocal<byte[]> local = bytesLocal;
+        byte[] cached = local.get();
+        if (cached == null || cached.length < bytes.length) {
+            local.set(bytes);
+        }
+    }
+
+    /**
+     * the buffers of other threads are dropped with their old ThreadLocal
+     */
+    public void clear() {
+        charsLocal = new ThreadLocal<char[]>();
+        bytesLocal = new ThreadLocal<byte[]>();
+    }
+
+    /**
+     * buffers held by other threads can not be seen, pooled only counts those of the calling thread
+     */
+    public JSONObject snapshot() {
+        char[] chars = charsLocal.get();
+        byte[] bytes = bytesLocal.get();
+
+        JSONObject snapshot = new JSONObject(true);
+        snapshot.put("maxLength", maxLength);
+        snapshot.put("pooledBytes", (chars == null ? 0L : chars.length * 2L) + (bytes == null ? 0L : bytes.length));
+        snapshot.put("misses", misses.get());
+        return snapshot;
+    }
+
+    /**
+     * rounds up to a power of two from 1k, so that a buffer grown a little serves the next leases as well
+     */
+    private int allocateLength(int minLength) {
+        if (minLength <= 1024) {
+            return 1024;
+        }
+        if (minLength > maxLength || minLength > 1 << 30) {
+            return minLength;
+        }
+        return Math.min(maxLength, 1 << 32 - Integer.numberOfLeadingZeros(minLength - 1));
+    }
+}
@@ -4,7 +4,7 @@ import java.lang.ref.SoftReference;
 import java.nio.charset.CharsetDecoder;
 
 /**
- * @deprecated
+ * @deprecated the buffers returned here can not be handed back, fastjson no longer uses them, see {@link BufferPool}
  */
 public class ThreadLocalCache {
 
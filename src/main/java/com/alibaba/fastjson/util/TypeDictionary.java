@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+/**
+ * Registered classes with short stable ids. With SerializeConfig.setTypeDictionary the class of a registered bean is
+ * written as "@type":"#id" instead of its class name. Added to a ParserConfig with addAutoTypeCheckHandler, an id is
+ * resolved by index into a table, before the hashing and the deny list checks of checkAutoType. Registered classes
+ * are trusted, ids which are not registered are rejected.
+ * <p>
+ * Ids are part of the stored data, an id must keep its class for as long as data written with it is read.
+ *
+ * @since 1.2.84
+ */
+public class TypeDictionary implements ParserConfig.AutoTypeCheckHandler {
+
+    public final static char        PREFIX = '#';
+    public final static int         MAX_ID = 1024 * 64 - 1;
+
+    private volatile Class<?>[]      types  = new Class<?>[0];
+    private final ConcurrentMap<Class<?>, String> names = new ConcurrentHashMap<Class<?>, String>();
+
+    public synchronized TypeDictionary register(int id, Class<?> clazz) {
+        if (id < 0 || id > MAX_ID) {
+            throw new JSONException("illegal type id " + id + ", " + clazz.getName());
+        }
+
+        String name = names.get(clazz);
+        if (name != null) {
+            throw new JSONException("type already registered, " + clazz.getName() + " as " + name);
+        }
+
+        Class<?>[] types = this.types;
+        if (id < types.length && types[id] != null) {
+            throw new JSONException("type id already registered, " + id + " as " + types[id].getName());
+        }
+
+        if (id >= types.length) {
+            Class<?>[] newTypes = new Class<?>[Math.min(MAX_ID + 1, Math.max(id + 1, types.length * 2))];
+            System.arraycopy(types, 0, newTypes, 0, types.length);
+            types = newTypes;
+        }
+        types[id] = clazz;
+        this.types = types;
+        names.put(clazz, PREFIX + Integer.toString(id));
+        return this;
+    }
+
+    /**
+     * @return the type name written for clazz, null if it is not registered
+     */
+    public String getTypeName(Class<?> clazz) {
+        return names.get(clazz);
+    }
+
+    /**
+     * @return the class of an id type name, null if typeName is not an id
+     * @throws JSONException if the id is not registered
+     */
+    public Class<?> getType(String typeName) {
+        int length = typeName.length();
+        if (length < 2 || typeName.charAt(0) != PREFIX) {
+            return null;
+        }
+
+        int id = 0;
+        for (int i = 1; i < length; ++i) {
+            char ch = typeName.charAt(i);
+            if (ch < '0' || ch > '9' || id > MAX_ID) {
+                throw new JSONException("type id not registered " + typeName);
+            }
+            id = id * 10 + (ch - '0');
+        }
+
+        Class<?>[] types = this.types;
+        Class<?> type = id < types.length ? types[id] : null;
+        if (type == null) {
+            throw new JSONException("type id not registered " + typeName);
+        }
+        return type;
+    }
+
+    public Class<?> handler(String typeName, Class<?> expectClass, int features) {
+        Class<?> type = getType(typeName);
+        if (type != null && expectClass != null && expectClass != Object.class && !expectClass.isAssignableFrom(type)) {
+            throw new JSONException("type not match. " + typeName + " -> " + expectClass.getName());
+        }
+        return type;
+    }
+}
@@ -40,7 +40,6 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Clob;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -547,8 +546,7 @@ public class TypeUtils {
             format = determineDateFormat(strVal);
         }
 
-        SimpleDateFormat dateFormat = new SimpleDateFormat(format, JSON.defaultLocale);
-        dateFormat.setTimeZone(JSON.defaultTimeZone);
+        DateFormatter dateFormat = DateFormatter.of(format, JSON.defaultLocale, JSON.defaultTimeZone);
         try {
             return dateFormat.parse(strVal);
         } catch (ParseException e) {
@@ -3,7 +3,6 @@ package com.alibaba.fastjson.serializer;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Field;
 import java.util.logging.Logger;
 
 import org.junit.After;
@@ -12,7 +11,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.util.BufferPool;
 import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.ThreadLocalBufferPool;
 
 public class SerializeWriterTest {
 
@@ -100,20 +101,23 @@ public class SerializeWriterTest {
 
     @Test
     public void testBytesBufLocal() throws Exception {
-        String str = createLargeBasicStr();
-        SerializeWriter writer = new SerializeWriter();
-        //写入大于12K的字符串
-        writer.writeString(str);
-        writer.writeString(str);
-        byte[] bytes = writer.toBytes("UTF-8");
-        writer.close();
-
-        //检查bytesLocal大小，如果缓存成功应该大于等于输出的bytes长度
-        Field bytesBufLocalField = SerializeWriter.class.getDeclaredField("bytesBufLocal");
-        bytesBufLocalField.setAccessible(true);
-        ThreadLocal<byte[]> bytesBufLocal = (ThreadLocal<byte[]>) bytesBufLocalField.get(null);
-        byte[] bytesLocal = bytesBufLocal.get();
-        Assert.assertNotNull("bytesLocal is null", bytesLocal);
-        Assert.assertTrue("bytesLocal is smaller than expected", bytesLocal.length >= bytes.length);
+        BufferPool global = BufferPool.getGlobal();
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool();
+        BufferPool.setGlobal(pool);
+        try {
+            String str = createLargeBasicStr();
+            SerializeWriter writer = new SerializeWriter();
+            //写入大于12K的字符串
+            writer.writeString(str);
+            writer.writeString(str);
+            byte[] bytes = writer.toBytes("UTF-8");
+            writer.close();
+
+            //检查bytesLocal大小，如果缓存成功应该大于等于输出的bytes长度
+            byte[] bytesLocal = pool.leaseBytes(0);
+            Assert.assertTrue("bytesLocal is smaller than expected", bytesLocal.length >= bytes.length);
+        } finally {
+            BufferPool.setGlobal(global);
+        }
     }
 }
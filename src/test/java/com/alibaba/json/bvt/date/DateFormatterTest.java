@@ -0,0 +1,168 @@
+package com.alibaba.json.bvt.date;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.util.DateFormatter;
+
+import junit.framework.TestCase;
+
+public class DateFormatterTest extends TestCase {
+
+    private final static String[]   patterns  = { "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd", "yyyy-MM-dd'T'HH:mm:ss",
+            "yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm:ss.SSS", "yyyyMMddHHmmssSSS", "yyyy/MM/dd HH:mm Z",
+            "yyyy-MM-dd'T'HH:mm:ssXXX", "yy-M-d h:mm", "EEE, d MMM yyyy HH:mm:ss z" };
+
+    private final static TimeZone[] timeZones = { TimeZone.getTimeZone("Asia/Shanghai"),
+            TimeZone.getTimeZone("America/New_York"), TimeZone.getTimeZone("Asia/Kathmandu"),
+            TimeZone.getTimeZone("UTC") };
+
+    private final static Locale[]   locales   = { Locale.CHINA, Locale.US, new Locale("th", "TH") };
+
+    public void test_format_same_as_SimpleDateFormat() throws Exception {
+        Random random = new Random(7);
+        for (String pattern : patterns) {
+            for (TimeZone timeZone : timeZones) {
+                for (Locale locale : locales) {
+                    SimpleDateFormat expected = new SimpleDateFormat(pattern, locale);
+                    expected.setTimeZone(timeZone);
+                    DateFormatter formatter = DateFormatter.of(pattern, locale, timeZone);
+
+                    for (int i = 0; i < 200; ++i) {
+                        long millis = random.nextLong() % (300L * 365 * 24 * 3600 * 1000);
+                        if (i % 3 == 0) {
+                            millis = millis / 1000 * 1000;
+                        }
+                        assertEquals(pattern, expected.format(new Date(millis)), formatter.format(millis));
+                    }
+                }
+            }
+        }
+    }
+
+    public void test_parse_same_as_SimpleDateFormat() throws Exception {
+        String[] texts = { "2017-05-01 10:20:30", "2017-02-29 10:20:30", "2016-02-29 23:59:59", "2017-3-1 1:2:3",
+                "2017-03-12 02:30:00", "2017-11-05 01:30:00" };
+        for (TimeZone timeZone : timeZones) {
+            SimpleDateFormat expected = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.CHINA);
+            expected.setTimeZone(timeZone);
+            DateFormatter formatter = DateFormatter.of("yyyy-MM-dd HH:mm:ss", Locale.CHINA, timeZone);
+
+            for (String text : texts) {
+                assertEquals(text, expected.parse(text), formatter.parse(text));
+            }
+        }
+    }
+
+    public void test_shared() throws Exception {
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Shanghai");
+        assertSame(DateFormatter.of("yyyy-MM-dd", Locale.CHINA, timeZone),
+                   DateFormatter.of("yyyy-MM-dd", Locale.CHINA, (TimeZone) timeZone.clone()));
+
+        try {
+            DateFormatter.of("yyyy-MM-ddTHH", Locale.CHINA, timeZone);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // skip
+        }
+    }
+
+    public void test_iso8601() throws Exception {
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Kathmandu");
+        DateFormatter formatter = DateFormatter.iso8601(Locale.CHINA, timeZone);
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.CHINA);
+        dateFormat.setTimeZone(timeZone);
+        assertEquals("2017-05-01T10:20:30+05:45", formatter.format(dateFormat.parse("2017-05-01 10:20:30.000")));
+        assertEquals("2017-05-01T10:20:30.012+05:45", formatter.format(dateFormat.parse("2017-05-01 10:20:30.012")));
+        assertEquals("2017-05-01+05:45", formatter.format(dateFormat.parse("2017-05-01 00:00:00.000")));
+        assertEquals("1970-01-02T00:00:01Z", DateFormatter.iso8601(Locale.CHINA, TimeZone.getTimeZone("UTC")).format(1000L * 3600 * 24 + 1000));
+    }
+
+    public void test_iso8601_parse() throws Exception {
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Kathmandu");
+        DateFormatter formatter = DateFormatter.iso8601(Locale.CHINA, timeZone);
+
+        long[] values = {1493612130000L, 1493612130012L, 1000L * 3600 * 24 + 1000, -1000L};
+        for (long millis : values) {
+            assertEquals(millis, formatter.parse(formatter.format(millis)).getTime());
+        }
+        assertEquals(1493634030123L, formatter.parse("2017-05-01T10:20:30.123Z").getTime());
+        assertEquals(1493613330000L, formatter.parse("2017-05-01T10:20:30").getTime());
+
+        try {
+            formatter.parse("2017-05-01 x");
+            fail();
+        } catch (ParseException ex) {
+            // skip
+        }
+    }
+
+    public void test_serialize() throws Exception {
+        Model model = new Model();
+        model.date = new Date(1493605230123L);
+        model.time = model.date;
+
+        String text = JSON.toJSONString(model, SerializerFeature.UseSingleQuotes, SerializerFeature.WriteDateUseDateFormat);
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat(JSON.DEFFAULT_DATE_FORMAT, JSON.defaultLocale);
+        dateFormat.setTimeZone(JSON.defaultTimeZone);
+        SimpleDateFormat dayFormat = new SimpleDateFormat("yyyy-MM-dd", JSON.defaultLocale);
+        dayFormat.setTimeZone(JSON.defaultTimeZone);
+        assertEquals("{'date':'" + dayFormat.format(model.date) + "','time':'" + dateFormat.format(model.date) + "'}", text);
+
+        Model model2 = JSON.parseObject(JSON.toJSONString(model), Model.class);
+        assertEquals(dayFormat.parse(dayFormat.format(model.date)), model2.date);
+    }
+
+    public void test_getDateFormat_override() throws Exception {
+        Date date = new Date(1493605230123L);
+
+        SerializeWriter out = new SerializeWriter(SerializerFeature.WriteDateUseDateFormat);
+        try {
+            JSONSerializer serializer = new JSONSerializer(out) {
+
+                public DateFormat getDateFormat() {
+                    SimpleDateFormat format = new SimpleDateFormat("'day' yyyyMMdd", Locale.US);
+                    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+                    return format;
+                }
+            };
+            serializer.write(date);
+            assertEquals("\"day 20170501\"", out.toString());
+        } finally {
+            out.close();
+        }
+
+        out = new SerializeWriter(SerializerFeature.WriteDateUseDateFormat);
+        try {
+            JSONSerializer serializer = new JSONSerializer(out);
+            serializer.setDateFormat("yyyyMMdd HH");
+            serializer.write(date);
+
+            SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd HH", JSON.defaultLocale);
+            format.setTimeZone(JSON.defaultTimeZone);
+            assertEquals("\"" + format.format(date) + "\"", out.toString());
+        } finally {
+            out.close();
+        }
+    }
+
+    public static class Model {
+
+        @JSONField(format = "yyyy-MM-dd")
+        public Date date;
+
+        public Date time;
+    }
+}
@@ -0,0 +1,81 @@
+package com.alibaba.json.bvt.jdk8;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+import junit.framework.TestCase;
+
+public class JavaTimeScanTest extends TestCase {
+
+    private final static String text = "{\"date\":\"2017-05-01\",\"dateTime\":\"2017-05-01 10:20:30.123\""
+            + ",\"instant\":\"2017-05-01T10:20:30.123456Z\",\"offsetDateTime\":\"2017-05-01T10:20:30-03:30\""
+            + ",\"zonedDateTime\":\"2017-05-01T10:20:30+08:00\"}";
+
+    public void test_scan_field() throws Exception {
+        assertModel(JSON.parseObject(text, Model.class));
+    }
+
+    public void test_reader() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("[" + text + "," + text + "]"));
+        reader.startArray();
+        while (reader.hasNext()) {
+            assertModel(reader.readObject(Model.class));
+        }
+        reader.endArray();
+        reader.close();
+    }
+
+    public void test_reflect() throws Exception {
+        ParserConfig config = new ParserConfig();
+        config.setAsmEnable(false);
+        assertModel(JSON.parseObject(text, Model.class, config));
+    }
+
+    public void test_fallback() throws Exception {
+        Model model = JSON.parseObject("{\"date\":\"20170501\",\"dateTime\":\"2017/05/01 10:20:30\""
+                + ",\"instant\":1493634030000,\"offsetDateTime\":null"
+                + ",\"zonedDateTime\":\"2017-05-01T10:20:30Z[UTC]\"}", Model.class);
+        assertEquals(LocalDate.of(2017, 5, 1), model.date);
+        assertEquals(LocalDateTime.of(2017, 5, 1, 10, 20, 30), model.dateTime);
+        assertEquals(Instant.ofEpochMilli(1493634030000L), model.instant);
+        assertNull(model.offsetDateTime);
+        assertEquals(ZonedDateTime.parse("2017-05-01T10:20:30Z[UTC]"), model.zonedDateTime);
+    }
+
+    public void test_invalid_day() throws Exception {
+        Model model = JSON.parseObject("{\"dateTime\":\"2017-02-29 10:20:30\"}", Model.class);
+        assertEquals(LocalDateTime.of(2017, 2, 28, 10, 20, 30), model.dateTime);
+    }
+
+    public void test_zoned_in_time_zone() throws Exception {
+        ZonedDateTime zonedDateTime = JSON.parseObject("\"2017-05-01 10:20:30\"", ZonedDateTime.class);
+        assertEquals(LocalDateTime.of(2017, 5, 1, 10, 20, 30), zonedDateTime.toLocalDateTime());
+        assertEquals(JSON.defaultTimeZone.toZoneId(), zonedDateTime.getZone());
+    }
+
+    private static void assertModel(Model model) {
+        assertEquals(LocalDate.of(2017, 5, 1), model.date);
+        assertEquals(LocalDateTime.of(2017, 5, 1, 10, 20, 30, 123000000), model.dateTime);
+        assertEquals(Instant.parse("2017-05-01T10:20:30.123456Z"), model.instant);
+        assertEquals(OffsetDateTime.of(2017, 5, 1, 10, 20, 30, 0, ZoneOffset.ofHoursMinutes(-3, -30)), model.offsetDateTime);
+        assertEquals(ZonedDateTime.parse("2017-05-01T10:20:30+08:00"), model.zonedDateTime);
+    }
+
+    public static class Model {
+
+        public LocalDate      date;
+        public LocalDateTime  dateTime;
+        public Instant        instant;
+        public OffsetDateTime offsetDateTime;
+        public ZonedDateTime  zonedDateTime;
+    }
+}
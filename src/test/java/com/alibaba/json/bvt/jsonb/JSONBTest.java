@@ -0,0 +1,263 @@
+package com.alibaba.json.bvt.jsonb;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.TypeReference;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+import junit.framework.TestCase;
+
+public class JSONBTest extends TestCase {
+
+    public void test_tree() throws Exception {
+        String text = "{\"id\":123,\"big\":12345678901234,\"neg\":-5,\"name\":\"中文 text\",\"ok\":true,\"none\":null,"
+                + "\"price\":12.50,\"huge\":123456789012345678901234567890,\"items\":[{\"k\":1},{\"k\":2,\"v\":[]}]}";
+        JSONObject object = JSON.parseObject(text, Feature.OrderedField);
+
+        byte[] bytes = JSON.toJSONB(object, SerializerFeature.WriteMapNullValue);
+        Object read = JSON.parseJSONB(bytes, Feature.OrderedField);
+        assertEquals(object, read);
+        assertEquals(JSON.toJSONString(object, SerializerFeature.WriteMapNullValue),
+                     JSON.toJSONString(read, SerializerFeature.WriteMapNullValue));
+
+        assertFalse(((JSONObject) JSON.parseJSONB(JSON.toJSONB(object))).containsKey("none"));
+    }
+
+    public void test_values() throws Exception {
+        Object[] values = { null, 0, -1, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 1.5D, Double.NaN, 2.5F,
+                new BigDecimal("-1.000"), new BigInteger("-123456789012345678901234567890"), "", "a\u0000😀",
+                new byte[] { 1, 2, -1 }, Boolean.FALSE };
+        for (Object value : values) {
+            Object read = JSON.parseJSONB(JSON.toJSONB(value));
+            if (value instanceof Double && ((Double) value).isNaN()) {
+                // the same as text
+                assertNull(read);
+            } else if (value instanceof byte[]) {
+                assertTrue(java.util.Arrays.equals((byte[]) value, (byte[]) read));
+            } else {
+                assertEquals(value, read);
+            }
+        }
+    }
+
+    public void test_bean() throws Exception {
+        Model model = createModel();
+        String text = JSON.toJSONString(model);
+
+        SerializeConfig noAsm = new SerializeConfig();
+        noAsm.setAsmEnable(false);
+        ParserConfig noAsmParser = new ParserConfig();
+        noAsmParser.setAsmEnable(false);
+
+        byte[] bytes = JSON.toJSONB(model);
+        assertTrue(java.util.Arrays.equals(bytes, JSON.toJSONB(model, noAsm)));
+        assertTrue(bytes.length < text.getBytes("UTF-8").length);
+
+        Model read = JSON.parseJSONB(bytes, Model.class);
+        assertEquals(text, JSON.toJSONString(read));
+
+        read = JSON.parseJSONB(bytes, 0, bytes.length, Model.class, noAsmParser);
+        assertEquals(text, JSON.toJSONString(read));
+    }
+
+    public void test_generic() throws Exception {
+        Map<String, List<Item>> map = new LinkedHashMap<String, List<Item>>();
+        map.put("a", createModel().items);
+
+        byte[] bytes = JSON.toJSONB(map);
+        Map<String, List<Item>> read = JSON.parseJSONB(bytes, new TypeReference<Map<String, List<Item>>>() {}.getType());
+        assertEquals(Item.Kind.large, read.get("a").get(1).kind);
+        assertEquals(JSON.toJSONString(map), JSON.toJSONString(read));
+    }
+
+    public void test_error() throws Exception {
+        byte[] bytes = JSON.toJSONB(createModel());
+        for (int len = 0; len < bytes.length; len += 7) {
+            try {
+                JSON.parseJSONB(bytes, 0, len + 1, null, ParserConfig.global);
+                fail();
+            } catch (JSONException ex) {
+                // expected
+            }
+        }
+    }
+
+    public void test_reference() throws Exception {
+        Item item = new Item();
+        item.id = 7;
+        List<Object> shared = new ArrayList<Object>();
+        shared.add(item);
+        shared.add(item);
+        List<Object> list = JSON.parseJSONB(JSON.toJSONB(shared), new TypeReference<List<Item>>() {}.getType());
+        assertSame(list.get(0), list.get(1));
+
+        List<Object> self = new ArrayList<Object>();
+        self.add(self);
+        JSONArray array = (JSONArray) JSON.parseJSONB(JSON.toJSONB(self));
+        assertSame(array, array.get(0));
+
+        Node node = new Node();
+        node.next = new Node();
+        node.next.next = node;
+        Node read = JSON.parseJSONB(JSON.toJSONB(node), Node.class);
+        assertSame(read, read.next.next);
+    }
+
+    public void test_primitive_array() throws Exception {
+        float[] floats = { 1.5F, -0.25F, Float.MAX_VALUE };
+        double[] doubles = { 1.5D, -0.1D, Double.MIN_VALUE };
+        int[] ints = { 1, Integer.MIN_VALUE };
+        long[] longs = { 1L, Long.MAX_VALUE };
+
+        assertTrue(java.util.Arrays.equals(floats, (float[]) JSON.parseJSONB(JSON.toJSONB(floats), float[].class)));
+        assertTrue(java.util.Arrays.equals(doubles, (double[]) JSON.parseJSONB(JSON.toJSONB(doubles), double[].class)));
+        assertTrue(java.util.Arrays.equals(ints, (int[]) JSON.parseJSONB(JSON.toJSONB(ints), int[].class)));
+        assertTrue(java.util.Arrays.equals(longs, (long[]) JSON.parseJSONB(JSON.toJSONB(longs), long[].class)));
+    }
+
+    public void test_annotation() throws Exception {
+        Event event = new Event();
+        event.time = new Date(1500000000000L);
+        event.code = "5";
+
+        byte[] bytes = JSON.toJSONB(event);
+        JSONObject object = (JSONObject) JSON.parseJSONB(bytes);
+        assertEquals(JSON.parseObject(JSON.toJSONString(event)), object);
+        assertEquals("code-5", object.get("code"));
+
+        Event read = JSON.parseJSONB(bytes, Event.class);
+        assertEquals(event.time, read.time);
+        assertEquals("code-5", read.code);
+    }
+
+    public void test_array_mapping() throws Exception {
+        Row row = new Row();
+        row.id = -3;
+        row.total = Long.MIN_VALUE;
+        row.ok = true;
+        row.rate = 0.5F;
+        row.ratio = 1.25D;
+        row.name = "row";
+        row.price = new BigDecimal("9.90");
+        row.created = new Date(1500000000000L);
+        row.uuid = new UUID(1, 2);
+        row.kind = Item.Kind.large;
+        row.tags = new ArrayList<String>();
+        row.tags.add("a");
+        row.tags.add(null);
+        row.items = createModel().items;
+
+        String text = JSON.toJSONString(row);
+        byte[] bytes = JSON.toJSONB(row, SerializerFeature.BeanToArray);
+        assertTrue(JSON.parseJSONB(bytes) instanceof JSONArray);
+
+        Row read = JSON.parseJSONB(bytes, Row.class, Feature.SupportArrayToBean);
+        assertEquals(text, JSON.toJSONString(read));
+
+        ParserConfig noAsmParser = new ParserConfig();
+        noAsmParser.setAsmEnable(false);
+        read = JSON.parseJSONB(bytes, 0, bytes.length, Row.class, noAsmParser, Feature.SupportArrayToBean);
+        assertEquals(text, JSON.toJSONString(read));
+    }
+
+    private static Model createModel() {
+        Model model = new Model();
+        model.id = 1001;
+        model.name = "model";
+        model.created = new Date(1500000000000L);
+        model.uuid = new UUID(1, 2);
+        model.price = new BigDecimal("9.90");
+        model.ratio = 0.25;
+        model.data = new byte[] { 3, 4 };
+        model.items = new ArrayList<Item>();
+        for (int i = 0; i < 3; ++i) {
+            Item item = new Item();
+            item.id = i;
+            item.label = "item" + i;
+            item.kind = i == 1 ? Item.Kind.large : Item.Kind.small;
+            model.items.add(item);
+        }
+        return model;
+    }
+
+    public static class Model {
+
+        public int        id;
+        public String     name;
+        public Date       created;
+        public UUID       uuid;
+        public BigDecimal price;
+        public double     ratio;
+        public byte[]     data;
+        public List<Item> items;
+
+        @JSONField(serialize = false)
+        public String     hidden = "h";
+    }
+
+    public static class Row {
+
+        public int          id;
+        public long         total;
+        public boolean      ok;
+        public float        rate;
+        public double       ratio;
+        public String       name;
+        public BigDecimal   price;
+        public Date         created;
+        public UUID         uuid;
+        public Item.Kind    kind;
+        public List<String> tags;
+        public List<Item>   items;
+    }
+
+    public static class Event {
+
+        @JSONField(format = "yyyy-MM-dd HH:mm:ss")
+        public Date time;
+
+        @JSONField(serializeUsing = CodeSerializer.class)
+        public String code;
+    }
+
+    public static class CodeSerializer implements ObjectSerializer {
+
+        public void write(JSONSerializer serializer, Object object, Object fieldName, Type fieldType, int features) {
+            serializer.write("code-" + object);
+        }
+    }
+
+    public static class Node {
+
+        public Node next;
+    }
+
+    public static class Item {
+
+        public enum Kind {
+            small, large
+        }
+
+        public long   id;
+        public String label;
+        public Kind   kind;
+    }
+}
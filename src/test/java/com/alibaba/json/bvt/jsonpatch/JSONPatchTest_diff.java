@@ -0,0 +1,100 @@
+package com.alibaba.json.bvt.jsonpatch;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONPatch;
+import com.alibaba.fastjson.parser.Feature;
+import junit.framework.TestCase;
+
+public class JSONPatchTest_diff extends TestCase {
+
+    public void test_round_trip() throws Exception {
+        String[][] cases = {
+                {"{\"a\":1,\"b\":[1,2,3],\"c\":{\"d\":\"x\"}}", "{\"a\":2,\"b\":[1,3,4],\"c\":{\"d\":\"x\",\"e\":null}}"},
+                {"[1,2,3,4,5]", "[0,1,2,4,5,6]"},
+                {"[{\"id\":1,\"v\":\"a\"},{\"id\":2,\"v\":\"b\"}]", "[{\"id\":1,\"v\":\"a\"},{\"id\":2,\"v\":\"c\"},{\"id\":3}]"},
+                {"{\"a/b\":1,\"m~n\":[]}", "{\"a/b\":2,\"m~n\":[true]}"},
+                {"{\"a\":1}", "[1]"},
+                {"{\"a\":[[1,2],[3]]}", "{\"a\":[[3],[1,2]]}"},
+        };
+
+        for (String[] item : cases) {
+            String patch = JSONPatch.diff(item[0], item[1]);
+            String result = JSONPatch.compile(patch).apply(item[0]);
+            assertEquals(patch, JSON.parse(item[1]), JSON.parse(result));
+        }
+    }
+
+    public void test_minimal() throws Exception {
+        assertEquals("[]", JSONPatch.diff("{\"a\":[1,{\"b\":1.0}]}", "{\"a\":[1,{\"b\":1}]}"));
+        assertEquals("[{\"op\":\"add\",\"path\":\"/1\",\"value\":9}]", JSONPatch.diff("[1,2,3]", "[1,9,2,3]"));
+        assertEquals("[{\"op\":\"remove\",\"path\":\"/0\"}]", JSONPatch.diff("[1,2,3]", "[2,3]"));
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/x~1y/1\",\"value\":null}]",
+                     JSONPatch.diff("{\"x/y\":[1,2]}", "{\"x/y\":[1,null]}"));
+    }
+
+    public void test_move() throws Exception {
+        String source = "{\"a\":{\"big\":{\"k\":[1,2,3]}},\"b\":{}}";
+        String target = "{\"a\":{},\"b\":{\"big\":{\"k\":[1,2,3]}}}";
+        String patch = JSONPatch.diff(source, target);
+        assertEquals("[{\"op\":\"move\",\"from\":\"/a/big\",\"path\":\"/b/big\"}]", patch);
+        assertEquals(JSON.parse(target), JSON.parse(JSONPatch.compile(patch).apply(source)));
+    }
+
+    public void test_compiled() throws Exception {
+        JSONPatch patch = JSONPatch.compile("[{\"op\":\"add\",\"path\":\"/list/-\",\"value\":{\"n\":1}},"
+                + "{\"op\":\"copy\",\"from\":\"/list/0\",\"path\":\"/first\"},"
+                + "{\"op\":\"test\",\"path\":\"/first/n\",\"value\":0}]");
+
+        for (int i = 0; i < 3; ++i) {
+            JSONObject document = JSON.parseObject("{\"list\":[{\"n\":0}]}", Feature.OrderedField);
+            patch.apply(document);
+            document.getJSONArray("list").getJSONObject(1).put("n", 2);
+            assertEquals("{\"list\":[{\"n\":0},{\"n\":2}],\"first\":{\"n\":0}}", document.toJSONString());
+        }
+
+        assertEquals("[{\"op\":\"add\",\"path\":\"/list/-\",\"value\":{\"n\":1}},"
+                + "{\"op\":\"copy\",\"from\":\"/list/0\",\"path\":\"/first\"},"
+                + "{\"op\":\"test\",\"path\":\"/first/n\",\"value\":0}]", patch.toString());
+    }
+
+    public void test_errors() throws Exception {
+        try {
+            JSONPatch.compile("[{\"op\":\"test\",\"path\":\"/a\",\"value\":2}]").apply("{\"a\":1}");
+            fail();
+        } catch (JSONException ex) {
+            // expected
+        }
+
+        try {
+            JSONPatch.compile("[{\"op\":\"remove\",\"path\":\"/list/2\"}]").apply("{\"list\":[1,2]}");
+            fail();
+        } catch (JSONException ex) {
+            // expected
+        }
+
+        try {
+            JSONPatch.compile("[{\"op\":\"add\",\"path\":\"/a\"}]");
+            fail();
+        } catch (JSONException ex) {
+            // expected
+        }
+    }
+
+    public void test_merge_patch() throws Exception {
+        String target = "{\"title\":\"Goodbye!\",\"author\":{\"givenName\":\"John\",\"familyName\":\"Doe\"},"
+                + "\"tags\":[\"example\",\"sample\"],\"content\":\"This will be unchanged\"}";
+        String patch = "{\"title\":\"Hello!\",\"phoneNumber\":\"+01-123-456-7890\",\"author\":{\"familyName\":null},"
+                + "\"tags\":[\"example\"]}";
+
+        assertEquals("{\"title\":\"Hello!\",\"author\":{\"givenName\":\"John\"},\"tags\":[\"example\"],"
+                + "\"content\":\"This will be unchanged\",\"phoneNumber\":\"+01-123-456-7890\"}",
+                     JSONPatch.mergePatch(target, patch));
+
+        String result = JSONPatch.mergePatch(target, patch);
+        String created = JSONPatch.createMergePatch(target, result);
+        assertEquals(JSON.parse(result), JSON.parse(JSONPatch.mergePatch(target, created)));
+        assertEquals("{\"a\":null}", JSONPatch.createMergePatch("{\"a\":1,\"b\":2}", "{\"b\":2}"));
+    }
+}
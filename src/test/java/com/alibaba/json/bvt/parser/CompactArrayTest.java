@@ -0,0 +1,123 @@
+package com.alibaba.json.bvt.parser;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.util.PrimitiveList;
+
+import junit.framework.TestCase;
+
+public class CompactArrayTest extends TestCase {
+
+    private static final int FEATURES = (JSON.DEFAULT_PARSER_FEATURE & ~Feature.UseBigDecimal.mask)
+            | Feature.CompactObject.mask | Feature.PrimitiveArray.mask;
+
+    public void test_parse() throws Exception {
+        String text = "{\"ints\":[1,-2,2147483647,-2147483648],\"longs\":[4294967296,-9223372036854775808],"
+                + "\"doubles\":[0.5,-1.25E10,3.0],\"mixed\":[1,2.5,\"x\",null]}";
+        Object compact = JSON.parse(text, FEATURES);
+        JSONObject objectOnly = (JSONObject) JSON.parse(text, Feature.CompactObject);
+        assertFalse(objectOnly.getJSONArray("ints").getInnerList() instanceof PrimitiveList);
+        Object boxed = JSON.parse(text, (JSON.DEFAULT_PARSER_FEATURE & ~Feature.UseBigDecimal.mask)
+                | Feature.OrderedField.mask);
+
+        assertEquals(boxed, compact);
+        assertEquals(JSON.toJSONString(boxed), JSON.toJSONString(compact));
+        assertEquals(JSON.toJSONString(boxed, SerializerFeature.WriteClassName),
+                     JSON.toJSONString(compact, SerializerFeature.WriteClassName));
+
+        JSONArray ints = ((JSONObject) compact).getJSONArray("ints");
+        assertSame(int.class, ((PrimitiveList) ints.getInnerList()).getPrimitiveType());
+        assertEquals(Integer.valueOf(-2), ints.get(1));
+        assertEquals(2147483647L, ints.getLongValue(2));
+
+        JSONArray doubles = ((JSONObject) compact).getJSONArray("doubles");
+        assertSame(double.class, ((PrimitiveList) doubles.getInnerList()).getPrimitiveType());
+        assertEquals(-1.25E10, doubles.getDoubleValue(1));
+        assertEquals(3, doubles.getIntValue(2));
+
+        JSONArray mixed = ((JSONObject) compact).getJSONArray("mixed");
+        assertNull(((PrimitiveList) mixed.getInnerList()).getPrimitiveType());
+        assertEquals(2.5, mixed.getDoubleValue(1));
+    }
+
+    public void test_fallback() throws Exception {
+        JSONArray array = (JSONArray) JSON.parse("[1,2,3]", FEATURES);
+        PrimitiveList list = (PrimitiveList) array.getInnerList();
+
+        array.add(1, 9);
+        array.remove(0);
+        assertEquals("[9,2,3]", array.toJSONString());
+        assertSame(int.class, list.getPrimitiveType());
+
+        array.set(2, 3L);
+        assertNull(list.getPrimitiveType());
+        assertEquals("[9,2,3]", array.toJSONString());
+        assertEquals(Long.valueOf(3), array.get(2));
+
+        JSONArray clone = (JSONArray) array.clone();
+        clone.add("x");
+        assertEquals(3, array.size());
+    }
+
+    public void test_same_as_ArrayList() throws Exception {
+        List<Object> expected = new ArrayList<Object>();
+        PrimitiveList list = new PrimitiveList();
+
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; ++i) {
+            Object value = random.nextInt(50) == 0 ? (Object) "s" : (Object) random.nextDouble();
+            int op = random.nextInt(4);
+            if (op == 0 && expected.size() > 0) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            } else if (op == 1 && expected.size() > 0) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, value), list.set(index, value));
+            } else {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, value);
+                list.add(index, value);
+            }
+            if (i % 500 == 0) {
+                expected.clear();
+                list.clear();
+            }
+        }
+        assertEquals(expected, list);
+        assertEquals(expected.hashCode(), list.hashCode());
+    }
+
+    public void test_write_bulk() throws Exception {
+        int[] ints = new int[1000];
+        long[] longs = new long[1000];
+        PrimitiveList list = new PrimitiveList();
+        StringBuilder expected = new StringBuilder("[");
+        Random random = new Random(11);
+        for (int i = 0; i < ints.length; ++i) {
+            ints[i] = i == 0 ? Integer.MIN_VALUE : random.nextInt();
+            longs[i] = ints[i];
+            list.add(ints[i] * 0.5);
+            if (i != 0) {
+                expected.append(',');
+            }
+            expected.append(ints[i]);
+        }
+        expected.append(']');
+
+        assertEquals(expected.toString(), JSON.toJSONString(ints));
+        assertEquals(expected.toString(), JSON.toJSONString(longs));
+        assertEquals(JSON.toJSONString(new ArrayList<Object>(list)), JSON.toJSONString(list));
+
+        StringWriter writer = new StringWriter();
+        JSON.writeJSONString(writer, ints);
+        assertEquals(expected.toString(), writer.toString());
+    }
+}
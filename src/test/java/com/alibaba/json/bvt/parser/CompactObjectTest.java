@@ -0,0 +1,131 @@
+package com.alibaba.json.bvt.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.CompactMap;
+
+import junit.framework.TestCase;
+
+public class CompactObjectTest extends TestCase {
+
+    public void test_parse() throws Exception {
+        String text = "[{\"id\":1,\"name\":\"a\",\"tags\":[{\"k\":1}]},{\"id\":2,\"name\":\"b\",\"tags\":[{\"k\":2}]}]";
+        JSONArray array = (JSONArray) JSON.parse(text, Feature.CompactObject);
+
+        JSONObject first = array.getJSONObject(0);
+        assertTrue(first.getInnerMap() instanceof CompactMap);
+        assertTrue(((CompactMap) first.getInnerMap()).isShared());
+        assertEquals(2, array.getJSONObject(1).getIntValue("id"));
+        assertEquals("b", array.getJSONObject(1).get("name"));
+        assertEquals(JSON.parse(text), array);
+        assertEquals(text, array.toJSONString());
+
+        JSONObject clone = first.clone();
+        clone.put("id", 3);
+        assertEquals(1, first.getIntValue("id"));
+        assertEquals(JSON.parseObject("{1:2}"), JSON.parseObject("{1:2}", Feature.CompactObject));
+    }
+
+    public void test_shapes() throws Exception {
+        CompactMap.Shapes shapes = new CompactMap.Shapes(2);
+        CompactMap<String, Object> map = new CompactMap<String, Object>(shapes);
+        map.put("a", 1);
+        map.put("b", 2);
+        assertTrue(map.isShared());
+        map.put("c", 3);
+        assertFalse(map.isShared());
+        assertEquals(2, shapes.size());
+        assertEquals("{\"a\":1,\"b\":2,\"c\":3}", JSON.toJSONString(map));
+
+        shapes.clear();
+        assertEquals(0, shapes.size());
+        map.remove("c");
+        assertEquals("{\"a\":1,\"b\":2}", JSON.toJSONString(map));
+
+        ParserConfig config = new ParserConfig();
+        JSONObject object = (JSONObject) JSON.parse("{\"x\":1}", config, Feature.CompactObject);
+        assertTrue(((CompactMap) object.getInnerMap()).isShared());
+        assertEquals(1, config.getCompactShapes().size());
+        assertNotSame(config.getCompactShapes(), ParserConfig.global.getCompactShapes());
+    }
+
+    public void test_same_as_LinkedHashMap() throws Exception {
+        Map<String, Object> expected = new LinkedHashMap<String, Object>();
+        Map<String, Object> map = new CompactMap<String, Object>();
+
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; ++i) {
+            String key = "k" + random.nextInt(80);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 1:
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+            if (map.size() == 70) {
+                expected.clear();
+                map.clear();
+            }
+        }
+
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(expected.toString(), map.toString());
+    }
+
+    public void test_iterator() throws Exception {
+        Map<String, Object> map = new CompactMap<String, Object>();
+        for (int i = 0; i < 10; ++i) {
+            map.put("k" + i, i);
+        }
+
+        for (Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, Object> entry = it.next();
+            if (((Integer) entry.getValue()) % 2 == 0) {
+                it.remove();
+            } else {
+                entry.setValue(-1);
+            }
+        }
+        assertEquals("{k1=-1, k3=-1, k5=-1, k7=-1, k9=-1}", map.toString());
+
+        map.keySet().remove("k3");
+        map.values().remove(-1);
+        assertEquals("{k5=-1, k7=-1, k9=-1}", map.toString());
+    }
+
+    public void test_serializable() throws Exception {
+        Map<String, Object> map = new CompactMap<String, Object>();
+        map.put("a", 1);
+        map.put("b", "x");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(map);
+        out.close();
+
+        Object read = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertEquals(map, read);
+        assertEquals(new HashMap<String, Object>(map), read);
+    }
+}
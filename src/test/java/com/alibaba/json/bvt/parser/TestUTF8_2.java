@@ -4,7 +4,7 @@ import org.junit.Assert;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
-import com.alibaba.json.bvt.util.ThreadLocalCacheTest;
+import com.alibaba.fastjson.util.BufferPool;
 
 import junit.framework.TestCase;
 
@@ -39,7 +39,7 @@ public class TestUTF8_2 extends TestCase {
     }
     
     public void test_utf_4() throws Exception {
-        ThreadLocalCacheTest.clearChars();
+        BufferPool.getGlobal().clear();
         
         byte[] bytes = decodeHex("C2FF".toCharArray());
         String content = new String(bytes, "UTF-8");
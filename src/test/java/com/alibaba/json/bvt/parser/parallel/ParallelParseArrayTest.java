@@ -0,0 +1,145 @@
+package com.alibaba.json.bvt.parser.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+import junit.framework.TestCase;
+
+public class ParallelParseArrayTest extends TestCase {
+
+    public void test_split() throws Exception {
+        String text = "[ {\"id\":1,\"name\":\"a}\"} , [1,2] ,\"x]\", 3 ]";
+        JSONScanner lexer = new JSONScanner(text);
+        lexer.nextToken();
+        int[] ranges = lexer.splitArray(1);
+        assertEquals(JSONToken.EOF, lexer.token());
+        assertEquals(8, ranges.length);
+        assertEquals("{\"id\":1,\"name\":\"a}\"}", text.substring(ranges[0], ranges[1]));
+        assertEquals("[1,2]", text.substring(ranges[2], ranges[3]));
+        assertEquals("\"x]\"", text.substring(ranges[4], ranges[5]));
+        assertEquals("3", text.substring(ranges[6], ranges[7]));
+    }
+
+    public void test_split_empty() throws Exception {
+        JSONScanner lexer = new JSONScanner("[ ]");
+        lexer.nextToken();
+        assertEquals(0, lexer.splitArray(1).length);
+    }
+
+    public void test_split_commas() throws Exception {
+        String text = "[1,,2,]";
+        JSONScanner lexer = new JSONScanner(text);
+        lexer.nextToken();
+        int[] ranges = lexer.splitArray(1);
+        assertEquals(4, ranges.length);
+        assertEquals(JSON.parseArray(text, Integer.class).size(), ranges.length / 2);
+
+        lexer = new JSONScanner(text, JSON.DEFAULT_PARSER_FEATURE & ~Feature.AllowArbitraryCommas.mask);
+        lexer.nextToken();
+        try {
+            lexer.splitArray(1);
+            fail();
+        } catch (JSONException ex) {
+            assertTrue(ex.getMessage().contains("pos 3"));
+        }
+    }
+
+    public void test_split_not_array() throws Exception {
+        JSONScanner lexer = new JSONScanner("{\"id\":1}");
+        lexer.nextToken();
+        try {
+            lexer.splitArray(1);
+            fail();
+        } catch (JSONException ex) {
+            assertTrue(ex.getMessage().startsWith("syntax error, expect [, actual {"));
+        }
+    }
+
+    public void test_parallel() throws Exception {
+        List<Model> models = new ArrayList<Model>();
+        for (int i = 0; i < 20000; ++i) {
+            Model model = new Model();
+            model.id = i;
+            model.name = "name,[" + i + "]";
+            models.add(model);
+        }
+        String text = JSON.toJSONString(models);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Model> list = JSON.parseArray(text, Model.class, ParserConfig.global, executor, 4);
+            assertEquals(models.size(), list.size());
+            for (int i = 0; i < list.size(); ++i) {
+                assertEquals(i, list.get(i).id);
+                assertEquals("name,[" + i + "]", list.get(i).name);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Model> list = JSON.parseArray(text, Model.class, 4);
+        assertEquals(models.size(), list.size());
+        assertEquals(19999, list.get(19999).id);
+    }
+
+    public void test_bounded_scanner() throws Exception {
+        String text = "[{\"id\":1,\"skip\":{\"a\":[\"}\"]}},{\"id\":2}]";
+        // only the first item, the scanner ends there as if at the end of the text
+        int end = text.indexOf(",{\"id\":2");
+        JSONScanner lexer = new JSONScanner(text, 1, end - 1, JSON.DEFAULT_PARSER_FEATURE);
+        DefaultJSONParser parser = new DefaultJSONParser(text, lexer, ParserConfig.global);
+        Model model = parser.parseObject(Model.class);
+        assertEquals(1, model.id);
+        assertEquals(JSONToken.EOF, lexer.token());
+        assertEquals(-1, lexer.indexOf('"', end));
+    }
+
+    public void test_parallel_strings() throws Exception {
+        List<String> values = new ArrayList<String>();
+        for (int i = 0; i < 20000; ++i) {
+            values.add(i % 3 == 0 ? null : "v\"," + i);
+        }
+        String text = JSON.toJSONString(values);
+
+        List<String> list = JSON.parseArray(text, String.class, 4);
+        assertEquals(values, list);
+    }
+
+    public void test_parallel_small() throws Exception {
+        List<Model> list = JSON.parseArray("[{\"id\":1},null]", Model.class, 4);
+        assertEquals(2, list.size());
+        assertEquals(1, list.get(0).id);
+        assertNull(list.get(1));
+    }
+
+    public void test_parallel_error() throws Exception {
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < 10000; ++i) {
+            buf.append("{\"id\":").append(i).append("},");
+        }
+        buf.append("{\"id\":\"x\"}]");
+
+        Exception error = null;
+        try {
+            JSON.parseArray(buf.toString(), Model.class, 4);
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+    }
+
+    public static class Model {
+        public int id;
+        public String name;
+    }
+}
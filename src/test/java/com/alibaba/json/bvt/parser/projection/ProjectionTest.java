@@ -0,0 +1,171 @@
+package com.alibaba.json.bvt.parser.projection;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.Projection;
+import com.alibaba.fastjson.parser.deserializer.ExtraProcessor;
+
+import junit.framework.TestCase;
+
+public class ProjectionTest extends TestCase {
+
+    static final String TEXT = "{\"id\":1,\"extra\":{\"a\":[1,{\"b\":\"}]\"}],\"c\":'x'},\"name\":\"n\",\"big\":[[1,2],[3]],"
+            + "\"user\":{\"name\":\"u\",\"age\":18,\"tags\":[\"t\"]},\"num\":-1.5e3,\"flag\":true,"
+            + "\"items\":[{\"sku\":\"s1\",\"price\":10},{\"sku\":\"s2\",\"price\":20}]}";
+
+    public void test_all() throws Exception {
+        Order order = JSON.parseObject(TEXT, Order.class, Projection.ALL);
+        assertEquals(1, order.id);
+        assertEquals("n", order.name);
+        assertEquals("u", order.user.name);
+        assertEquals(18, order.user.age);
+        assertEquals(2, order.items.size());
+        assertEquals(20, order.items.get(1).price);
+    }
+
+    public void test_include() throws Exception {
+        Projection projection = Projection.of("$.id", "$.user.name", "$.items[*].sku");
+        Order order = JSON.parseObject(TEXT, Order.class, projection);
+        assertEquals(1, order.id);
+        assertNull(order.name);
+        assertEquals("u", order.user.name);
+        assertEquals(0, order.user.age);
+        assertEquals("s2", order.items.get(1).sku);
+        assertEquals(0, order.items.get(1).price);
+    }
+
+    public void test_include_private() throws Exception {
+        Projection projection = Projection.of("name", "user");
+        PrivateOrder order = JSON.parseObject(TEXT, PrivateOrder.class, projection);
+        assertEquals(0, order.getId());
+        assertEquals("n", order.getName());
+        assertEquals(18, order.getUser().age);
+    }
+
+    public void test_extra_processor() throws Exception {
+        final StringBuilder keys = new StringBuilder();
+        DefaultJSONParser parser = new DefaultJSONParser(TEXT);
+        parser.setProjection(Projection.ALL);
+        parser.getExtraProcessors().add(new ExtraProcessor() {
+            public void processExtra(Object object, String key, Object value) {
+                keys.append(key).append(',');
+            }
+        });
+        Order order = parser.parseObject(Order.class);
+        parser.close();
+        assertEquals(1, order.id);
+        assertEquals("extra,big,flag,", keys.toString());
+    }
+
+    public void test_config() throws Exception {
+        ParserConfig config = new ParserConfig();
+        config.setProjection(Projection.of("id"));
+        Order order = JSON.parseObject(TEXT, Order.class, config);
+        assertEquals(1, order.id);
+        assertNull(order.user);
+    }
+
+    public void test_reader_scanner() throws Exception {
+        DefaultJSONParser parser = new DefaultJSONParser(new JSONReaderScanner(new StringReader(TEXT)), ParserConfig.global);
+        parser.setProjection(Projection.of("user.tags", "num"));
+        Order order = parser.parseObject(Order.class);
+        parser.close();
+        assertEquals("t", order.user.tags.get(0));
+        assertEquals(-1500D, order.num);
+        assertNull(order.user.name);
+    }
+
+    public void test_restore_sort_fast_match() throws Exception {
+        DefaultJSONParser parser = new DefaultJSONParser(TEXT);
+        assertTrue(parser.lexer.isEnabled(Feature.SortFeidFastMatch));
+        parser.setProjection(Projection.of("id"));
+        assertFalse(parser.lexer.isEnabled(Feature.SortFeidFastMatch));
+        parser.setProjection(Projection.ALL);
+        assertTrue(parser.lexer.isEnabled(Feature.SortFeidFastMatch));
+        parser.setProjection(Projection.of("id"));
+        parser.setProjection(null);
+        assertTrue(parser.lexer.isEnabled(Feature.SortFeidFastMatch));
+    }
+
+    public void test_map_field() throws Exception {
+        String text = "{\"id\":1,\"users\":{\"a\":{\"name\":\"u\",\"age\":18},\"b\":{\"name\":\"v\"}}}";
+        Group group = JSON.parseObject(text, Group.class, Projection.of("users.a.name"));
+        assertEquals(0, group.id);
+        assertEquals(2, group.users.size());
+        assertEquals("u", group.users.get("a").name);
+        assertEquals(18, group.users.get("a").age);
+    }
+
+    public void test_illegal_path() throws Exception {
+        Exception error = null;
+        try {
+            Projection.of("a.[0]");
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+        assertTrue(Projection.of("$").isAll());
+    }
+
+    public static class Order {
+        public int        id;
+        public String     name;
+        public User       user;
+        public double     num;
+        public List<Item> items;
+    }
+
+    public static class Group {
+        public int               id;
+        public Map<String, User> users;
+    }
+
+    public static class PrivateOrder {
+        private int    id;
+        private String name;
+        private User   user;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public void setUser(User user) {
+            this.user = user;
+        }
+    }
+
+    public static class User {
+        public String       name;
+        public int          age;
+        public List<String> tags;
+    }
+
+    public static class Item {
+        public String sku;
+        public int    price;
+    }
+}
@@ -0,0 +1,137 @@
+package com.alibaba.json.bvt.parser.stream;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONAsyncParser;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+
+import junit.framework.TestCase;
+
+public class JSONAsyncParserTest extends TestCase {
+
+    public void test_chunks() throws Exception {
+        Model model = new Model();
+        model.id = 1001;
+        model.name = "中文 \"quoted\" {not} [structure]";
+        byte[] bytes = JSON.toJSONBytes(model);
+
+        // every split point, including inside multi byte utf-8 sequences
+        for (int split = 0; split <= bytes.length; ++split) {
+            JSONAsyncParser<Model> parser = new JSONAsyncParser<Model>(Model.class);
+            int completed = parser.feed(ByteBuffer.wrap(bytes, 0, split));
+            completed += parser.feed(ByteBuffer.wrap(bytes, split, bytes.length - split));
+            assertEquals(1, completed);
+            parser.end();
+
+            assertTrue(parser.hasNext());
+            Model result = parser.next();
+            assertEquals(model.id, result.id);
+            assertEquals(model.name, result.name);
+            assertFalse(parser.hasNext());
+        }
+    }
+
+    public void test_direct_buffer() throws Exception {
+        byte[] bytes = "{\"id\":1} {\"id\":2}\n{\"id\":3}".getBytes("UTF-8");
+        JSONAsyncParser<Model> parser = new JSONAsyncParser<Model>(Model.class);
+        for (int i = 0; i < bytes.length; i += 3) {
+            ByteBuffer chunk = ByteBuffer.allocateDirect(Math.min(3, bytes.length - i));
+            chunk.put(bytes, i, chunk.capacity());
+            chunk.flip();
+            parser.feed(chunk);
+            assertFalse(chunk.hasRemaining());
+        }
+        parser.end();
+
+        List<Integer> ids = new ArrayList<Integer>();
+        while (parser.hasNext()) {
+            ids.add(parser.next().id);
+        }
+        assertEquals("[1, 2, 3]", ids.toString());
+        assertTrue(parser.isIdle());
+    }
+
+    public void test_values() throws Exception {
+        JSONAsyncParser<Object> parser = new JSONAsyncParser<Object>(Object.class);
+        assertEquals(2, parser.feed(ByteBuffer.wrap("12 \"a\\\"b\" [1,".getBytes("UTF-8"))));
+        assertEquals(2, parser.feed(ByteBuffer.wrap("2]{\"k\":true} nu".getBytes("UTF-8"))));
+        parser.feed(ByteBuffer.wrap("ll 3.5".getBytes("UTF-8")));
+        parser.end();
+
+        assertEquals(12, parser.next());
+        assertEquals("a\"b", parser.next());
+        assertEquals("[1,2]", JSON.toJSONString(parser.next()));
+        assertEquals(Boolean.TRUE, ((JSONObject) parser.next()).get("k"));
+        assertNull(parser.next());
+        assertEquals("3.5", parser.next().toString());
+        assertFalse(parser.hasNext());
+    }
+
+    public void test_separators() throws Exception {
+        JSONAsyncParser<Object> parser = new JSONAsyncParser<Object>(Object.class);
+        assertEquals(3, parser.feed(ByteBuffer.wrap("1,2 ,[3],".getBytes("UTF-8"))));
+        assertEquals(2, parser.feed(ByteBuffer.wrap("{\"a\":1},\"x\"".getBytes("UTF-8"))));
+        parser.end();
+
+        assertEquals(1, parser.next());
+        assertEquals(2, parser.next());
+        assertEquals("[3]", JSON.toJSONString(parser.next()));
+        assertEquals("{\"a\":1}", JSON.toJSONString(parser.next()));
+        assertEquals("x", parser.next());
+        assertFalse(parser.hasNext());
+
+        Exception error = null;
+        try {
+            parser.feed(ByteBuffer.wrap("1 }".getBytes("UTF-8")));
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+    }
+
+    public void test_malformed() throws Exception {
+        JSONAsyncParser<Model> parser = new JSONAsyncParser<Model>(Model.class);
+        parser.feed(ByteBuffer.wrap("{\"id\":1} {\"id\"".getBytes("UTF-8")));
+        ByteBuffer chunk = ByteBuffer.wrap(":2} {\"id\":x} {\"id\":3}".getBytes("UTF-8"));
+
+        Exception error = null;
+        try {
+            parser.feed(chunk);
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+        assertTrue(parser.isIdle());
+        assertEquals(":2} {\"id\":x}".length(), chunk.position());
+
+        // feeding the rest goes on after the failed value
+        assertEquals(1, parser.feed(chunk));
+        assertEquals(1, parser.next().id);
+        assertEquals(2, parser.next().id);
+        assertEquals(3, parser.next().id);
+        assertFalse(parser.hasNext());
+    }
+
+    public void test_unclosed() throws Exception {
+        JSONAsyncParser<Model> parser = new JSONAsyncParser<Model>(Model.class);
+        parser.feed(ByteBuffer.wrap("{\"id\":".getBytes("UTF-8")));
+        assertFalse(parser.isIdle());
+
+        Exception error = null;
+        try {
+            parser.end();
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+    }
+
+    public static class Model {
+        public int    id;
+        public String name;
+    }
+}
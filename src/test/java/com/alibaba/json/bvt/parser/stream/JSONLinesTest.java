@@ -0,0 +1,122 @@
+package com.alibaba.json.bvt.parser.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONLinesReader;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+import junit.framework.TestCase;
+
+public class JSONLinesTest extends TestCase {
+
+    public void test_read() throws Exception {
+        String text = "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"name\":\"b\"}\r\n\n{\"id\":3,\"name\":\"c\"}\n";
+        JSONLinesReader<Model> reader = JSON.parseLines(new ByteArrayInputStream(text.getBytes("UTF-8")), Model.class);
+        List<Model> list = new ArrayList<Model>();
+        while (reader.hasNext()) {
+            list.add(reader.next());
+        }
+        reader.close();
+
+        assertEquals(3, list.size());
+        assertEquals(1, list.get(0).id);
+        assertEquals("b", list.get(1).name);
+        assertEquals(3, list.get(2).id);
+    }
+
+    public void test_reference_per_record() throws Exception {
+        String text = "{\"id\":1,\"self\":{\"$ref\":\"$\"}}\n{\"id\":2,\"self\":{\"$ref\":\"$\"}}";
+        JSONLinesReader<JSONObject> reader = new JSONLinesReader<JSONObject>(new StringReader(text), JSONObject.class);
+        JSONObject first = reader.next();
+        JSONObject second = reader.next();
+        assertFalse(reader.hasNext());
+        reader.close();
+
+        assertSame(first, first.get("self"));
+        assertSame(second, second.get("self"));
+    }
+
+    public void test_stream() throws Exception {
+        String text = "{\"id\":1}\n{\"id\":2}\n{\"id\":3}";
+        JSONLinesReader<Model> reader = JSON.parseLines(new ByteArrayInputStream(text.getBytes("UTF-8")), Model.class);
+        int sum = 0;
+        for (Object item : reader.stream().toArray()) {
+            sum += ((Model) item).id;
+        }
+        assertEquals(6, sum);
+    }
+
+    public void test_write() throws Exception {
+        List<Model> models = new ArrayList<Model>();
+        Model model = new Model();
+        model.id = 1;
+        model.name = "a\nb";
+        models.add(model);
+        models.add(model);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, JSON.writeLines(out, models.iterator()));
+        assertEquals("{\"id\":1,\"name\":\"a\\nb\"}\n{\"id\":1,\"name\":\"a\\nb\"}\n", new String(out.toByteArray(), "UTF-8"));
+    }
+
+    public void test_parallel() throws Exception {
+        List<Model> models = new ArrayList<Model>();
+        for (int i = 0; i < 50000; ++i) {
+            Model model = new Model();
+            model.id = i;
+            model.name = "name_" + i;
+            models.add(model);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSON.writeLines(out, models.iterator());
+        byte[] bytes = out.toByteArray();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            JSONLinesReader<Model> reader = new JSONLinesReader<Model>(
+                    new StringReader(new String(bytes, "UTF-8")), Model.class, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE, executor, 4);
+            int i = 0;
+            while (reader.hasNext()) {
+                Model model = reader.next();
+                assertEquals(i, model.id);
+                assertEquals("name_" + i, model.name);
+                i++;
+            }
+            reader.close();
+            assertEquals(models.size(), i);
+        } finally {
+            executor.shutdown();
+        }
+
+        JSONLinesReader<Model> reader = JSONLinesReader.parallel(new ByteArrayInputStream(bytes), Model.class, 2);
+        assertEquals(models.size(), reader.stream().count());
+    }
+
+    public void test_parallel_error() throws Exception {
+        JSONLinesReader<Model> reader = JSONLinesReader.parallel(new ByteArrayInputStream("{\"id\":1}\n{\"id\":".getBytes()), Model.class, 2);
+        Exception error = null;
+        try {
+            while (reader.hasNext()) {
+                reader.next();
+            }
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+        reader.close();
+    }
+
+    public static class Model {
+        public int    id;
+        public String name;
+    }
+}
@@ -0,0 +1,106 @@
+package com.alibaba.json.bvt.parser.stream;
+
+import java.io.StringReader;
+import java.util.Iterator;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.DefaultJSONParser.ResolveTask;
+import com.alibaba.fastjson.parser.ParseContext;
+
+import junit.framework.TestCase;
+
+public class JSONReaderIteratorTest extends TestCase {
+
+    public void test_iterator() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("[{\"id\":1,\"name\":\"a\"},null,{\"id\":3}]"));
+        Iterator<Model> it = reader.iterator(Model.class);
+        assertTrue(it.hasNext());
+        assertEquals("a", it.next().name);
+        assertNull(it.next());
+        assertEquals(3, it.next().id);
+        assertFalse(it.hasNext());
+        assertFalse(it.hasNext());
+        reader.close();
+    }
+
+    public void test_nested() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("{\"items\":[{\"id\":1},{\"id\":2}],\"size\":2}"));
+        reader.startObject();
+        assertEquals("items", reader.readString());
+        reader.startArray();
+        int sum = 0;
+        for (Iterator<Model> it = reader.iterator(Model.class); it.hasNext();) {
+            sum += it.next().id;
+        }
+        reader.endArray();
+        assertEquals("size", reader.readString());
+        assertEquals(2, reader.readInteger().intValue());
+        reader.endObject();
+        reader.close();
+        assertEquals(3, sum);
+    }
+
+    public void test_recycled_instance() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]"));
+        Model instance = new Model();
+        Iterator<Model> it = reader.iterator(Model.class, instance);
+        assertSame(instance, it.next());
+        assertEquals(1, instance.id);
+        assertSame(instance, it.next());
+        assertEquals(2, instance.id);
+        assertEquals("b", instance.name);
+        assertFalse(it.hasNext());
+        reader.close();
+    }
+
+    public void test_stream() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("[{\"id\":1},{\"id\":2},{\"id\":3}]"));
+        long count = reader.stream(Model.class).count();
+        reader.close();
+        assertEquals(3, count);
+    }
+
+    public void test_outer_context() throws Exception {
+        DefaultJSONParser parser = new DefaultJSONParser("[{\"id\":1,\"outer\":{\"$ref\":\"@\"}},{\"id\":2,\"outer\":{\"$ref\":\"@\"}}]");
+        JSONObject outer = new JSONObject();
+        ParseContext context = parser.setContext(outer, "items");
+        ResolveTask task = new ResolveTask(context, "$.x");
+        parser.addResolveTask(task);
+
+        JSONReader reader = new JSONReader(parser);
+        Iterator<Node> it = reader.iterator(Node.class);
+        assertSame(outer, it.next().outer);
+        assertSame(outer, it.next().outer);
+        assertFalse(it.hasNext());
+
+        assertSame(context, parser.getContext());
+        assertEquals(1, parser.getResolveTaskList().size());
+        assertSame(task, parser.getLastResolveTask());
+        reader.close();
+    }
+
+    public void test_error() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("{\"id\":1}"));
+        reader.startObject();
+        Exception error = null;
+        try {
+            reader.iterator(Model.class);
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+    }
+
+    public static class Node {
+        public int    id;
+        public Object outer;
+    }
+
+    public static class Model {
+        public int    id;
+        public String name;
+    }
+}
@@ -0,0 +1,119 @@
+package com.alibaba.json.bvt.parser.stream;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.TypeReference;
+import com.alibaba.fastjson.util.MappedFileReader;
+
+import junit.framework.TestCase;
+
+public class MappedFileParseTest extends TestCase {
+
+    private File file;
+    private List<Model> models;
+
+    protected void setUp() throws Exception {
+        models = new ArrayList<Model>();
+        for (int i = 0; i < 1000; ++i) {
+            Model model = new Model();
+            model.id = i;
+            model.name = "名称_" + i + "_😀";
+            models.add(model);
+        }
+
+        file = File.createTempFile("fastjson_mapped", ".json");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            JSON.writeJSONString(out, models);
+        } finally {
+            out.close();
+        }
+    }
+
+    protected void tearDown() throws Exception {
+        file.delete();
+    }
+
+    public void test_path() throws Exception {
+        List<Model> list = JSON.parseObject(file.toPath(), new TypeReference<List<Model>>() {}.getType());
+        assertModels(list);
+    }
+
+    public void test_channel() throws Exception {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            List<Model> list = JSON.parseObject(channel, new TypeReference<List<Model>>() {}.getType());
+            assertModels(list);
+            assertTrue(channel.isOpen());
+        } finally {
+            channel.close();
+        }
+    }
+
+    public void test_reader_small_window() throws Exception {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            // windows of 17 bytes split most multi byte sequences
+            JSONReader reader = new JSONReader(new MappedFileReader(channel, 17));
+            List<Model> list = new ArrayList<Model>();
+            reader.startArray();
+            while (reader.hasNext()) {
+                list.add(reader.readObject(Model.class));
+            }
+            reader.endArray();
+            reader.close();
+            assertModels(list);
+        } finally {
+            channel.close();
+        }
+    }
+
+    public void test_channel_position() throws Exception {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            channel.position(1);
+            MappedFileReader reader = new MappedFileReader(channel, 17);
+            char[] chars = new char[4];
+            assertEquals(4, reader.read(chars, 0, 4));
+            assertEquals("{\"id", new String(chars));
+            assertEquals(5, channel.position());
+
+            char[] rest = new char[1024 * 128];
+            while (reader.read(rest, 0, rest.length) != -1) {
+                // consume
+            }
+            reader.close();
+            assertEquals(channel.size(), channel.position());
+            assertTrue(channel.isOpen());
+        } finally {
+            channel.close();
+        }
+    }
+
+    public void test_reader_path() throws Exception {
+        JSONReader reader = new JSONReader(file.toPath());
+        List<Model> list = reader.readObject(new TypeReference<List<Model>>() {}.getType());
+        reader.close();
+        assertModels(list);
+    }
+
+    private void assertModels(List<Model> list) {
+        assertEquals(models.size(), list.size());
+        for (int i = 0; i < list.size(); ++i) {
+            assertEquals(i, list.get(i).id);
+            assertEquals(models.get(i).name, list.get(i).name);
+        }
+    }
+
+    public static class Model {
+        public int    id;
+        public String name;
+    }
+}
@@ -0,0 +1,152 @@
+package com.alibaba.json.bvt.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONPath;
+import com.alibaba.fastjson.JSONStructuralIndex;
+import com.alibaba.fastjson.JSONValidator;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+import junit.framework.TestCase;
+
+public class JSONStructuralIndexTest extends TestCase {
+
+    private final String text = "{\"id\":1001, \"name\":\"a,}\\\"b\", \"tags\":[\"x\",{\"k\":[1,2]}, -1.5e3], \"ok\":true, \"n\":null}";
+
+    public void test_navigate() throws Exception {
+        JSONStructuralIndex index = JSONStructuralIndex.of(text);
+        assertEquals('{', index.charAt(0));
+        assertEquals(index.size(), index.skip(0));
+        assertEquals(text.length(), index.end(0));
+
+        int tags = index.seekObjectToField(0, "tags");
+        assertEquals('[', index.charAt(tags));
+        assertEquals("[\"x\",{\"k\":[1,2]}, -1.5e3]", text.substring(index.position(tags), index.end(tags)));
+
+        int item = index.seekArrayToItem(tags, 2);
+        assertEquals("-1.5e3", text.substring(index.position(item), index.end(item)));
+        assertEquals(-1, index.seekArrayToItem(tags, 3));
+        assertEquals(-1, index.seekObjectToField(0, "none"));
+
+        assertEquals("a,}\"b", index.parse(index.seekObjectToField(0, "name")));
+        assertEquals(Integer.valueOf(1001), index.parseObject(index.seekObjectToField(0, "id"), Integer.class));
+    }
+
+    public void test_path() throws Exception {
+        JSONStructuralIndex index = JSONStructuralIndex.of(text);
+        assertEquals(1001, JSONPath.extractIndexed(index, "$.id"));
+        assertEquals("x", JSONPath.extractIndexed(index, "$.tags[0]"));
+        assertEquals(JSONArray.parseArray("[1,2]"), JSONPath.extractIndexed(index, "$.tags[1].k"));
+        assertEquals(2, JSONPath.extractIndexed(index, "$.tags[1].k[1]"));
+        assertEquals(3, JSONPath.extractIndexed(index, "$.tags.size()"));
+        assertEquals(Boolean.TRUE, JSONPath.extractIndexed(index, "$.ok"));
+        assertNull(JSONPath.extractIndexed(index, "$.none.x"));
+
+        assertEquals(JSONPath.extract(text, "$.tags[-1]"), JSONPath.extractIndexed(index, "$.tags[-1]"));
+    }
+
+    public void test_validate() throws Exception {
+        assertTrue(JSONValidator.from(JSONStructuralIndex.of(text)).validate());
+        assertEquals(JSONValidator.Type.Object, JSONValidator.from(JSONStructuralIndex.of(text)).getType());
+        assertEquals(JSONValidator.Type.Array, JSONValidator.from(JSONStructuralIndex.of("[]")).getType());
+        assertEquals(JSONValidator.Type.Value, JSONValidator.from(JSONStructuralIndex.of("-0.1e7")).getType());
+
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("{\"a\"}")).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("{a:1}")).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("[1,]")).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("[0.e7]")).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("[tru]")).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("")).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("1 2")).validate());
+        assertTrue(JSONValidator.from(JSONStructuralIndex.of("1 2")).setSupportMultiValue(true).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("[+1]")).validate());
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of("{\"a\":1,}")).validate());
+        assertTrue(JSONValidator.from(JSONStructuralIndex.of("{\"a\":[{},[]],\"b\":{\"c\":-1e+2}}")).validate());
+    }
+
+    public void test_validate_deep() throws Exception {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 100000; ++i) {
+            buf.append("[{\"a\":");
+        }
+        buf.append('1');
+        for (int i = 0; i < 100000; ++i) {
+            buf.append("}]");
+        }
+        assertTrue(JSONValidator.from(JSONStructuralIndex.of(buf.toString())).validate());
+
+        buf.setCharAt(5, ',');
+        assertFalse(JSONValidator.from(JSONStructuralIndex.of(buf.toString())).validate());
+    }
+
+    public void test_escaped_key() throws Exception {
+        JSONStructuralIndex index = JSONStructuralIndex.of("{\"a\\u0062\":1,\"c\":\"\\\\\"}");
+        assertEquals(1, index.parse(index.seekObjectToField(0, "ab")));
+        assertEquals("\\", index.parse(index.seekObjectToField(0, "c")));
+        assertEquals(-1, index.seekObjectToField(0, "a"));
+    }
+
+    public void test_parseArray_empty() throws Exception {
+        List<Model> list = JSON.parseArray(JSONStructuralIndex.of(" "), Model.class, ParserConfig.global, null, 4);
+        assertNull(list);
+        assertNull(JSON.parseArray(" ", Model.class, ParserConfig.global, null, 4));
+    }
+
+    public void test_unbalanced() throws Exception {
+        Exception error = null;
+        try {
+            JSONStructuralIndex.of("[1}");
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+
+        error = null;
+        try {
+            JSONStructuralIndex.of("{\"a\":\"b}");
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+    }
+
+    public void test_parallel() throws Exception {
+        List<Model> models = new ArrayList<Model>();
+        for (int i = 0; i < 10000; ++i) {
+            Model model = new Model();
+            model.id = i;
+            model.values = new int[] {i, i + 1};
+            models.add(model);
+        }
+        String text = JSON.toJSONString(models);
+        JSONStructuralIndex index = JSONStructuralIndex.of(text);
+
+        int[] ranges = index.splitArray(0, 1024);
+        assertTrue(ranges.length > 2);
+        assertEquals(1, ranges[0]);
+        assertEquals(text.length() - 1, ranges[ranges.length - 1]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Model> list = JSON.parseArray(index, Model.class, ParserConfig.global, executor, 4);
+            assertEquals(models.size(), list.size());
+            for (int i = 0; i < list.size(); ++i) {
+                assertEquals(i, list.get(i).id);
+                assertEquals(i + 1, list.get(i).values[1]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class Model {
+        public int id;
+        public int[] values;
+    }
+}
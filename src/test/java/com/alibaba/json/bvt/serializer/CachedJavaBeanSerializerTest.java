@@ -0,0 +1,157 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.serializer.CachedJavaBeanSerializer;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+
+import junit.framework.TestCase;
+
+public class CachedJavaBeanSerializerTest extends TestCase {
+
+    public void test_annotation() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        assertTrue(config.getObjectWriter(Currency.class) instanceof CachedJavaBeanSerializer);
+
+        Currency currency = new Currency("CNY", 2);
+        Order order = new Order();
+        order.currency = currency;
+        order.price = 10;
+
+        String expected = "{\"currency\":{\"code\":\"CNY\",\"digits\":2},\"price\":10}";
+        assertEquals(expected, JSON.toJSONString(order, config));
+
+        // the cached text is spliced in, an in place change is not seen until clear
+        currency.digits = 3;
+        assertEquals(expected, JSON.toJSONString(order, config));
+        ((CachedJavaBeanSerializer) config.getObjectWriter(Currency.class)).clear();
+        assertEquals("{\"currency\":{\"code\":\"CNY\",\"digits\":3},\"price\":10}", JSON.toJSONString(order, config));
+    }
+
+    public void test_features_isolated() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        Currency currency = new Currency("USD", 2);
+
+        assertEquals("{\"code\":\"USD\",\"digits\":2}", JSON.toJSONString(currency, config));
+        assertEquals("{'code':'USD','digits':2}", JSON.toJSONString(currency, config, SerializerFeature.UseSingleQuotes));
+        assertEquals("{\"code\":\"USD\",\"digits\":2}", JSON.toJSONString(currency, config));
+        assertEquals("{\"code\":\"USD\"}", JSON.toJSONString(currency, config,
+                new SerializeFilter[] { new SimplePropertyPreFilter("code") }));
+    }
+
+    public void test_reference() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        Currency currency = new Currency("EUR", 2);
+        List<Currency> list = new ArrayList<Currency>();
+        list.add(currency);
+        list.add(currency);
+
+        for (int i = 0; i < 2; ++i) {
+            assertEquals("[{\"code\":\"EUR\",\"digits\":2},{\"$ref\":\"$[0]\"}]", JSON.toJSONString(list, config));
+        }
+    }
+
+    public void test_nested_reference() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        config.setCacheSerialized(Holder.class, true);
+
+        Holder holder = new Holder();
+        holder.rate = new Rate();
+        holder.rate.value = 1;
+        List<Object> list = new ArrayList<Object>();
+        list.add(holder);
+        list.add(holder.rate);
+
+        String expected = "[{\"rate\":{\"value\":1.0}},{\"$ref\":\"$[0].rate\"}]";
+        for (int i = 0; i < 2; ++i) {
+            assertEquals(expected, JSON.toJSONString(list, config));
+        }
+
+        expected = "[{\"rate\":{\"value\":1.0}},{\"value\":1.0}]";
+        for (int i = 0; i < 2; ++i) {
+            assertEquals(expected, JSON.toJSONString(list, config, SerializerFeature.DisableCircularReferenceDetect));
+        }
+    }
+
+    public void test_register() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        config.setCacheSerialized(Rate.class, true);
+        assertTrue(config.getObjectWriter(Rate.class) instanceof CachedJavaBeanSerializer);
+
+        Rate rate = new Rate();
+        rate.time = new Date(0);
+        rate.value = 6.5;
+
+        String text = JSON.toJSONString(rate, config);
+        assertEquals(text, JSON.toJSONString(rate, config));
+        assertEquals(JSON.toJSONStringWithDateFormat(rate, "yyyy"),
+                     JSON.toJSONString(rate, config, new SerializeFilter[0], "yyyy", JSON.DEFAULT_GENERATE_FEATURE));
+
+        config.setCacheSerialized(Rate.class, false);
+        assertFalse(config.getObjectWriter(Rate.class) instanceof CachedJavaBeanSerializer);
+    }
+
+    public void test_size() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        CachedJavaBeanSerializer cached = new CachedJavaBeanSerializer(new JavaBeanSerializer(Rate.class), 2);
+        config.put(Rate.class, cached);
+
+        Rate rate = new Rate();
+        rate.value = 1;
+        Rate other = new Rate();
+        other.value = 2;
+
+        // caching the same instance again with other features replaces it
+        for (int i = 0; i < 3; ++i) {
+            JSON.toJSONString(rate, config, SerializerFeature.UseSingleQuotes);
+            JSON.toJSONString(rate, config);
+        }
+        assertEquals(1, cached.size());
+
+        JSON.toJSONString(other, config);
+        assertEquals(2, cached.size());
+
+        // both are still cached, an in place change is not seen
+        rate.value = 3;
+        other.value = 4;
+        assertEquals("{\"value\":1.0}", JSON.toJSONString(rate, config));
+        assertEquals("{\"value\":2.0}", JSON.toJSONString(other, config));
+    }
+
+    @JSONType(cacheSerialized = true)
+    public static class Currency {
+
+        public final String code;
+        public int          digits;
+
+        public Currency(String code, int digits) {
+            this.code = code;
+            this.digits = digits;
+        }
+    }
+
+    public static class Order {
+
+        public Currency currency;
+        public int      price;
+    }
+
+    public static class Holder {
+
+        public Rate rate;
+    }
+
+    public static class Rate {
+
+        public Date   time;
+        public double value;
+    }
+}
@@ -0,0 +1,128 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.ReferenceTracker;
+import com.alibaba.fastjson.serializer.SerialContext;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+
+import junit.framework.TestCase;
+
+public class ReferenceTrackerTest extends TestCase {
+
+    public void test_same_as_IdentityHashMap() throws Exception {
+        ReferenceTracker tracker = new ReferenceTracker();
+        IdentityHashMap<Object, SerialContext> expected = new IdentityHashMap<Object, SerialContext>();
+
+        List<Object> keys = new ArrayList<Object>();
+        for (int i = 0; i < 300; ++i) {
+            keys.add(new Object());
+        }
+
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; ++i) {
+            Object key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(key), tracker.remove(key));
+            } else {
+                SerialContext context = new SerialContext(null, key, i, 0, 0);
+                assertSame(expected.put(key, context), tracker.put(key, context));
+            }
+            assertEquals(expected.size(), tracker.size());
+        }
+
+        for (Object key : keys) {
+            assertSame(expected.get(key), tracker.get(key));
+            assertEquals(expected.containsKey(key), tracker.containsKey(key));
+        }
+
+        tracker.clear();
+        assertEquals(0, tracker.size());
+        assertNull(tracker.get(keys.get(0)));
+    }
+
+    public void test_reference_path() throws Exception {
+        Node root = new Node();
+        root.child = new Node();
+        root.child.child = root;
+        root.other = root.child;
+
+        for (int i = 0; i < 3; ++i) {
+            assertEquals("{\"child\":{\"child\":{\"$ref\":\"..\"}},\"other\":{\"$ref\":\"$.child\"}}",
+                         JSON.toJSONString(root));
+        }
+
+        List<Node> nodes = new ArrayList<Node>();
+        for (int i = 0; i < 100; ++i) {
+            nodes.add(new Node());
+        }
+        nodes.add(nodes.get(50));
+        String text = JSON.toJSONString(nodes);
+        assertTrue(text, text.endsWith(",{\"$ref\":\"$[50]\"}]"));
+    }
+
+    public void test_reused_serializer() throws Exception {
+        Node node = new Node();
+        List<Node> first = new ArrayList<Node>();
+        first.add(node);
+        List<Node> second = new ArrayList<Node>();
+        second.add(node);
+
+        SerializeWriter out = new SerializeWriter();
+        JSONSerializer serializer = new JSONSerializer(out);
+        serializer.write(first);
+        serializer.write(second);
+        assertEquals("[{}][{\"$ref\":\"$[0]\"}]", out.toString());
+
+        serializer.releaseReferences();
+        serializer.write(second);
+        assertEquals("[{}][{\"$ref\":\"$[0]\"}][{}]", out.toString());
+        out.close();
+    }
+
+    public void test_subclass_references() throws Exception {
+        Node node = new Node();
+        List<Node> list = new ArrayList<Node>();
+        list.add(node);
+        list.add(node);
+
+        SerializeWriter out = new SerializeWriter();
+        LegacySerializer serializer = new LegacySerializer(out);
+        serializer.write(list);
+        assertEquals("[{},{\"$ref\":\"$[0]\"}]", out.toString());
+        out.close();
+
+        // a subclass may still read the deprecated map
+        assertEquals("$[0]", serializer.referenceOf(node).toString());
+        assertEquals(2, serializer.referenceCount());
+
+        serializer.releaseReferences();
+        assertEquals(0, serializer.referenceCount());
+    }
+
+    public static class LegacySerializer extends JSONSerializer {
+
+        public LegacySerializer(SerializeWriter out) {
+            super(out);
+        }
+
+        SerialContext referenceOf(Object object) {
+            return references.get(object);
+        }
+
+        int referenceCount() {
+            return references == null ? 0 : references.size();
+        }
+    }
+
+    public static class Node {
+
+        public Node child;
+        public Node other;
+    }
+}
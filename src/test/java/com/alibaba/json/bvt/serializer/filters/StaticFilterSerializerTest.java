@@ -0,0 +1,131 @@
+package com.alibaba.json.bvt.serializer.filters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.serializer.Labels;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+import com.alibaba.fastjson.serializer.ValueFilter;
+import com.alibaba.fastjson.support.spring.PropertyPreFilters;
+
+import junit.framework.TestCase;
+
+public class StaticFilterSerializerTest extends TestCase {
+
+    public void test_includes() throws Exception {
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter("id", "child", "items");
+        for (int i = 0; i < 3; ++i) {
+            assertEquals("{\"child\":{\"id\":2,\"items\":[]},\"id\":1,\"items\":[{\"id\":3}]}",
+                         JSON.toJSONString(createModel(), filter));
+        }
+
+        filter.getIncludes().remove("child");
+        assertEquals("{\"id\":1,\"items\":[{\"id\":3}]}", JSON.toJSONString(createModel(), filter));
+    }
+
+    public void test_class_excludes() throws Exception {
+        PropertyPreFilters filters = new PropertyPreFilters();
+        filters.addFilter(Item.class).addExcludes("name");
+        filters.addFilter(Model.class).addExcludes("items", "secret");
+
+        assertEquals("{\"child\":{\"id\":2,\"name\":\"child\"},\"id\":1,\"name\":\"root\"}",
+                     JSON.toJSONString(createModel(), filters.toFilters()));
+    }
+
+    public void test_labels() throws Exception {
+        assertEquals("{\"child\":{\"id\":2},\"id\":1}",
+                     JSON.toJSONString(createModel(), Labels.excludes("admin", "detail")));
+    }
+
+    public void test_asm_disabled() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        config.setAsmEnable(false);
+        SerializeFilter[] filters = { new SimplePropertyPreFilter(Model.class, "id", "items") };
+
+        assertEquals(JSON.toJSONString(createModel(), filters),
+                     JSON.toJSONString(createModel(), config, filters));
+    }
+
+    public void test_max_level() throws Exception {
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter();
+        filter.setMaxLevel(1);
+        assertEquals("{\"child\":{},\"id\":1,\"items\":[{}],\"name\":\"root\",\"secret\":\"s1\"}",
+                     JSON.toJSONString(createModel(), filter));
+    }
+
+    public void test_reference() throws Exception {
+        Model model = createModel();
+        model.child = model;
+        assertEquals("{\"child\":{\"$ref\":\"@\"},\"id\":1}",
+                     JSON.toJSONString(model, new SimplePropertyPreFilter("id", "child")));
+    }
+
+    public void test_same_as_dynamic() throws Exception {
+        SerializeFilter[][] filterSets = { { new SimplePropertyPreFilter("id", "child", "items") },
+                { new SimplePropertyPreFilter(Item.class, "name") }, { Labels.includes("admin") },
+                { Labels.excludes("detail"), new SimplePropertyPreFilter("child", "name", "secret") } };
+
+        // a ValueFilter depends on the value, so the same set plus one goes through the per field filter calls
+        ValueFilter valueFilter = new ValueFilter() {
+
+            public Object process(Object object, String name, Object value) {
+                return value;
+            }
+        };
+
+        for (SerializeFilter[] filters : filterSets) {
+            SerializeFilter[] dynamicFilters = new SerializeFilter[filters.length + 1];
+            System.arraycopy(filters, 0, dynamicFilters, 0, filters.length);
+            dynamicFilters[filters.length] = valueFilter;
+
+            assertEquals(JSON.toJSONString(createModel(), dynamicFilters, SerializerFeature.WriteMapNullValue),
+                         JSON.toJSONString(createModel(), filters, SerializerFeature.WriteMapNullValue));
+            assertEquals(JSON.toJSONString(createModel(), dynamicFilters, SerializerFeature.SortField),
+                         JSON.toJSONString(createModel(), filters, SerializerFeature.SortField));
+        }
+    }
+
+    private static Model createModel() {
+        Model model = new Model();
+        model.id = 1;
+        model.name = "root";
+        model.secret = "s1";
+        model.child = new Model();
+        model.child.id = 2;
+        model.child.name = "child";
+        model.child.items = new ArrayList<Item>();
+        model.items = new ArrayList<Item>();
+        Item item = new Item();
+        item.id = 3;
+        item.name = "item";
+        model.items.add(item);
+        return model;
+    }
+
+    public static class Model {
+
+        public int        id;
+
+        @JSONField(label = "detail")
+        public String     name;
+
+        @JSONField(label = "admin")
+        public String     secret;
+
+        public Model      child;
+
+        @JSONField(label = "detail")
+        public List<Item> items;
+    }
+
+    public static class Item {
+
+        public int    id;
+        public String name;
+    }
+}
@@ -0,0 +1,66 @@
+package com.alibaba.json.bvt.support.hsf;
+
+import com.alibaba.fastjson.support.hsf.HSFJSONUtils;
+import com.alibaba.fastjson.support.hsf.MethodLocator;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+public class HSFJSONUtilsTest_5 extends TestCase {
+    private MethodLocator methodLocator = new MethodLocator() {
+        public Method findMethod(String[] types) {
+            try {
+                // a new copy of the method with new generic parameter types on every call
+                if (types != null && types.length == 1) {
+                    return HSFJSONUtilsTest_5.class.getMethod("f2", String[].class);
+                }
+                return HSFJSONUtilsTest_5.class.getMethod("f", List.class, Map.class);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    };
+
+    public void test_invoke_generic() throws Exception {
+        String json = "{\"argsTypes\":[\"java.util.List\",\"java.util.Map\"],"
+                + "\"argsObjs\":[[{\"value\":\"xxx\"}],{\"k\":{\"value\":\"yyy\"}}]}";
+
+        for (int i = 0; i < 3; ++i) {
+            invoke(json);
+        }
+
+        invoke("[[\"java.util.List\",\"java.util.Map\"],[[{\"value\":\"xxx\"}],{\"k\":{\"value\":\"yyy\"}}]]");
+    }
+
+    public void test_invoke_varargs() throws Exception {
+        String json = "[[\"java.lang.String[]\"],[\"a\",\"b\"]]";
+        for (int i = 0; i < 2; ++i) {
+            Object[] values = HSFJSONUtils.parseInvocationArguments(json, methodLocator);
+            assertEquals(1, values.length);
+            String[] items = (String[]) values[0];
+            assertEquals(2, items.length);
+            assertEquals("b", items[1]);
+        }
+    }
+
+    private void invoke(String json) {
+        Object[] values = HSFJSONUtils.parseInvocationArguments(json, methodLocator);
+        assertEquals(2, values.length);
+        assertEquals("xxx", ((List<Model>) values[0]).get(0).value);
+        assertEquals("yyy", ((Map<String, Model>) values[1]).get("k").value);
+    }
+
+    public static void f(List<Model> models, Map<String, Model> map) {
+
+    }
+
+    public static void f2(String... names) {
+
+    }
+
+    public static class Model {
+        public String value;
+    }
+}
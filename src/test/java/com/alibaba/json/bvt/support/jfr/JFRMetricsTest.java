@@ -0,0 +1,93 @@
+package com.alibaba.json.bvt.support.jfr;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.support.jfr.JFRMetrics;
+import com.alibaba.fastjson.util.HistogramMetrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.framework.TestCase;
+
+public class JFRMetricsTest extends TestCase {
+
+    public void test_events() throws Exception {
+        HistogramMetrics histogram = new HistogramMetrics();
+        JFRMetrics metrics = new JFRMetrics(0, histogram);
+        ParserConfig parserConfig = new ParserConfig();
+        parserConfig.setMetrics(metrics);
+        SerializeConfig serializeConfig = new SerializeConfig();
+        serializeConfig.setMetrics(metrics);
+
+        File file = File.createTempFile("fastjson", ".jfr");
+        Recording recording = new Recording();
+        try {
+            recording.enable("com.alibaba.fastjson.Parse");
+            recording.enable("com.alibaba.fastjson.Serialize");
+            recording.enable("com.alibaba.fastjson.CodecCreated");
+            recording.enable("com.alibaba.fastjson.AutoTypeCheck");
+            recording.start();
+
+            Model model = JSON.parseObject("{\"id\":1}", Model.class, parserConfig);
+            assertEquals("{\"id\":1}", JSON.toJSONString(model, serializeConfig));
+            try {
+                JSON.parseObject("{\"@type\":\"java.lang.Thread\"}", Object.class, parserConfig);
+                fail();
+            } catch (JSONException ex) {
+                // autoType is not supported
+            }
+
+            recording.stop();
+            recording.dump(file.toPath());
+        } finally {
+            recording.close();
+        }
+
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            Integer count = counts.get(name);
+            counts.put(name, count == null ? 1 : count + 1);
+
+            if (name.equals("com.alibaba.fastjson.Parse") && Model.class.getName().equals(event.getString("type"))) {
+                assertEquals(8, event.getInt("length"));
+            }
+            if (name.equals("com.alibaba.fastjson.AutoTypeCheck")) {
+                assertEquals("java.lang.Thread", event.getString("typeName"));
+                assertNull(event.getClass("type"));
+            }
+        }
+        file.delete();
+
+        assertEquals(Integer.valueOf(1), counts.get("com.alibaba.fastjson.Parse"));
+        assertEquals(Integer.valueOf(1), counts.get("com.alibaba.fastjson.Serialize"));
+        assertEquals(Integer.valueOf(2), counts.get("com.alibaba.fastjson.CodecCreated"));
+        assertEquals(Integer.valueOf(1), counts.get("com.alibaba.fastjson.AutoTypeCheck"));
+
+        // forwarded
+        assertEquals(1L, histogram.snapshot().getLongValue("autoTypeRejects"));
+    }
+
+    public void test_threshold() throws Exception {
+        HistogramMetrics histogram = new HistogramMetrics();
+        ParserConfig parserConfig = new ParserConfig();
+        parserConfig.setMetrics(new JFRMetrics(Long.MAX_VALUE, histogram));
+
+        JSON.parseObject("{\"id\":1}", Model.class, parserConfig);
+        assertEquals(1, histogram.getParseHistogram(Model.class).getCount());
+    }
+
+    public static class Model {
+
+        public int id;
+    }
+}
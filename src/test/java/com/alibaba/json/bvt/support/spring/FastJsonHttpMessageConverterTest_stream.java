@@ -0,0 +1,105 @@
+package com.alibaba.json.bvt.support.spring;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.support.spring.FastJsonHttpMessageConverter;
+import com.alibaba.fastjson.util.IOUtils;
+
+public class FastJsonHttpMessageConverterTest_stream extends TestCase {
+
+    public void test_content_length() throws Exception {
+        FastJsonHttpMessageConverter converter = new FastJsonHttpMessageConverter();
+        List<VO> list = list(100);
+
+        Output out = new Output();
+        converter.write(list, MediaType.APPLICATION_JSON, out);
+
+        byte[] expected = JSON.toJSONString(list).getBytes(IOUtils.UTF8);
+        assertEquals(expected.length, out.headers.getContentLength());
+        assertEquals(new String(expected, IOUtils.UTF8), new String(out.body.toByteArray(), IOUtils.UTF8));
+        assertEquals(1, out.writes);
+    }
+
+    public void test_chunked() throws Exception {
+        FastJsonHttpMessageConverter converter = new FastJsonHttpMessageConverter();
+        converter.getFastJsonConfig().setWriteContentLength(false);
+        List<VO> list = list(10000);
+
+        Output out = new Output();
+        converter.write(list, MediaType.APPLICATION_JSON, out);
+
+        assertEquals(-1, out.headers.getContentLength());
+        assertEquals(JSON.toJSONString(list), new String(out.body.toByteArray(), IOUtils.UTF8));
+        assertTrue(out.writes > 1);
+    }
+
+    public void test_encoded_length() throws Exception {
+        String[] texts = { "", "abc", "中文", "😀", "\uD800", "\uDC00x", "a\uD800\uD800b", "\uD83D" };
+        for (String text : texts) {
+            SerializeWriter writer = new SerializeWriter();
+            try {
+                writer.write(text);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                writer.writeToEx(out, IOUtils.UTF8);
+                assertEquals(text, out.size(), writer.getEncodedLength(IOUtils.UTF8));
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    private static List<VO> list(int size) {
+        List<VO> list = new ArrayList<VO>();
+        for (int i = 0; i < size; ++i) {
+            VO vo = new VO();
+            vo.id = i;
+            vo.name = "名字😀" + i;
+            list.add(vo);
+        }
+        return list;
+    }
+
+    private static class Output implements HttpOutputMessage {
+
+        final HttpHeaders           headers = new HttpHeaders();
+        final ByteArrayOutputStream body    = new ByteArrayOutputStream();
+        int                         writes;
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public OutputStream getBody() throws IOException {
+            return new OutputStream() {
+
+                public void write(int b) {
+                    writes++;
+                    body.write(b);
+                }
+
+                public void write(byte[] b, int off, int len) {
+                    writes++;
+                    body.write(b, off, len);
+                }
+            };
+        }
+    }
+
+    public static class VO {
+
+        public int    id;
+        public String name;
+    }
+}
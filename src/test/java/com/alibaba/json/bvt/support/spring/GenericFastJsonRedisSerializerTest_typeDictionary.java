@@ -0,0 +1,123 @@
+package com.alibaba.json.bvt.support.spring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.support.spring.GenericFastJsonRedisSerializer;
+import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.TypeDictionary;
+
+public class GenericFastJsonRedisSerializerTest_typeDictionary {
+
+    private final TypeDictionary dictionary = new TypeDictionary()
+            .register(1, Cart.class)
+            .register(2, Book.class)
+            .register(3, Pen.class);
+
+    @Test
+    public void test_round_trip() {
+        GenericFastJsonRedisSerializer serializer = new GenericFastJsonRedisSerializer(dictionary);
+
+        Cart cart = new Cart();
+        cart.items.add(new Book("fastjson", 10));
+        cart.items.add(new Pen("red"));
+
+        byte[] bytes = serializer.serialize(cart);
+        String text = new String(bytes, IOUtils.UTF8);
+        Assert.assertEquals("{\"@type\":\"#1\",\"items\":[{\"@type\":\"#2\",\"price\":10,\"title\":\"fastjson\"},"
+                + "{\"@type\":\"#3\",\"color\":\"red\"}]}", text);
+
+        Cart parsed = (Cart) serializer.deserialize(bytes);
+        Assert.assertEquals(2, parsed.items.size());
+        Assert.assertEquals("fastjson", ((Book) parsed.items.get(0)).title);
+        Assert.assertEquals("red", ((Pen) parsed.items.get(1)).color);
+
+        // values written before the dictionary are still read
+        Cart old = (Cart) serializer.deserialize(new GenericFastJsonRedisSerializer().serialize(cart));
+        Assert.assertEquals(2, old.items.size());
+    }
+
+    @Test(expected = SerializationException.class)
+    public void test_unregistered_id() {
+        new GenericFastJsonRedisSerializer(dictionary).deserialize("{\"@type\":\"#9\"}".getBytes(IOUtils.UTF8));
+    }
+
+    @Test
+    public void test_expect_class() {
+        ParserConfig config = new ParserConfig();
+        config.addAutoTypeCheckHandler(dictionary);
+
+        Object item = JSON.parseObject("{\"@type\":\"#3\",\"color\":\"blue\"}", Item.class, config);
+        Assert.assertEquals("blue", ((Pen) item).color);
+
+        try {
+            JSON.parseObject("{\"@type\":\"#1\"}", Item.class, config);
+            Assert.fail();
+        } catch (JSONException ex) {
+            // Cart is not an Item
+        }
+    }
+
+    @Test
+    public void test_register() {
+        TypeDictionary dictionary = new TypeDictionary().register(7, Book.class);
+        Assert.assertEquals("#7", dictionary.getTypeName(Book.class));
+        Assert.assertSame(Book.class, dictionary.getType("#7"));
+        Assert.assertNull(dictionary.getType(Book.class.getName()));
+
+        try {
+            dictionary.register(7, Pen.class);
+            Assert.fail();
+        } catch (JSONException ex) {
+            // id in use
+        }
+        try {
+            dictionary.register(8, Book.class);
+            Assert.fail();
+        } catch (JSONException ex) {
+            // class in use
+        }
+    }
+
+    public interface Item {
+
+    }
+
+    public static class Cart {
+
+        public List<Item> items = new ArrayList<Item>();
+    }
+
+    public static class Book implements Item {
+
+        public String title;
+        public int    price;
+
+        public Book() {
+        }
+
+        public Book(String title, int price) {
+            this.title = title;
+            this.price = price;
+        }
+    }
+
+    public static class Pen implements Item {
+
+        public String color;
+
+        public Pen() {
+        }
+
+        public Pen(String color) {
+            this.color = color;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.alibaba.json.bvt.util;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.util.BufferPool;
+import com.alibaba.fastjson.util.StripedBufferPool;
+
+import junit.framework.TestCase;
+
+public class BufferPoolTest extends TestCase {
+
+    public void test_sizeClasses() throws Exception {
+        StripedBufferPool pool = new StripedBufferPool(4, 1024 * 64, 1024 * 1024);
+        assertEquals(1024 * 64, pool.getMaxLength());
+
+        assertEquals(1024, pool.leaseChars(0).length);
+        assertEquals(1024, pool.leaseChars(1024).length);
+        assertEquals(2048, pool.leaseChars(1025).length);
+        assertEquals(1024 * 64, pool.leaseBytes(1024 * 64).length);
+        assertEquals(1024 * 64 + 1, pool.leaseBytes(1024 * 64 + 1).length);
+
+        char[] chars = pool.leaseChars(3000);
+        assertEquals(4096, chars.length);
+        pool.releaseChars(chars);
+        assertSame(chars, pool.leaseChars(2049));
+
+        // a buffer grown by 1.5 serves the class below its length
+        char[] grown = new char[3073];
+        pool.releaseChars(grown);
+        assertSame(grown, pool.leaseChars(2048));
+
+        pool.releaseChars(new char[100]);
+        pool.releaseChars(new char[1024 * 64 + 1]);
+        assertEquals(0L, pool.snapshot().getLongValue("pooledBytes"));
+    }
+
+    public void test_bounded() throws Exception {
+        StripedBufferPool pool = new StripedBufferPool(1, 1024 * 64, 1024 * 64);
+
+        // 2 slots per stripe, the 64k chars class only fits one buffer
+        byte[][] bytes = new byte[3][];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = pool.leaseBytes(1024);
+        }
+        for (int i = 0; i < bytes.length; ++i) {
+            pool.releaseBytes(bytes[i]);
+        }
+        pool.releaseChars(new char[1024 * 64]);
+        pool.releaseChars(new char[1024 * 64]);
+
+        JSONObject snapshot = pool.snapshot();
+        JSONObject bytes1k = snapshot.getJSONArray("bytes").getJSONObject(0);
+        assertEquals(1024, bytes1k.getIntValue("length"));
+        assertEquals(2, bytes1k.getIntValue("capacity"));
+        assertEquals(2, bytes1k.getIntValue("pooled"));
+        assertEquals(3, bytes1k.getIntValue("misses"));
+        assertEquals(1, bytes1k.getIntValue("drops"));
+
+        JSONObject chars64k = snapshot.getJSONArray("chars").getJSONObject(6);
+        assertEquals(1024 * 64, chars64k.getIntValue("length"));
+        assertEquals(1, chars64k.getIntValue("capacity"));
+        assertEquals(1, chars64k.getIntValue("pooled"));
+        assertEquals(1, chars64k.getIntValue("drops"));
+
+        assertEquals(2048 + 1024 * 128, snapshot.getLongValue("pooledBytes"));
+
+        pool.clear();
+        assertEquals(0L, pool.snapshot().getLongValue("pooledBytes"));
+    }
+
+    public void test_concurrent() throws Exception {
+        final StripedBufferPool pool = new StripedBufferPool(4, 1024 * 64, 1024 * 1024);
+        final Set<char[]> leased = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<char[], Boolean>()));
+        final AtomicInteger shared = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(8);
+
+        for (int t = 0; t < 8; ++t) {
+            new Thread() {
+
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10000; ++i) {
+                            char[] chars = pool.leaseChars(1024 * (1 + i % 4));
+                            if (!leased.add(chars)) {
+                                shared.incrementAndGet();
+                            }
+                            leased.remove(chars);
+                            pool.releaseChars(chars);
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }.start();
+        }
+        latch.await();
+
+        assertEquals(0, shared.get());
+    }
+
+    public void test_serializeWriter() throws Exception {
+        BufferPool global = BufferPool.getGlobal();
+        StripedBufferPool pool = new StripedBufferPool(1, 1024 * 1024, 1024 * 1024 * 4);
+        BufferPool.setGlobal(pool);
+        try {
+            SerializeWriter out = new SerializeWriter();
+            for (int i = 0; i < 1000; ++i) {
+                out.write("0123456789");
+            }
+            String text = out.toString();
+            out.close();
+
+            // the 2k, 4k, 8k and 16k buffers of the growing writer are all handed back
+            JSONObject snapshot = pool.snapshot();
+            for (int i = 1; i <= 4; ++i) {
+                assertEquals(1, snapshot.getJSONArray("chars").getJSONObject(i).getIntValue("pooled"));
+            }
+
+            assertEquals(text, JSON.parse(JSON.toJSONBytes(text)));
+            assertEquals(text, JSON.parseObject(new ByteArrayInputStream(JSON.toJSONBytes(text)), String.class));
+        } finally {
+            BufferPool.setGlobal(global);
+        }
+    }
+}
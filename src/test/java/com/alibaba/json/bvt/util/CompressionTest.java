@@ -0,0 +1,158 @@
+package com.alibaba.json.bvt.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.TypeReference;
+import com.alibaba.fastjson.util.BufferPool;
+import com.alibaba.fastjson.util.Compression;
+import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.StripedBufferPool;
+
+import junit.framework.TestCase;
+
+public class CompressionTest extends TestCase {
+
+    public void test_round_trip() throws Exception {
+        List<Item> items = items(20000);
+        String text = JSON.toJSONString(items);
+
+        for (Compression compression : Compression.values()) {
+            byte[] bytes = JSON.toJSONBytes(items, compression);
+            assertTrue(compression.name(), bytes.length < text.length() / 2);
+
+            List<Item> parsed = JSON.parseObject(bytes, compression, new TypeReference<List<Item>>() {}.getType());
+            assertEquals(compression.name(), text, JSON.toJSONString(parsed));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(bytes.length, JSON.writeJSONString(out, compression, items));
+            Object tree = JSON.parseObject(new ByteArrayInputStream(out.toByteArray()), compression, Object.class);
+            assertEquals(compression.name(), JSON.parse(text), tree);
+        }
+    }
+
+    public void test_small() throws Exception {
+        for (Compression compression : Compression.values()) {
+            byte[] bytes = JSON.toJSONBytes("😀", compression);
+            assertEquals("😀", JSON.parseObject(bytes, compression, String.class));
+
+            JSONObject object = JSON.parseObject(JSON.toJSONBytes(new JSONObject(), compression), compression,
+                                                 JSONObject.class);
+            assertEquals(0, object.size());
+        }
+    }
+
+    public void test_interop() throws Exception {
+        String text = JSON.toJSONString(items(1000));
+        byte[] utf8 = text.getBytes(IOUtils.UTF8);
+
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOut = new GZIPOutputStream(gzip);
+        gzipOut.write(utf8);
+        gzipOut.close();
+        assertEquals(JSON.parse(text), JSON.parseObject(gzip.toByteArray(), Compression.GZIP, Object.class));
+        // the fallback for gzip in parseObject of bytes
+        assertEquals(JSON.parse(text), JSON.parseObject(gzip.toByteArray(), Object.class));
+
+        ByteArrayOutputStream deflate = new ByteArrayOutputStream();
+        DeflaterOutputStream deflateOut = new DeflaterOutputStream(deflate);
+        deflateOut.write(utf8);
+        deflateOut.close();
+        assertEquals(JSON.parse(text), JSON.parseObject(deflate.toByteArray(), Compression.DEFLATE, Object.class));
+
+        byte[] bytes = JSON.toJSONBytes(items(1000), Compression.GZIP);
+        assertEquals(text, IOUtils.readAll(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(bytes)), IOUtils.UTF8)));
+        bytes = JSON.toJSONBytes(items(1000), Compression.DEFLATE);
+        assertEquals(text, IOUtils.readAll(new InputStreamReader(
+                new InflaterInputStream(new ByteArrayInputStream(bytes)), IOUtils.UTF8)));
+    }
+
+    public void test_corrupt() throws Exception {
+        for (Compression compression : Compression.values()) {
+            byte[] bytes = JSON.toJSONBytes(items(1000), compression);
+            bytes[bytes.length / 2] ^= 0x55;
+            bytes[bytes.length / 2 + 1] ^= 0x55;
+            try {
+                JSON.parseObject(bytes, compression, Object.class);
+                fail(compression.name());
+            } catch (JSONException ex) {
+                // corrupt data or invalid text
+            }
+
+            try {
+                JSON.parseObject(Arrays.copyOf(bytes, bytes.length / 3), compression, Object.class);
+                fail(compression.name());
+            } catch (JSONException ex) {
+                // truncated
+            }
+        }
+
+        byte[] bytes = JSON.toJSONBytes(items(10), Compression.GZIP);
+        bytes[bytes.length - 5] ^= 1;
+        assertNull(JSON.parseObject(bytes, Object.class));
+    }
+
+    public void test_failed_write() throws Exception {
+        BufferPool global = BufferPool.getGlobal();
+        StripedBufferPool pool = new StripedBufferPool(1, 1024 * 1024, 1024 * 1024 * 4);
+        BufferPool.setGlobal(pool);
+        try {
+            OutputStream out = new OutputStream() {
+
+                public void write(int b) throws IOException {
+                    throw new IOException("client gone");
+                }
+            };
+            List<Item> items = items(1000);
+            for (Compression compression : new Compression[] { Compression.LZ, Compression.DEFLATE }) {
+                try {
+                    JSON.writeJSONString(out, compression, items);
+                    fail(compression.name());
+                } catch (IOException ex) {
+                    // the client went away
+                }
+            }
+
+            // the 64k lz block and its 128k output buffer, and the 8k deflate buffer are handed back
+            JSONObject snapshot = pool.snapshot();
+            assertEquals(1, snapshot.getJSONArray("bytes").getJSONObject(6).getIntValue("pooled"));
+            assertEquals(1, snapshot.getJSONArray("bytes").getJSONObject(7).getIntValue("pooled"));
+            assertEquals(1, snapshot.getJSONArray("bytes").getJSONObject(3).getIntValue("pooled"));
+        } finally {
+            BufferPool.setGlobal(global);
+        }
+    }
+
+    private static List<Item> items(int count) {
+        List<Item> items = new ArrayList<Item>(count);
+        for (int i = 0; i < count; ++i) {
+            Item item = new Item();
+            item.id = i;
+            item.name = (i % 3 == 0 ? "中文😀" : "item") + i;
+            item.price = i * 0.25;
+            items.add(item);
+        }
+        return items;
+    }
+
+    public static class Item {
+
+        public int    id;
+        public String name;
+        public double price;
+    }
+}
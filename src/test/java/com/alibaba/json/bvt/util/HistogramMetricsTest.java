@@ -0,0 +1,91 @@
+package com.alibaba.json.bvt.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.util.HistogramMetrics;
+
+import junit.framework.TestCase;
+
+public class HistogramMetricsTest extends TestCase {
+
+    private HistogramMetrics metrics = new HistogramMetrics();
+    private ParserConfig     parserConfig = new ParserConfig();
+    private SerializeConfig  serializeConfig = new SerializeConfig();
+
+    protected void setUp() throws Exception {
+        parserConfig.setMetrics(metrics);
+        serializeConfig.setMetrics(metrics);
+    }
+
+    public void test_parse() throws Exception {
+        String text = "{\"id\":1,\"name\":\"a\"}";
+        for (int i = 0; i < 3; ++i) {
+            Model model = JSON.parseObject(text, Model.class, parserConfig);
+            assertEquals("a", model.name);
+        }
+
+        HistogramMetrics.Histogram histogram = metrics.getParseHistogram(Model.class);
+        assertEquals(3, histogram.getCount());
+        assertEquals(text.length() * 3, histogram.getTotalLength());
+        assertTrue(histogram.getMaxNanos() > 0);
+        assertTrue(histogram.getPercentile(50) <= histogram.getPercentile(100));
+
+        JSON.parseObject("{\"date\":\"2018\"}", Formatted.class, parserConfig);
+
+        JSONObject snapshot = metrics.snapshot();
+        JSONObject codecs = snapshot.getJSONObject("codecs");
+        assertEquals(1L, codecs.get("deserializer.asm"));
+        assertEquals(1L, codecs.get("deserializer.reflect.jsonField:date"));
+        assertTrue(snapshot.getLongValue("deserializerCacheHits") > 0);
+        assertTrue(snapshot.getLongValue("deserializerCacheMisses") > 0);
+    }
+
+    public void test_serialize() throws Exception {
+        List<Model> list = new ArrayList<Model>();
+        for (int i = 0; i < 20000; ++i) {
+            Model model = new Model();
+            model.id = i;
+            model.name = "name" + i;
+            list.add(model);
+        }
+
+        String text = JSON.toJSONString(list, serializeConfig);
+
+        HistogramMetrics.Histogram histogram = metrics.getSerializeHistogram(ArrayList.class);
+        assertEquals(1, histogram.getCount());
+        assertEquals(text.length(), histogram.getTotalLength());
+
+        JSONObject snapshot = metrics.snapshot();
+        assertEquals(1L, snapshot.getJSONObject("codecs").get("serializer.asm"));
+        assertTrue(snapshot.getLongValue("bufferExpansions") > 0);
+        assertTrue(snapshot.getLongValue("bufferMaxCapacity") >= text.length());
+        assertTrue(snapshot.getLongValue("serializerCacheHits") > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getJSONObject("serialize").size());
+    }
+
+    public void test_disabled() throws Exception {
+        parserConfig.setMetrics(null);
+        JSON.parseObject("{\"id\":1}", Model.class, parserConfig);
+        assertNull(metrics.getParseHistogram(Model.class));
+    }
+
+    public static class Model {
+
+        public int    id;
+        public String name;
+    }
+
+    public static class Formatted {
+
+        @JSONField(format = "yyyy")
+        public java.util.Date date;
+    }
+}
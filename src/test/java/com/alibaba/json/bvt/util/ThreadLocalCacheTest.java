@@ -1,95 +1,47 @@
 package com.alibaba.json.bvt.util;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-
+import com.alibaba.fastjson.util.ThreadLocalBufferPool;
 import com.alibaba.fastjson.util.ThreadLocalCache;
 import org.junit.Assert;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.serializer.SerializeWriter;
-import com.alibaba.fastjson.util.IOUtils;
-
 import junit.framework.TestCase;
 
 public class ThreadLocalCacheTest extends TestCase {
 
     public void test() throws Exception {
-
-        clearChars();
-        Assert.assertEquals(allocateChars(0).length, 1024 * 64);
-        Assert.assertEquals(allocateChars(1024).length, 1024 * 64);
-        Assert.assertEquals(allocateChars(2048).length, 1024 * 64);
-        Assert.assertEquals(allocateChars(0).length, 1024 * 64);
-        Assert.assertEquals(allocateChars(1024 * 128).length, 1024 * 128);
-        Assert.assertEquals(allocateChars(0).length, 1024 * 64);
-
-        clearChars();
-        Assert.assertEquals(allocateChars(2048).length, 1024 * 64);
-
-        clearChars();
-        Assert.assertEquals(allocateChars(1024 * 256).length, 1024 * 256);
-        Assert.assertEquals(allocateChars(0).length, 1024 * 64);
-        clearChars();
-
-    }
-    
-    static char[] allocateChars(int length) throws Exception {
-        Method method = JSON.class.getDeclaredMethod("allocateChars", int.class);
-        method.setAccessible(true);
-        return (char[]) method.invoke(null, length);
-    }
-    
-    public static void clearChars() throws Exception {
-        Field field = JSON.class.getDeclaredField("charsLocal");
-        field.setAccessible(true);
-        
-        ThreadLocal<char[]> charsLocal = (ThreadLocal<char[]>) field.get(null);
-        charsLocal.set(null);
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(1024 * 128);
+
+        char[] chars = pool.leaseChars(0);
+        Assert.assertEquals(1024, chars.length);
+        pool.releaseChars(chars);
+        Assert.assertSame(chars, pool.leaseChars(1024));
+        Assert.assertEquals(2048, pool.leaseChars(1025).length);
+        pool.releaseChars(chars);
+        pool.releaseChars(new char[512]);
+        Assert.assertSame(chars, pool.leaseChars(0));
+
+        char[] large = pool.leaseChars(1024 * 256);
+        Assert.assertEquals(1024 * 256, large.length);
+        pool.releaseChars(large);
+        Assert.assertNotSame(large, pool.leaseChars(0));
+
+        pool.releaseChars(chars);
+        pool.clear();
+        Assert.assertNotSame(chars, pool.leaseChars(0));
     }
 
     public void testBytes() throws Exception {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(1024 * 128);
 
-        clearBytes();
-        Assert.assertEquals(getBytes(0).length, 8192);
-        Assert.assertEquals(getBytes(1024).length, 8192);
-        Assert.assertEquals(getBytes(8192 * 2).length, 8192 * 2);
-        Assert.assertEquals(getBytes(0).length, 8192);
-        Assert.assertSame(getBytes(0), getBytes(1204));
-        Assert.assertNotSame(getBytes(9000), getBytes(9000));
-
-        clearBytes();
-        Assert.assertEquals(getBytes(2048).length, 8192);
-
-        clearBytes();
-        Assert.assertEquals(getBytes(1024 * 256).length, 1024 * 256);
-        Assert.assertEquals(getBytes(0).length, 8192);
-        clearBytes();
+        byte[] bytes = pool.leaseBytes(8192);
+        Assert.assertEquals(8192, bytes.length);
+        pool.releaseBytes(bytes);
+        Assert.assertSame(bytes, pool.leaseBytes(1204));
+        Assert.assertNotSame(pool.leaseBytes(9000), pool.leaseBytes(9000));
 
-    }
-    
-    public static byte[] getBytes(int length) throws Exception {
-        Field field = SerializeWriter.class.getDeclaredField("bytesBufLocal");
-        field.setAccessible(true);
-        ThreadLocal<byte[]> bytesBufLocal = (ThreadLocal<byte[]>) field.get(null);
-        
-        byte[] bytes = bytesBufLocal.get();
-
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
-        }
-        
-        return bytes.length < length //
-            ? new byte[length] //
-            : bytes;
-    }
-    
-    public static void clearBytes() throws Exception {
-        Field field = SerializeWriter.class.getDeclaredField("bytesBufLocal");
-        field.setAccessible(true);
-        ThreadLocal<byte[]> bytesBufLocal = (ThreadLocal<byte[]>) field.get(null);
-        bytesBufLocal.set(null);
+        pool.releaseBytes(bytes);
+        Assert.assertEquals(8192 * 2, pool.leaseBytes(8192 * 2).length);
+        Assert.assertSame(bytes, pool.leaseBytes(0));
     }
 
     public void test_chars() throws Exception {
@@ -97,7 +49,7 @@ public class ThreadLocalCacheTest extends TestCase {
         ThreadLocalCache.getChars(10);
         ThreadLocalCache.getChars(20);
         ThreadLocalCache.getChars(30);
-        clearChars();
+        ThreadLocalCache.clearChars();
         ThreadLocalCache.getChars(10);
         ThreadLocalCache.getChars(10);
         ThreadLocalCache.getChars(20);
@@ -113,7 +65,7 @@ public class ThreadLocalCacheTest extends TestCase {
         ThreadLocalCache.getBytes(10);
         ThreadLocalCache.getBytes(20);
         ThreadLocalCache.getBytes(30);
-        clearBytes();
+        ThreadLocalCache.clearBytes();
         ThreadLocalCache.getBytes(10);
         ThreadLocalCache.getBytes(10);
         ThreadLocalCache.getBytes(20);
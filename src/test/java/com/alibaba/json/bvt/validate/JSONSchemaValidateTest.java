@@ -0,0 +1,115 @@
+package com.alibaba.json.bvt.validate;
+
+import java.io.ByteArrayInputStream;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONSchema;
+import com.alibaba.fastjson.JSONStructuralIndex;
+import com.alibaba.fastjson.JSONValidator;
+import com.alibaba.fastjson.util.TypeUtils;
+
+import junit.framework.TestCase;
+
+public class JSONSchemaValidateTest extends TestCase {
+
+    private final JSONSchema schema = JSONSchema.parseSchema("{"
+            + "\"type\":\"object\","
+            + "\"required\":[\"id\",\"items\"],"
+            + "\"additionalProperties\":false,"
+            + "\"properties\":{"
+            + "  \"id\":{\"type\":\"integer\",\"minimum\":1},"
+            + "  \"name\":{\"type\":[\"string\",\"null\"],\"minLength\":2,\"maxLength\":8},"
+            + "  \"status\":{\"enum\":[\"open\",\"closed\"]},"
+            + "  \"code\":{\"type\":\"string\",\"pattern\":\"^[A-Z]{3}$\"},"
+            + "  \"items\":{\"type\":\"array\",\"minItems\":1,\"items\":{"
+            + "    \"type\":\"object\",\"required\":[\"price\"],"
+            + "    \"properties\":{\"price\":{\"type\":\"number\",\"exclusiveMinimum\":0}}"
+            + "  }}"
+            + "}}");
+
+    public void test_valid() throws Exception {
+        String json = "{\"id\":1,\"name\":\"\\u4e2d\\u6587\",\"status\":\"open\",\"code\":\"ABC\",\"items\":[{\"price\":1.5},{\"price\":2}]}";
+        JSONValidator validator = JSONValidator.from(json).setSchema(schema);
+        assertTrue(validator.validate());
+        assertNull(validator.getViolationPath());
+        assertEquals(JSONValidator.Type.Object, validator.getType());
+
+        assertTrue(JSONValidator.fromUtf8(json.getBytes("UTF-8")).setSchema(schema).validate());
+        assertTrue(JSONValidator.fromUtf8(new ByteArrayInputStream(json.getBytes("UTF-8"))).setSchema(schema).validate());
+        assertTrue(JSONValidator.from(JSONStructuralIndex.of(json)).setSchema(schema).validate());
+        assertTrue(schema.isValid("{\"id\":2.0,\"name\":null,\"items\":[{\"price\":1e2}]}"));
+    }
+
+    public void test_violations() throws Exception {
+        assertViolation("{\"items\":[{\"price\":1}]}", "$", "required property 'id' missing");
+        assertViolation("{\"id\":0,\"items\":[{\"price\":1}]}", "$.id", null);
+        assertViolation("{\"id\":1.5,\"items\":[{\"price\":1}]}", "$.id", null);
+        assertViolation("{\"id\":\"1\",\"items\":[{\"price\":1}]}", "$.id", null);
+        assertViolation("{\"id\":1,\"name\":\"a\",\"items\":[{\"price\":1}]}", "$.name", null);
+        assertViolation("{\"id\":1,\"status\":\"x\",\"items\":[{\"price\":1}]}", "$.status", "value not in enum");
+        assertViolation("{\"id\":1,\"code\":\"abc\",\"items\":[{\"price\":1}]}", "$.code", null);
+        assertViolation("{\"id\":1,\"items\":[]}", "$.items", null);
+        assertViolation("{\"id\":1,\"items\":[{\"price\":1},{\"price\":0}]}", "$.items[1].price", null);
+        assertViolation("{\"id\":1,\"items\":[{\"price\":1},{}]}", "$.items[1]", null);
+        assertViolation("{\"id\":1,\"other\":true,\"items\":[{\"price\":1}]}", "$.other", "additional property not allowed");
+        assertViolation("[]", "$", null);
+    }
+
+    public void test_name_hash_collision() throws Exception {
+        String declared = "\u530b\u682c\u5694\u565d\u6000";
+        String crafted = "\u5ded\u5a54\u58d9\u6748\u8c20";
+        assertEquals(TypeUtils.fnv1a_64(declared), TypeUtils.fnv1a_64(crafted));
+
+        JSONSchema schema = JSONSchema.parseSchema("{\"required\":[\"" + declared + "\"],\"additionalProperties\":false,"
+                + "\"properties\":{\"" + declared + "\":{\"type\":\"integer\"}}}");
+        assertTrue(schema.isValid("{\"" + declared + "\":1}"));
+
+        // a colliding name is an undeclared property, it neither matches the schema of the declared one nor fills required
+        JSONValidator validator = JSONValidator.from("{\"" + crafted + "\":1}").setSchema(schema);
+        assertFalse(validator.validate());
+        assertEquals("additional property not allowed", validator.getViolationMessage());
+        assertFalse(JSONValidator.fromUtf8(("{\"" + crafted + "\":1}").getBytes("UTF-8")).setSchema(schema).validate());
+    }
+
+    public void test_utf8_name() throws Exception {
+        JSONSchema schema = JSONSchema.parseSchema("{\"required\":[\"名称\"],\"properties\":{\"名称\":{\"maxLength\":2}}}");
+        assertTrue(JSONValidator.fromUtf8("{\"名称\":\"中文\"}".getBytes("UTF-8")).setSchema(schema).validate());
+
+        JSONValidator validator = JSONValidator.fromUtf8("{\"名称\":\"中文字\"}".getBytes("UTF-8")).setSchema(schema);
+        assertFalse(validator.validate());
+        assertEquals("$.名称", validator.getViolationPath());
+    }
+
+    public void test_utf8_mixed_escapes() throws Exception {
+        JSONSchema schema = JSONSchema.parseSchema("{\"enum\":[\"\u00e9\u20acx\u00e9\"]}");
+        assertTrue(JSONValidator.fromUtf8("\"\\u00e9\u20acx\u00e9\"".getBytes("UTF-8")).setSchema(schema).validate());
+        assertTrue(JSONValidator.fromUtf8("\"\u00e9\\u20acx\\u00e9\"".getBytes("UTF-8")).setSchema(schema).validate());
+        assertFalse(JSONValidator.fromUtf8("\"\u00e9\\u20acx\\u00e8\"".getBytes("UTF-8")).setSchema(schema).validate());
+    }
+
+    public void test_syntax_error() throws Exception {
+        JSONValidator validator = JSONValidator.from("{\"id\":1,").setSchema(schema);
+        assertFalse(validator.validate());
+        assertNull(validator.getViolationPath());
+    }
+
+    public void test_unsupported_keyword() throws Exception {
+        Exception error = null;
+        try {
+            JSONSchema.parseSchema("{\"oneOf\":[]}");
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+    }
+
+    private void assertViolation(String json, String path, String message) {
+        JSONValidator validator = JSONValidator.from(json).setSchema(schema);
+        assertFalse(json, validator.validate());
+        assertEquals(json, path, validator.getViolationPath());
+        assertNotNull(validator.getViolationMessage());
+        if (message != null) {
+            assertEquals(message, validator.getViolationMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.alibaba.json.test.benchmark.jmh;
+
+import java.io.File;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * Runs the benchmarks of this package with the gc profiler for allocation rates, and writes the results as JSON to
+ * target/jmh/fastjson-VERSION.json, to be compared between releases, e.g. with jmh.morethan.io.
+ * <p>
+ * Arguments are JMH command line options and override the defaults, for example
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes:DEPENDENCIES com.alibaba.json.test.benchmark.jmh.BenchmarkRunner \
+ *     EishayBenchmark -f 1 -rff target/jmh/baseline.json
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            File dir = new File("target/jmh");
+            dir.mkdirs();
+            builder.result(new File(dir, "fastjson-" + JSON.VERSION + ".json").getPath());
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
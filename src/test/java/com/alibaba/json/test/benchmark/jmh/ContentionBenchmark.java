@@ -0,0 +1,76 @@
+package com.alibaba.json.test.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.json.test.benchmark.encode.EishayEncode;
+
+import data.media.MediaContent;
+
+/**
+ * Eishay encode and decode from several threads, sharing the global configs and their codec caches, and from
+ * threads with a config each. The groups mix encoding and decoding threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContentionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        MediaContent mediaContent = EishayEncode.mediaContent;
+        String       text         = JSON.toJSONString(mediaContent);
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+
+        SerializeConfig serializeConfig = new SerializeConfig();
+        ParserConfig    parserConfig    = new ParserConfig();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String encodeShared(Shared shared) {
+        return JSON.toJSONString(shared.mediaContent);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MediaContent decodeShared(Shared shared) {
+        return JSON.parseObject(shared.text, MediaContent.class);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String encodePerThreadConfig(Shared shared, PerThread perThread) {
+        return JSON.toJSONString(shared.mediaContent, perThread.serializeConfig);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MediaContent decodePerThreadConfig(Shared shared, PerThread perThread) {
+        return JSON.parseObject(shared.text, MediaContent.class, perThread.parserConfig);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public String mixedEncode(Shared shared) {
+        return JSON.toJSONString(shared.mediaContent);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public MediaContent mixedDecode(Shared shared) {
+        return JSON.parseObject(shared.text, MediaContent.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.alibaba.json.test.benchmark.jmh;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+/**
+ * Date heavy payloads, as millis, in the default format and in a custom format.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DateBenchmark {
+
+    static final String FORMAT      = "yyyy-MM-dd HH:mm:ss";
+    static final Type   EVENTS_TYPE = new TypeReference<List<Event>>() {}.getType();
+
+    List<Event>         events;
+    String              millisText;
+    String              formattedText;
+
+    @Setup
+    public void setup() {
+        long time = 1500000000000L;
+        events = new ArrayList<Event>();
+        for (int i = 0; i < 100; ++i) {
+            Event event = new Event();
+            event.id = i;
+            event.created = new Date(time + i * 3600000L);
+            event.updated = new Date(time + i * 7200000L);
+            event.local = LocalDateTime.of(2017, 7, 14, 2, 40, i % 60);
+            events.add(event);
+        }
+        millisText = JSON.toJSONString(events);
+        formattedText = JSON.toJSONStringWithDateFormat(events, FORMAT);
+    }
+
+    @Benchmark
+    public String encodeMillis() {
+        return JSON.toJSONString(events);
+    }
+
+    @Benchmark
+    public String encodeISO8601() {
+        return JSON.toJSONString(events, SerializerFeature.UseISO8601DateFormat);
+    }
+
+    @Benchmark
+    public String encodeFormat() {
+        return JSON.toJSONStringWithDateFormat(events, FORMAT);
+    }
+
+    @Benchmark
+    public List<Event> decodeMillis() {
+        return JSON.parseObject(millisText, EVENTS_TYPE);
+    }
+
+    @Benchmark
+    public List<Event> decodeFormat() {
+        return JSON.parseObject(formattedText, EVENTS_TYPE);
+    }
+
+    public static class Event {
+
+        public int           id;
+        public Date          created;
+        public Date          updated;
+        public LocalDateTime local;
+    }
+}
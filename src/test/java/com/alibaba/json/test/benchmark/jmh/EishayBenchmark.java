@@ -0,0 +1,59 @@
+package com.alibaba.json.test.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.json.test.benchmark.encode.EishayEncode;
+
+import data.media.MediaContent;
+
+/**
+ * Eishay media content encode and decode, String and UTF-8 bytes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class EishayBenchmark {
+
+    MediaContent mediaContent;
+    String       text;
+    byte[]       bytes;
+
+    @Setup
+    public void setup() {
+        mediaContent = EishayEncode.mediaContent;
+        text = JSON.toJSONString(mediaContent);
+        bytes = JSON.toJSONBytes(mediaContent);
+    }
+
+    @Benchmark
+    public String encode() {
+        return JSON.toJSONString(mediaContent);
+    }
+
+    @Benchmark
+    public byte[] encodeToBytes() {
+        return JSON.toJSONBytes(mediaContent);
+    }
+
+    @Benchmark
+    public MediaContent decode() {
+        return JSON.parseObject(text, MediaContent.class);
+    }
+
+    @Benchmark
+    public MediaContent decodeBytes() {
+        return JSON.parseObject(bytes, MediaContent.class);
+    }
+
+    @Benchmark
+    public void decodeTree(Blackhole bh) {
+        bh.consume(JSON.parseObject(text));
+    }
+}
@@ -0,0 +1,73 @@
+package com.alibaba.json.test.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.NameFilter;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+import com.alibaba.fastjson.serializer.ValueFilter;
+import com.alibaba.json.test.benchmark.encode.EishayEncode;
+
+import data.media.MediaContent;
+
+/**
+ * Eishay encode with serialize filters, which take the asm serializer off its fast path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+    MediaContent                  mediaContent = EishayEncode.mediaContent;
+
+    final SimplePropertyPreFilter preFilter    = new SimplePropertyPreFilter();
+    final NameFilter              nameFilter   = new NameFilter() {
+
+        public String process(Object object, String name, Object value) {
+            return name.toUpperCase();
+        }
+    };
+    final ValueFilter             valueFilter  = new ValueFilter() {
+
+        public Object process(Object object, String name, Object value) {
+            return value instanceof String ? ((String) value).trim() : value;
+        }
+    };
+
+    @Setup
+    public void setup() {
+        preFilter.getExcludes().add("copyright");
+        preFilter.getExcludes().add("bitrate");
+    }
+
+    @Benchmark
+    public String none() {
+        return JSON.toJSONString(mediaContent);
+    }
+
+    @Benchmark
+    public String propertyPreFilter() {
+        return JSON.toJSONString(mediaContent, preFilter);
+    }
+
+    @Benchmark
+    public String nameFilter() {
+        return JSON.toJSONString(mediaContent, nameFilter);
+    }
+
+    @Benchmark
+    public String valueFilter() {
+        return JSON.toJSONString(mediaContent, valueFilter);
+    }
+
+    @Benchmark
+    public String filters() {
+        return JSON.toJSONString(mediaContent, new SerializeFilter[] {preFilter, nameFilter, valueFilter});
+    }
+}
@@ -0,0 +1,50 @@
+package com.alibaba.json.test.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONPath;
+import com.alibaba.json.test.benchmark.JSONPathBenchmarkTest;
+
+/**
+ * JSONPath eval on a parsed tree, read which parses the whole text and extract which scans the text.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JSONPathBenchmark {
+
+    @Param({"$.expensive", "$.store.bicycle.color", "$.store.book[2].title"})
+    String   path;
+
+    String   text;
+    Object   root;
+    JSONPath compiled;
+
+    @Setup
+    public void setup() {
+        text = JSONPathBenchmarkTest.json2;
+        root = JSON.parse(text);
+        compiled = JSONPath.compile(path);
+    }
+
+    @Benchmark
+    public Object eval() {
+        return compiled.eval(root);
+    }
+
+    @Benchmark
+    public Object read() {
+        return JSONPath.read(text, path);
+    }
+
+    @Benchmark
+    public Object extract() {
+        return JSONPath.extract(text, path);
+    }
+}
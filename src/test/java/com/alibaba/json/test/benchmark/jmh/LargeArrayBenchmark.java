@@ -0,0 +1,92 @@
+package com.alibaba.json.test.benchmark.jmh;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+/**
+ * Large arrays of numbers and beans, which grow the SerializeWriter buffer past its thread local size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class LargeArrayBenchmark {
+
+    static final Type ITEMS_TYPE = new TypeReference<List<Item>>() {}.getType();
+
+    @Param({"1000", "100000"})
+    int          size;
+
+    int[]        ints;
+    double[]     doubles;
+    List<Item>   items;
+    String       intsText;
+    String       doublesText;
+    String       itemsText;
+
+    @Setup
+    public void setup() {
+        ints = new int[size];
+        doubles = new double[size];
+        items = new ArrayList<Item>(size);
+        for (int i = 0; i < size; ++i) {
+            ints[i] = i * 31;
+            doubles[i] = i * 0.37;
+
+            Item item = new Item();
+            item.id = i;
+            item.name = "item" + i;
+            item.price = i * 0.25;
+            items.add(item);
+        }
+        intsText = JSON.toJSONString(ints);
+        doublesText = JSON.toJSONString(doubles);
+        itemsText = JSON.toJSONString(items);
+    }
+
+    @Benchmark
+    public String encodeInts() {
+        return JSON.toJSONString(ints);
+    }
+
+    @Benchmark
+    public String encodeDoubles() {
+        return JSON.toJSONString(doubles);
+    }
+
+    @Benchmark
+    public String encodeItems() {
+        return JSON.toJSONString(items);
+    }
+
+    @Benchmark
+    public int[] decodeInts() {
+        return JSON.parseObject(intsText, int[].class);
+    }
+
+    @Benchmark
+    public double[] decodeDoubles() {
+        return JSON.parseObject(doublesText, double[].class);
+    }
+
+    @Benchmark
+    public List<Item> decodeItems() {
+        return JSON.parseObject(itemsText, ITEMS_TYPE);
+    }
+
+    public static class Item {
+
+        public int    id;
+        public String name;
+        public double price;
+    }
+}